@@ -110,6 +110,9 @@ public interface Exchange {
     String FILE_PATH            = "CamelFilePath";
     String FILE_PARENT          = "CamelFileParent";
     String FILE_LAST_MODIFIED   = "CamelFileLastModified";
+    String FILE_LOCK_FILE_ACQUIRED  = "CamelFileLockFileAcquired";
+    String FILE_LOCK_FILE_NAME      = "CamelFileLockFileName";
+    String FILE_LOCK_EXCLUSIVE_LOCK = "CamelFileLockExclusiveLock";
     String FILTER_MATCHED       = "CamelFilterMatched";
 
     String GROUPED_EXCHANGE = "CamelGroupedExchange";
@@ -27,7 +27,8 @@ import javax.activation.DataHandler;
  * represents an inbound or outbound message as part of an {@link Exchange}.
  * <p/>
  * See {@link org.apache.camel.impl.DefaultMessage DefaultMessage} for how headers
- * is represented in Camel using a {@link org.apache.camel.util.CaseInsensitiveMap CaseInsensitiveMap}.
+ * is represented in Camel using a {@link org.apache.camel.util.CaseInsensitiveHeaderMap CaseInsensitiveHeaderMap},
+ * which is copied on write when a message is copied, such as when an exchange is handed off to another thread.
  *
  * @version 
  */
@@ -148,7 +149,11 @@ public interface Message {
      * Returns all of the headers associated with the message.
      * <p/>
      * See {@link org.apache.camel.impl.DefaultMessage DefaultMessage} for how headers
-     * is represented in Camel using a {@link org.apache.camel.util.CaseInsensitiveMap CaseInsensitiveMap}.
+     * is represented in Camel using a {@link org.apache.camel.util.CaseInsensitiveHeaderMap CaseInsensitiveHeaderMap}.
+     * <p/>
+     * When the message is copied the copy shares the headers with this message until either of them changes
+     * its headers, which then copies the headers first (copy on write). The headers of a message must therefore
+     * not be changed while the message is being copied, but once copied the messages can be used by different threads.
      * <p/>
      * <b>Important:</b> If you want to walk the returned {@link Map} and fetch all the keys and values, you should use
      * the {@link java.util.Map#entrySet()} method, which ensure you get the keys in the original case.
@@ -38,7 +38,10 @@ import org.apache.camel.Producer;
 import org.apache.camel.component.bean.BeanInvocation;
 import org.apache.camel.component.properties.PropertiesComponent;
 import org.apache.camel.impl.ExpressionAdapter;
+import org.apache.camel.language.bean.BeanExpression;
 import org.apache.camel.language.bean.BeanLanguage;
+import org.apache.camel.language.tokenizer.DelimitedTokenIterator;
+import org.apache.camel.language.tokenizer.XmlElementTokenIterator;
 import org.apache.camel.model.language.MethodCallExpression;
 import org.apache.camel.spi.Language;
 import org.apache.camel.util.ExchangeHelper;
@@ -173,6 +176,14 @@ public final class ExpressionBuilder {
      * @param ognl  methods to invoke on the header in a simple OGNL syntax
      */
     public static Expression headersOgnlExpression(final String ognl) {
+        // split into first name
+        List<String> methods = OgnlHelper.splitOgnl(ognl);
+        // remove any OGNL operators so we got the pure key name
+        final String key = OgnlHelper.removeOperators(methods.get(0));
+        // the remainder is the rest of the ognl without the key
+        final String remainder = ObjectHelper.after(ognl, key);
+        final BeanExpression ognlExpression = createOgnlExpression(remainder);
+
         return new ExpressionAdapter() {
             public Object evaluate(Exchange exchange) {
                 // try with full name first
@@ -181,18 +192,11 @@ public final class ExpressionBuilder {
                     return header;
                 }
 
-                // split into first name
-                List<String> methods = OgnlHelper.splitOgnl(ognl);
-                // remove any OGNL operators so we got the pure key name
-                String key = OgnlHelper.removeOperators(methods.get(0));
-
                 header = exchange.getIn().getHeader(key);
                 if (header == null) {
                     return null;
                 }
-                // the remainder is the rest of the ognl without the key
-                String remainder = ObjectHelper.after(ognl, key);
-                return new MethodCallExpression(header, remainder).evaluate(exchange);
+                return invokeOgnl(exchange, header, remainder, ognlExpression);
             }
 
             @Override
@@ -332,6 +336,7 @@ public final class ExpressionBuilder {
      * @param ognl  methods to invoke on the body in a simple OGNL syntax
      */
     public static Expression exchangeExceptionOgnlExpression(final String ognl) {
+        final BeanExpression ognlExpression = createOgnlExpression(ognl);
         return new ExpressionAdapter() {
             public Object evaluate(Exchange exchange) {
                 Object exception = exchange.getException();
@@ -342,7 +347,7 @@ public final class ExpressionBuilder {
                 if (exception == null) {
                     return null;
                 }
-                return new MethodCallExpression(exception, ognl).evaluate(exchange);
+                return invokeOgnl(exchange, exception, ognl, ognlExpression);
             }
 
             @Override
@@ -660,13 +665,14 @@ public final class ExpressionBuilder {
      * @param ognl  methods to invoke on the body in a simple OGNL syntax
      */
     public static Expression bodyOgnlExpression(final String ognl) {
+        final BeanExpression ognlExpression = createOgnlExpression(ognl);
         return new ExpressionAdapter() {
             public Object evaluate(Exchange exchange) {
                 Object body = exchange.getIn().getBody();
                 if (body == null) {
                     return null;
                 }
-                return new MethodCallExpression(body, ognl).evaluate(exchange);
+                return invokeOgnl(exchange, body, ognl, ognlExpression);
             }
 
             @Override
@@ -676,6 +682,26 @@ public final class ExpressionBuilder {
         };
     }
 
+    /**
+     * Creates a reusable expression for the OGNL method chain, so the OGNL is only parsed once
+     *
+     * @return the expression, or <tt>null</tt> if the method is not a valid OGNL expression
+     */
+    private static BeanExpression createOgnlExpression(String ognl) {
+        if (OgnlHelper.isInvalidValidOgnlExpression(ognl) || !OgnlHelper.isValidOgnlExpression(ognl)) {
+            return null;
+        }
+        // the bean is given when invoking
+        return new BeanExpression((Object) null, ognl);
+    }
+
+    private static Object invokeOgnl(Exchange exchange, Object bean, String ognl, BeanExpression ognlExpression) {
+        if (ognlExpression != null) {
+            return ognlExpression.invokeOgnl(exchange, bean);
+        }
+        return new MethodCallExpression(bean, ognl).evaluate(exchange);
+    }
+
     /**
      * Returns the expression for the exchanges inbound message body converted
      * to the given type
@@ -1032,6 +1058,47 @@ public final class ExpressionBuilder {
         };
     }
 
+    /**
+     * Returns a tokenize expression which will tokenize the value with the given token by
+     * scanning the bytes of the value in a streaming fashion, grouping the given number of tokens together
+     *
+     * @see DelimitedTokenIterator
+     */
+    public static Expression streamingTokenizeExpression(final Expression expression,
+                                                         final String token, final int group) {
+        return new ExpressionAdapter() {
+            public Object evaluate(Exchange exchange) {
+                Object value = expression.evaluate(exchange, Object.class);
+                return new DelimitedTokenIterator(exchange, value, token, group);
+            }
+
+            @Override
+            public String toString() {
+                return "streamingTokenize(" + expression + ", " + token + (group > 1 ? ", " + group : "") + ")";
+            }
+        };
+    }
+
+    /**
+     * Returns a tokenize expression which will tokenize the value into the XML fragments of the
+     * elements with the given tag name, without parsing the value into a DOM
+     *
+     * @see XmlElementTokenIterator
+     */
+    public static Expression tokenizeXMLExpression(final Expression expression, final String tagName) {
+        return new ExpressionAdapter() {
+            public Object evaluate(Exchange exchange) {
+                Object value = expression.evaluate(exchange, Object.class);
+                return new XmlElementTokenIterator(exchange, value, tagName);
+            }
+
+            @Override
+            public String toString() {
+                return "tokenizeXML(" + expression + ", " + tagName + ")";
+            }
+        };
+    }
+
     /**
      * Returns a sort expression which will sort the expression with the given comparator.
      * <p/>
@@ -169,6 +169,32 @@ public class ValueBuilder implements Expression {
         return new ValueBuilder(newExp);
     }
 
+    /**
+     * Tokenizes this expression using the given token by scanning the bytes in a streaming fashion,
+     * which is faster than {@link #tokenize(String)} for big files and streams
+     */
+    public ValueBuilder streamingTokenize(String token) {
+        return streamingTokenize(token, 1);
+    }
+
+    /**
+     * Tokenizes this expression using the given token by scanning the bytes in a streaming fashion,
+     * grouping the given number of tokens together
+     */
+    public ValueBuilder streamingTokenize(String token, int group) {
+        Expression newExp = ExpressionBuilder.streamingTokenizeExpression(expression, token, group);
+        return new ValueBuilder(newExp);
+    }
+
+    /**
+     * Tokenizes this expression into the XML fragments of the elements with the given tag name,
+     * without parsing the XML into a DOM
+     */
+    public ValueBuilder tokenizeXML(String tagName) {
+        Expression newExp = ExpressionBuilder.tokenizeXMLExpression(expression, tagName);
+        return new ValueBuilder(newExp);
+    }
+
     /**
      * Tokenizes the string conversion of this expression using the given
      * regular expression
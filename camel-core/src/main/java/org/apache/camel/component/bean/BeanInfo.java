@@ -29,6 +29,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.camel.Attachments;
 import org.apache.camel.Body;
@@ -47,6 +48,7 @@ import org.apache.camel.builder.ExpressionBuilder;
 import org.apache.camel.language.LanguageAnnotation;
 import org.apache.camel.spi.Registry;
 import org.apache.camel.util.CastUtils;
+import org.apache.camel.util.ConcurrentLRUCache;
 import org.apache.camel.util.IntrospectionSupport;
 import org.apache.camel.util.ObjectHelper;
 import org.slf4j.Logger;
@@ -64,6 +66,7 @@ public class BeanInfo {
     private static final transient Logger LOG = LoggerFactory.getLogger(BeanInfo.class);
     private static final String CGLIB_CLASS_SEPARATOR = "$$";
     private static final List<Method> EXCLUDED_METHODS = new ArrayList<Method>();
+    private static final int METHOD_CHOICE_CACHE_SIZE = 1000;
     private final CamelContext camelContext;
     private final Class<?> type;
     private final ParameterMappingStrategy strategy;
@@ -74,6 +77,49 @@ public class BeanInfo {
     private List<MethodInfo> operationsWithCustomAnnotation = new ArrayList<MethodInfo>();
     private List<MethodInfo> operationsWithHandlerAnnotation = new ArrayList<MethodInfo>();
     private Map<Method, MethodInfo> methodMap = new HashMap<Method, MethodInfo>();
+    // cache of the methods chosen at runtime, so we only have to resolve overloaded methods once per body type
+    private final ConcurrentMap<MethodChoiceKey, MethodInfo> methodChoiceCache
+        = new ConcurrentLRUCache<MethodChoiceKey, MethodInfo>(METHOD_CHOICE_CACHE_SIZE);
+
+    /**
+     * Key for the method choice cache which holds the details of the exchange the chosen method depends upon.
+     */
+    private static final class MethodChoiceKey {
+        private final String name;
+        private final Class<?> bodyType;
+        private final boolean outCapable;
+        private final boolean exception;
+        private final int hashCode;
+
+        private MethodChoiceKey(String name, Class<?> bodyType, boolean outCapable, boolean exception) {
+            this.name = name;
+            this.bodyType = bodyType;
+            this.outCapable = outCapable;
+            this.exception = exception;
+            int hash = name != null ? name.hashCode() : 0;
+            hash = 31 * hash + (bodyType != null ? bodyType.hashCode() : 0);
+            hash = 31 * hash + (outCapable ? 1 : 0);
+            this.hashCode = 31 * hash + (exception ? 1 : 0);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof MethodChoiceKey)) {
+                return false;
+            }
+            MethodChoiceKey that = (MethodChoiceKey) o;
+            return bodyType == that.bodyType && outCapable == that.outCapable && exception == that.exception
+                    && ObjectHelper.equal(name, that.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
 
     static {
         // exclude all java.lang.Object methods as we dont want to invoke them
@@ -365,6 +411,29 @@ public class BeanInfo {
      * @throws AmbiguousMethodCallException is thrown if cannot chose method due to ambiguous
      */
     protected MethodInfo chooseMethod(Object pojo, Exchange exchange, String name) throws AmbiguousMethodCallException {
+        Object body = exchange.getIn().getBody();
+        boolean exception = ExpressionBuilder.exchangeExceptionExpression().evaluate(exchange, Exception.class) != null;
+        MethodChoiceKey key = new MethodChoiceKey(name, body != null ? body.getClass() : null,
+                exchange.getPattern().isOutCapable(), exception);
+
+        MethodInfo answer = methodChoiceCache.get(key);
+        if (answer != null) {
+            if (LOG.isTraceEnabled()) {
+                LOG.trace("Using previously chosen method: " + answer);
+            }
+            return answer;
+        }
+
+        answer = doChooseMethod(exchange, name);
+        // only cache the choice if it was not decided by converting the body, as that depends on the
+        // actual value of the body, where as all the other rules only depends on the key
+        if (answer != null && exchange.getIn().getBody() == body) {
+            methodChoiceCache.putIfAbsent(key, answer);
+        }
+        return answer;
+    }
+
+    private MethodInfo doChooseMethod(Exchange exchange, String name) throws AmbiguousMethodCallException {
         // @Handler should be select first
         // then any single method that has a custom @annotation
         // or any single method that has a match parameter type that matches the Exchange payload
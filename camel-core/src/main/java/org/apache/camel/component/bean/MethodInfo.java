@@ -328,10 +328,18 @@ public class MethodInfo {
             LOG.trace("Creating parameters expression for " + size + " parameters");
         }
 
+        // resolve the expressions and the types of the parameters up front, so we only have to
+        // evaluate the expressions and convert the values when invoking the method
         final Expression[] expressions = new Expression[size];
+        final Class<?>[] types = new Class<?>[size];
+        final Class<?>[] wrapperTypes = new Class<?>[size];
         for (int i = 0; i < size; i++) {
-            Expression parameterExpression = parameters.get(i).getExpression();
+            ParameterInfo parameter = parameters.get(i);
+            Expression parameterExpression = parameter.getExpression();
             expressions[i] = parameterExpression;
+            types[i] = parameter.getType();
+            // use the wrapper type for primitives so we can check if the value is already of the expected type
+            wrapperTypes[i] = ObjectHelper.convertPrimitiveTypeToWrapperType(parameter.getType());
             if (LOG.isTraceEnabled()) {
                 LOG.trace("Parameter #" + i + " has expression: " + parameterExpression);
             }
@@ -342,8 +350,9 @@ public class MethodInfo {
                 Object[] answer = new Object[size];
                 Object body = exchange.getIn().getBody();
                 boolean multiParameterArray = false;
-                if (exchange.getIn().getHeader(Exchange.BEAN_MULTI_PARAMETER_ARRAY) != null) {
-                    multiParameterArray = exchange.getIn().getHeader(Exchange.BEAN_MULTI_PARAMETER_ARRAY, Boolean.class);
+                Object multiParameterHeader = exchange.getIn().getHeader(Exchange.BEAN_MULTI_PARAMETER_ARRAY);
+                if (multiParameterHeader != null) {
+                    multiParameterArray = exchange.getContext().getTypeConverter().convertTo(Boolean.class, multiParameterHeader);
                 }
                 for (int i = 0; i < size; i++) {
                     Object value = null;
@@ -354,18 +363,21 @@ public class MethodInfo {
                         if (expression != null) {
                             // use object first to avoid type conversion so we know if there is a value or not
                             Object result = expression.evaluate(exchange, Object.class);
-                            if (result != null) {
+                            if (result != null && wrapperTypes[i].isInstance(result)) {
+                                // the value is already of the expected type so no need to convert it
+                                value = result;
+                            } else if (result != null) {
                                 // we got a value now try to convert it to the expected type
                                 try {
-                                    value = exchange.getContext().getTypeConverter().mandatoryConvertTo(parameters.get(i).getType(), result);
-                                    if (LOG.isTraceEnabled()) {
-                                        LOG.trace("Parameter #" + i + " evaluated as: " + value + " type: " + ObjectHelper.type(value));
-                                    }
+                                    value = exchange.getContext().getTypeConverter().mandatoryConvertTo(types[i], result);
                                 } catch (NoTypeConversionAvailableException e) {
                                     throw ObjectHelper.wrapCamelExecutionException(exchange, e);
                                 }
-                            } else {
-                                if (LOG.isTraceEnabled()) {
+                            }
+                            if (LOG.isTraceEnabled()) {
+                                if (value != null) {
+                                    LOG.trace("Parameter #" + i + " evaluated as: " + value + " type: " + ObjectHelper.type(value));
+                                } else {
                                     LOG.trace("Parameter #" + i + " evaluated as null");
                                 }
                             }
@@ -18,10 +18,11 @@ package org.apache.camel.component.bean;
 
 import java.lang.reflect.Method;
 import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.camel.CamelContext;
 import org.apache.camel.util.CastUtils;
-import org.apache.camel.util.LRUCache;
+import org.apache.camel.util.ConcurrentLRUCache;
 
 /**
  * Represents a cache of {@link MethodInfo} objects to avoid the expense of introspection for each
@@ -48,11 +49,10 @@ public class MethodInfoCache {
         this.methodCache = methodCache;
     }
 
-    public synchronized MethodInfo getMethodInfo(Method method) {
-        MethodInfo answer = methodCache.get(method);
+    public MethodInfo getMethodInfo(Method method) {
+        MethodInfo answer = get(methodCache, method);
         if (answer == null) {
-            answer = createMethodInfo(method);
-            methodCache.put(method, answer);
+            answer = put(methodCache, method, createMethodInfo(method));
         }
         return answer;
     }
@@ -63,11 +63,10 @@ public class MethodInfoCache {
         return info.getMethodInfo(method);
     }
 
-    protected synchronized BeanInfo getBeanInfo(Class<?> declaringClass) {
-        BeanInfo beanInfo = classCache.get(declaringClass);
+    protected BeanInfo getBeanInfo(Class<?> declaringClass) {
+        BeanInfo beanInfo = get(classCache, declaringClass);
         if (beanInfo == null) {
-            beanInfo = createBeanInfo(declaringClass);
-            classCache.put(declaringClass, beanInfo);
+            beanInfo = put(classCache, declaringClass, createBeanInfo(declaringClass));
         }
         return beanInfo;
     }
@@ -77,7 +76,7 @@ public class MethodInfoCache {
     }
 
     protected static Map<Object, Object> createLruCache(int size) {
-        return new LRUCache<Object, Object>(size);
+        return new ConcurrentLRUCache<Object, Object>(size);
     }
 
     private static Map<Class<?>, BeanInfo> createClassCache(int size) {
@@ -87,4 +86,29 @@ public class MethodInfoCache {
     private static Map<Method, MethodInfo> createMethodCache(int size) {
         return CastUtils.cast(createLruCache(size));
     }
+
+    private static <K, V> V get(Map<K, V> cache, K key) {
+        if (cache instanceof ConcurrentMap) {
+            return cache.get(key);
+        }
+        // custom caches may not be thread safe
+        synchronized (cache) {
+            return cache.get(key);
+        }
+    }
+
+    private static <K, V> V put(Map<K, V> cache, K key, V value) {
+        if (value == null) {
+            return null;
+        }
+        if (cache instanceof ConcurrentMap) {
+            // another thread may have introspected the same key concurrently, if so use its value
+            V existing = ((ConcurrentMap<K, V>) cache).putIfAbsent(key, value);
+            return existing != null ? existing : value;
+        }
+        synchronized (cache) {
+            cache.put(key, value);
+            return value;
+        }
+    }
 }
@@ -17,7 +17,12 @@
 package org.apache.camel.component.file;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.camel.Processor;
 import org.apache.camel.util.FileUtil;
@@ -25,10 +30,22 @@ import org.apache.camel.util.ObjectHelper;
 
 /**
  * File consumer.
+ * <p/>
+ * When the endpoint is configured with <tt>watch=true</tt> the consumer keeps track of the directories it has
+ * polled, and only lists a directory again when its timestamp has changed, or when files from the last listing
+ * are still pending to be consumed. Files which were rejected by the include, exclude, filter or idempotent
+ * checks are not evaluated again. A full scan is done periodically as reconciliation, to pickup changes
+ * which are not reflected in the timestamp of the directory, such as files modified in place.
  */
 public class FileConsumer extends GenericFileConsumer<File> {
 
+    // some file systems has a timestamp granularity of 2 seconds
+    private static final long TIMESTAMP_GRANULARITY = 2000;
+
     private String endpointPath;
+    private final Map<String, WatchedDirectory> watchedDirectories = new HashMap<String, WatchedDirectory>();
+    private long lastReconcile;
+    private boolean reconcile;
 
     public FileConsumer(GenericFileEndpoint<File> endpoint, Processor processor, GenericFileOperations<File> operations) {
         super(endpoint, processor, operations);
@@ -51,6 +68,10 @@ public class FileConsumer extends GenericFileConsumer<File> {
             return true;
         }
 
+        if (getEndpoint().isWatch()) {
+            return pollWatchedDirectory(fileName, directory, fileList);
+        }
+
         if (log.isTraceEnabled()) {
             log.trace("Polling directory: " + directory.getPath());
         }
@@ -113,6 +134,130 @@ public class FileConsumer extends GenericFileConsumer<File> {
         return true;
     }
 
+    protected boolean pollWatchedDirectory(String fileName, File directory, List<GenericFile<File>> fileList) {
+        // get the timestamp before listing so any changes while listing is detected on the next poll
+        long lastModified = directory.lastModified();
+        WatchedDirectory previous = reconcile ? null : watchedDirectories.get(fileName);
+
+        if (previous != null && !previous.pending && previous.lastModified == lastModified) {
+            if (log.isTraceEnabled()) {
+                log.trace("Directory unchanged since last poll: " + directory.getPath());
+            }
+            // the sub directories has their own timestamps so they must still be polled
+            for (String subDirectory : previous.subDirectories) {
+                if (!pollDirectory(subDirectory, fileList)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        if (log.isTraceEnabled()) {
+            log.trace("Polling changed directory: " + directory.getPath());
+        }
+        WatchedDirectory current = new WatchedDirectory(lastModified);
+        // files added within the granularity of the timestamp may not change it, so list again on next poll
+        current.pending = System.currentTimeMillis() - lastModified < TIMESTAMP_GRANULARITY;
+        watchedDirectories.put(fileName, current);
+
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return true;
+        }
+
+        for (File file : files) {
+            if (!canPollMoreFiles(fileList)) {
+                current.pending = true;
+                return false;
+            }
+
+            String name = file.getName();
+            // only names rejected by the name alone is remembered as the other checks may accept the file later
+            if (previous != null && previous.rejected.contains(name)) {
+                current.rejected.add(name);
+                continue;
+            }
+
+            GenericFile<File> gf = asGenericFile(endpointPath, file);
+            if (file.isDirectory()) {
+                if (endpoint.isRecursive() && isValidFile(gf, true)) {
+                    String subDirectory = fileName + File.separator + name;
+                    current.subDirectories.add(subDirectory);
+                    if (!pollDirectory(subDirectory, fileList)) {
+                        current.pending = true;
+                        return false;
+                    }
+                } else if (isRejectedByName(name, true)) {
+                    current.rejected.add(name);
+                }
+            } else if (isValidFile(gf, false)) {
+                // the file is pending until its consumed which changes the directory, or it is rejected
+                current.pending = true;
+                if (isInProgress(gf)) {
+                    if (log.isTraceEnabled()) {
+                        log.trace("Skipping as file is already in progress: " + gf.getFileName());
+                    }
+                } else {
+                    if (log.isTraceEnabled()) {
+                        log.trace("Adding valid file: " + file);
+                    }
+                    fileList.add(gf);
+                }
+            } else if (isRejectedByName(name, false)) {
+                current.rejected.add(name);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Whether the file is rejected by its name alone, which is the only rejection that cannot change
+     * while the file is in the directory.
+     * <p/>
+     * Rejections by filters, the done file, the file name expression or the idempotent repository depend on
+     * other state, so those files are evaluated again when the directory is changed.
+     *
+     * @param name        the file name
+     * @param isDirectory whether the file is a directory or a file
+     * @return <tt>true</tt> if the file is rejected by its name
+     */
+    private boolean isRejectedByName(String name, boolean isDirectory) {
+        if (name.startsWith(".") || name.endsWith(FileComponent.DEFAULT_LOCK_FILE_POSTFIX)) {
+            return true;
+        }
+        if (isDirectory) {
+            return !endpoint.isRecursive();
+        }
+        if (ObjectHelper.isNotEmpty(endpoint.getExclude()) && name.matches(endpoint.getExclude())) {
+            return true;
+        }
+        return ObjectHelper.isNotEmpty(endpoint.getInclude()) && !name.matches(endpoint.getInclude());
+    }
+
+    @Override
+    protected boolean prePollCheck() throws Exception {
+        if (getEndpoint().isWatch()) {
+            long now = System.currentTimeMillis();
+            reconcile = lastReconcile == 0 || now - lastReconcile >= getEndpoint().getWatchReconcileInterval();
+            if (reconcile) {
+                if (log.isDebugEnabled() && lastReconcile > 0) {
+                    log.debug("Reconciling by scanning all directories of: " + endpointPath);
+                }
+                lastReconcile = now;
+                watchedDirectories.clear();
+            }
+        }
+        return super.prePollCheck();
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        super.doStop();
+        watchedDirectories.clear();
+        lastReconcile = 0;
+    }
+
     /**
      * Creates a new GenericFile<File> based on the given file.
      *
@@ -166,4 +311,18 @@ public class FileConsumer extends GenericFileConsumer<File> {
     public FileEndpoint getEndpoint() {
         return (FileEndpoint) super.getEndpoint();
     }
+
+    /**
+     * The state of a directory from the last time it was listed.
+     */
+    private static final class WatchedDirectory {
+        private final long lastModified;
+        private final Set<String> rejected = new HashSet<String>();
+        private final List<String> subDirectories = new ArrayList<String>();
+        private boolean pending;
+
+        private WatchedDirectory(long lastModified) {
+            this.lastModified = lastModified;
+        }
+    }
 }
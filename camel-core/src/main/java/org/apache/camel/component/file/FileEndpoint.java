@@ -35,6 +35,8 @@ public class FileEndpoint extends GenericFileEndpoint<File> {
 
     private FileOperations operations = new FileOperations(this);
     private File file;
+    private boolean watch;
+    private long watchReconcileInterval = 60000;
 
     public FileEndpoint() {
         // use marker file as default exclusive read locks
@@ -124,6 +126,30 @@ public class FileEndpoint extends GenericFileEndpoint<File> {
         getConfiguration().setDirectory(file.getPath());
     }
 
+    public boolean isWatch() {
+        return watch;
+    }
+
+    /**
+     * Whether the consumer should only list directories which has changed since the last poll,
+     * instead of listing all the files on every poll.
+     */
+    public void setWatch(boolean watch) {
+        this.watch = watch;
+    }
+
+    public long getWatchReconcileInterval() {
+        return watchReconcileInterval;
+    }
+
+    /**
+     * Interval in millis between full scans of all directories when <tt>watch</tt> is enabled,
+     * to pickup any changes which was not detected.
+     */
+    public void setWatchReconcileInterval(long watchReconcileInterval) {
+        this.watchReconcileInterval = watchReconcileInterval;
+    }
+
     @Override
     public String getScheme() {
         return "file";
@@ -0,0 +1,66 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.file;
+
+import java.util.BitSet;
+
+/**
+ * Keeps the commit or rollback of the files from a poll, which are processed in parallel,
+ * in the same order as the files was polled.
+ * <p/>
+ * Each file has its index in the batch, and a file awaits its turn before it is committed or
+ * rolled back. A file which is skipped or fails before being routed must be marked as done
+ * so the files after it are not waiting for it.
+ *
+ * @version 
+ */
+public class GenericFileCommitSequence {
+
+    private final BitSet done = new BitSet();
+    private int next;
+
+    /**
+     * Waits until all the files before the given index has been committed or rolled back.
+     *
+     * @param index the index of the file in the batch
+     * @throws InterruptedException is thrown if interrupted while waiting
+     */
+    public synchronized void awaitTurn(int index) throws InterruptedException {
+        while (next < index) {
+            wait();
+        }
+    }
+
+    /**
+     * Marks the file as done, allowing the next files to be committed or rolled back.
+     *
+     * @param index the index of the file in the batch
+     */
+    public synchronized void done(int index) {
+        done.set(index);
+        if (index == next) {
+            // advance past this and any later files which is already done
+            next = done.nextClearBit(next);
+            notifyAll();
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "GenericFileCommitSequence[next=" + next + "]";
+    }
+}
@@ -21,6 +21,11 @@ import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.camel.AsyncCallback;
 import org.apache.camel.BatchConsumer;
@@ -49,6 +54,8 @@ public abstract class GenericFileConsumer<T> extends ScheduledPollConsumer imple
     protected int maxMessagesPerPoll;
     protected volatile ShutdownRunningTask shutdownRunningTask;
     protected volatile int pendingExchanges;
+    protected ExecutorService executorService;
+    protected Lock operationsLock;
 
     public GenericFileConsumer(GenericFileEndpoint<T> endpoint, Processor processor, GenericFileOperations<T> operations) {
         super(endpoint, processor);
@@ -133,6 +140,14 @@ public abstract class GenericFileConsumer<T> extends ScheduledPollConsumer imple
     public int processBatch(Queue<Object> exchanges) {
         int total = exchanges.size();
 
+        // when processing in parallel the operations may be used by multiple threads
+        final GenericFileOperations<T> batchOperations = operationsLock != null
+            ? new SynchronizedGenericFileOperations<T>(operations, operationsLock) : operations;
+        List<Future<?>> futures = executorService != null ? new ArrayList<Future<?>>(total) : null;
+        // keep the commits in the order of the files when processing in parallel
+        final GenericFileCommitSequence sequence = futures != null && endpoint.isOrderedCommit()
+            ? new GenericFileCommitSequence() : null;
+
         // limit if needed
         if (maxMessagesPerPoll > 0 && total > maxMessagesPerPoll) {
             if (log.isDebugEnabled()) {
@@ -150,11 +165,22 @@ public abstract class GenericFileConsumer<T> extends ScheduledPollConsumer imple
             exchange.setProperty(Exchange.BATCH_SIZE, total);
             exchange.setProperty(Exchange.BATCH_COMPLETE, index == total - 1);
 
-            // update pending number of exchanges
-            pendingExchanges = total - index - 1;
+            if (futures != null) {
+                // process the current exchange in parallel
+                final Exchange current = exchange;
+                final int currentIndex = index;
+                futures.add(executorService.submit(new Runnable() {
+                    public void run() {
+                        processExchange(current, batchOperations, sequence, currentIndex);
+                    }
+                }));
+            } else {
+                // update pending number of exchanges
+                pendingExchanges = total - index - 1;
 
-            // process the current exchange
-            processExchange(exchange);
+                // process the current exchange
+                processExchange(exchange, batchOperations);
+            }
         }
         
         // remove the file from the in progress list in case the batch was limited by max messages per poll
@@ -165,9 +191,36 @@ public abstract class GenericFileConsumer<T> extends ScheduledPollConsumer imple
             endpoint.getInProgressRepository().remove(key);
         }
 
+        if (futures != null) {
+            awaitBatch(futures);
+        }
+
         return total;
     }
 
+    /**
+     * Waits for the exchanges processed in parallel to complete, so the next poll does not pickup the same files
+     * and the batch is complete when shutting down.
+     */
+    private void awaitBatch(List<Future<?>> futures) {
+        pendingExchanges = futures.size();
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                // we are most likely shutting down
+                if (log.isDebugEnabled()) {
+                    log.debug("Interrupted while waiting for " + pendingExchanges + " files to be processed");
+                }
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                handleException(e.getCause());
+            }
+            pendingExchanges--;
+        }
+    }
+
     public boolean deferShutdown(ShutdownRunningTask shutdownRunningTask) {
         // store a reference what to do in case when shutting down and we have pending messages
         this.shutdownRunningTask = shutdownRunningTask;
@@ -262,6 +315,29 @@ public abstract class GenericFileConsumer<T> extends ScheduledPollConsumer imple
      * @param exchange the exchange
      */
     protected void processExchange(final Exchange exchange) {
+        processExchange(exchange, operations);
+    }
+
+    /**
+     * Processes the exchange using the given operations
+     *
+     * @param exchange   the exchange
+     * @param operations the operations to use for retrieving and committing the file
+     */
+    protected void processExchange(final Exchange exchange, final GenericFileOperations<T> operations) {
+        processExchange(exchange, operations, null, 0);
+    }
+
+    /**
+     * Processes the exchange using the given operations
+     *
+     * @param exchange   the exchange
+     * @param operations the operations to use for retrieving and committing the file
+     * @param sequence   the sequence to keep the commits in order, is <tt>null</tt> if not in use
+     * @param index      the index of the file in the batch
+     */
+    protected void processExchange(final Exchange exchange, final GenericFileOperations<T> operations,
+                                   final GenericFileCommitSequence sequence, final int index) {
         GenericFile<T> file = getExchangeFileProperty(exchange);
         if (log.isTraceEnabled()) {
             log.trace("Processing file: " + file);
@@ -282,6 +358,9 @@ public abstract class GenericFileConsumer<T> extends ScheduledPollConsumer imple
                 }
                 // begin returned false, so remove file from the in progress list as its no longer in progress
                 endpoint.getInProgressRepository().remove(absoluteFileName);
+                if (sequence != null) {
+                    sequence.done(index);
+                }
                 return;
             }
         } catch (Exception e) {
@@ -289,6 +368,9 @@ public abstract class GenericFileConsumer<T> extends ScheduledPollConsumer imple
                 log.debug(endpoint + " cannot begin processing file: " + file + " due to: " + e.getMessage(), e);
             }
             endpoint.getInProgressRepository().remove(absoluteFileName);
+            if (sequence != null) {
+                sequence.done(index);
+            }
             return;
         }
 
@@ -297,6 +379,7 @@ public abstract class GenericFileConsumer<T> extends ScheduledPollConsumer imple
         final GenericFile<T> target = getExchangeFileProperty(exchange);
         // must use full name when downloading so we have the correct path
         final String name = target.getAbsoluteFilePath();
+        boolean registered = false;
         try {
             // retrieve the file using the stream
             if (log.isTraceEnabled()) {
@@ -318,7 +401,12 @@ public abstract class GenericFileConsumer<T> extends ScheduledPollConsumer imple
 
             // register on completion callback that does the completion strategies
             // (for instance to move the file after we have processed it)
-            exchange.addOnCompletion(new GenericFileOnCompletion<T>(endpoint, operations, target, absoluteFileName));
+            GenericFileOnCompletion<T> onCompletion = new GenericFileOnCompletion<T>(endpoint, operations, target, absoluteFileName);
+            if (sequence != null) {
+                onCompletion.setCommitSequence(sequence, index);
+            }
+            exchange.addOnCompletion(onCompletion);
+            registered = true;
 
             if (log.isDebugEnabled()) {
                 log.debug("About to process file: " + target + " using exchange: " + exchange);
@@ -342,6 +430,10 @@ public abstract class GenericFileConsumer<T> extends ScheduledPollConsumer imple
             // from in progress when it takes over and processes the file, which may happen
             // by another thread at a later time. So its only safe to remove it if there was an exception)
             endpoint.getInProgressRepository().remove(absoluteFileName);
+            if (sequence != null && !registered) {
+                // the on completion will not mark the file as done so we must do it
+                sequence.done(index);
+            }
             handleException(e);
         }
     }
@@ -480,11 +572,36 @@ public abstract class GenericFileConsumer<T> extends ScheduledPollConsumer imple
         return (GenericFile<T>) exchange.getProperty(FileComponent.FILE_EXCHANGE_FILE);
     }
 
+    /**
+     * Whether the operations can be used by multiple threads concurrently. If not the operations are
+     * synchronized when processing files in parallel.
+     */
+    protected boolean isOperationsThreadSafe() {
+        return true;
+    }
+
     @Override
     protected void doStart() throws Exception {
+        // must create thread pool before starting to poll
+        if (endpoint.isParallelProcessing()) {
+            executorService = endpoint.getCamelContext().getExecutorServiceStrategy()
+                    .newFixedThreadPool(this, endpoint.getEndpointUri(), endpoint.getPoolSize());
+            operationsLock = isOperationsThreadSafe() ? null : new ReentrantLock();
+        }
+
         super.doStart();
         
         // prepare on startup
         endpoint.getGenericFileProcessStrategy().prepareOnStartup(operations, endpoint);
     }
+
+    @Override
+    protected void doStop() throws Exception {
+        super.doStop();
+
+        if (executorService != null) {
+            endpoint.getCamelContext().getExecutorServiceStrategy().shutdownNow(executorService);
+            executorService = null;
+        }
+    }
 }
@@ -89,6 +89,9 @@ public abstract class GenericFileEndpoint<T> extends ScheduledPollEndpoint {
     protected GenericFileExclusiveReadLockStrategy<T> exclusiveReadLockStrategy;
     protected boolean keepLastModified;
     protected String doneFileName;
+    protected boolean parallelProcessing;
+    protected int poolSize = 10;
+    protected boolean orderedCommit;
 
     public GenericFileEndpoint() {
     }
@@ -515,6 +518,41 @@ public abstract class GenericFileEndpoint<T> extends ScheduledPollEndpoint {
         this.localWorkDirectory = localWorkDirectory;
     }
 
+    public boolean isParallelProcessing() {
+        return parallelProcessing;
+    }
+
+    /**
+     * Whether the files from a poll should be processed in parallel using a thread pool.
+     * Each file is still committed or rolled back individually when it has been processed.
+     */
+    public void setParallelProcessing(boolean parallelProcessing) {
+        this.parallelProcessing = parallelProcessing;
+    }
+
+    public boolean isOrderedCommit() {
+        return orderedCommit;
+    }
+
+    /**
+     * Whether the files processed in parallel should be committed or rolled back in the order they was polled.
+     * A file which is done before the files polled before it waits for them to be committed first.
+     */
+    public void setOrderedCommit(boolean orderedCommit) {
+        this.orderedCommit = orderedCommit;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * The number of threads used for processing files in parallel
+     */
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
     public int getMaxMessagesPerPoll() {
         return maxMessagesPerPoll;
     }
@@ -40,6 +40,8 @@ public class GenericFileOnCompletion<T> implements Synchronization {
     private ExceptionHandler exceptionHandler;
     private GenericFile<T> file;
     private String absoluteFileName;
+    private GenericFileCommitSequence commitSequence;
+    private int commitIndex;
 
     public GenericFileOnCompletion(GenericFileEndpoint<T> endpoint, GenericFileOperations<T> operations,
                                    GenericFile<T> file, String absoluteFileName) {
@@ -68,6 +70,18 @@ public class GenericFileOnCompletion<T> implements Synchronization {
         this.exceptionHandler = exceptionHandler;
     }
 
+    /**
+     * Sets the sequence to await before committing or rolling back, to keep the files
+     * processed in parallel committed in the order they was polled.
+     *
+     * @param commitSequence the sequence of the batch
+     * @param commitIndex    the index of the file in the batch
+     */
+    public void setCommitSequence(GenericFileCommitSequence commitSequence, int commitIndex) {
+        this.commitSequence = commitSequence;
+        this.commitIndex = commitIndex;
+    }
+
     protected void onCompletion(Exchange exchange) {
         GenericFileProcessStrategy<T> processStrategy = endpoint.getGenericFileProcessStrategy();
 
@@ -75,6 +89,10 @@ public class GenericFileOnCompletion<T> implements Synchronization {
             log.debug("Done processing file: " + file + " using exchange: " + exchange);
         }
 
+        if (commitSequence != null) {
+            awaitCommitTurn();
+        }
+
         // commit or rollback
         boolean committed = false;
         try {
@@ -98,6 +116,22 @@ public class GenericFileOnCompletion<T> implements Synchronization {
             // use the original file name that was used to add it to the repository
             // as the name can be different when using preMove option
             endpoint.getInProgressRepository().remove(absoluteFileName);
+
+            if (commitSequence != null) {
+                commitSequence.done(commitIndex);
+            }
+        }
+    }
+
+    private void awaitCommitTurn() {
+        try {
+            commitSequence.awaitTurn(commitIndex);
+        } catch (InterruptedException e) {
+            // we are most likely shutting down so commit without waiting
+            if (log.isDebugEnabled()) {
+                log.debug("Interrupted while waiting for the previous files to be committed, before committing file: " + file);
+            }
+            Thread.currentThread().interrupt();
         }
     }
 
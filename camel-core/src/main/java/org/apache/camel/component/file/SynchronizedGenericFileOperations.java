@@ -0,0 +1,163 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.file;
+
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+
+import org.apache.camel.Exchange;
+
+/**
+ * Decorates {@link GenericFileOperations} which are not thread safe, such as remote file operations
+ * using a single connection, so each operation is executed while holding the given lock.
+ * <p/>
+ * Used when files are processed in parallel, so the files can be retrieved, committed and rolled back
+ * from multiple threads.
+ * <p/>
+ * Each operation must complete its use of the connection before it returns. For example retrieving a file
+ * must have downloaded the entire file, and not leave the transfer open for the file to be streamed later,
+ * as the lock is released when {@link #retrieveFile(String, Exchange)} returns.
+ *
+ * @version 
+ */
+public class SynchronizedGenericFileOperations<T> implements GenericFileOperations<T> {
+
+    private final GenericFileOperations<T> delegate;
+    private final Lock lock;
+
+    public SynchronizedGenericFileOperations(GenericFileOperations<T> delegate, Lock lock) {
+        this.delegate = delegate;
+        this.lock = lock;
+    }
+
+    public GenericFileOperations<T> getDelegate() {
+        return delegate;
+    }
+
+    public void setEndpoint(GenericFileEndpoint<T> endpoint) {
+        lock.lock();
+        try {
+            delegate.setEndpoint(endpoint);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean deleteFile(String name) throws GenericFileOperationFailedException {
+        lock.lock();
+        try {
+            return delegate.deleteFile(name);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean existsFile(String name) throws GenericFileOperationFailedException {
+        lock.lock();
+        try {
+            return delegate.existsFile(name);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean renameFile(String from, String to) throws GenericFileOperationFailedException {
+        lock.lock();
+        try {
+            return delegate.renameFile(from, to);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean buildDirectory(String directory, boolean absolute) throws GenericFileOperationFailedException {
+        lock.lock();
+        try {
+            return delegate.buildDirectory(directory, absolute);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean retrieveFile(String name, Exchange exchange) throws GenericFileOperationFailedException {
+        lock.lock();
+        try {
+            return delegate.retrieveFile(name, exchange);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean storeFile(String name, Exchange exchange) throws GenericFileOperationFailedException {
+        lock.lock();
+        try {
+            return delegate.storeFile(name, exchange);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getCurrentDirectory() throws GenericFileOperationFailedException {
+        lock.lock();
+        try {
+            return delegate.getCurrentDirectory();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void changeCurrentDirectory(String path) throws GenericFileOperationFailedException {
+        lock.lock();
+        try {
+            delegate.changeCurrentDirectory(path);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void changeToParentDirectory() throws GenericFileOperationFailedException {
+        lock.lock();
+        try {
+            delegate.changeToParentDirectory();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<T> listFiles() throws GenericFileOperationFailedException {
+        lock.lock();
+        try {
+            return delegate.listFiles();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<T> listFiles(String path) throws GenericFileOperationFailedException {
+        lock.lock();
+        try {
+            return delegate.listFiles(path);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Synchronized[" + delegate + "]";
+    }
+}
@@ -37,13 +37,14 @@ import org.slf4j.LoggerFactory;
  * Acquires exclusive read lock to the given file. Will wait until the lock is granted.
  * After granting the read lock it is released, we just want to make sure that when we start
  * consuming the file its not currently in progress of being written by third party.
+ * <p/>
+ * The lock is stored on the exchange, as this strategy is shared by all the files being
+ * consumed, which may be processed concurrently.
  */
 public class FileLockExclusiveReadLockStrategy implements GenericFileExclusiveReadLockStrategy<File> {
     private static final transient Logger LOG = LoggerFactory.getLogger(FileLockExclusiveReadLockStrategy.class);
     private long timeout;
     private long checkInterval = 1000;
-    private FileLock lock;
-    private String lockFileName;
 
     public void prepareOnStartup(GenericFileOperations<File> operations, GenericFileEndpoint<File> endpoint) {
         // noop
@@ -60,6 +61,7 @@ public class FileLockExclusiveReadLockStrategy implements GenericFileExclusiveRe
             // try to acquire rw lock on the file before we can consume it
             FileChannel channel = new RandomAccessFile(target, "rw").getChannel();
 
+            FileLock lock = null;
             boolean exclusive = false;
             StopWatch watch = new StopWatch();
 
@@ -70,6 +72,7 @@ public class FileLockExclusiveReadLockStrategy implements GenericFileExclusiveRe
                     if (delta > timeout) {
                         LOG.warn("Cannot acquire read lock within " + timeout + " millis. Will skip the file: " + target);
                         // we could not get the lock within the timeout period, so return false
+                        IOHelper.close(channel, "while acquiring exclusive read lock for file: " + target, LOG);
                         return false;
                     }
                 }
@@ -84,12 +87,15 @@ public class FileLockExclusiveReadLockStrategy implements GenericFileExclusiveRe
                     if (LOG.isTraceEnabled()) {
                         LOG.trace("Acquired exclusive read lock: " + lock + " to file: " + target);
                     }
-                    lockFileName = target.getName();
+                    // store the lock on the exchange so we can release it later
+                    exchange.setProperty(Exchange.FILE_LOCK_EXCLUSIVE_LOCK, lock);
+                    exchange.setProperty(Exchange.FILE_LOCK_FILE_NAME, target.getName());
                     exclusive = true;
                 } else {
                     boolean interrupted = sleep();
                     if (interrupted) {
                         // we were interrupted while sleeping, we are likely being shutdown so return false
+                        IOHelper.close(channel, "while acquiring exclusive read lock for file: " + target, LOG);
                         return false;
                     }
                 }
@@ -116,6 +122,8 @@ public class FileLockExclusiveReadLockStrategy implements GenericFileExclusiveRe
 
     public void releaseExclusiveReadLock(GenericFileOperations<File> operations,
                                          GenericFile<File> file, Exchange exchange) throws Exception {
+        FileLock lock = exchange.getProperty(Exchange.FILE_LOCK_EXCLUSIVE_LOCK, FileLock.class);
+        String lockFileName = exchange.getProperty(Exchange.FILE_LOCK_FILE_NAME, String.class);
         if (lock != null) {
             Channel channel = lock.channel();
             try {
@@ -123,6 +131,8 @@ public class FileLockExclusiveReadLockStrategy implements GenericFileExclusiveRe
             } finally {
                 // must close channel first
                 IOHelper.close(channel, "while acquiring exclusive read lock for file: " + lockFileName, LOG);
+                exchange.removeProperty(Exchange.FILE_LOCK_EXCLUSIVE_LOCK);
+                exchange.removeProperty(Exchange.FILE_LOCK_FILE_NAME);
             }
         }
     }
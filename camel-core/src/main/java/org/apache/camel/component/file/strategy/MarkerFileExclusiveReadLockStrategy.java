@@ -31,11 +31,12 @@ import org.slf4j.LoggerFactory;
 /**
  * Acquires read lock to the given file using a marker file so other Camel consumers wont acquire the same file.
  * This is the default behavior in Camel 1.x.
+ * <p/>
+ * Whether the lock was acquired is stored on the exchange, as this strategy is shared by all the files
+ * being consumed, which may be processed concurrently.
  */
 public class MarkerFileExclusiveReadLockStrategy implements GenericFileExclusiveReadLockStrategy<File> {
     private static final transient Logger LOG = LoggerFactory.getLogger(MarkerFileExclusiveReadLockStrategy.class);
-    private File lock;
-    private String lockFileName;
 
     public void prepareOnStartup(GenericFileOperations<File> operations, GenericFileEndpoint<File> endpoint) {
         String dir = endpoint.getConfiguration().getDirectory();
@@ -50,17 +51,18 @@ public class MarkerFileExclusiveReadLockStrategy implements GenericFileExclusive
 
     public boolean acquireExclusiveReadLock(GenericFileOperations<File> operations,
                                             GenericFile<File> file, Exchange exchange) throws Exception {
-        lockFileName = file.getAbsoluteFilePath() + FileComponent.DEFAULT_LOCK_FILE_POSTFIX;
+        String lockFileName = file.getAbsoluteFilePath() + FileComponent.DEFAULT_LOCK_FILE_POSTFIX;
         if (LOG.isTraceEnabled()) {
             LOG.trace("Locking the file: " + file + " using the lock file name: " + lockFileName);
         }
 
         // create a plain file as marker filer for locking (do not use FileLock)
-        lock = new File(lockFileName);
+        File lock = new File(lockFileName);
         boolean acquired = lock.createNewFile();
-        if (!acquired) {
-            lock = null;
-
+        if (acquired) {
+            // store on the exchange that we acquired the lock, so we only delete our own lock file
+            exchange.setProperty(Exchange.FILE_LOCK_FILE_ACQUIRED, Boolean.TRUE);
+            exchange.setProperty(Exchange.FILE_LOCK_FILE_NAME, lockFileName);
         }
 
         return acquired;
@@ -68,12 +70,16 @@ public class MarkerFileExclusiveReadLockStrategy implements GenericFileExclusive
 
     public void releaseExclusiveReadLock(GenericFileOperations<File> operations,
                                          GenericFile<File> file, Exchange exchange) throws Exception {
-        if (lock != null) {
+        boolean acquired = exchange.getProperty(Exchange.FILE_LOCK_FILE_ACQUIRED, false, Boolean.class);
+        String lockFileName = exchange.getProperty(Exchange.FILE_LOCK_FILE_NAME, String.class);
+        if (acquired && lockFileName != null) {
             if (LOG.isTraceEnabled()) {
                 LOG.trace("Unlocking file: " + lockFileName);
             }
 
-            boolean deleted = FileUtil.deleteFile(lock);
+            exchange.removeProperty(Exchange.FILE_LOCK_FILE_ACQUIRED);
+            exchange.removeProperty(Exchange.FILE_LOCK_FILE_NAME);
+            boolean deleted = FileUtil.deleteFile(new File(lockFileName));
             if (LOG.isTraceEnabled()) {
                 LOG.trace("Lock file: " + lockFileName + " was deleted: " + deleted);
             }
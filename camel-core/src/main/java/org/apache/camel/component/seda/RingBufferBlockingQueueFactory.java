@@ -0,0 +1,76 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.seda;
+
+import java.util.concurrent.BlockingQueue;
+
+import org.apache.camel.util.concurrent.RingBufferBlockingQueue;
+import org.apache.camel.util.concurrent.WaitStrategy;
+
+/**
+ * Creates lock-free {@link RingBufferBlockingQueue} instances which performs better than the
+ * default {@link java.util.concurrent.LinkedBlockingQueue} when many producers and
+ * concurrent consumers are using the same queue.
+ * <p/>
+ * The ring buffer is always bounded, and will by default have a capacity of 1024 if no
+ * capacity is given.
+ *
+ * @version 
+ */
+public class RingBufferBlockingQueueFactory<E> implements BlockingQueueFactory<E> {
+
+    private int defaultCapacity = 1024;
+    private WaitStrategy waitStrategy = WaitStrategy.Park;
+
+    public RingBufferBlockingQueueFactory() {
+    }
+
+    public RingBufferBlockingQueueFactory(WaitStrategy waitStrategy) {
+        this.waitStrategy = waitStrategy;
+    }
+
+    public BlockingQueue<E> create() {
+        return create(defaultCapacity);
+    }
+
+    public BlockingQueue<E> create(int capacity) {
+        return new RingBufferBlockingQueue<E>(capacity, waitStrategy);
+    }
+
+    public int getDefaultCapacity() {
+        return defaultCapacity;
+    }
+
+    /**
+     * Sets the capacity to use when no capacity is given, which is 1024 by default.
+     */
+    public void setDefaultCapacity(int defaultCapacity) {
+        this.defaultCapacity = defaultCapacity;
+    }
+
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    /**
+     * Sets how producers and consumers waits when the queue is full or empty.
+     */
+    public void setWaitStrategy(WaitStrategy waitStrategy) {
+        this.waitStrategy = waitStrategy;
+    }
+
+}
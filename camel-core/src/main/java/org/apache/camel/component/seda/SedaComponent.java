@@ -19,7 +19,6 @@ package org.apache.camel.component.seda;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
 
 import org.apache.camel.Endpoint;
 import org.apache.camel.Exchange;
@@ -34,6 +33,7 @@ import org.apache.camel.impl.DefaultComponent;
 public class SedaComponent extends DefaultComponent {
     protected final int maxConcurrentConsumers = 500;
     private final Map<String, BlockingQueue<Exchange>> queues = new HashMap<String, BlockingQueue<Exchange>>();
+    private BlockingQueueFactory<Exchange> queueFactory = new LinkedBlockingQueueFactory<Exchange>();
 
     public synchronized BlockingQueue<Exchange> createQueue(String uri, Map<String, Object> parameters) {
         String key = getQueueKey(uri);
@@ -42,17 +42,36 @@ public class SedaComponent extends DefaultComponent {
             return queues.get(key);
         }
 
-        // create queue
-        BlockingQueue<Exchange> queue;
+        BlockingQueue<Exchange> queue = doCreateQueue(parameters);
+        queues.put(key, queue);
+        return queue;
+    }
+
+    /**
+     * Creates a new queue using the <tt>queueFactory</tt> and <tt>size</tt> parameters if given,
+     * otherwise the {@link #getQueueFactory()} configured on this component is used.
+     */
+    @SuppressWarnings("unchecked")
+    protected BlockingQueue<Exchange> doCreateQueue(Map<String, Object> parameters) {
+        BlockingQueueFactory<Exchange> factory = resolveAndRemoveReferenceParameter(parameters, "queueFactory", BlockingQueueFactory.class, getQueueFactory());
         Integer size = getAndRemoveParameter(parameters, "size", Integer.class);
         if (size != null && size > 0) {
-            queue = new LinkedBlockingQueue<Exchange>(size);
+            return factory.create(size);
         } else {
-            queue = new LinkedBlockingQueue<Exchange>();
+            return factory.create();
         }
+    }
 
-        queues.put(key, queue);
-        return queue;
+    public BlockingQueueFactory<Exchange> getQueueFactory() {
+        return queueFactory;
+    }
+
+    /**
+     * Sets the factory to use for creating the queues, which by default creates
+     * {@link java.util.concurrent.LinkedBlockingQueue}s.
+     */
+    public void setQueueFactory(BlockingQueueFactory<Exchange> queueFactory) {
+        this.queueFactory = queueFactory;
     }
 
     @Override
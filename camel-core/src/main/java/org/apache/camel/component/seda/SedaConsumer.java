@@ -16,10 +16,13 @@
  */
 package org.apache.camel.component.seda;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.camel.AsyncCallback;
 import org.apache.camel.AsyncProcessor;
@@ -48,6 +51,7 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
 
     private CountDownLatch latch;
     private volatile boolean shutdownPending;
+    private final AtomicInteger drainedPending = new AtomicInteger();
     private SedaEndpoint endpoint;
     private AsyncProcessor processor;
     private ExecutorService executor;
@@ -89,8 +93,9 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
     }
 
     public int getPendingExchangesSize() {
-        // number of pending messages on the queue
-        return endpoint.getQueue().size();
+        // number of pending messages on the queue, and the messages drained from the queue
+        // which have not been processed yet
+        return endpoint.getQueue().size() + drainedPending.get();
     }
 
     public void prepareShutdown() {
@@ -111,21 +116,24 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
 
     public void run() {
         BlockingQueue<Exchange> queue = endpoint.getQueue();
+        int drainSize = endpoint.getDrainSize();
+        List<Exchange> drained = drainSize > 1 ? new ArrayList<Exchange>(drainSize - 1) : null;
         // loop while we are allowed, or if we are stopping loop until the queue is empty
         while (queue != null && (isRunAllowed())) {
             Exchange exchange = null;
             try {
                 exchange = queue.poll(1000, TimeUnit.MILLISECONDS);
                 if (exchange != null) {
-                    try {
-                        sendToConsumers(exchange);
-
-                        // log exception if an exception occurred and was not handled
-                        if (exchange.getException() != null) {
-                            getExceptionHandler().handleException("Error processing exchange", exchange, exchange.getException());
+                    processExchange(exchange);
+
+                    if (drained != null) {
+                        // take the exchanges already pending on the queue in one go to avoid polling for each of them
+                        drainedPending.addAndGet(queue.drainTo(drained, drainSize - 1));
+                        for (Exchange next : drained) {
+                            drainedPending.decrementAndGet();
+                            processExchange(next);
                         }
-                    } catch (Exception e) {
-                        getExceptionHandler().handleException("Error processing exchange", exchange, e);
+                        drained.clear();
                     }
                 } else if (shutdownPending && queue.isEmpty()) {
                     if (LOG.isTraceEnabled()) {
@@ -154,6 +162,24 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
         }
     }
 
+    /**
+     * Processes the given {@link Exchange} taken from the queue.
+     *
+     * @param exchange the exchange
+     */
+    protected void processExchange(Exchange exchange) {
+        try {
+            sendToConsumers(exchange);
+
+            // log exception if an exception occurred and was not handled
+            if (exchange.getException() != null) {
+                getExceptionHandler().handleException("Error processing exchange", exchange, exchange.getException());
+            }
+        } catch (Throwable e) {
+            getExceptionHandler().handleException("Error processing exchange", exchange, e);
+        }
+    }
+
     /**
      * Send the given {@link Exchange} to the consumer(s).
      * <p/>
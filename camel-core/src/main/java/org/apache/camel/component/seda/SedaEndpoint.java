@@ -23,7 +23,6 @@ import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.LinkedBlockingQueue;
 
 import org.apache.camel.Component;
 import org.apache.camel.Consumer;
@@ -48,6 +47,8 @@ public class SedaEndpoint extends DefaultEndpoint implements BrowsableEndpoint,
     private volatile BlockingQueue<Exchange> queue;
     private int size;
     private int concurrentConsumers = 1;
+    private int drainSize = 1;
+    private BlockingQueueFactory<Exchange> queueFactory = new LinkedBlockingQueueFactory<Exchange>();
     private volatile ExecutorService multicastExecutor;
     private boolean multipleConsumers;
     private WaitForTaskToComplete waitForTaskToComplete = WaitForTaskToComplete.IfReplyExpected;
@@ -93,9 +94,9 @@ public class SedaEndpoint extends DefaultEndpoint implements BrowsableEndpoint,
     public synchronized BlockingQueue<Exchange> getQueue() {
         if (queue == null) {
             if (size > 0) {
-                queue = new LinkedBlockingQueue<Exchange>(size);
+                queue = queueFactory.create(size);
             } else {
-                queue = new LinkedBlockingQueue<Exchange>();
+                queue = queueFactory.create();
             }
         }
         return queue;
@@ -145,6 +146,17 @@ public class SedaEndpoint extends DefaultEndpoint implements BrowsableEndpoint,
         this.size = queue.remainingCapacity();
     }
 
+    public BlockingQueueFactory<Exchange> getQueueFactory() {
+        return queueFactory;
+    }
+
+    /**
+     * Sets the factory to use for creating the queue, if no queue has been created yet.
+     */
+    public void setQueueFactory(BlockingQueueFactory<Exchange> queueFactory) {
+        this.queueFactory = queueFactory;
+    }
+
     public int getSize() {
         return size;
     }
@@ -161,6 +173,21 @@ public class SedaEndpoint extends DefaultEndpoint implements BrowsableEndpoint,
         return concurrentConsumers;
     }
 
+    public int getDrainSize() {
+        return drainSize;
+    }
+
+    /**
+     * Sets the maximum number of exchanges a consumer thread takes from the queue each time
+     * it wakes up. Taking the exchanges which are already pending on the queue in one batch
+     * reduces the contention on the queue under high load.
+     * <p/>
+     * Is by default <tt>1</tt>.
+     */
+    public void setDrainSize(int drainSize) {
+        this.drainSize = drainSize;
+    }
+
     public WaitForTaskToComplete getWaitForTaskToComplete() {
         return waitForTaskToComplete;
     }
@@ -19,7 +19,6 @@ package org.apache.camel.component.vm;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.camel.Exchange;
@@ -45,15 +44,7 @@ public class VmComponent extends SedaComponent {
             return QUEUES.get(key);
         }
 
-        // create queue
-        BlockingQueue<Exchange> queue;
-        Integer size = getAndRemoveParameter(parameters, "size", Integer.class);
-        if (size != null && size > 0) {
-            queue = new LinkedBlockingQueue<Exchange>(size);
-        } else {
-            queue = new LinkedBlockingQueue<Exchange>();
-        }
-
+        BlockingQueue<Exchange> queue = doCreateQueue(parameters);
         QUEUES.put(key, queue);
         return queue;
     }
@@ -0,0 +1,124 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.converter.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+
+import org.apache.camel.StreamCache;
+
+/**
+ * A {@link StreamCache} reading from the direct buffers of a pooled {@link CachedOutputStream}.
+ * <p/>
+ * The buffers are owned by the {@link CachedOutputStream} which keeps them until it is closed,
+ * which means this stream cache cannot be read after the {@link CachedOutputStream} has been closed.
+ */
+public class ByteBufferInputStreamCache extends InputStream implements StreamCache {
+    private final CachedOutputStream owner;
+    private final ByteBuffer[] buffers;
+    private int index;
+
+    ByteBufferInputStreamCache(CachedOutputStream owner, List<ByteBuffer> buffers) {
+        this.owner = owner;
+        this.buffers = new ByteBuffer[buffers.size()];
+        for (int i = 0; i < buffers.size(); i++) {
+            // use our own views so the position is independent of other readers
+            this.buffers[i] = buffers.get(i).duplicate();
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        ByteBuffer buffer = current();
+        return buffer != null ? buffer.get() & 0xff : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        ByteBuffer buffer = current();
+        if (buffer == null) {
+            return -1;
+        }
+        int n = Math.min(len, buffer.remaining());
+        buffer.get(b, off, n);
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = 0;
+        ByteBuffer buffer;
+        while (skipped < n && (buffer = current()) != null) {
+            int len = (int) Math.min(n - skipped, buffer.remaining());
+            buffer.position(buffer.position() + len);
+            skipped += len;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        checkNotClosed();
+        long answer = 0;
+        for (int i = index; i < buffers.length; i++) {
+            answer += buffers[i].remaining();
+        }
+        return (int) Math.min(answer, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void reset() {
+        for (ByteBuffer buffer : buffers) {
+            buffer.rewind();
+        }
+        index = 0;
+    }
+
+    public void writeTo(OutputStream os) throws IOException {
+        WritableByteChannel channel = Channels.newChannel(os);
+        ByteBuffer buffer;
+        while ((buffer = current()) != null) {
+            channel.write(buffer);
+        }
+    }
+
+    private ByteBuffer current() throws IOException {
+        checkNotClosed();
+        while (index < buffers.length) {
+            if (buffers[index].hasRemaining()) {
+                return buffers[index];
+            }
+            index++;
+        }
+        return null;
+    }
+
+    private void checkNotClosed() throws IOException {
+        if (owner.isClosed()) {
+            throw new IOException("Cannot read from " + owner + " as it has been closed");
+        }
+    }
+
+}
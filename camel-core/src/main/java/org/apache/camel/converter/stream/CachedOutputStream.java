@@ -25,10 +25,14 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.camel.Exchange;
 import org.apache.camel.StreamCache;
 import org.apache.camel.impl.SynchronizationAdapter;
+import org.apache.camel.util.CamelContextHelper;
 import org.apache.camel.util.FileUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,10 +45,19 @@ import org.slf4j.LoggerFactory;
  * You can get a cached input stream of this stream. The temp file which is created with this 
  * output stream will be deleted when you close this output stream or the all cached 
  * fileInputStream is closed after the exchange is completed.
+ * <p/>
+ * If the POOL property is set to the id of a {@link StreamCachePool} in the registry, the content is
+ * kept off the heap in direct buffers from the pool until the memory budget of the pool is used up, or
+ * the THRESHOLD is exceeded if it has been set explicitly. The content is then spilled to a temp file
+ * which is written in large chunks. The buffers are kept until this stream is closed if a stream cache
+ * has been handed out for them, so the stream cache never reads buffers which has been reused.
+ * The pool is only used when this stream is closed on completion of the exchange, as the buffers would
+ * otherwise be held until the stream is closed by the user, which may never happen.
  */
 public class CachedOutputStream extends OutputStream {
     public static final String THRESHOLD = "CamelCachedOutputStreamThreshold";
     public static final String TEMP_DIR = "CamelCachedOutputStreamOutputDirectory";
+    public static final String POOL = "CamelCachedOutputStreamPool";
     private static final transient Logger LOG = LoggerFactory.getLogger(CachedOutputStream.class);
     
     private OutputStream currentStream = new ByteArrayOutputStream(2048);
@@ -52,6 +65,11 @@ public class CachedOutputStream extends OutputStream {
     private int totalLength;
     private File tempFile;
     private FileInputStreamCache fileInputStreamCache;
+    private StreamCachePool pool;
+    private PooledByteBufferOutputStream pooledStream;
+    private boolean pooledBuffersShared;
+    private final List<FileInputStreamCache> spilledStreamCaches = new ArrayList<FileInputStreamCache>();
+    private volatile boolean closed;
 
     private long threshold = 64 * 1024;
     private File outputDir;
@@ -69,6 +87,16 @@ public class CachedOutputStream extends OutputStream {
         if (dir != null) {
             this.outputDir = exchange.getContext().getTypeConverter().convertTo(File.class, dir);
         }
+        String poolId = exchange.getContext().getProperties().get(POOL);
+        if (poolId != null && closedOnCompletion) {
+            this.pool = CamelContextHelper.mandatoryLookup(exchange.getContext(), poolId, StreamCachePool.class);
+            this.pooledStream = new PooledByteBufferOutputStream(pool);
+            this.currentStream = pooledStream;
+            if (hold == null) {
+                // the memory budget of the pool governs when to spill, unless a threshold is set explicitly
+                this.threshold = 0;
+            }
+        }
         
         if (closedOnCompletion) {
             // add on completion so we can cleanup after the exchange is done such as deleting temporary files
@@ -98,10 +126,25 @@ public class CachedOutputStream extends OutputStream {
     }
 
     public void close() throws IOException {
+        closed = true;
         currentStream.close();
+        if (pooledStream != null) {
+            pooledStream.release();
+        }
+        for (FileInputStreamCache cache : spilledStreamCaches) {
+            cache.close();
+        }
+        spilledStreamCaches.clear();
         cleanUpTempFile();
     }
 
+    /**
+     * Whether this stream has been closed, which means any cached data is no longer available
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
     public boolean equals(Object obj) {
         return currentStream.equals(obj);
     }
@@ -116,7 +159,7 @@ public class CachedOutputStream extends OutputStream {
 
     public void write(byte[] b, int off, int len) throws IOException {
         this.totalLength += len;
-        if (threshold > 0 && inMemory && totalLength > threshold && currentStream instanceof ByteArrayOutputStream) {
+        if (shouldPageToFile(len)) {
             pageToFileStream();
         }
         currentStream.write(b, off, len);
@@ -124,7 +167,7 @@ public class CachedOutputStream extends OutputStream {
 
     public void write(byte[] b) throws IOException {
         this.totalLength += b.length;
-        if (threshold > 0 && inMemory && totalLength > threshold && currentStream instanceof ByteArrayOutputStream) {
+        if (shouldPageToFile(b.length)) {
             pageToFileStream();
         }
         currentStream.write(b);
@@ -132,7 +175,7 @@ public class CachedOutputStream extends OutputStream {
 
     public void write(int b) throws IOException {
         this.totalLength++;
-        if (threshold > 0 && inMemory && totalLength > threshold && currentStream instanceof ByteArrayOutputStream) {
+        if (shouldPageToFile(1)) {
             pageToFileStream();
         }
         currentStream.write(b);
@@ -141,7 +184,9 @@ public class CachedOutputStream extends OutputStream {
     public InputStream getInputStream() throws IOException {
         flush();
 
-        if (inMemory) {
+        if (pool != null) {
+            return (InputStream) getPooledStreamCache();
+        } else if (inMemory) {
             if (currentStream instanceof ByteArrayOutputStream) {
                 return new ByteArrayInputStream(((ByteArrayOutputStream) currentStream).toByteArray());
             } else {
@@ -168,7 +213,9 @@ public class CachedOutputStream extends OutputStream {
     public StreamCache getStreamCache() throws IOException {
         flush();
 
-        if (inMemory) {
+        if (pool != null) {
+            return getPooledStreamCache();
+        } else if (inMemory) {
             if (currentStream instanceof ByteArrayOutputStream) {
                 return new InputStreamCache(((ByteArrayOutputStream) currentStream).toByteArray());
             } else {
@@ -186,6 +233,33 @@ public class CachedOutputStream extends OutputStream {
         }
     }
 
+    private StreamCache getPooledStreamCache() throws IOException {
+        if (closed) {
+            throw new IOException("Cannot get stream cache from " + this + " as it has been closed");
+        }
+        if (inMemory) {
+            // the stream cache reads the buffers directly, so they must be kept until we are closed
+            pooledBuffersShared = true;
+            return new ByteBufferInputStreamCache(this, pooledStream.getBuffers());
+        }
+
+        // each stream cache reads the file on its own so the position is independent of other readers
+        FileInputStreamCache answer = new FileInputStreamCache(tempFile);
+        spilledStreamCaches.add(answer);
+        return answer;
+    }
+
+    private boolean shouldPageToFile(int len) {
+        if (!inMemory) {
+            return false;
+        }
+        if (threshold > 0 && totalLength > threshold) {
+            return currentStream instanceof ByteArrayOutputStream || currentStream == pooledStream;
+        }
+        // spill to file if the memory budget of the pool is used up
+        return pooledStream != null && !pooledStream.ensureCapacity(len);
+    }
+
     private void cleanUpTempFile() {
         // cleanup temporary file
         if (tempFile != null) {
@@ -194,16 +268,25 @@ public class CachedOutputStream extends OutputStream {
         }
     }
 
+    private File createTempFile() throws IOException {
+        if (outputDir == null) {
+            return FileUtil.createTempFile("cos", ".tmp");
+        } else {
+            return FileUtil.createTempFile("cos", ".tmp", outputDir);
+        }
+    }
+
     private void pageToFileStream() throws IOException {
         flush();
 
-        ByteArrayOutputStream bout = (ByteArrayOutputStream)currentStream;
-        if (outputDir == null) {
-            tempFile = FileUtil.createTempFile("cos", ".tmp");
-        } else {
-            tempFile = FileUtil.createTempFile("cos", ".tmp", outputDir);
+        if (pooledStream != null) {
+            pageToFileChannel();
+            return;
         }
 
+        ByteArrayOutputStream bout = (ByteArrayOutputStream)currentStream;
+        tempFile = createTempFile();
+
         if (LOG.isTraceEnabled()) {
             LOG.trace("Creating temporary stream cache file: " + tempFile);
         }
@@ -216,6 +299,30 @@ public class CachedOutputStream extends OutputStream {
             inMemory = false;
         }
     }
+
+    private void pageToFileChannel() throws IOException {
+        tempFile = createTempFile();
+        if (LOG.isTraceEnabled()) {
+            LOG.trace("Spilling pooled stream cache to file: " + tempFile);
+        }
+        pool.onSpill();
+
+        try {
+            FileChannel channel = new FileOutputStream(tempFile).getChannel();
+            currentStream = new FileChannelOutputStream(channel, pool.getChunkSize(), pool);
+            pooledStream.writeTo(channel);
+            pool.onSpilledBytes(pooledStream.size());
+        } finally {
+            // the buffers are not needed anymore as the content is in the file, unless a stream cache
+            // is reading them in which case they are released when we are closed
+            if (pooledBuffersShared) {
+                pooledStream.releaseUnused();
+            } else {
+                pooledStream.release();
+            }
+            inMemory = false;
+        }
+    }
     
     // This class will close the CachedOutputStream when it is closed
     private class WrappedInputStream extends InputStream {
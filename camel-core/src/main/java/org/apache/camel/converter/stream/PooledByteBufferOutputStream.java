@@ -0,0 +1,146 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.converter.stream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An {@link OutputStream} which writes to direct buffers acquired from a {@link StreamCachePool}.
+ * <p/>
+ * Callers must invoke {@link #ensureCapacity(int)} before writing, which acquires the buffers needed,
+ * or tells the caller to spill the stream if the memory budget is used up.
+ */
+class PooledByteBufferOutputStream extends OutputStream {
+    private final StreamCachePool pool;
+    private final List<ByteBuffer> buffers = new ArrayList<ByteBuffer>();
+    private ByteBuffer current;
+    private int currentIndex = -1;
+    private long capacity;
+    private long size;
+
+    PooledByteBufferOutputStream(StreamCachePool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Ensures there is room to write the given number of bytes.
+     *
+     * @param len number of bytes to be written
+     * @return <tt>true</tt> if there is room, <tt>false</tt> if the memory budget is used up
+     */
+    boolean ensureCapacity(int len) {
+        while (capacity - size < len) {
+            ByteBuffer buffer = pool.acquire();
+            if (buffer == null) {
+                return false;
+            }
+            buffers.add(buffer);
+            capacity += buffer.capacity();
+        }
+        return true;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        nextBuffer().put((byte) b);
+        size++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            ByteBuffer buffer = nextBuffer();
+            int n = Math.min(len, buffer.remaining());
+            buffer.put(b, off, n);
+            off += n;
+            len -= n;
+            size += n;
+        }
+    }
+
+    long size() {
+        return size;
+    }
+
+    /**
+     * Gets read only views of the written bytes
+     */
+    List<ByteBuffer> getBuffers() {
+        List<ByteBuffer> answer = new ArrayList<ByteBuffer>(buffers.size());
+        for (ByteBuffer buffer : buffers) {
+            if (buffer.position() == 0) {
+                break;
+            }
+            ByteBuffer view = buffer.asReadOnlyBuffer();
+            view.flip();
+            answer.add(view);
+        }
+        return answer;
+    }
+
+    /**
+     * Writes all the bytes to the channel using a single gathering write where possible.
+     */
+    void writeTo(GatheringByteChannel channel) throws IOException {
+        ByteBuffer[] views = getBuffers().toArray(new ByteBuffer[0]);
+        long remaining = size;
+        while (remaining > 0) {
+            remaining -= channel.write(views);
+        }
+    }
+
+    /**
+     * Releases the buffers back to the pool, the stream cannot be used afterwards.
+     */
+    void release() {
+        for (ByteBuffer buffer : buffers) {
+            pool.release(buffer);
+        }
+        buffers.clear();
+        current = null;
+        currentIndex = -1;
+        capacity = 0;
+        size = 0;
+    }
+
+    /**
+     * Releases the buffers which has not been written to back to the pool, the stream cannot be written to afterwards.
+     */
+    void releaseUnused() {
+        for (int i = buffers.size() - 1; i >= 0 && buffers.get(i).position() == 0; i--) {
+            ByteBuffer buffer = buffers.remove(i);
+            capacity -= buffer.capacity();
+            pool.release(buffer);
+        }
+    }
+
+    private ByteBuffer nextBuffer() throws IOException {
+        if (current == null || !current.hasRemaining()) {
+            if (currentIndex + 1 >= buffers.size()) {
+                throw new IOException("No capacity reserved for writing to " + this);
+            }
+            current = buffers.get(++currentIndex);
+        }
+        return current;
+    }
+
+}
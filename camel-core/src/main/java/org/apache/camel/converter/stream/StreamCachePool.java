@@ -0,0 +1,211 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.converter.stream;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.camel.impl.ServiceSupport;
+
+/**
+ * A pool of direct {@link ByteBuffer}s used by {@link CachedOutputStream} to keep cached streams
+ * off the heap, with a global memory budget shared by all the exchanges in flight.
+ * <p/>
+ * The buffers are allocated in chunks of {@link #getChunkSize()} bytes, and are returned to the pool
+ * when the exchange is done so they can be reused. When the memory budget is used up the stream is
+ * spilled to a temporary file.
+ * <p/>
+ * To use the pool bind it in the {@link org.apache.camel.spi.Registry} and set the
+ * {@link CachedOutputStream#POOL} property on the {@link org.apache.camel.CamelContext} to its id.
+ * As the pool governs the memory used the default threshold of 64kb does not apply, but you can still
+ * set the {@link CachedOutputStream#THRESHOLD} to spill payloads larger than a given size. The {@link org.apache.camel.CamelContext} adds
+ * the pool as a service on startup so its statistics is exposed in JMX.
+ *
+ * @version 
+ */
+public class StreamCachePool extends ServiceSupport {
+
+    private int chunkSize = 64 * 1024;
+    private long memoryBudget = 64 * 1024 * 1024;
+    private final Queue<ByteBuffer> pool = new ConcurrentLinkedQueue<ByteBuffer>();
+    private final AtomicLong usedMemory = new AtomicLong();
+    private final AtomicLong peakUsedMemory = new AtomicLong();
+    private final AtomicLong spillCount = new AtomicLong();
+    private final AtomicLong spilledBytes = new AtomicLong();
+    private final AtomicLong budgetExhaustedCount = new AtomicLong();
+
+    public StreamCachePool() {
+    }
+
+    public StreamCachePool(long memoryBudget) {
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * Acquires a cleared buffer of {@link #getChunkSize()} bytes.
+     *
+     * @return the buffer, or <tt>null</tt> if the memory budget is used up
+     */
+    public ByteBuffer acquire() {
+        // reserve the memory before we take the buffer so we never go beyond the budget
+        long used;
+        do {
+            used = usedMemory.get();
+            if (used + chunkSize > memoryBudget) {
+                budgetExhaustedCount.incrementAndGet();
+                return null;
+            }
+        } while (!usedMemory.compareAndSet(used, used + chunkSize));
+        updatePeak(used + chunkSize);
+
+        ByteBuffer buffer = pool.poll();
+        if (buffer == null || buffer.capacity() != chunkSize) {
+            buffer = ByteBuffer.allocateDirect(chunkSize);
+        }
+        return buffer;
+    }
+
+    /**
+     * Releases the buffer back to the pool.
+     *
+     * @param buffer the buffer which was acquired from this pool
+     */
+    public void release(ByteBuffer buffer) {
+        buffer.clear();
+        if (buffer.capacity() == chunkSize && isRunAllowed()) {
+            pool.offer(buffer);
+        }
+        usedMemory.addAndGet(-buffer.capacity());
+    }
+
+    /**
+     * Callback when a cached stream has been spilled to a file.
+     */
+    void onSpill() {
+        spillCount.incrementAndGet();
+    }
+
+    /**
+     * Callback when bytes of a spilled stream has been written to the file.
+     */
+    void onSpilledBytes(long bytes) {
+        spilledBytes.addAndGet(bytes);
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Sets the size of the buffers to allocate, is by default 64kb.
+     */
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Sets the maximum number of bytes used by cached streams across all exchanges, is by default 64mb.
+     */
+    public void setMemoryBudget(long memoryBudget) {
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * Gets the number of bytes currently used by cached streams
+     */
+    public long getUsedMemory() {
+        return usedMemory.get();
+    }
+
+    /**
+     * Gets the highest number of bytes used by cached streams at the same time
+     */
+    public long getPeakUsedMemory() {
+        return peakUsedMemory.get();
+    }
+
+    /**
+     * Gets the number of free buffers in the pool
+     */
+    public int getPooledBuffers() {
+        return pool.size();
+    }
+
+    /**
+     * Gets the number of streams which has been spilled to a file
+     */
+    public long getSpillCount() {
+        return spillCount.get();
+    }
+
+    /**
+     * Gets the number of bytes which has been written to files by spilled streams
+     */
+    public long getSpilledBytes() {
+        return spilledBytes.get();
+    }
+
+    /**
+     * Gets the number of times a buffer could not be acquired because the memory budget was used up
+     */
+    public long getBudgetExhaustedCount() {
+        return budgetExhaustedCount.get();
+    }
+
+    /**
+     * Resets the statistics
+     */
+    public void resetStatistics() {
+        peakUsedMemory.set(usedMemory.get());
+        spillCount.set(0);
+        spilledBytes.set(0);
+        budgetExhaustedCount.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "StreamCachePool[chunkSize=" + chunkSize + ", memoryBudget=" + memoryBudget + "]";
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        // noop
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        // let the buffers be garbage collected
+        pool.clear();
+    }
+
+    private void updatePeak(long used) {
+        long peak;
+        do {
+            peak = peakUsedMemory.get();
+            if (used <= peak) {
+                return;
+            }
+        } while (!peakUsedMemory.compareAndSet(peak, used));
+    }
+
+}
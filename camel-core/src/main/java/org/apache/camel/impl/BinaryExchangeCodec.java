@@ -0,0 +1,273 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamConstants;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.camel.converter.jaxp.BytesSource;
+
+/**
+ * {@link org.apache.camel.spi.ExchangeCodec} which uses a compact and versioned binary format.
+ * <p/>
+ * The exchange id, headers, properties and bodies is written directly using a type tag followed by the value
+ * for the common types: {@link String}, <tt>byte[]</tt>, stream bodies (which the {@link DefaultExchangeHolder}
+ * holds as {@link BytesSource}), {@link Date} and the primitive wrapper types. Any other value is written using
+ * Java serialization.
+ * <p/>
+ * Decoding supports data encoded by {@link SerializationExchangeCodec} as well, which allows to switch
+ * to this codec for already persisted exchanges.
+ *
+ * @version 
+ */
+public class BinaryExchangeCodec extends SerializationExchangeCodec {
+
+    /**
+     * The current version of the binary format
+     */
+    public static final int VERSION = 1;
+
+    private static final int MAGIC = 0xCA3E;
+    private static final String UTF8 = "UTF-8";
+
+    private static final int NULL = 0;
+    private static final int STRING = 1;
+    private static final int BYTES = 2;
+    private static final int BYTES_SOURCE = 3;
+    private static final int BOOLEAN = 4;
+    private static final int BYTE = 5;
+    private static final int SHORT = 6;
+    private static final int CHARACTER = 7;
+    private static final int INTEGER = 8;
+    private static final int LONG = 9;
+    private static final int FLOAT = 10;
+    private static final int DOUBLE = 11;
+    private static final int DATE = 12;
+    private static final int SERIALIZED = 13;
+
+    @Override
+    public void encode(DefaultExchangeHolder holder, OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+        out.writeShort(MAGIC);
+        out.writeByte(VERSION);
+
+        writeString(out, holder.getExchangeId());
+        writeValue(out, holder.getInBody());
+        writeMap(out, holder.getInHeaders());
+        writeValue(out, holder.getOutBody());
+        out.writeBoolean(holder.getOutFaultFlag() != null && holder.getOutFaultFlag());
+        writeMap(out, holder.getOutHeaders());
+        writeMap(out, holder.getProperties());
+        writeValue(out, holder.getException());
+        out.flush();
+    }
+
+    @Override
+    public DefaultExchangeHolder decode(InputStream stream) throws IOException {
+        PushbackInputStream pushback = new PushbackInputStream(stream, 2);
+        int b1 = pushback.read();
+        int b2 = pushback.read();
+        if (b1 == -1 || b2 == -1) {
+            throw new IOException("Cannot decode exchange as end of stream reached");
+        }
+        pushback.unread(b2);
+        pushback.unread(b1);
+
+        int magic = (b1 << 8) | b2;
+        if (magic == (ObjectStreamConstants.STREAM_MAGIC & 0xFFFF)) {
+            // the data is encoded using Java serialization
+            return super.decode(pushback);
+        } else if (magic != MAGIC) {
+            throw new IOException("Cannot decode exchange as the data is not in a known format");
+        }
+
+        DataInputStream in = new DataInputStream(pushback);
+        in.readShort();
+        int version = in.readUnsignedByte();
+        if (version > VERSION) {
+            throw new IOException("Cannot decode exchange encoded with version " + version
+                    + " of the binary format, which is newer than the supported version " + VERSION);
+        }
+
+        DefaultExchangeHolder holder = new DefaultExchangeHolder();
+        holder.setExchangeId(readString(in));
+        holder.setInBody(readValue(in));
+        holder.setInHeaders(readMap(in));
+        holder.setOutBody(readValue(in));
+        holder.setOutFaultFlag(in.readBoolean());
+        holder.setOutHeaders(readMap(in));
+        holder.setProperties(readMap(in));
+        holder.setException((Exception) readValue(in));
+        return holder;
+    }
+
+    protected void writeMap(DataOutputStream out, Map<String, Object> map) throws IOException {
+        if (map == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(map.size());
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            writeString(out, entry.getKey());
+            writeValue(out, entry.getValue());
+        }
+    }
+
+    protected Map<String, Object> readMap(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        Map<String, Object> answer = new LinkedHashMap<String, Object>(Math.max(16, (int) (size / 0.75f) + 1));
+        for (int i = 0; i < size; i++) {
+            String key = readString(in);
+            answer.put(key, readValue(in));
+        }
+        return answer;
+    }
+
+    protected void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String) {
+            out.writeByte(STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof byte[]) {
+            out.writeByte(BYTES);
+            writeBytes(out, (byte[]) value);
+        } else if (value.getClass() == BytesSource.class) {
+            BytesSource source = (BytesSource) value;
+            out.writeByte(BYTES_SOURCE);
+            writeBytes(out, source.getData());
+            writeString(out, source.getSystemId());
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Byte) {
+            out.writeByte(BYTE);
+            out.writeByte((Byte) value);
+        } else if (value instanceof Short) {
+            out.writeByte(SHORT);
+            out.writeShort((Short) value);
+        } else if (value instanceof Character) {
+            out.writeByte(CHARACTER);
+            out.writeChar((Character) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Float) {
+            out.writeByte(FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value.getClass() == Date.class) {
+            // only plain dates as sub classes such as java.sql.Timestamp holds more details
+            out.writeByte(DATE);
+            out.writeLong(((Date) value).getTime());
+        } else {
+            // fallback to use Java serialization
+            out.writeByte(SERIALIZED);
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            ObjectOutputStream oos = new ObjectOutputStream(bos);
+            oos.writeObject(value);
+            oos.close();
+            writeBytes(out, bos.toByteArray());
+        }
+    }
+
+    protected Object readValue(DataInputStream in) throws IOException {
+        int type = in.readUnsignedByte();
+        switch (type) {
+        case NULL:
+            return null;
+        case STRING:
+            return readString(in);
+        case BYTES:
+            return readBytes(in);
+        case BYTES_SOURCE:
+            byte[] data = readBytes(in);
+            return new BytesSource(data, readString(in));
+        case BOOLEAN:
+            return in.readBoolean();
+        case BYTE:
+            return in.readByte();
+        case SHORT:
+            return in.readShort();
+        case CHARACTER:
+            return in.readChar();
+        case INTEGER:
+            return in.readInt();
+        case LONG:
+            return in.readLong();
+        case FLOAT:
+            return in.readFloat();
+        case DOUBLE:
+            return in.readDouble();
+        case DATE:
+            return new Date(in.readLong());
+        case SERIALIZED:
+            return readObject(new ByteArrayInputStream(readBytes(in)));
+        default:
+            throw new IOException("Cannot decode value of unknown type: " + type);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        writeBytes(out, value != null ? value.getBytes(UTF8) : null);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] data = readBytes(in);
+        return data != null ? new String(data, UTF8) : null;
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] data) throws IOException {
+        if (data == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(data.length);
+            out.write(data);
+        }
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] data = new byte[length];
+        in.readFully(data);
+        return data;
+    }
+
+}
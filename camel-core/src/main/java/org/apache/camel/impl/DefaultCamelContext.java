@@ -66,6 +66,8 @@ import org.apache.camel.TypeConverter;
 import org.apache.camel.VetoCamelContextStartException;
 import org.apache.camel.builder.ErrorHandlerBuilder;
 import org.apache.camel.component.properties.PropertiesComponent;
+import org.apache.camel.converter.stream.CachedOutputStream;
+import org.apache.camel.converter.stream.StreamCachePool;
 import org.apache.camel.impl.converter.BaseTypeConverterRegistry;
 import org.apache.camel.impl.converter.DefaultTypeConverter;
 import org.apache.camel.impl.converter.LazyLoadingTypeConverter;
@@ -1426,6 +1428,12 @@ public class DefaultCamelContext extends ServiceSupport implements CamelContext,
         addService(inflightRepository);
         addService(shutdownStrategy);
 
+        // add the stream cache pool as a service so its managed
+        String streamCachePool = getProperties().get(CachedOutputStream.POOL);
+        if (streamCachePool != null) {
+            addService(CamelContextHelper.mandatoryLookup(this, streamCachePool, StreamCachePool.class));
+        }
+
         startServices(components.values());
 
         // start the route definitions before the routes is started
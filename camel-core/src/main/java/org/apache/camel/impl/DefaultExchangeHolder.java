@@ -16,11 +16,15 @@
  */
 package org.apache.camel.impl;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.apache.camel.Exchange;
+import org.apache.camel.spi.ExchangeCodec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,6 +46,8 @@ import org.slf4j.LoggerFactory;
  * <li>exception</li>
  * </ul>
  * Any object that is not serializable will be skipped and Camel will log this at WARN level.
+ * <p/>
+ * The holder can be encoded to bytes using an {@link org.apache.camel.spi.ExchangeCodec}.
  *
  * @version 
  */
@@ -124,6 +130,32 @@ public class DefaultExchangeHolder implements Serializable {
         exchange.setException(payload.exception);
     }
 
+    /**
+     * Creates a payload with the information from the given exchange, encoded to bytes using the given codec.
+     *
+     * @param exchange the exchange
+     * @param codec    the codec to encode the holder object
+     * @return the encoded holder object with information copied form the exchange
+     * @throws IOException is thrown if error encoding the holder object
+     */
+    public static byte[] marshal(Exchange exchange, ExchangeCodec codec) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        codec.encode(marshal(exchange), bos);
+        return bos.toByteArray();
+    }
+
+    /**
+     * Transfers the information from the payload, which is decoded using the given codec, to the exchange.
+     *
+     * @param exchange the exchange to set values from the payload
+     * @param payload  the payload encoded by the codec
+     * @param codec    the codec to decode the holder object
+     * @throws IOException is thrown if error decoding the holder object
+     */
+    public static void unmarshal(Exchange exchange, byte[] payload, ExchangeCodec codec) throws IOException {
+        unmarshal(exchange, codec.decode(new ByteArrayInputStream(payload)));
+    }
+
     /**
      * Adds a property to the payload.
      * <p/>
@@ -144,6 +176,70 @@ public class DefaultExchangeHolder implements Serializable {
         payload.properties.put(key, property);
     }
 
+    public String getExchangeId() {
+        return exchangeId;
+    }
+
+    public void setExchangeId(String exchangeId) {
+        this.exchangeId = exchangeId;
+    }
+
+    public Object getInBody() {
+        return inBody;
+    }
+
+    public void setInBody(Object inBody) {
+        this.inBody = inBody;
+    }
+
+    public Object getOutBody() {
+        return outBody;
+    }
+
+    public void setOutBody(Object outBody) {
+        this.outBody = outBody;
+    }
+
+    public Boolean getOutFaultFlag() {
+        return outFaultFlag;
+    }
+
+    public void setOutFaultFlag(Boolean outFaultFlag) {
+        this.outFaultFlag = outFaultFlag;
+    }
+
+    public Map<String, Object> getInHeaders() {
+        return inHeaders;
+    }
+
+    public void setInHeaders(Map<String, Object> inHeaders) {
+        this.inHeaders = inHeaders;
+    }
+
+    public Map<String, Object> getOutHeaders() {
+        return outHeaders;
+    }
+
+    public void setOutHeaders(Map<String, Object> outHeaders) {
+        this.outHeaders = outHeaders;
+    }
+
+    public Map<String, Object> getProperties() {
+        return properties;
+    }
+
+    public void setProperties(Map<String, Object> properties) {
+        this.properties = properties;
+    }
+
+    public Exception getException() {
+        return exception;
+    }
+
+    public void setException(Exception exception) {
+        this.exception = exception;
+    }
+
     public String toString() {
         StringBuilder sb = new StringBuilder("DefaultExchangeHolder[exchangeId=").append(exchangeId);
         sb.append("inBody=").append(inBody).append(", outBody=").append(outBody);
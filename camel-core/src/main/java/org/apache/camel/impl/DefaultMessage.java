@@ -23,6 +23,7 @@ import javax.activation.DataHandler;
 
 import org.apache.camel.Exchange;
 import org.apache.camel.Message;
+import org.apache.camel.util.CaseInsensitiveHeaderMap;
 import org.apache.camel.util.CaseInsensitiveMap;
 import org.apache.camel.util.EndpointHelper;
 import org.apache.camel.util.MessageHelper;
@@ -30,10 +31,10 @@ import org.apache.camel.util.MessageHelper;
 /**
  * The default implementation of {@link org.apache.camel.Message}
  * <p/>
- * This implementation uses a {@link org.apache.camel.util.CaseInsensitiveMap} storing the headers.
+ * This implementation uses a {@link org.apache.camel.util.CaseInsensitiveHeaderMap} storing the headers.
  * This allows us to be able to lookup headers using case insensitive keys, making it easier for end users
  * as they do not have to be worried about using exact keys.
- * See more details at {@link org.apache.camel.util.CaseInsensitiveMap}.
+ * See more details at {@link org.apache.camel.util.CaseInsensitiveHeaderMap}.
  *
  * @version 
  */
@@ -53,6 +54,17 @@ public class DefaultMessage extends MessageSupport {
         fault = that.isFault();
     }
 
+    @Override
+    protected void copyHeadersFrom(Message that) {
+        if (that.hasHeaders() && that.getHeaders() instanceof CaseInsensitiveHeaderMap) {
+            // the existing headers would be replaced anyway, so we can use a copy on write copy of the headers
+            // which is cheap as the headers is first copied if either message changes its headers
+            headers = new CaseInsensitiveHeaderMap((CaseInsensitiveHeaderMap) that.getHeaders());
+        } else {
+            super.copyHeadersFrom(that);
+        }
+    }
+
     public boolean isFault() {
         return fault;
     }
@@ -163,11 +175,11 @@ public class DefaultMessage extends MessageSupport {
     }
 
     public void setHeaders(Map<String, Object> headers) {
-        if (headers instanceof CaseInsensitiveMap) {
+        if (headers instanceof CaseInsensitiveHeaderMap || headers instanceof CaseInsensitiveMap) {
             this.headers = headers;
         } else {
             // wrap it in a case insensitive map
-            this.headers = new CaseInsensitiveMap(headers);
+            this.headers = new CaseInsensitiveHeaderMap(headers);
         }
     }
 
@@ -192,7 +204,7 @@ public class DefaultMessage extends MessageSupport {
      *         the underlying inbound transport
      */
     protected Map<String, Object> createHeaders() {
-        Map<String, Object> map = new CaseInsensitiveMap();
+        Map<String, Object> map = new CaseInsensitiveHeaderMap();
         populateInitialHeaders(map);
         return map;
     }
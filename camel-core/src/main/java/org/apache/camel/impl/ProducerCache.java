@@ -17,6 +17,10 @@
 package org.apache.camel.impl;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.camel.AsyncCallback;
 import org.apache.camel.AsyncProcessor;
@@ -34,6 +38,7 @@ import org.apache.camel.impl.converter.AsyncProcessorTypeConverter;
 import org.apache.camel.processor.UnitOfWorkProducer;
 import org.apache.camel.spi.ServicePool;
 import org.apache.camel.util.CamelContextHelper;
+import org.apache.camel.util.ConcurrentLRUCache;
 import org.apache.camel.util.EventHelper;
 import org.apache.camel.util.LRUCache;
 import org.apache.camel.util.ServiceHelper;
@@ -43,6 +48,10 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Cache containing created {@link Producer}.
+ * <p/>
+ * The default cache is a {@link ConcurrentLRUCache} so producers can be looked up concurrently without
+ * locking. Producers evicted from the cache are stopped, which is deferred until the producer is no longer
+ * being used by a thread sending to it using this cache.
  *
  * @version 
  */
@@ -52,14 +61,34 @@ public class ProducerCache extends ServiceSupport {
     private final CamelContext camelContext;
     private final ServicePool<Endpoint, Producer> pool;
     private final Map<String, Producer> producers;
+    private final ConcurrentMap<Producer, ProducerUsage> usages = new ConcurrentHashMap<Producer, ProducerUsage>();
     private final Object source;
+    private final boolean stopOnEviction;
+
+    /**
+     * Keeps track of the threads using a cached producer, so an evicted producer is not stopped while in use.
+     */
+    private static final class ProducerUsage {
+        // number of threads using the producer, or -1 when the producer has been stopped
+        private final AtomicInteger users = new AtomicInteger(1);
+        private volatile boolean evicted;
+    }
 
     public ProducerCache(Object source, CamelContext camelContext) {
         this(source, camelContext, CamelContextHelper.getMaximumCachePoolSize(camelContext));
     }
 
     public ProducerCache(Object source, CamelContext camelContext, int cacheSize) {
-        this(source, camelContext, camelContext.getProducerServicePool(), new LRUCache<String, Producer>(cacheSize));
+        this.source = source;
+        this.camelContext = camelContext;
+        this.pool = camelContext.getProducerServicePool();
+        this.producers = new ConcurrentLRUCache<String, Producer>(cacheSize) {
+            @Override
+            protected void onEviction(String key, Producer producer) {
+                evictProducer(producer);
+            }
+        };
+        this.stopOnEviction = true;
     }
 
     public ProducerCache(Object source, CamelContext camelContext, ServicePool<Endpoint, Producer> producerServicePool, Map<String, Producer> cache) {
@@ -67,6 +96,7 @@ public class ProducerCache extends ServiceSupport {
         this.camelContext = camelContext;
         this.pool = producerServicePool;
         this.producers = cache;
+        this.stopOnEviction = false;
     }
     
     public CamelContext getCamelContext() {
@@ -107,6 +137,8 @@ public class ProducerCache extends ServiceSupport {
         } else if (!producer.isSingleton()) {
             // stop non singleton producers as we should not leak resources
             producer.stop();
+        } else {
+            releaseCachedProducer(producer);
         }
     }
 
@@ -227,6 +259,8 @@ public class ProducerCache extends ServiceSupport {
                     // ignore and continue
                     LOG.warn("Error stopping producer: " + producer, e);
                 }
+            } else {
+                releaseCachedProducer(producer);
             }
         }
 
@@ -245,7 +279,7 @@ public class ProducerCache extends ServiceSupport {
      * @param producerCallback the producer template callback to be executed
      * @return (doneSync) <tt>true</tt> to continue execute synchronously, <tt>false</tt> to continue being executed asynchronously
      */
-    public boolean doInAsyncProducer(Endpoint endpoint, Exchange exchange, ExchangePattern pattern, AsyncCallback callback, AsyncProducerCallback producerCallback) {
+    public boolean doInAsyncProducer(Endpoint endpoint, Exchange exchange, ExchangePattern pattern, final AsyncCallback callback, AsyncProducerCallback producerCallback) {
         boolean sync = true;
 
         // get the producer and we do not mind if its pooled as we can handle returning it back to the pool
@@ -266,10 +300,30 @@ public class ProducerCache extends ServiceSupport {
             watch = new StopWatch();
         }
 
+        // a cached producer must not be stopped due eviction while the exchange is still in flight,
+        // so if the exchange continues asynchronously then the producer is released from the callback
+        final AtomicBoolean release = new AtomicBoolean();
+        final Producer cached = producer;
+        AsyncCallback target = callback;
+        if (isTrackedProducer(producer)) {
+            release.set(true);
+            target = new AsyncCallback() {
+                public void done(boolean doneSync) {
+                    try {
+                        callback.done(doneSync);
+                    } finally {
+                        if (!doneSync && release.compareAndSet(true, false)) {
+                            releaseCachedProducer(cached);
+                        }
+                    }
+                }
+            };
+        }
+
         try {
             // invoke the callback
             AsyncProcessor asyncProcessor = AsyncProcessorTypeConverter.convert(producer);
-            sync = producerCallback.doInAsyncProducer(producer, asyncProcessor, exchange, pattern, callback);
+            sync = producerCallback.doInAsyncProducer(producer, asyncProcessor, exchange, pattern, target);
         } catch (Throwable e) {
             // ensure exceptions is caught and set on the exchange
             if (exchange != null) {
@@ -292,6 +346,9 @@ public class ProducerCache extends ServiceSupport {
                     // ignore and continue
                     LOG.warn("Error stopping producer: " + producer, e);
                 }
+            } else if (sync && release.compareAndSet(true, false)) {
+                // the exchange is done so release the producer, otherwise the callback will release it
+                releaseCachedProducer(producer);
             }
         }
 
@@ -344,9 +401,9 @@ public class ProducerCache extends ServiceSupport {
         });
     }
 
-    protected synchronized Producer doGetProducer(Endpoint endpoint, boolean pooled) {
+    protected Producer doGetProducer(Endpoint endpoint, boolean pooled) {
         String key = endpoint.getEndpointUri();
-        Producer answer = producers.get(key);
+        Producer answer = acquireCachedProducer(key);
         if (pooled && answer == null) {
             // try acquire from connection pool
             answer = pool.acquire(endpoint);
@@ -369,19 +426,136 @@ public class ProducerCache extends ServiceSupport {
                 }
                 answer = pool.addAndAcquire(endpoint, answer);
             } else if (answer.isSingleton()) {
+                answer = addCachedProducer(key, answer);
+            }
+        }
+
+        return answer;
+    }
+
+    /**
+     * Gets the producer from the cache and marks it as being used.
+     *
+     * @return the producer, or <tt>null</tt> if not in the cache or it has just been evicted and stopped
+     */
+    private Producer acquireCachedProducer(String key) {
+        Producer answer;
+        if (producers instanceof ConcurrentMap) {
+            answer = producers.get(key);
+        } else {
+            // custom caches may not be thread safe
+            synchronized (producers) {
+                answer = producers.get(key);
+            }
+        }
+
+        if (answer != null && stopOnEviction) {
+            ProducerUsage usage = usages.get(answer);
+            while (true) {
+                int users = usage != null ? usage.users.get() : -1;
+                if (users < 0) {
+                    // has been stopped due eviction
+                    return null;
+                }
+                if (usage.users.compareAndSet(users, users + 1)) {
+                    break;
+                }
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Adds the producer to the cache, unless another thread has concurrently added a producer for the same endpoint,
+     * in which case the given producer is stopped and the cached producer is used instead.
+     */
+    private Producer addCachedProducer(String key, Producer producer) {
+        // only track usage if evicted producers are stopped
+        if (stopOnEviction) {
+            usages.put(producer, new ProducerUsage());
+        }
+
+        while (true) {
+            Producer existing;
+            if (producers instanceof ConcurrentMap) {
+                existing = ((ConcurrentMap<String, Producer>) producers).putIfAbsent(key, producer);
+            } else {
+                synchronized (producers) {
+                    existing = producers.get(key);
+                    if (existing == null) {
+                        producers.put(key, producer);
+                    }
+                }
+            }
+
+            if (existing == null) {
                 if (LOG.isDebugEnabled()) {
-                    LOG.debug("Adding to producer cache with key: " + endpoint + " for producer: " + answer);
+                    LOG.debug("Adding to producer cache with key: " + key + " for producer: " + producer);
                 }
-                producers.put(key, answer);
+                return producer;
+            }
+
+            Producer cached = acquireCachedProducer(key);
+            if (cached != null) {
+                usages.remove(producer);
+                stopProducer(producer);
+                return cached;
             }
+            // the existing producer was just evicted so try again
         }
+    }
 
-        return answer;
+    /**
+     * Whether the usage of the producer is tracked, so it must be released after use.
+     */
+    private boolean isTrackedProducer(Producer producer) {
+        return stopOnEviction && !(producer instanceof ServicePoolAware) && producer.isSingleton();
+    }
+
+    /**
+     * Marks the producer as no longer being used, stopping it if it was evicted while being used.
+     */
+    private void releaseCachedProducer(Producer producer) {
+        ProducerUsage usage = usages.get(producer);
+        if (usage != null && usage.users.decrementAndGet() == 0 && usage.evicted && usage.users.compareAndSet(0, -1)) {
+            usages.remove(producer);
+            stopProducer(producer);
+        }
+    }
+
+    /**
+     * Invoked when the producer has been evicted from the cache, stopping it unless its being used.
+     */
+    private void evictProducer(Producer producer) {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Evicted producer from producer cache: " + producer);
+        }
+        ProducerUsage usage = usages.get(producer);
+        if (usage == null) {
+            stopProducer(producer);
+            return;
+        }
+        usage.evicted = true;
+        // if being used then the last thread using the producer stops it
+        if (usage.users.compareAndSet(0, -1)) {
+            usages.remove(producer);
+            stopProducer(producer);
+        }
+    }
+
+    private void stopProducer(Producer producer) {
+        try {
+            ServiceHelper.stopService(producer);
+        } catch (Exception e) {
+            // ignore and continue
+            LOG.warn("Error stopping producer: " + producer, e);
+        }
     }
 
     protected void doStop() throws Exception {
         ServiceHelper.stopServices(producers, pool);
         producers.clear();
+        usages.clear();
     }
 
     protected void doStart() throws Exception {
@@ -412,13 +586,57 @@ public class ProducerCache extends ServiceSupport {
      */
     public int getCapacity() {
         int capacity = -1;
-        if (producers instanceof LRUCache) {
+        if (producers instanceof ConcurrentLRUCache) {
+            capacity = ((ConcurrentLRUCache) producers).getMaxCacheSize();
+        } else if (producers instanceof LRUCache) {
             LRUCache cache = (LRUCache) producers;
             capacity = cache.getMaxCacheSize();
         }
         return capacity;
     }
 
+    /**
+     * Gets the number of lookups which found a producer in the cache.
+     * <p/>
+     * Will return <tt>-1</tt> if it cannot determine this if a custom cache was used.
+     *
+     * @return the hits
+     */
+    public long getHits() {
+        return producers instanceof ConcurrentLRUCache ? ((ConcurrentLRUCache) producers).getHits() : -1;
+    }
+
+    /**
+     * Gets the number of lookups which did not find a producer in the cache.
+     * <p/>
+     * Will return <tt>-1</tt> if it cannot determine this if a custom cache was used.
+     *
+     * @return the misses
+     */
+    public long getMisses() {
+        return producers instanceof ConcurrentLRUCache ? ((ConcurrentLRUCache) producers).getMisses() : -1;
+    }
+
+    /**
+     * Gets the number of producers evicted from the cache.
+     * <p/>
+     * Will return <tt>-1</tt> if it cannot determine this if a custom cache was used.
+     *
+     * @return the evictions
+     */
+    public long getEvictions() {
+        return producers instanceof ConcurrentLRUCache ? ((ConcurrentLRUCache) producers).getEvictions() : -1;
+    }
+
+    /**
+     * Resets the cache statistics
+     */
+    public void resetCacheStatistics() {
+        if (producers instanceof ConcurrentLRUCache) {
+            ((ConcurrentLRUCache) producers).resetStatistics();
+        }
+    }
+
     @Override
     public String toString() {
         return "ProducerCache for source: " + source;
@@ -0,0 +1,88 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+
+import org.apache.camel.spi.ExchangeCodec;
+import org.apache.camel.spi.ObjectInputStreamFactory;
+
+/**
+ * {@link ExchangeCodec} which uses Java serialization of the {@link DefaultExchangeHolder}.
+ *
+ * @version 
+ */
+public class SerializationExchangeCodec implements ExchangeCodec {
+
+    private ObjectInputStreamFactory objectInputStreamFactory;
+
+    public ObjectInputStreamFactory getObjectInputStreamFactory() {
+        return objectInputStreamFactory;
+    }
+
+    /**
+     * Sets the factory to create the {@link ObjectInputStream} for reading Java serialized objects, such as
+     * a class loader aware stream. By default a plain {@link ObjectInputStream} is used.
+     */
+    public void setObjectInputStreamFactory(ObjectInputStreamFactory objectInputStreamFactory) {
+        this.objectInputStreamFactory = objectInputStreamFactory;
+    }
+
+    public void encode(DefaultExchangeHolder holder, OutputStream stream) throws IOException {
+        ObjectOutputStream out = new ObjectOutputStream(stream);
+        out.writeObject(holder);
+        out.flush();
+    }
+
+    public DefaultExchangeHolder decode(InputStream stream) throws IOException {
+        Object answer = readObject(stream);
+        if (!(answer instanceof DefaultExchangeHolder)) {
+            throw new IOException("Cannot decode " + DefaultExchangeHolder.class.getName() + " as the data contains: " + answer);
+        }
+        return (DefaultExchangeHolder) answer;
+    }
+
+    /**
+     * Reads a Java serialized object from the stream
+     */
+    protected Object readObject(InputStream stream) throws IOException {
+        ObjectInputStream in = createObjectInputStream(stream);
+        try {
+            return in.readObject();
+        } catch (ClassNotFoundException e) {
+            IOException ioe = new IOException("Cannot decode object as class not found: " + e.getMessage());
+            ioe.initCause(e);
+            throw ioe;
+        }
+    }
+
+    /**
+     * Strategy to create the {@link ObjectInputStream} for reading Java serialized objects, which uses
+     * the {@link ObjectInputStreamFactory} if configured.
+     */
+    protected ObjectInputStream createObjectInputStream(InputStream stream) throws IOException {
+        if (objectInputStreamFactory != null) {
+            return objectInputStreamFactory.createObjectInputStream(stream);
+        }
+        return new ObjectInputStream(stream);
+    }
+
+}
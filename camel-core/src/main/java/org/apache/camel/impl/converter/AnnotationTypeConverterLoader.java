@@ -17,6 +17,7 @@
 package org.apache.camel.impl.converter;
 
 import java.io.BufferedReader;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.lang.reflect.Method;
@@ -26,6 +27,7 @@ import java.net.URL;
 import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.StringTokenizer;
 import static java.lang.reflect.Modifier.isAbstract;
@@ -49,15 +51,25 @@ import org.slf4j.LoggerFactory;
 /**
  * A class which will auto-discover converter objects and methods to pre-load
  * the registry of converters on startup
+ * <p/>
+ * If a {@link #META_INF_SERVICES_INDEX} file is present next to the {@link #META_INF_SERVICES} file
+ * then the converter classes listed in the index is loaded directly, instead of scanning the
+ * packages on the classpath. The index is generated at build time by the
+ * <tt>converter-index-maven-plugin</tt>.
+ * <p/>
+ * The {@link #META_INF_SERVICES} file can also list the fully qualified names of converter classes,
+ * which is loaded directly instead of scanning their packages.
  *
  * @version 
  */
 public class AnnotationTypeConverterLoader implements TypeConverterLoader {
     public static final String META_INF_SERVICES = "META-INF/services/org/apache/camel/TypeConverter";
+    public static final String META_INF_SERVICES_INDEX = "META-INF/services/org/apache/camel/TypeConverterIndex";
     private static final transient Logger LOG = LoggerFactory.getLogger(AnnotationTypeConverterLoader.class);
     protected PackageScanClassResolver resolver;
     protected Set<Class<?>> visitedClasses = new HashSet<Class<?>>();
     protected Set<URI> visitedURIs = new HashSet<URI>();
+    protected Set<Class<?>> indexedClasses = new LinkedHashSet<Class<?>>();
 
     public AnnotationTypeConverterLoader(PackageScanClassResolver resolver) {
         this.resolver = resolver;
@@ -67,19 +79,28 @@ public class AnnotationTypeConverterLoader implements TypeConverterLoader {
         String[] packageNames;
         try {
             packageNames = findPackageNames();
-            if (packageNames == null || packageNames.length == 0) {
+            if ((packageNames == null || packageNames.length == 0) && indexedClasses.isEmpty()) {
                 throw new TypeConverterLoaderException("Cannot find package names to be used for classpath scanning for annotated type converters.");
             }
+        } catch (TypeConverterLoaderException e) {
+            throw e;
         } catch (Exception e) {
             throw new TypeConverterLoaderException("Cannot find package names to be used for classpath scanning for annotated type converters.", e);
         }
 
-        Set<Class<?>> classes = resolver.findAnnotated(Converter.class, packageNames);
-        if (classes == null || classes.isEmpty()) {
-            throw new TypeConverterLoaderException("Cannot find any type converter classes from the following packages: " + Arrays.asList(packageNames));
+        Set<Class<?>> classes = new LinkedHashSet<Class<?>>(indexedClasses);
+        if (packageNames != null && packageNames.length > 0) {
+            // only scan the packages which was not indexed
+            Set<Class<?>> scanned = resolver.findAnnotated(Converter.class, packageNames);
+            if (scanned == null || scanned.isEmpty()) {
+                throw new TypeConverterLoaderException("Cannot find any type converter classes from the following packages: " + Arrays.asList(packageNames));
+            }
+            classes.addAll(scanned);
+            LOG.info("Found " + packageNames.length + " packages with " + scanned.size() + " @Converter classes to load");
+        }
+        if (!indexedClasses.isEmpty()) {
+            LOG.info("Found " + indexedClasses.size() + " indexed @Converter classes to load");
         }
-
-        LOG.info("Found " + packageNames.length + " packages with " + classes.size() + " @Converter classes to load");
 
         for (Class type : classes) {
             if (LOG.isTraceEnabled()) {
@@ -91,11 +112,16 @@ public class AnnotationTypeConverterLoader implements TypeConverterLoader {
         // now clear the maps so we do not hold references
         visitedClasses.clear();
         visitedURIs.clear();
+        indexedClasses.clear();
     }
 
     /**
      * Finds the names of the packages to search for on the classpath looking
      * for text files on the classpath at the {@link #META_INF_SERVICES} location.
+     * <p/>
+     * Packages which has a {@link #META_INF_SERVICES_INDEX} is not returned, as their
+     * converter classes is added to {@link #indexedClasses} instead, as well as the converter
+     * classes which is listed by their class name.
      *
      * @return a collection of packages to search for
      * @throws IOException is thrown for IO related errors
@@ -119,9 +145,13 @@ public class AnnotationTypeConverterLoader implements TypeConverterLoader {
             if (!visitedURIs.contains(uri)) {
                 // remember we have visited this uri so we wont read it twice
                 visitedURIs.add(uri);
+                if (findIndexedClasses(url, classLoader)) {
+                    continue;
+                }
                 if (LOG.isDebugEnabled()) {
                     LOG.info("Loading file " + META_INF_SERVICES + " to retrieve list of packages, from url: " + url);
                 }
+                Set<String> names = new LinkedHashSet<String>();
                 BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream()));
                 try {
                     while (true) {
@@ -133,15 +163,85 @@ public class AnnotationTypeConverterLoader implements TypeConverterLoader {
                         if (line.startsWith("#") || line.length() == 0) {
                             continue;
                         }
-                        tokenize(packages, line);
+                        tokenize(names, line);
                     }
                 } finally {
                     IOHelper.close(reader, null, LOG);
                 }
+
+                for (String name : names) {
+                    if (isClassName(name)) {
+                        // a converter class is loaded directly so its package is not scanned
+                        Class<?> type = ObjectHelper.loadClass(name, classLoader);
+                        if (type != null) {
+                            indexedClasses.add(type);
+                        }
+                    } else {
+                        packages.add(name);
+                    }
+                }
             }
         }
     }
 
+    /**
+     * Loads the converter classes from the {@link #META_INF_SERVICES_INDEX} file which is located
+     * next to the given {@link #META_INF_SERVICES} file.
+     *
+     * @param url          the url of the {@link #META_INF_SERVICES} file
+     * @param classLoader  the class loader to load the converter classes
+     * @return <tt>true</tt> if the index was found and all its classes loaded, <tt>false</tt> to scan
+     *         the packages instead
+     */
+    protected boolean findIndexedClasses(URL url, ClassLoader classLoader) throws IOException {
+        URL indexUrl = new URL(url, "TypeConverterIndex");
+        BufferedReader reader;
+        try {
+            reader = new BufferedReader(new InputStreamReader(indexUrl.openStream()));
+        } catch (FileNotFoundException e) {
+            // no index so we must scan the packages
+            return false;
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Loading file " + META_INF_SERVICES_INDEX + " to retrieve list of converter classes, from url: " + indexUrl);
+        }
+        Set<Class<?>> classes = new LinkedHashSet<Class<?>>();
+        try {
+            while (true) {
+                String line = reader.readLine();
+                if (line == null) {
+                    break;
+                }
+                line = line.trim();
+                if (line.startsWith("#") || line.length() == 0) {
+                    continue;
+                }
+                Class<?> type = ObjectHelper.loadClass(line, classLoader, false);
+                if (type == null) {
+                    LOG.warn("Cannot load indexed converter class: " + line + " from url: " + indexUrl
+                            + ". Will scan the packages instead.");
+                    return false;
+                }
+                classes.add(type);
+            }
+        } finally {
+            IOHelper.close(reader, null, LOG);
+        }
+
+        indexedClasses.addAll(classes);
+        return true;
+    }
+
+    /**
+     * Whether the name from the META-INF/services file is the name of a class, which by convention
+     * starts with an upper case letter, rather than the name of a package.
+     */
+    private static boolean isClassName(String name) {
+        int idx = name.lastIndexOf('.');
+        return idx < name.length() - 1 && Character.isUpperCase(name.charAt(idx + 1));
+    }
+
     /**
      * Tokenizes the line from the META-IN/services file using commas and
      * ignoring whitespace between packages
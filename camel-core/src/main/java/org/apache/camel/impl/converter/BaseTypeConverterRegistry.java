@@ -20,11 +20,15 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.camel.CamelExecutionException;
 import org.apache.camel.Exchange;
@@ -55,6 +59,14 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
     protected final transient Logger log = LoggerFactory.getLogger(getClass());
     protected final Map<TypeMapping, TypeConverter> typeMappings = new ConcurrentHashMap<TypeMapping, TypeConverter>();
     protected final Map<TypeMapping, TypeMapping> misses = new ConcurrentHashMap<TypeMapping, TypeMapping>();
+    // two level lookup cache keyed by to type and then from type, so lookups do not need to create keys
+    protected final ConcurrentMap<Class<?>, ConcurrentMap<Class<?>, CachedLookup>> lookupCache
+            = new ConcurrentHashMap<Class<?>, ConcurrentMap<Class<?>, CachedLookup>>();
+    // the version of the lookup cache which is changed when its cleared, so lookups in progress do not cache stale results
+    private final AtomicInteger lookupCacheVersion = new AtomicInteger();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+    private volatile boolean statisticsEnabled;
     protected final List<TypeConverterLoader> typeConverterLoaders = new ArrayList<TypeConverterLoader>();
     protected final List<FallbackTypeConverter> fallbackConverters = new ArrayList<FallbackTypeConverter>();
     protected Injector injector;
@@ -166,18 +178,38 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
             return type.cast(value);
         }
 
-        // check if we have tried it before and if its a miss
-        TypeMapping key = new TypeMapping(type, value.getClass());
-        if (misses.containsKey(key)) {
-            // we have tried before but we cannot convert this one
-            return Void.TYPE;
+        // check the lookup cache first as its fast and do not require any locking or creating keys
+        Class<?> fromType = value.getClass();
+        int version = lookupCacheVersion.get();
+        CachedLookup cached = getCachedLookup(type, fromType);
+        if (cached != null) {
+            if (statisticsEnabled) {
+                cacheHits.incrementAndGet();
+            }
+            if (cached.miss) {
+                // we have tried before but we cannot convert this one
+                return Void.TYPE;
+            }
+        } else {
+            if (statisticsEnabled) {
+                cacheMisses.incrementAndGet();
+            }
+            // check if we have tried it before and if its a miss
+            TypeMapping key = new TypeMapping(type, fromType);
+            if (misses.containsKey(key)) {
+                cacheLookup(type, fromType, CachedLookup.MISS, version);
+                return Void.TYPE;
+            }
+            // try to find a suitable type converter and remember what we found
+            TypeConverter converter = getOrFindTypeConverter(type, value);
+            cached = converter != null ? new CachedLookup(converter) : CachedLookup.NONE;
+            cacheLookup(type, fromType, cached, version);
         }
 
-        // try to find a suitable type converter
-        TypeConverter converter = getOrFindTypeConverter(type, value);
+        TypeConverter converter = cached.converter;
         if (converter != null) {
             if (log.isTraceEnabled()) {
-                log.trace("Using converter: " + converter + " to convert " + key);
+                log.trace("Using converter: " + converter + " to convert [" + fromType + "=>" + type + "]");
             }
             Object rc = converter.convertTo(type, exchange, value);
             if (rc != null) {
@@ -185,7 +217,7 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
             }
         }
 
-        // fallback converters
+        // fallback converters, which must be tried in order as whether they can convert may depend on the value
         for (FallbackTypeConverter fallback : fallbackConverters) {
             Object rc = fallback.getFallbackTypeConverter().convertTo(type, exchange, value);
 
@@ -225,9 +257,11 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
         }
 
         // Could not find suitable conversion, so remember it
+        TypeMapping key = new TypeMapping(type, fromType);
         synchronized (misses) {
             misses.put(key, key);
         }
+        cacheLookup(type, fromType, CachedLookup.MISS, version);
 
         // Could not find suitable conversion, so return Void to indicate not found
         return Void.TYPE;
@@ -247,6 +281,8 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
                     log.warn("Overriding type converter from: " + converter + " to: " + typeConverter);
                 }
                 typeMappings.put(key, typeConverter);
+                // the new type converter may change the outcome of previous lookups for the same types
+                invalidateLookups(toType, fromType);
             }
         }
     }
@@ -258,6 +294,8 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
 
         // add in top of fallback as the toString() fallback will nearly always be able to convert
         fallbackConverters.add(0, new FallbackTypeConverter(typeConverter, canPromote));
+        // the new fallback converter may be able to convert what could not be converted before
+        invalidateMisses();
         if (typeConverter instanceof TypeConverterAware) {
             TypeConverterAware typeConverterAware = (TypeConverterAware) typeConverter;
             typeConverterAware.setTypeConverter(this);
@@ -304,6 +342,141 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
         return typeMappings;
     }
 
+    public boolean isStatisticsEnabled() {
+        return statisticsEnabled;
+    }
+
+    /**
+     * Sets whether to count the lookup cache hits and misses, which is disabled by default
+     * as the counters are updated by every conversion.
+     */
+    public void setStatisticsEnabled(boolean statisticsEnabled) {
+        this.statisticsEnabled = statisticsEnabled;
+    }
+
+    /**
+     * Number of conversions where the converter to use was found in the lookup cache
+     */
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    /**
+     * Number of conversions where the converter to use was not found in the lookup cache
+     * and therefore had to be looked up
+     */
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
+
+    /**
+     * Number of from/to type pairs in the lookup cache
+     */
+    public int getCacheSize() {
+        int size = 0;
+        for (Map<Class<?>, CachedLookup> entry : lookupCache.values()) {
+            size += entry.size();
+        }
+        return size;
+    }
+
+    /**
+     * Resets the lookup cache hit and miss counters
+     */
+    public void resetCacheStatistics() {
+        cacheHits.set(0);
+        cacheMisses.set(0);
+    }
+
+    private CachedLookup getCachedLookup(Class<?> toType, Class<?> fromType) {
+        Map<Class<?>, CachedLookup> fromTypes = lookupCache.get(toType);
+        return fromTypes != null ? fromTypes.get(fromType) : null;
+    }
+
+    /**
+     * Caches the result of a lookup which was started when the lookup cache had the given version.
+     */
+    private void cacheLookup(Class<?> toType, Class<?> fromType, CachedLookup lookup, int version) {
+        if (version != lookupCacheVersion.get()) {
+            // the cache has been cleared since the lookup started so the result may be stale
+            return;
+        }
+        ConcurrentMap<Class<?>, CachedLookup> fromTypes = lookupCache.get(toType);
+        if (fromTypes == null) {
+            ConcurrentMap<Class<?>, CachedLookup> created = new ConcurrentHashMap<Class<?>, CachedLookup>();
+            fromTypes = lookupCache.putIfAbsent(toType, created);
+            if (fromTypes == null) {
+                fromTypes = created;
+            }
+        }
+        fromTypes.put(fromType, lookup);
+        if (version != lookupCacheVersion.get()) {
+            // the cache was cleared while we added the result so remove it again
+            fromTypes.remove(fromType, lookup);
+        }
+    }
+
+    /**
+     * Removes the cached lookups and misses which a type converter from the given type to the given type
+     * could be used for, which are the lookups to the same or a super type from the same or a sub type.
+     */
+    private void invalidateLookups(Class<?> toType, Class<?> fromType) {
+        // change the version before removing so lookups in progress will not add their results afterwards
+        lookupCacheVersion.incrementAndGet();
+        for (Map.Entry<Class<?>, ConcurrentMap<Class<?>, CachedLookup>> entry : lookupCache.entrySet()) {
+            Class<?> cachedToType = entry.getKey();
+            if (isAssignableTo(cachedToType, toType)) {
+                for (Class<?> cachedFromType : entry.getValue().keySet()) {
+                    if (fromType.isAssignableFrom(cachedFromType)) {
+                        entry.getValue().remove(cachedFromType);
+                    }
+                }
+            }
+        }
+        synchronized (misses) {
+            for (Iterator<TypeMapping> it = misses.keySet().iterator(); it.hasNext();) {
+                TypeMapping key = it.next();
+                if (isAssignableTo(key.getToType(), toType) && key.getFromType() != null
+                        && fromType.isAssignableFrom(key.getFromType())) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the cached misses, but keeps the lookups which found a type converter as the type converters
+     * are tried before any fallback converter.
+     */
+    private void invalidateMisses() {
+        lookupCacheVersion.incrementAndGet();
+        for (ConcurrentMap<Class<?>, CachedLookup> fromTypes : lookupCache.values()) {
+            for (Map.Entry<Class<?>, CachedLookup> entry : fromTypes.entrySet()) {
+                if (entry.getValue().miss) {
+                    fromTypes.remove(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        misses.clear();
+    }
+
+    /**
+     * Whether a value of the given type can be used as the cached to type, where a primitive to type
+     * is also converted using its wrapper type.
+     */
+    private static boolean isAssignableTo(Class<?> cachedToType, Class<?> type) {
+        if (cachedToType.isAssignableFrom(type)) {
+            return true;
+        }
+        return cachedToType.isPrimitive() && ObjectHelper.convertPrimitiveTypeToWrapperType(cachedToType).isAssignableFrom(type);
+    }
+
+    private void clearLookupCache() {
+        // change the version before clearing so lookups in progress will not add their results afterwards
+        lookupCacheVersion.incrementAndGet();
+        lookupCache.clear();
+    }
+
     protected <T> TypeConverter getOrFindTypeConverter(Class<?> toType, Object value) {
         Class<?> fromType = null;
         if (value != null) {
@@ -425,6 +598,8 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
     protected void doStop() throws Exception {
         typeMappings.clear();
         misses.clear();
+        clearLookupCache();
+        resetCacheStatistics();
         // let property editor type converter stop and cleanup resources
         ServiceHelper.stopService(propertyEditorTypeConverter);
     }
@@ -478,6 +653,29 @@ public abstract class BaseTypeConverterRegistry extends ServiceSupport implement
         }
     }
 
+    /**
+     * Represents the outcome of looking up how to convert from one type to another,
+     * which is kept in the lookup cache.
+     */
+    protected static final class CachedLookup {
+        // no type converter, so only the fallback converters can convert
+        static final CachedLookup NONE = new CachedLookup(null);
+        // no type converter or fallback converter can convert
+        static final CachedLookup MISS = new CachedLookup(null, true);
+
+        final TypeConverter converter;
+        final boolean miss;
+
+        CachedLookup(TypeConverter converter) {
+            this(converter, false);
+        }
+
+        private CachedLookup(TypeConverter converter, boolean miss) {
+            this.converter = converter;
+            this.miss = miss;
+        }
+    }
+
     /**
      * Represents a fallback type converter
      */
@@ -37,6 +37,7 @@ import org.apache.camel.util.ObjectHelper;
  */
 public class LazyLoadingTypeConverter extends BaseTypeConverterRegistry {
     private final AtomicBoolean loaded = new AtomicBoolean();
+    private volatile boolean ready;
 
     public LazyLoadingTypeConverter(PackageScanClassResolver resolver, Injector injector, FactoryFinder factoryFinder) {
         super(resolver, injector, factoryFinder);
@@ -78,12 +79,19 @@ public class LazyLoadingTypeConverter extends BaseTypeConverterRegistry {
         return super.doLookup(toType, fromType, isSuper);
     }
 
-    private synchronized void ensureLoaded() {
-        if (loaded.compareAndSet(false, true)) {
-            try {
-                super.loadTypeConverters();
-            } catch (Exception e) {
-                throw ObjectHelper.wrapRuntimeCamelException(e);
+    private void ensureLoaded() {
+        // fast check without locking as type converters is only loaded once
+        if (ready) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded.compareAndSet(false, true)) {
+                try {
+                    super.loadTypeConverters();
+                } catch (Exception e) {
+                    throw ObjectHelper.wrapRuntimeCamelException(e);
+                }
+                ready = true;
             }
         }
     }
@@ -92,6 +100,7 @@ public class LazyLoadingTypeConverter extends BaseTypeConverterRegistry {
     protected void doStop() throws Exception {
         super.doStop();
         // reset loaded flag
+        ready = false;
         loaded.set(false);
     }
 }
@@ -23,6 +23,7 @@ import java.io.InputStreamReader;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Dictionary;
 import java.util.Enumeration;
 import java.util.HashMap;
@@ -73,6 +74,7 @@ public class Activator implements BundleActivator, BundleTrackerCustomizer {
     public static final String META_INF_LANGUAGE_RESOLVER = "META-INF/services/org/apache/camel/language/resolver/";
     public static final String META_INF_DATAFORMAT = "META-INF/services/org/apache/camel/dataformat/";
     public static final String META_INF_TYPE_CONVERTER = "META-INF/services/org/apache/camel/TypeConverter";
+    public static final String META_INF_TYPE_CONVERTER_INDEX = "META-INF/services/org/apache/camel/TypeConverterIndex";
     public static final String META_INF_FALLBACK_TYPE_CONVERTER = "META-INF/services/org/apache/camel/FallbackTypeConverter";
 
     private static final transient Logger LOG = LoggerFactory.getLogger(Activator.class);
@@ -306,8 +308,9 @@ public class Activator implements BundleActivator, BundleTrackerCustomizer {
             @SuppressWarnings("unchecked")
             public void load(TypeConverterRegistry registry) throws TypeConverterLoaderException {
                 PackageScanFilter test = new AnnotatedWithPackageScanFilter(Converter.class, true);
-                Set<Class<?>> classes = new LinkedHashSet<Class<?>>();
-                Set<String> packages = getConverterPackages(bundle.getEntry(META_INF_TYPE_CONVERTER));
+                Set<Class<?>> classes = loadIndexedConverterClasses(bundle.getEntry(META_INF_TYPE_CONVERTER_INDEX));
+                // only scan the bundle if the converter classes was not indexed
+                Set<String> packages = classes.isEmpty() ? getConverterPackages(bundle.getEntry(META_INF_TYPE_CONVERTER)) : Collections.<String>emptySet();
                 for (String pkg : packages) {
                     Enumeration<URL> e = bundle.findEntries("/" + pkg.replace('.', '/'), "*.class", true);
                     while (e.hasMoreElements()) {
@@ -339,6 +342,21 @@ public class Activator implements BundleActivator, BundleTrackerCustomizer {
                 visitedClasses.clear();
                 visitedURIs.clear();
             }
+
+            private Set<Class<?>> loadIndexedConverterClasses(URL resource) {
+                Set<Class<?>> classes = new LinkedHashSet<Class<?>>();
+                // the index uses the same format as the packages, eg one name per line
+                for (String name : getConverterPackages(resource)) {
+                    try {
+                        classes.add(bundle.loadClass(name));
+                    } catch (Throwable t) {
+                        LOG.warn("Cannot load indexed converter class: " + name + " from bundle: " + bundle.getBundleId()
+                                + ". Will scan the packages instead.");
+                        return new LinkedHashSet<Class<?>>();
+                    }
+                }
+                return classes;
+            }
         }
 
     }
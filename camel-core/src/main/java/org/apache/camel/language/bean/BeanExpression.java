@@ -16,9 +16,12 @@
  */
 package org.apache.camel.language.bean;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 
+import org.apache.camel.CamelContext;
 import org.apache.camel.Exchange;
 import org.apache.camel.ExchangePattern;
 import org.apache.camel.Expression;
@@ -26,9 +29,11 @@ import org.apache.camel.ExpressionIllegalSyntaxException;
 import org.apache.camel.Predicate;
 import org.apache.camel.Processor;
 import org.apache.camel.component.bean.BeanHolder;
+import org.apache.camel.component.bean.BeanInfo;
 import org.apache.camel.component.bean.BeanProcessor;
 import org.apache.camel.component.bean.ConstantBeanHolder;
 import org.apache.camel.component.bean.RegistryBean;
+import org.apache.camel.util.ConcurrentLRUCache;
 import org.apache.camel.util.KeyValueHolder;
 import org.apache.camel.util.ObjectHelper;
 import org.apache.camel.util.OgnlHelper;
@@ -39,18 +44,33 @@ import org.apache.camel.util.OgnlHelper;
  * @version 
  */
 public class BeanExpression implements Expression, Predicate {
+    private static final int OGNL_BEAN_INFO_CACHE_SIZE = 100;
     private String beanName;
     private String method;
     private Object bean;
+    // the OGNL method chain is parsed once, and the bean info of the beans in the chain is cached per type,
+    // which is bounded as the types depend on the beans invoked at runtime
+    private final List<String> ognlMethods;
+    private final ConcurrentMap<Class<?>, BeanInfo> ognlBeanInfos
+        = new ConcurrentLRUCache<Class<?>, BeanInfo>(OGNL_BEAN_INFO_CACHE_SIZE);
 
     public BeanExpression(Object bean, String method) {
         this.bean = bean;
         this.method = method;
+        this.ognlMethods = parseOgnl(method);
     }
 
     public BeanExpression(String beanName, String method) {
         this.beanName = beanName;
         this.method = method;
+        this.ognlMethods = parseOgnl(method);
+    }
+
+    private static List<String> parseOgnl(String method) {
+        if (OgnlHelper.isInvalidValidOgnlExpression(method) || !OgnlHelper.isValidOgnlExpression(method)) {
+            return null;
+        }
+        return Collections.unmodifiableList(OgnlHelper.splitOgnl(method));
     }
 
     @Override
@@ -59,6 +79,22 @@ public class BeanExpression implements Expression, Predicate {
     }
 
     public Object evaluate(Exchange exchange) {
+        // invoking the bean can either be the easy way or using OGNL
+        if (ognlMethods != null) {
+            // okay the method is an ognl expression
+            Object beanToCall = bean;
+            if (beanToCall == null) {
+                beanToCall = new RegistryBean(exchange.getContext(), beanName).getBean();
+            }
+            return invokeOgnl(exchange, beanToCall);
+        }
+
+        // validate OGNL
+        if (OgnlHelper.isInvalidValidOgnlExpression(method)) {
+            ExpressionIllegalSyntaxException cause = new ExpressionIllegalSyntaxException(method);
+            throw new RuntimeBeanExpressionException(exchange, beanName, method, cause);
+        }
+
         // either use registry lookup or a constant bean
         BeanHolder holder;
         if (bean == null) {
@@ -67,33 +103,40 @@ public class BeanExpression implements Expression, Predicate {
             holder = new ConstantBeanHolder(bean, exchange.getContext());
         }
 
-        // invoking the bean can either be the easy way or using OGNL
+        // regular non ognl invocation
+        InvokeProcessor invoke = new InvokeProcessor(holder, method);
+        try {
+            invoke.process(exchange);
+            return invoke.getResult();
+        } catch (Exception e) {
+            throw new RuntimeBeanExpressionException(exchange, beanName, method, e);
+        }
+    }
 
-        // validate OGNL
-        if (OgnlHelper.isInvalidValidOgnlExpression(method)) {
+    /**
+     * Invokes the OGNL method chain of this expression on the given bean.
+     * <p/>
+     * This allows to reuse the expression for beans which changes per exchange, such as the message body,
+     * without parsing the OGNL again.
+     *
+     * @param exchange  the exchange
+     * @param beanToCall the bean to invoke the OGNL method chain on
+     * @return the result
+     * @throws RuntimeBeanExpressionException is thrown if the method of this expression is not an OGNL expression,
+     * or if invoking failed
+     */
+    public Object invokeOgnl(Exchange exchange, Object beanToCall) {
+        if (ognlMethods == null) {
             ExpressionIllegalSyntaxException cause = new ExpressionIllegalSyntaxException(method);
             throw new RuntimeBeanExpressionException(exchange, beanName, method, cause);
         }
 
-        if (OgnlHelper.isValidOgnlExpression(method)) {
-            // okay the method is an ognl expression
-            Object beanToCall = holder.getBean();
-            OgnlInvokeProcessor ognl = new OgnlInvokeProcessor(beanToCall, method);
-            try {
-                ognl.process(exchange);
-                return ognl.getResult();
-            } catch (Exception e) {
-                throw new RuntimeBeanExpressionException(exchange, beanName, method, e);
-            }
-        } else {
-            // regular non ognl invocation
-            InvokeProcessor invoke = new InvokeProcessor(holder, method);
-            try {
-                invoke.process(exchange);
-                return invoke.getResult();
-            } catch (Exception e) {
-                throw new RuntimeBeanExpressionException(exchange, beanName, method, e);
-            }
+        OgnlInvokeProcessor ognl = new OgnlInvokeProcessor(beanToCall, method);
+        try {
+            ognl.process(exchange);
+            return ognl.getResult();
+        } catch (Exception e) {
+            throw new RuntimeBeanExpressionException(exchange, beanName, method, e);
         }
     }
 
@@ -107,6 +150,15 @@ public class BeanExpression implements Expression, Predicate {
         return ObjectHelper.evaluateValuePredicate(value);
     }
 
+    private BeanInfo getOgnlBeanInfo(CamelContext context, Class<?> type) {
+        BeanInfo info = ognlBeanInfos.get(type);
+        if (info == null || info.getCamelContext() != context) {
+            info = new BeanInfo(context, type);
+            ognlBeanInfos.put(type, info);
+        }
+        return info;
+    }
+
     /**
      * Invokes a given bean holder. The method name is optional.
      */
@@ -180,9 +232,8 @@ public class BeanExpression implements Expression, Predicate {
 
             // loop and invoke each method
             Object beanToCall = bean;
-            List<String> methods = OgnlHelper.splitOgnl(ognl);
-            for (String methodName : methods) {
-                BeanHolder holder = new ConstantBeanHolder(beanToCall, exchange.getContext());
+            for (String methodName : ognlMethods) {
+                BeanHolder holder = new ConstantBeanHolder(beanToCall, getOgnlBeanInfo(exchange.getContext(), beanToCall.getClass()));
 
                 // support the null safe operator
                 boolean nullSafe = OgnlHelper.isNullSafeOperator(methodName);
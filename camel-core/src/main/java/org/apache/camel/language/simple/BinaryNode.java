@@ -0,0 +1,243 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.language.simple;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Expression;
+import org.apache.camel.Predicate;
+import org.apache.camel.builder.ExpressionBuilder;
+import org.apache.camel.builder.PredicateBuilder;
+import org.apache.camel.builder.ValueBuilder;
+import org.apache.camel.impl.ExpressionAdapter;
+import org.apache.camel.spi.ClassResolver;
+import org.apache.camel.util.ObjectHelper;
+import static org.apache.camel.language.simple.SimpleLanguageOperator.*;
+
+/**
+ * Represents a binary operator such as <tt>${in.header.foo} == 'bar'</tt> in a simple language expression.
+ * <p/>
+ * The operator is compiled into a predicate once when the expression is created. Only when the
+ * right hand side is a function, the operators which need the value of the right hand side
+ * (<tt>regex</tt>, <tt>in</tt> and <tt>range</tt>) must create their predicate during evaluation.
+ *
+ * @version 
+ */
+public class BinaryNode implements SimpleNode {
+
+    // this is special for the range operator where you define the range as from..to (where from and to are numbers)
+    private static final Pattern RANGE_PATTERN = Pattern.compile("^(\\d+)(\\.\\.)(\\d+)$");
+
+    private final String expression;
+    private final FunctionNode left;
+    private final SimpleLanguageOperator operator;
+    private final String operatorText;
+    private final String rightText;
+
+    public BinaryNode(String expression, FunctionNode left, String operatorText, String rightText) {
+        this.expression = expression;
+        this.left = left;
+        this.operator = asOperator(operatorText);
+        this.operatorText = operatorText;
+        this.rightText = rightText;
+    }
+
+    public FunctionNode getLeft() {
+        return left;
+    }
+
+    public SimpleLanguageOperator getOperator() {
+        return operator;
+    }
+
+    public String getRightText() {
+        return rightText;
+    }
+
+    public Expression createExpression(SimpleLanguageSupport language) {
+        // left value is always a simple expression
+        final Expression leftExp = left.createExpression(language);
+
+        // the right hand side expression can either be a constant expression with or without enclosing ' '
+        // or another simple expression using ${ } placeholders
+        final boolean isNull = "null".equals(rightText) || "'null'".equals(rightText);
+        final Expression rightExp = language.createSimpleOrConstantExpression(isNull ? null : rightText);
+        final boolean constant = isNull || (ObjectHelper.between(rightText, "${", "}") == null
+                && ObjectHelper.between(rightText, "$simple{", "}") == null);
+
+        Predicate predicate;
+        if (operator == EQ && isNull) {
+            // special for EQ null
+            predicate = PredicateBuilder.isNull(leftExp);
+        } else if (operator == NOT && isNull) {
+            // special for not EQ null
+            predicate = PredicateBuilder.isNotNull(leftExp);
+        } else if (operator == EQ) {
+            predicate = PredicateBuilder.isEqualTo(leftExp, rightExp);
+        } else if (operator == GT) {
+            predicate = PredicateBuilder.isGreaterThan(leftExp, rightExp);
+        } else if (operator == GTE) {
+            predicate = PredicateBuilder.isGreaterThanOrEqualTo(leftExp, rightExp);
+        } else if (operator == LT) {
+            predicate = PredicateBuilder.isLessThan(leftExp, rightExp);
+        } else if (operator == LTE) {
+            predicate = PredicateBuilder.isLessThanOrEqualTo(leftExp, rightExp);
+        } else if (operator == NOT) {
+            predicate = PredicateBuilder.isNotEqualTo(leftExp, rightExp);
+        } else if (operator == CONTAINS || operator == NOT_CONTAINS) {
+            predicate = PredicateBuilder.contains(leftExp, rightExp);
+        } else if (operator == IS || operator == NOT_IS) {
+            predicate = createIsPredicate(leftExp, rightExp, constant);
+        } else if (constant && (operator == REGEX || operator == NOT_REGEX
+                || operator == IN || operator == NOT_IN || operator == RANGE || operator == NOT_RANGE)) {
+            // the right hand side is constant so we can create the predicate up front
+            predicate = createRightValuePredicate(leftExp, constantValue(isNull));
+        } else if (operator == REGEX || operator == NOT_REGEX
+                || operator == IN || operator == NOT_IN || operator == RANGE || operator == NOT_RANGE) {
+            predicate = new Predicate() {
+                public boolean matches(Exchange exchange) {
+                    Object value = rightExp.evaluate(exchange, Object.class);
+                    return createRightValuePredicate(leftExp, value).matches(exchange);
+                }
+            };
+        } else {
+            throw new IllegalArgumentException("Unsupported operator: " + operatorText + " for expression: " + expression);
+        }
+
+        if (operator == NOT_CONTAINS || operator == NOT_REGEX || operator == NOT_IN
+                || operator == NOT_IS || operator == NOT_RANGE) {
+            predicate = PredicateBuilder.not(predicate);
+        }
+
+        final Predicate answer = predicate;
+        return new ExpressionAdapter() {
+            public Object evaluate(Exchange exchange) {
+                return answer.matches(exchange);
+            }
+
+            @Override
+            public boolean matches(Exchange exchange) {
+                return answer.matches(exchange);
+            }
+
+            @Override
+            public String toString() {
+                return leftExp + " " + operator + " " + rightExp;
+            }
+        };
+    }
+
+    /**
+     * Gets the value of a constant right hand side, with or without enclosing ' '
+     */
+    private String constantValue(boolean isNull) {
+        if (isNull) {
+            return null;
+        }
+        String value = ObjectHelper.between(rightText, "'", "'");
+        return value != null ? value : rightText;
+    }
+
+    /**
+     * Creates the predicate for the operators which needs the value of the right hand side.
+     */
+    private Predicate createRightValuePredicate(Expression leftExp, Object right) {
+        if (operator == REGEX || operator == NOT_REGEX) {
+            // reg ex should use String pattern, so we use the right hand side as a String
+            return PredicateBuilder.regex(leftExp, right != null ? right.toString() : null);
+        } else if (operator == IN || operator == NOT_IN) {
+            // okay the in operator is a bit more complex as we need to build a list of values
+            // from the right handside expression.
+            // each element on the right handside must be separated by comma (default for create iterator)
+            Iterator<Object> it = ObjectHelper.createIterator(right);
+            List<Object> values = new ArrayList<Object>();
+            while (it.hasNext()) {
+                values.add(it.next());
+            }
+            // then reuse value builder to create the in predicate with the list of values
+            ValueBuilder vb = new ValueBuilder(leftExp);
+            return vb.in(values.toArray());
+        } else {
+            String range = right != null ? right.toString() : null;
+            Matcher matcher = range != null ? RANGE_PATTERN.matcher(range) : null;
+            if (matcher == null || !matcher.matches()) {
+                throw new IllegalArgumentException("Syntax error in " + operatorText + " operator: " + expression
+                        + " is not valid. Valid syntax:from..to(where from and to are numbers).");
+            }
+            // wrap as constant expression for the from and to values
+            Expression from = ExpressionBuilder.constantExpression(matcher.group(1));
+            Expression to = ExpressionBuilder.constantExpression(matcher.group(3));
+
+            // build a compound predicate for the range
+            Predicate predicate = PredicateBuilder.isGreaterThanOrEqualTo(leftExp, from);
+            return PredicateBuilder.and(predicate, PredicateBuilder.isLessThanOrEqualTo(leftExp, to));
+        }
+    }
+
+    /**
+     * Creates the predicate for the is operator, which resolves the class using the class resolver of the
+     * {@link org.apache.camel.CamelContext}. The resolved class is kept as long as the same class resolver is used.
+     */
+    private Predicate createIsPredicate(final Expression leftExp, final Expression rightExp, final boolean constant) {
+        return new Predicate() {
+            private volatile ResolvedType resolved;
+
+            public boolean matches(Exchange exchange) {
+                ClassResolver resolver = exchange.getContext().getClassResolver();
+                ResolvedType type = resolved;
+                if (type == null || type.resolver != resolver) {
+                    String name = rightExp.evaluate(exchange, String.class);
+                    if (name == null) {
+                        throw new IllegalArgumentException("Syntax error in " + operatorText + " operator: " + expression
+                                    + " cannot be null. It must be a class type.");
+                    }
+                    Class<?> rightType = resolver.resolveClass(name);
+                    if (rightType == null) {
+                        throw new IllegalArgumentException("Syntax error in " + operatorText + " operator: " + expression
+                                + " cannot find class with name: " + name);
+                    }
+                    type = new ResolvedType(resolver, rightType);
+                    // a function on the right hand side may return another type next time
+                    if (constant) {
+                        resolved = type;
+                    }
+                }
+                return type.type.isInstance(leftExp.evaluate(exchange, Object.class));
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return left + " " + operatorText + " " + rightText;
+    }
+
+    private static final class ResolvedType {
+        private final ClassResolver resolver;
+        private final Class<?> type;
+
+        private ResolvedType(ClassResolver resolver, Class<?> type) {
+            this.resolver = resolver;
+            this.type = type;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.language.simple;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.camel.Expression;
+import org.apache.camel.builder.ExpressionBuilder;
+
+/**
+ * Represents text with literals and functions mixed, which is evaluated by concatenating
+ * the result of its child nodes.
+ *
+ * @version 
+ */
+public class CompositeNode implements SimpleNode {
+
+    private final String expression;
+    private final List<SimpleNode> children;
+
+    public CompositeNode(String expression, List<SimpleNode> children) {
+        this.expression = expression;
+        this.children = children;
+    }
+
+    public List<SimpleNode> getChildren() {
+        return children;
+    }
+
+    public Expression createExpression(SimpleLanguageSupport language) {
+        // only concat if there is more than one expression
+        if (children.size() == 1) {
+            return children.get(0).createExpression(language);
+        }
+
+        List<Expression> expressions = new ArrayList<Expression>(children.size());
+        for (SimpleNode child : children) {
+            expressions.add(child.createExpression(language));
+        }
+        return ExpressionBuilder.concatExpression(expressions, expression);
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
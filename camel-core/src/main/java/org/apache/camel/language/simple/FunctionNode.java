@@ -0,0 +1,53 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.language.simple;
+
+import org.apache.camel.Expression;
+
+/**
+ * Represents a function in a simple language expression, such as the content of the
+ * <tt>${ }</tt> placeholders.
+ *
+ * @version 
+ */
+public class FunctionNode implements SimpleNode {
+
+    private final String function;
+    private final boolean strict;
+
+    public FunctionNode(String function, boolean strict) {
+        this.function = function;
+        this.strict = strict;
+    }
+
+    public String getFunction() {
+        return function;
+    }
+
+    public boolean isStrict() {
+        return strict;
+    }
+
+    public Expression createExpression(SimpleLanguageSupport language) {
+        return language.createSimpleExpression(function, strict);
+    }
+
+    @Override
+    public String toString() {
+        return "${" + function + "}";
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.language.simple;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Expression;
+import org.apache.camel.Predicate;
+import org.apache.camel.builder.PredicateBuilder;
+import org.apache.camel.impl.ExpressionAdapter;
+
+/**
+ * Represents two expressions combined using the <tt>and</tt> or <tt>or</tt> operator in a
+ * simple language expression.
+ * <p/>
+ * The expressions are evaluated from left to right, and the right hand side is only evaluated
+ * if it can change the outcome.
+ *
+ * @version 
+ */
+public class LogicalNode implements SimpleNode {
+
+    private final SimpleNode left;
+    private final SimpleLanguageOperator operator;
+    private final SimpleNode right;
+
+    public LogicalNode(SimpleNode left, SimpleLanguageOperator operator, SimpleNode right) {
+        if (operator != SimpleLanguageOperator.AND && operator != SimpleLanguageOperator.OR) {
+            throw new IllegalArgumentException("Expected operator as either and/or but was: " + operator);
+        }
+        this.left = left;
+        this.operator = operator;
+        this.right = right;
+    }
+
+    public SimpleNode getLeft() {
+        return left;
+    }
+
+    public SimpleLanguageOperator getOperator() {
+        return operator;
+    }
+
+    public SimpleNode getRight() {
+        return right;
+    }
+
+    public Expression createExpression(SimpleLanguageSupport language) {
+        final Expression leftExp = left.createExpression(language);
+        final Expression rightExp = right.createExpression(language);
+        final Predicate leftPredicate = PredicateBuilder.toPredicate(leftExp);
+        final Predicate rightPredicate = PredicateBuilder.toPredicate(rightExp);
+        final boolean and = operator == SimpleLanguageOperator.AND;
+
+        return new ExpressionAdapter() {
+            public Object evaluate(Exchange exchange) {
+                return matches(exchange);
+            }
+
+            @Override
+            public boolean matches(Exchange exchange) {
+                boolean matches = leftPredicate.matches(exchange);
+                if (and ? matches : !matches) {
+                    matches = rightPredicate.matches(exchange);
+                }
+                return matches;
+            }
+
+            @Override
+            public String toString() {
+                return leftExp + " " + operator + " " + rightExp;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return left + " " + operator + " " + right;
+    }
+}
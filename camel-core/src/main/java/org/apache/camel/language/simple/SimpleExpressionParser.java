@@ -0,0 +1,236 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.language.simple;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Parser for the simple language which parses the expression text into a tree of {@link SimpleNode}s.
+ * <p/>
+ * The parser is a hand written scanner over the text and supports two forms of expressions:
+ * <ul>
+ *   <li>predicates such as <tt>${in.header.foo} == 'bar' and ${in.header.bar} &gt; 100</tt>,
+ *   where the left hand side of an operator is a <tt>${ }</tt> function, and the operators
+ *   and their values are separated by whitespace</li>
+ *   <li>text templates where functions are enclosed in either <tt>${ }</tt> or <tt>$simple{ }</tt>
+ *   placeholders, such as <tt>Hello ${body}</tt></li>
+ * </ul>
+ * Text without any placeholders is parsed as a single function in non strict mode, which
+ * means it can be either a function such as <tt>body</tt> or constant text.
+ *
+ * @version 
+ */
+public class SimpleExpressionParser {
+
+    private static final Set<String> BINARY_OPERATORS = new HashSet<String>(Arrays.asList(
+        "==", ">", ">=", "<", "<=", "!=", "contains", "not contains", "regex", "not regex",
+        "in", "not in", "is", "not is", "range", "not range"));
+
+    private final String expression;
+    private final int length;
+    private int index;
+
+    public SimpleExpressionParser(String expression) {
+        this.expression = expression;
+        this.length = expression.length();
+    }
+
+    /**
+     * Parses the expression
+     *
+     * @return the root node of the parsed expression
+     * @throws IllegalArgumentException is thrown if the expression has a syntax error
+     */
+    public SimpleNode parse() {
+        index = 0;
+        SimpleNode answer = parsePredicate();
+        if (answer != null) {
+            return answer;
+        }
+
+        if (SimpleLanguage.hasStartToken(expression)) {
+            index = 0;
+            return parseTemplate();
+        } else {
+            return new FunctionNode(expression, false);
+        }
+    }
+
+    /**
+     * Parses binary operators combined using and/or operators.
+     *
+     * @return the node, or <tt>null</tt> if the expression is not a predicate
+     */
+    private SimpleNode parsePredicate() {
+        SimpleNode answer = parseBinary();
+        if (answer == null) {
+            return null;
+        }
+
+        while (index < length) {
+            int start = index;
+            String operator = null;
+            if (skipWhitespace()) {
+                operator = readWord();
+                if (!"and".equals(operator) && !"or".equals(operator) || !skipWhitespace()) {
+                    operator = null;
+                }
+            }
+            if (operator == null) {
+                if (answer instanceof BinaryNode) {
+                    // its not a predicate after all but text which happens to start with a binary operator
+                    return null;
+                }
+                throw new IllegalArgumentException("Syntax error in expression: " + expression
+                        + ". Expected operator as either and/or at position: " + start);
+            }
+
+            start = index;
+            SimpleNode right = parseBinary();
+            if (right == null) {
+                throw new IllegalArgumentException("Syntax error in expression: " + expression
+                        + ". Expected ${function} operator value after " + operator + " at position: " + start);
+            }
+            answer = new LogicalNode(answer, SimpleLanguageOperator.asOperator(operator), right);
+        }
+        return answer;
+    }
+
+    /**
+     * Parses a binary operator such as <tt>${header.foo} == 'bar'</tt>
+     *
+     * @return the node, or <tt>null</tt> if there is no binary operator at the current position
+     */
+    private BinaryNode parseBinary() {
+        int start = index;
+        if (!expression.startsWith("${", index)) {
+            return null;
+        }
+
+        // the left hand side is a function without whitespace
+        int end = index;
+        while (end < length && !isWhitespace(expression.charAt(end))) {
+            end++;
+        }
+        if (end - start < 4 || expression.charAt(end - 1) != '}') {
+            return null;
+        }
+        String function = expression.substring(start + 2, end - 1);
+        index = end;
+
+        String operator = null;
+        if (skipWhitespace()) {
+            operator = readWord();
+            if ("not".equals(operator) && index < length && expression.charAt(index) == ' ') {
+                index++;
+                operator = "not " + readWord();
+            }
+        }
+        if (operator == null || !BINARY_OPERATORS.contains(operator) || !skipWhitespace() || index == length) {
+            index = start;
+            return null;
+        }
+
+        String right = readValue();
+        return new BinaryNode(expression.substring(start, index), new FunctionNode(function, true), operator, right);
+    }
+
+    /**
+     * Parses text where functions are enclosed in <tt>${ }</tt> or <tt>$simple{ }</tt> placeholders
+     */
+    private SimpleNode parseTemplate() {
+        List<SimpleNode> nodes = new ArrayList<SimpleNode>();
+
+        while (index < length) {
+            // look for the next start token
+            int idx = expression.indexOf("${", index);
+            int delta = 2;
+            int simpleIdx = expression.indexOf("$simple{", index);
+            if (simpleIdx >= 0 && (idx < 0 || simpleIdx < idx)) {
+                idx = simpleIdx;
+                delta = 8;
+            }
+
+            if (idx < 0) {
+                nodes.add(new LiteralNode(expression.substring(index)));
+                break;
+            }
+            if (index < idx) {
+                nodes.add(new LiteralNode(expression.substring(index, idx)));
+            }
+            int endIdx = expression.indexOf('}', idx + delta);
+            if (endIdx < 0) {
+                throw new IllegalArgumentException("Expecting } but found end of string for simple expression: " + expression);
+            }
+            nodes.add(new FunctionNode(expression.substring(idx + delta, endIdx), true));
+            index = endIdx + 1;
+        }
+
+        return new CompositeNode(expression, nodes);
+    }
+
+    /**
+     * Reads the value on the right hand side of a binary operator which is either text enclosed
+     * in single quotes, or text without whitespace.
+     */
+    private String readValue() {
+        int start = index;
+        if (expression.charAt(index) == '\'') {
+            // the value ends with the first quote followed by whitespace or the end of the expression
+            int end = expression.indexOf('\'', index + 1);
+            while (end > 0 && end + 1 < length && !isWhitespace(expression.charAt(end + 1))) {
+                end = expression.indexOf('\'', end + 1);
+            }
+            if (end > 0) {
+                index = end + 1;
+                return expression.substring(start, index);
+            }
+        }
+        return readWord();
+    }
+
+    private String readWord() {
+        int start = index;
+        while (index < length && !isWhitespace(expression.charAt(index))) {
+            index++;
+        }
+        return expression.substring(start, index);
+    }
+
+    /**
+     * Skips whitespace
+     *
+     * @return <tt>true</tt> if any whitespace was skipped
+     */
+    private boolean skipWhitespace() {
+        int start = index;
+        while (index < length && isWhitespace(expression.charAt(index))) {
+            index++;
+        }
+        return index > start;
+    }
+
+    private static boolean isWhitespace(char ch) {
+        // same as \s in regular expressions
+        return ch == ' ' || ch == '\t' || ch == '\n' || ch == '\u000B' || ch == '\f' || ch == '\r';
+    }
+
+}
@@ -90,7 +90,9 @@ import org.apache.camel.util.StringHelper;
  */
 public class SimpleLanguage extends SimpleLanguageSupport {
 
-    private static final SimpleLanguage SIMPLE = new SimpleLanguage();
+    // the static instance is not owned by any CamelContext so it must not cache the compiled expressions,
+    // as they can hold on to the CamelContexts they have been evaluated with
+    private static final SimpleLanguage SIMPLE = createSimpleLanguage();
 
     /**
      * Does the expression have the simple language start token?
@@ -109,6 +111,12 @@ public class SimpleLanguage extends SimpleLanguageSupport {
     public static Expression simple(String expression) {
         return SIMPLE.createExpression(expression);
     }
+
+    private static SimpleLanguage createSimpleLanguage() {
+        SimpleLanguage answer = new SimpleLanguage();
+        answer.setCacheSize(0);
+        return answer;
+    }
     
     protected Expression createSimpleExpressionDirectly(String expression) {
 
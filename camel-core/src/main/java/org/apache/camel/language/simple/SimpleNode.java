@@ -0,0 +1,39 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.language.simple;
+
+import org.apache.camel.Expression;
+
+/**
+ * A node in the syntax tree of a parsed simple language expression.
+ * <p/>
+ * The tree is created once by the {@link SimpleExpressionParser} and compiled into
+ * {@link Expression}s which can be evaluated any number of times.
+ *
+ * @version 
+ */
+public interface SimpleNode {
+
+    /**
+     * Compiles this node into an expression
+     *
+     * @param language the simple language used to create the functions
+     * @return the compiled expression
+     */
+    Expression createExpression(SimpleLanguageSupport language);
+
+}
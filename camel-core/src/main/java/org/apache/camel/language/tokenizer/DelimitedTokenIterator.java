@@ -0,0 +1,115 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.language.tokenizer;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.RuntimeCamelException;
+import org.apache.camel.converter.IOConverter;
+import org.apache.camel.util.ObjectHelper;
+
+/**
+ * A {@link StreamingTokenIterator} which splits the value by a literal delimiter, which is matched
+ * against the encoded bytes of the value.
+ * <p/>
+ * Adjacent delimiters yields empty tokens, and a trailing delimiter does not yield an empty token, as
+ * with {@link java.util.Scanner}. Unlike the regular tokenizer the delimiter is not a regular expression.
+ * <p/>
+ * Tokens can be grouped so each token returned contains up till the given number of tokens
+ * including the delimiters between them, which is cheap as the group is a contiguous range of bytes.
+ *
+ * @version 
+ */
+public class DelimitedTokenIterator extends StreamingTokenIterator {
+
+    private final byte[] delimiter;
+    private final int group;
+    // bytes after the buffer position already scanned, and the delimiters found in those bytes
+    private int scanned;
+    private int found;
+
+    public DelimitedTokenIterator(Exchange exchange, Object value, String token) {
+        this(exchange, value, token, 1);
+    }
+
+    public DelimitedTokenIterator(Exchange exchange, Object value, String token, int group) {
+        // validate before the value is opened so a file or stream is not left open if invalid
+        super(exchange, validate(value, token, group));
+        try {
+            this.delimiter = token.getBytes(IOConverter.getCharsetName(exchange));
+        } catch (UnsupportedEncodingException e) {
+            throw new RuntimeCamelException(e);
+        }
+        this.group = group;
+    }
+
+    private static Object validate(Object value, String token, int group) {
+        ObjectHelper.notNull(token, "token");
+        if (token.length() == 0) {
+            throw new IllegalArgumentException("Token must not be empty");
+        }
+        if (group < 1) {
+            throw new IllegalArgumentException("Group must be a positive number, was: " + group);
+        }
+        return value;
+    }
+
+    public int getGroup() {
+        return group;
+    }
+
+    @Override
+    protected int scan(ByteBuffer buffer, boolean endOfData) {
+        int start = buffer.position();
+        int limit = buffer.limit();
+        int last = limit - delimiter.length;
+        byte first = delimiter[0];
+
+        int i = start + scanned;
+        while (i <= last) {
+            if (buffer.get(i) == first && matches(buffer, i, delimiter)) {
+                if (++found == group) {
+                    return emit(start, i, i + delimiter.length);
+                }
+                i += delimiter.length;
+            } else {
+                i++;
+            }
+        }
+        scanned = i - start;
+
+        if (endOfData && limit > start) {
+            // the remainder is the last token, which may be a partial group ending with a delimiter
+            int end = limit;
+            if (found > 0 && end - delimiter.length >= start && matches(buffer, end - delimiter.length, delimiter)) {
+                end -= delimiter.length;
+            }
+            return emit(start, end, limit);
+        }
+        return -1;
+    }
+
+    private int emit(int start, int end, int consumed) {
+        token(start, end);
+        scanned = 0;
+        found = 0;
+        return consumed;
+    }
+
+}
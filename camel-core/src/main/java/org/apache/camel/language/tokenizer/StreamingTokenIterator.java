@@ -0,0 +1,281 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.language.tokenizer;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.RuntimeCamelException;
+import org.apache.camel.component.file.GenericFile;
+import org.apache.camel.converter.IOConverter;
+import org.apache.camel.util.IOHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Base class for iterators which tokenize a value by scanning its raw bytes, instead of decoding the
+ * entire value into characters and matching regular expressions as {@link java.util.Scanner} does.
+ * <p/>
+ * Files, streams and channels are read into a heap buffer which is reused by compacting it as tokens
+ * are consumed, and only grown if a single token does not fit. Only the bytes of each token is decoded
+ * into a {@link String}, using the {@link Exchange#CHARSET_NAME} charset if provided.
+ * <p/>
+ * The iterator is {@link Closeable} so the {@link org.apache.camel.processor.Splitter} closes the
+ * underlying file or stream when the iteration is done. It is also closed when the last token has been read.
+ *
+ * @version 
+ */
+public abstract class StreamingTokenIterator implements Iterator<String>, Closeable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private static final transient Logger LOG = LoggerFactory.getLogger(StreamingTokenIterator.class);
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    private final CharsetDecoder decoder;
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+    private Closeable resource;
+    private ReadableByteChannel channel;
+    private ByteBuffer buffer;
+    private boolean endOfData;
+    private boolean closed;
+    private int tokenStart;
+    private int tokenEnd;
+    private String next;
+
+    protected StreamingTokenIterator(Exchange exchange, Object value) {
+        String charsetName = IOConverter.getCharsetName(exchange);
+        this.decoder = Charset.forName(charsetName).newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        if (value instanceof GenericFile && ((GenericFile<?>) value).getFile() instanceof File) {
+            // generic file is just a wrapper for the real file so use the real file, remote files
+            // is converted to a stream as any other value
+            value = ((GenericFile<?>) value).getFile();
+        }
+
+        try {
+            if (value instanceof File) {
+                FileInputStream fis = new FileInputStream((File) value);
+                resource = fis;
+                initChannel(fis.getChannel());
+            } else if (value instanceof FileInputStream) {
+                resource = (Closeable) value;
+                initChannel(((FileInputStream) value).getChannel());
+            } else if (value instanceof ReadableByteChannel) {
+                initChannel((ReadableByteChannel) value);
+            } else if (value instanceof InputStream) {
+                resource = (Closeable) value;
+                initChannel(Channels.newChannel((InputStream) value));
+            } else if (value instanceof byte[]) {
+                buffer = ByteBuffer.wrap((byte[]) value);
+            } else if (value instanceof String) {
+                buffer = ByteBuffer.wrap(((String) value).getBytes(charsetName));
+            } else if (value != null) {
+                // value is not a suitable type, try to convert it to a stream
+                InputStream is = exchange.getContext().getTypeConverter().convertTo(InputStream.class, exchange, value);
+                if (is != null) {
+                    resource = is;
+                    initChannel(Channels.newChannel(is));
+                }
+            }
+        } catch (FileNotFoundException e) {
+            throw new RuntimeCamelException(e);
+        } catch (UnsupportedEncodingException e) {
+            throw new RuntimeCamelException(e);
+        } catch (IOException e) {
+            IOHelper.close(resource, "tokenize", LOG);
+            throw new RuntimeCamelException(e);
+        }
+
+        if (buffer == null) {
+            buffer = EMPTY;
+        }
+    }
+
+    private void initChannel(ReadableByteChannel channel) {
+        if (resource == null) {
+            resource = channel;
+        }
+        this.channel = channel;
+        this.buffer = EMPTY;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Sets the initial size of the buffer used for reading files, streams and channels, which is grown if a token does not fit.
+     */
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Scans the unconsumed bytes, which are the bytes between the position and limit of the buffer,
+     * for the next token.
+     * <p/>
+     * When a token is found, implementations must mark it using {@link #token(int, int)} and return
+     * the index up till which the bytes has been consumed. Otherwise <tt>-1</tt> is returned, and
+     * the buffer is refilled before scanning again, unless there is no more data.
+     * <p/>
+     * Implementations may advance the position of the buffer to discard bytes which cannot be part of a token.
+     * Any indexes kept between invocations must be relative to the position as the buffer may be
+     * compacted or replaced when refilled.
+     *
+     * @param buffer    the buffer
+     * @param endOfData <tt>true</tt> if there is no more data than the bytes in the buffer
+     * @return the index after the consumed bytes, or <tt>-1</tt> if no token was found
+     */
+    protected abstract int scan(ByteBuffer buffer, boolean endOfData);
+
+    /**
+     * Marks the bytes from start (inclusive) to end (exclusive) as the token found by {@link #scan(ByteBuffer, boolean)}.
+     */
+    protected void token(int start, int end) {
+        this.tokenStart = start;
+        this.tokenEnd = end;
+    }
+
+    /**
+     * Whether the bytes in the buffer at the given index matches the given bytes
+     */
+    protected static boolean matches(ByteBuffer buffer, int index, byte[] bytes) {
+        if (index + bytes.length > buffer.limit()) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (buffer.get(index + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean hasNext() {
+        if (next == null && !closed) {
+            next = readToken();
+            if (next == null) {
+                close();
+            }
+        }
+        return next != null;
+    }
+
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String answer = next;
+        next = null;
+        return answer;
+    }
+
+    public void remove() {
+        throw new UnsupportedOperationException("Remove is not supported by this iterator");
+    }
+
+    public void close() {
+        if (!closed) {
+            closed = true;
+            buffer = EMPTY;
+            IOHelper.close(resource, "tokenize", LOG);
+        }
+    }
+
+    private String readToken() {
+        try {
+            while (true) {
+                int consumed = scan(buffer, endOfData);
+                if (consumed >= 0) {
+                    String token = decode(tokenStart, tokenEnd);
+                    buffer.position(consumed);
+                    return token;
+                }
+                if (endOfData) {
+                    return null;
+                }
+                endOfData = !fill();
+            }
+        } catch (IOException e) {
+            close();
+            throw new RuntimeCamelException(e);
+        }
+    }
+
+    private String decode(int start, int end) throws CharacterCodingException {
+        ByteBuffer bytes = buffer.duplicate();
+        bytes.limit(end);
+        bytes.position(start);
+        CharBuffer chars = decoder.decode(bytes);
+        return chars.toString();
+    }
+
+    /**
+     * Refills the buffer keeping the unconsumed bytes.
+     *
+     * @return <tt>false</tt> if there is no more data
+     */
+    private boolean fill() throws IOException {
+        if (channel == null) {
+            return false;
+        }
+
+        if (buffer == EMPTY) {
+            // use a heap buffer as direct memory is only freed by the garbage collector, which a splitter
+            // creating an iterator for each of many small messages could otherwise run out of
+            buffer = ByteBuffer.allocate(bufferSize);
+            buffer.flip();
+        } else if (buffer.position() == 0 && buffer.limit() == buffer.capacity()) {
+            // the token does not fit so grow the buffer
+            ByteBuffer bigger = ByteBuffer.allocate(buffer.capacity() * 2);
+            bigger.put(buffer);
+            bigger.flip();
+            buffer = bigger;
+        }
+
+        buffer.compact();
+        int read;
+        try {
+            do {
+                read = channel.read(buffer);
+            } while (read == 0);
+        } finally {
+            buffer.flip();
+        }
+        return read >= 0;
+    }
+
+}
@@ -32,6 +32,9 @@ public class TokenizeLanguage implements Language, IsSingleton {
     private String token;
     private String headerName;
     private boolean regex;
+    private boolean streaming;
+    private int group;
+    private boolean xml;
 
     public static Expression tokenize(String token) {
         return tokenize(token, false);
@@ -56,6 +59,21 @@ public class TokenizeLanguage implements Language, IsSingleton {
         return langugage.createExpression(null);
     }
 
+    public static Expression streamingTokenize(String token, int group) {
+        TokenizeLanguage langugage = new TokenizeLanguage();
+        langugage.setToken(token);
+        langugage.setStreaming(true);
+        langugage.setGroup(group);
+        return langugage.createExpression(null);
+    }
+
+    public static Expression tokenizeXML(String tagName) {
+        TokenizeLanguage langugage = new TokenizeLanguage();
+        langugage.setToken(tagName);
+        langugage.setXml(true);
+        return langugage.createExpression(null);
+    }
+
     public Predicate createPredicate(String expression) {
         return PredicateBuilder.toPredicate(createExpression(expression));
     }
@@ -66,7 +84,11 @@ public class TokenizeLanguage implements Language, IsSingleton {
     public Expression createExpression() {
         ObjectHelper.notNull(token, "token");
         Expression exp = headerName == null ? ExpressionBuilder.bodyExpression() : ExpressionBuilder.headerExpression(headerName);
-        if (regex) {
+        if (xml) {
+            return ExpressionBuilder.tokenizeXMLExpression(exp, token);
+        } else if (streaming || group > 1) {
+            return ExpressionBuilder.streamingTokenizeExpression(exp, token, group > 1 ? group : 1);
+        } else if (regex) {
             return ExpressionBuilder.regexTokenizeExpression(exp, token);
         } else {
             return ExpressionBuilder.tokenizeExpression(exp, token);
@@ -104,6 +126,40 @@ public class TokenizeLanguage implements Language, IsSingleton {
         this.regex = regex;
     }
 
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Whether to tokenize by scanning the bytes in a streaming fashion instead of using a {@link java.util.Scanner}.
+     * The token is then a literal and not a regular expression.
+     */
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    public int getGroup() {
+        return group;
+    }
+
+    /**
+     * Groups the given number of tokens together, which implies streaming.
+     */
+    public void setGroup(int group) {
+        this.group = group;
+    }
+
+    public boolean isXml() {
+        return xml;
+    }
+
+    /**
+     * Whether the token is a XML tag name, to tokenize into the XML fragments of those elements.
+     */
+    public void setXml(boolean xml) {
+        this.xml = xml;
+    }
+
     public boolean isSingleton() {
         return false;
     }
@@ -0,0 +1,217 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.language.tokenizer;
+
+import java.nio.ByteBuffer;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.util.ObjectHelper;
+
+/**
+ * A {@link StreamingTokenIterator} which returns each element with the given tag name, such as
+ * <tt>&lt;record&gt;...&lt;/record&gt;</tt>, as a XML fragment without parsing the document into a DOM.
+ * <p/>
+ * The tag name must be given as it occurs in the document, including any namespace prefix. Nested elements
+ * with the same name are part of the fragment of the outer element, and markup inside comments and CDATA
+ * sections is ignored. Content outside the elements is skipped. Namespace declarations of the enclosing
+ * elements are not inherited by the fragments.
+ * <p/>
+ * The markup is matched against the encoded bytes, so the charset must be ASCII compatible such as UTF-8.
+ *
+ * @version 
+ */
+public class XmlElementTokenIterator extends StreamingTokenIterator {
+
+    private static final byte[] COMMENT_START = {'<', '!', '-', '-'};
+    private static final byte[] COMMENT_END = {'-', '-', '>'};
+    private static final byte[] CDATA_START = {'<', '!', '[', 'C', 'D', 'A', 'T', 'A', '['};
+    private static final byte[] CDATA_END = {']', ']', '>'};
+
+    private final String tagName;
+    private final byte[] startTag;
+    private final byte[] endTag;
+
+    public XmlElementTokenIterator(Exchange exchange, Object value, String tagName) {
+        // validate before the value is opened so a file or stream is not left open if invalid
+        super(exchange, validate(value, tagName));
+        // strip any angle brackets so both record and <record> can be used
+        if (tagName.startsWith("<")) {
+            tagName = tagName.substring(1);
+        }
+        if (tagName.endsWith(">")) {
+            tagName = tagName.substring(0, tagName.length() - 1);
+        }
+        this.tagName = tagName;
+        this.startTag = toAscii("<" + tagName);
+        this.endTag = toAscii("</" + tagName);
+    }
+
+    private static Object validate(Object value, String tagName) {
+        ObjectHelper.notEmpty(tagName, "tagName");
+        return value;
+    }
+
+    public String getTagName() {
+        return tagName;
+    }
+
+    @Override
+    protected int scan(ByteBuffer buffer, boolean endOfData) {
+        int start = findStartTag(buffer, endOfData);
+        if (start < 0) {
+            return -1;
+        }
+        buffer.position(start);
+
+        int limit = buffer.limit();
+        int depth = 0;
+        int i = start;
+        while (i < limit) {
+            if (buffer.get(i) != '<') {
+                i++;
+                continue;
+            }
+            if (matches(buffer, i, COMMENT_START)) {
+                i = skipPast(buffer, i + COMMENT_START.length, COMMENT_END);
+            } else if (matches(buffer, i, CDATA_START)) {
+                i = skipPast(buffer, i + CDATA_START.length, CDATA_END);
+            } else if (isTag(buffer, i, endTag)) {
+                int end = endOfTag(buffer, i + endTag.length);
+                if (end < 0) {
+                    return -1;
+                }
+                if (--depth == 0) {
+                    token(start, end);
+                    return end;
+                }
+                i = end;
+            } else if (isTag(buffer, i, startTag)) {
+                int end = endOfTag(buffer, i + startTag.length);
+                if (end < 0) {
+                    return -1;
+                }
+                boolean empty = buffer.get(end - 2) == '/';
+                if (!empty) {
+                    depth++;
+                } else if (depth == 0) {
+                    token(start, end);
+                    return end;
+                }
+                i = end;
+            } else {
+                i++;
+            }
+            if (i < 0) {
+                // incomplete comment or CDATA section
+                return -1;
+            }
+        }
+
+        // the element is incomplete so more data is needed
+        return -1;
+    }
+
+    /**
+     * Finds the next start tag outside comments and CDATA sections. If not found the bytes which
+     * cannot be the beginning of a start tag, comment or CDATA section are discarded.
+     */
+    private int findStartTag(ByteBuffer buffer, boolean endOfData) {
+        int limit = buffer.limit();
+        // the number of bytes needed after a < to tell whether it opens the start tag, a comment or a CDATA section
+        int needed = Math.max(startTag.length + 1, CDATA_START.length);
+        int i = buffer.position();
+        while (i < limit) {
+            if (buffer.get(i) != '<') {
+                i++;
+                continue;
+            }
+            if (!endOfData && limit - i < needed) {
+                // the markup may straddle the end of the buffer so keep it until more data is read
+                buffer.position(i);
+                return -1;
+            }
+            int skip = i;
+            if (matches(buffer, i, COMMENT_START)) {
+                skip = skipPast(buffer, i + COMMENT_START.length, COMMENT_END);
+            } else if (matches(buffer, i, CDATA_START)) {
+                skip = skipPast(buffer, i + CDATA_START.length, CDATA_END);
+            } else if (isTag(buffer, i, startTag)) {
+                return i;
+            }
+            if (skip < 0) {
+                // incomplete comment or CDATA section so keep it until more data is read
+                buffer.position(i);
+                return -1;
+            }
+            i = skip > i ? skip : i + 1;
+        }
+        buffer.position(limit);
+        return -1;
+    }
+
+    /**
+     * Whether the bytes at the index is the given tag followed by whitespace, slash or end of the tag,
+     * so a tag with a longer name which starts with the same name is not matched.
+     */
+    private static boolean isTag(ByteBuffer buffer, int index, byte[] tag) {
+        int next = index + tag.length;
+        if (next >= buffer.limit() || !matches(buffer, index, tag)) {
+            return false;
+        }
+        byte ch = buffer.get(next);
+        return ch == '>' || ch == '/' || ch == ' ' || ch == '\t' || ch == '\r' || ch == '\n';
+    }
+
+    /**
+     * Finds the index after the <tt>&gt;</tt> ending the tag, skipping quoted attribute values.
+     */
+    private static int endOfTag(ByteBuffer buffer, int from) {
+        byte quote = 0;
+        for (int i = from; i < buffer.limit(); i++) {
+            byte ch = buffer.get(i);
+            if (quote != 0) {
+                if (ch == quote) {
+                    quote = 0;
+                }
+            } else if (ch == '"' || ch == '\'') {
+                quote = ch;
+            } else if (ch == '>') {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static int skipPast(ByteBuffer buffer, int from, byte[] end) {
+        int last = buffer.limit() - end.length;
+        for (int i = from; i <= last; i++) {
+            if (matches(buffer, i, end)) {
+                return i + end.length;
+            }
+        }
+        return -1;
+    }
+
+    private static byte[] toAscii(String text) {
+        byte[] answer = new byte[text.length()];
+        for (int i = 0; i < answer.length; i++) {
+            answer[i] = (byte) text.charAt(i);
+        }
+        return answer;
+    }
+
+}
@@ -150,6 +150,7 @@ public class DefaultManagementStrategy implements ManagementStrategy, CamelConte
         }
     }
 
+    @Deprecated
     public Statistic createStatistic(String name, Object owner, Statistic.UpdateMode updateMode) {
         // noop
         return null;
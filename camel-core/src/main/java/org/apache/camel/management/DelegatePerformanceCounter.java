@@ -32,7 +32,7 @@ package org.apache.camel.management;
  */
 public class DelegatePerformanceCounter implements PerformanceCounter {
 
-    private PerformanceCounter counter;
+    private volatile PerformanceCounter counter;
     private boolean statisticsEnabled;
 
     public DelegatePerformanceCounter() {
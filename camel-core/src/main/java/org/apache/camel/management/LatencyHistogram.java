@@ -0,0 +1,239 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.management;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of latencies with bounded memory which supports percentile queries.
+ * <p/>
+ * The values is recorded in log-linear buckets, where each power of two is divided into
+ * {@link #SUB_BUCKETS} linear sub buckets, which means the percentiles is accurate within
+ * 1/{@link #SUB_BUCKETS} of the value. Values from 0 to {@link #MAX_VALUE} can be tracked,
+ * larger values is recorded as {@link #MAX_VALUE}.
+ * <p/>
+ * To avoid contention when many threads records latencies concurrently the buckets is striped,
+ * and the stripe is selected by the id of the recording thread. Recording only uses atomic
+ * operations on the stripe, and the stripes is merged when the histogram is queried.
+ * <p/>
+ * The queries is not an atomic snapshot of the histogram, so a query which runs concurrently
+ * with recording may be off by the values currently being recorded.
+ *
+ * @version 
+ */
+public final class LatencyHistogram {
+
+    public static final int SUB_BUCKET_BITS = 3;
+    public static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    public static final int MAX_VALUE_BITS = 40;
+    public static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+    private static final int BUCKETS = (MAX_VALUE_BITS - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final Stripe[] stripes;
+    private final int mask;
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Creates a histogram with a stripe per processor, up till 4 stripes.
+     */
+    public LatencyHistogram() {
+        this(Math.min(4, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Creates a histogram
+     *
+     * @param stripes the number of stripes, is rounded up to a power of two
+     */
+    public LatencyHistogram(int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Stripes must be a positive number, was: " + stripes);
+        }
+        int size = 1;
+        while (size < stripes) {
+            size <<= 1;
+        }
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Records the value
+     *
+     * @param value the value, negative values is recorded as 0
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        } else if (value > MAX_VALUE) {
+            value = MAX_VALUE;
+        }
+
+        Stripe stripe = stripes[(int) Thread.currentThread().getId() & mask];
+        stripe.buckets.incrementAndGet(bucketIndex(value));
+        stripe.count.incrementAndGet();
+        stripe.total.addAndGet(value);
+
+        // only compare and set if its a new min/max which is seldom after warm up
+        long current = min.get();
+        while (value < current && !min.compareAndSet(current, value)) {
+            current = min.get();
+        }
+        current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * Number of recorded values
+     */
+    public long getCount() {
+        long answer = 0;
+        for (Stripe stripe : stripes) {
+            answer += stripe.count.get();
+        }
+        return answer;
+    }
+
+    /**
+     * Sum of the recorded values
+     */
+    public long getTotal() {
+        long answer = 0;
+        for (Stripe stripe : stripes) {
+            answer += stripe.total.get();
+        }
+        return answer;
+    }
+
+    /**
+     * The minimum recorded value, or 0 if no values has been recorded
+     */
+    public long getMin() {
+        long answer = min.get();
+        return answer == Long.MAX_VALUE ? 0 : answer;
+    }
+
+    /**
+     * The maximum recorded value, or 0 if no values has been recorded
+     */
+    public long getMax() {
+        long answer = max.get();
+        return answer == Long.MIN_VALUE ? 0 : answer;
+    }
+
+    /**
+     * The mean of the recorded values, or 0 if no values has been recorded
+     */
+    public long getMean() {
+        long count = getCount();
+        return count > 0 ? getTotal() / count : 0;
+    }
+
+    /**
+     * Gets the value at the given percentile, which is the highest value in the bucket
+     * containing the percentile, but never higher than the maximum recorded value.
+     *
+     * @param percentile the percentile, eg <tt>99.9</tt>
+     * @return the value, or 0 if no values has been recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100, was: " + percentile);
+        }
+
+        long[] buckets = new long[BUCKETS];
+        long count = 0;
+        for (Stripe stripe : stripes) {
+            for (int i = 0; i < BUCKETS; i++) {
+                long value = stripe.buckets.get(i);
+                buckets[i] += value;
+                count += value;
+            }
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        // the rank of the value at the percentile, eg the 99th percentile of 1000 values is the 990th value
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return Math.min(highestValue(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Resets the histogram.
+     * <p/>
+     * Values which is recorded concurrently with the reset may be partly lost.
+     */
+    public void reset() {
+        for (Stripe stripe : stripes) {
+            for (int i = 0; i < BUCKETS; i++) {
+                stripe.buckets.set(i, 0);
+            }
+            stripe.count.set(0);
+            stripe.total.set(0);
+        }
+        min.set(Long.MAX_VALUE);
+        max.set(Long.MIN_VALUE);
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        // the position of the highest bit decides the power of two, and the next bits decides the sub bucket
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long subBucket = index % SUB_BUCKETS;
+        long lowest = (SUB_BUCKETS + subBucket) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram[count=" + getCount() + ", min=" + getMin() + ", max=" + getMax() + ", mean=" + getMean() + "]";
+    }
+
+    private static final class Stripe {
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong total = new AtomicLong();
+    }
+
+}
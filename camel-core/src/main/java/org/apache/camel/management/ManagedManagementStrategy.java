@@ -163,6 +163,7 @@ public class ManagedManagementStrategy extends DefaultManagementStrategy {
     }
 
     @Override
+    @Deprecated
     public Statistic createStatistic(String name, Object owner, Statistic.UpdateMode updateMode) {
         return new StatisticImpl(updateMode);
     }
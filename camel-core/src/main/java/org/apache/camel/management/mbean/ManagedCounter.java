@@ -16,31 +16,32 @@
  */
 package org.apache.camel.management.mbean;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.apache.camel.spi.ManagementStrategy;
-import org.fusesource.commons.management.Statistic;
 import org.springframework.jmx.export.annotation.ManagedAttribute;
 import org.springframework.jmx.export.annotation.ManagedOperation;
 import org.springframework.jmx.export.annotation.ManagedResource;
 
 @ManagedResource(description = "Managed Counter")
 public abstract class ManagedCounter {
-    protected Statistic exchangesTotal;
+    protected final AtomicLong exchangesTotal = new AtomicLong();
 
     public void init(ManagementStrategy strategy) {
-        this.exchangesTotal = strategy.createStatistic("org.apache.camel.exchangesTotal", this, Statistic.UpdateMode.COUNTER);
+        // noop as the counters is lock-free atomics and not created using the deprecated strategy.createStatistic
     }
 
     @ManagedOperation(description = "Reset counters")
-    public synchronized void reset() {
-        exchangesTotal.reset();
+    public void reset() {
+        exchangesTotal.set(0);
     }
 
     @ManagedAttribute(description = "Total number of exchanges")
     public long getExchangesTotal() throws Exception {
-        return exchangesTotal.getValue();
+        return exchangesTotal.get();
     }
 
-    public synchronized void increment() {
-        exchangesTotal.increment();
+    public void increment() {
+        exchangesTotal.incrementAndGet();
     }
 }
@@ -16,6 +16,8 @@
  */
 package org.apache.camel.management.mbean;
 
+import java.util.List;
+
 import org.apache.camel.LoggingLevel;
 import org.apache.camel.Processor;
 import org.apache.camel.builder.ErrorHandlerBuilder;
@@ -427,4 +429,49 @@ public class ManagedErrorHandler {
         redelivery.getRedeliveryPolicy().setUseExponentialBackOff(backoff);
     }
 
+    @ManagedAttribute(description = "RedeliveryPolicy for using asynchronous delayed redelivery which does not block the caller thread")
+    public Boolean getAsyncDelayedRedelivery() {
+        if (!isSupportRedelivery()) {
+            return null;
+        }
+
+        RedeliveryErrorHandler redelivery = (RedeliveryErrorHandler) errorHandler;
+        return redelivery.getRedeliveryPolicy().isAsyncDelayedRedelivery();
+    }
+
+    @ManagedAttribute(description = "RedeliveryPolicy for using asynchronous delayed redelivery which does not block the caller thread")
+    public void setAsyncDelayedRedelivery(Boolean asyncDelayedRedelivery) {
+        if (!isSupportRedelivery()) {
+            throw new IllegalArgumentException("This error handler does not support redelivery");
+        }
+
+        RedeliveryErrorHandler redelivery = (RedeliveryErrorHandler) errorHandler;
+        redelivery.getRedeliveryPolicy().setAsyncDelayedRedelivery(asyncDelayedRedelivery);
+    }
+
+    @ManagedAttribute(description = "Number of exchanges pending to be redelivered")
+    public Integer getPendingRedeliveryCount() {
+        if (!isSupportRedelivery()) {
+            return null;
+        }
+
+        RedeliveryErrorHandler redelivery = (RedeliveryErrorHandler) errorHandler;
+        return redelivery.getPendingRedeliveryCount();
+    }
+
+    @ManagedAttribute(description = "Exchanges pending to be redelivered and when they are due")
+    public String[] getPendingRedeliveries() {
+        if (!isSupportRedelivery()) {
+            return null;
+        }
+
+        RedeliveryErrorHandler redelivery = (RedeliveryErrorHandler) errorHandler;
+        List<RedeliveryErrorHandler.PendingRedelivery> pending = redelivery.getPendingRedeliveries();
+        String[] answer = new String[pending.size()];
+        for (int i = 0; i < answer.length; i++) {
+            answer[i] = pending.get(i).toString();
+        }
+        return answer;
+    }
+
 }
@@ -0,0 +1,98 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.management.mbean;
+
+import java.util.List;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.model.ProcessorDefinition;
+import org.apache.camel.processor.loadbalancer.LeastLoadedLoadBalancer;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+/**
+ * @version 
+ */
+@ManagedResource(description = "Managed LeastLoadedLoadBalancer")
+public class ManagedLeastLoadedLoadBalancer extends ManagedProcessor {
+    private final LeastLoadedLoadBalancer loadBalancer;
+
+    public ManagedLeastLoadedLoadBalancer(CamelContext context, LeastLoadedLoadBalancer loadBalancer, ProcessorDefinition<?> definition) {
+        super(context, loadBalancer, definition);
+        this.loadBalancer = loadBalancer;
+    }
+
+    public LeastLoadedLoadBalancer getLoadBalancer() {
+        return loadBalancer;
+    }
+
+    @ManagedAttribute(description = "Weight of a new response time in the average response time")
+    public double getDecayFactor() {
+        return loadBalancer.getDecayFactor();
+    }
+
+    @ManagedAttribute(description = "Weight of a new response time in the average response time")
+    public void setDecayFactor(double decayFactor) {
+        loadBalancer.setDecayFactor(decayFactor);
+    }
+
+    @ManagedAttribute(description = "Penalty in millis added to the response time of a failed exchange")
+    public long getFailurePenalty() {
+        return loadBalancer.getFailurePenalty();
+    }
+
+    @ManagedAttribute(description = "Penalty in millis added to the response time of a failed exchange")
+    public void setFailurePenalty(long failurePenalty) {
+        loadBalancer.setFailurePenalty(failurePenalty);
+    }
+
+    @ManagedAttribute(description = "Number of processors being load balanced")
+    public int getTargetCount() {
+        return loadBalancer.getTargets().size();
+    }
+
+    @ManagedAttribute(description = "Statistics per processor being load balanced")
+    public String[] getTargetStatistics() {
+        List<LeastLoadedLoadBalancer.Target> targets = loadBalancer.getTargets();
+        String[] answer = new String[targets.size()];
+        for (int i = 0; i < answer.length; i++) {
+            answer[i] = targets.get(i).toString();
+        }
+        return answer;
+    }
+
+    @ManagedOperation(description = "Number of in flight exchanges for the processor at the index")
+    public int targetInFlight(int index) {
+        return loadBalancer.getTargets().get(index).getInFlight();
+    }
+
+    @ManagedOperation(description = "Average response time in millis for the processor at the index")
+    public double targetResponseTime(int index) {
+        return loadBalancer.getTargets().get(index).getResponseTime();
+    }
+
+    @ManagedOperation(description = "Number of completed exchanges for the processor at the index")
+    public long targetExchangesCompleted(int index) {
+        return loadBalancer.getTargets().get(index).getExchangesCompleted();
+    }
+
+    @ManagedOperation(description = "Number of failed exchanges for the processor at the index")
+    public long targetExchangesFailed(int index) {
+        return loadBalancer.getTargets().get(index).getExchangesFailed();
+    }
+}
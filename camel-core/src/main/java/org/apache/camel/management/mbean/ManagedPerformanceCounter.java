@@ -17,118 +17,162 @@
 package org.apache.camel.management.mbean;
 
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.apache.camel.management.LatencyHistogram;
 import org.apache.camel.management.PerformanceCounter;
-import org.apache.camel.spi.ManagementStrategy;
-import org.fusesource.commons.management.Statistic;
 import org.springframework.jmx.export.annotation.ManagedAttribute;
 import org.springframework.jmx.export.annotation.ManagedOperation;
 import org.springframework.jmx.export.annotation.ManagedResource;
 
+/**
+ * Gathers the performance metrics of the exchanges being processed.
+ * <p/>
+ * The processing times is recorded in a lock-free {@link LatencyHistogram} so the processing threads
+ * do not contend on a lock, and the percentiles of the processing time can be queried.
+ * <p/>
+ * By default the statistics is gathered since start (or last reset). If a statistics interval is set,
+ * then the percentiles is computed from the latest completed interval, so they reflect the recent
+ * processing times instead.
+ *
+ * @version 
+ */
 @ManagedResource(description = "PerformanceCounter")
 public abstract class ManagedPerformanceCounter extends ManagedCounter implements PerformanceCounter {
-    private Statistic exchangesCompleted;
-    private Statistic exchangesFailed;
-    private Statistic minProcessingTime;
-    private Statistic maxProcessingTime;
-    private Statistic totalProcessingTime;
-    private Statistic lastProcessingTime;
-    private Statistic meanProcessingTime;
-    private Statistic firstExchangeCompletedTimestamp;
-    private Statistic firstExchangeFailureTimestamp;
-    private Statistic lastExchangeCompletedTimestamp;
-    private Statistic lastExchangeFailureTimestamp;
-    private boolean statisticsEnabled = true;
-
-    public void init(ManagementStrategy strategy) {
-        super.init(strategy);
-        this.exchangesCompleted = strategy.createStatistic("org.apache.camel.exchangesCompleted", this, Statistic.UpdateMode.COUNTER);
-        this.exchangesFailed = strategy.createStatistic("org.apache.camel.exchangesFailed", this, Statistic.UpdateMode.COUNTER);
-        this.minProcessingTime = strategy.createStatistic("org.apache.camel.minimumProcessingTime", this, Statistic.UpdateMode.MINIMUM);
-        this.maxProcessingTime = strategy.createStatistic("org.apache.camel.maximumProcessingTime", this, Statistic.UpdateMode.MAXIMUM);
-        this.totalProcessingTime = strategy.createStatistic("org.apache.camel.totalProcessingTime", this, Statistic.UpdateMode.COUNTER);
-        this.lastProcessingTime = strategy.createStatistic("org.apache.camel.lastProcessingTime", this, Statistic.UpdateMode.VALUE);
-        this.meanProcessingTime = strategy.createStatistic("org.apache.camel.meanProcessingTime", this, Statistic.UpdateMode.VALUE);
-
-        this.firstExchangeCompletedTimestamp = strategy.createStatistic("org.apache.camel.firstExchangeCompletedTimestamp", this, Statistic.UpdateMode.VALUE);
-        this.firstExchangeFailureTimestamp = strategy.createStatistic("org.apache.camel.firstExchangeFailureTimestamp", this, Statistic.UpdateMode.VALUE);
-        this.lastExchangeCompletedTimestamp = strategy.createStatistic("org.apache.camel.lastExchangeCompletedTimestamp", this, Statistic.UpdateMode.VALUE);
-        this.lastExchangeFailureTimestamp = strategy.createStatistic("org.apache.camel.lastExchangeFailureTimestamp", this, Statistic.UpdateMode.VALUE);
-    }
+    private final LatencyHistogram processingTimes = new LatencyHistogram();
+    private final AtomicLong exchangesFailed = new AtomicLong();
+    private final AtomicLong firstExchangeCompletedTimestamp = new AtomicLong();
+    private final AtomicLong firstExchangeFailureTimestamp = new AtomicLong();
+    private volatile long lastProcessingTime;
+    private volatile long lastExchangeCompletedTimestamp;
+    private volatile long lastExchangeFailureTimestamp;
+    private volatile boolean statisticsEnabled = true;
+    // the interval histograms is only in use if a statistics interval has been set
+    private volatile long statisticsInterval;
+    private final AtomicLong intervalEnd = new AtomicLong();
+    private volatile LatencyHistogram currentInterval;
+    private volatile LatencyHistogram lastInterval;
 
     @Override
     @ManagedOperation(description = "Reset counters")
-    public synchronized void reset() {
+    public void reset() {
         super.reset();
-        exchangesCompleted.reset();
-        exchangesFailed.reset();
-        minProcessingTime.reset();
-        maxProcessingTime.reset();
-        totalProcessingTime.reset();
-        lastProcessingTime.reset();
-        meanProcessingTime.reset();
-        firstExchangeCompletedTimestamp.reset();
-        firstExchangeFailureTimestamp.reset();
-        lastExchangeCompletedTimestamp.reset();
-        lastExchangeFailureTimestamp.reset();
+        processingTimes.reset();
+        exchangesFailed.set(0);
+        firstExchangeCompletedTimestamp.set(0);
+        firstExchangeFailureTimestamp.set(0);
+        lastProcessingTime = 0;
+        lastExchangeCompletedTimestamp = 0;
+        lastExchangeFailureTimestamp = 0;
+        if (statisticsInterval > 0) {
+            startInterval(System.currentTimeMillis());
+        }
+    }
+
+    @Override
+    @ManagedAttribute(description = "Total number of exchanges")
+    public long getExchangesTotal() throws Exception {
+        // completed and failed exchanges is counted separately to avoid contention on a shared counter
+        return super.getExchangesTotal() + processingTimes.getCount() + exchangesFailed.get();
     }
 
     @ManagedAttribute(description = "Number of completed exchanges")
     public long getExchangesCompleted() throws Exception {
-        return exchangesCompleted.getValue();
+        return processingTimes.getCount();
     }
 
     @ManagedAttribute(description = "Number of failed exchanges")
     public long getExchangesFailed() throws Exception {
-        return exchangesFailed.getValue();
+        return exchangesFailed.get();
     }
 
     @ManagedAttribute(description = "Min Processing Time [milliseconds]")
     public long getMinProcessingTime() throws Exception {
-        return minProcessingTime.getValue();
+        return processingTimes.getMin();
     }
 
     @ManagedAttribute(description = "Mean Processing Time [milliseconds]")
     public long getMeanProcessingTime() throws Exception {
-        return meanProcessingTime.getValue();
+        return processingTimes.getMean();
     }
 
     @ManagedAttribute(description = "Max Processing Time [milliseconds]")
     public long getMaxProcessingTime() throws Exception {
-        return maxProcessingTime.getValue();
+        return processingTimes.getMax();
     }
 
     @ManagedAttribute(description = "Total Processing Time [milliseconds]")
     public long getTotalProcessingTime() throws Exception {
-        return totalProcessingTime.getValue();
+        return processingTimes.getTotal();
     }
 
     @ManagedAttribute(description = "Last Processing Time [milliseconds]")
     public long getLastProcessingTime() throws Exception {
-        return lastProcessingTime.getValue();
+        return lastProcessingTime;
+    }
+
+    @ManagedAttribute(description = "50th Percentile Processing Time [milliseconds]")
+    public long getP50ProcessingTime() throws Exception {
+        return getPercentileProcessingTime(50);
+    }
+
+    @ManagedAttribute(description = "90th Percentile Processing Time [milliseconds]")
+    public long getP90ProcessingTime() throws Exception {
+        return getPercentileProcessingTime(90);
+    }
+
+    @ManagedAttribute(description = "99th Percentile Processing Time [milliseconds]")
+    public long getP99ProcessingTime() throws Exception {
+        return getPercentileProcessingTime(99);
+    }
+
+    @ManagedAttribute(description = "99.9th Percentile Processing Time [milliseconds]")
+    public long getP999ProcessingTime() throws Exception {
+        return getPercentileProcessingTime(99.9);
+    }
+
+    @ManagedOperation(description = "Processing Time at the given percentile [milliseconds]")
+    public long percentileProcessingTime(double percentile) throws Exception {
+        return getPercentileProcessingTime(percentile);
+    }
+
+    @ManagedAttribute(description = "Statistics interval [milliseconds], 0 to gather percentiles since start")
+    public long getStatisticsInterval() {
+        return statisticsInterval;
+    }
+
+    @ManagedAttribute(description = "Statistics interval [milliseconds], 0 to gather percentiles since start")
+    public void setStatisticsInterval(long statisticsInterval) {
+        this.statisticsInterval = statisticsInterval;
+        if (statisticsInterval > 0) {
+            startInterval(System.currentTimeMillis());
+        } else {
+            currentInterval = null;
+            lastInterval = null;
+        }
     }
 
     @ManagedAttribute(description = "Last Exchange Completed Timestamp")
     public Date getLastExchangeCompletedTimestamp() {
-        long value = lastExchangeCompletedTimestamp.getValue();
+        long value = lastExchangeCompletedTimestamp;
         return value > 0 ? new Date(value) : null;
     }
 
     @ManagedAttribute(description = "First Exchange Completed Timestamp")
     public Date getFirstExchangeCompletedTimestamp() {
-        long value = firstExchangeCompletedTimestamp.getValue();
+        long value = firstExchangeCompletedTimestamp.get();
         return value > 0 ? new Date(value) : null;
     }
 
     @ManagedAttribute(description = "Last Exchange Failed Timestamp")
     public Date getLastExchangeFailureTimestamp() {
-        long value = lastExchangeFailureTimestamp.getValue();
+        long value = lastExchangeFailureTimestamp;
         return value > 0 ? new Date(value) : null;
     }
 
     @ManagedAttribute(description = "First Exchange Failed Timestamp")
     public Date getFirstExchangeFailureTimestamp() {
-        long value = firstExchangeFailureTimestamp.getValue();
+        long value = firstExchangeFailureTimestamp.get();
         return value > 0 ? new Date(value) : null;
     }
 
@@ -147,41 +191,72 @@ public abstract class ManagedPerformanceCounter extends ManagedCounter implement
      * 
      * @param time in milliseconds it spent on processing the exchange
      */
-    public synchronized void completedExchange(long time) {
-        increment();
-        exchangesCompleted.increment();
-
-        minProcessingTime.updateValue(time);
-        maxProcessingTime.updateValue(time);
-        totalProcessingTime.updateValue(time);
-        lastProcessingTime.updateValue(time);
-
-        long now = new Date().getTime();
-        if (firstExchangeCompletedTimestamp.getUpdateCount() == 0) {
-            firstExchangeCompletedTimestamp.updateValue(now);
-        }
+    public void completedExchange(long time) {
+        long now = System.currentTimeMillis();
 
-        lastExchangeCompletedTimestamp.updateValue(now);
+        processingTimes.record(time);
+        if (statisticsInterval > 0) {
+            LatencyHistogram interval = getCurrentInterval(now);
+            if (interval != null) {
+                interval.record(time);
+            }
+        }
+        lastProcessingTime = time;
 
-        // update mean
-        long count = exchangesCompleted.getValue();
-        long mean = count > 0 ? totalProcessingTime.getValue() / count : 0;
-        meanProcessingTime.updateValue(mean);
+        if (firstExchangeCompletedTimestamp.get() == 0) {
+            firstExchangeCompletedTimestamp.compareAndSet(0, now);
+        }
+        lastExchangeCompletedTimestamp = now;
     }
 
     /**
      * This method is called when an exchange has been processed and failed.
      */
-    public synchronized void failedExchange() {
-        increment();
-        exchangesFailed.increment();
+    public void failedExchange() {
+        long now = System.currentTimeMillis();
+
+        exchangesFailed.incrementAndGet();
+
+        if (firstExchangeFailureTimestamp.get() == 0) {
+            firstExchangeFailureTimestamp.compareAndSet(0, now);
+        }
+        lastExchangeFailureTimestamp = now;
+    }
+
+    /**
+     * Gets the processing time at the given percentile, from the latest completed interval
+     * if a statistics interval is in use.
+     */
+    protected long getPercentileProcessingTime(double percentile) {
+        LatencyHistogram histogram = processingTimes;
+        if (statisticsInterval > 0) {
+            // roll over the interval in case no exchanges has been completed recently
+            getCurrentInterval(System.currentTimeMillis());
+            LatencyHistogram last = lastInterval;
+            if (last != null) {
+                histogram = last;
+            }
+        }
+        return histogram.getValueAtPercentile(percentile);
+    }
 
-        long now = new Date().getTime();
-        if (firstExchangeFailureTimestamp.getUpdateCount() == 0) {
-            firstExchangeFailureTimestamp.updateValue(now);
+    private LatencyHistogram getCurrentInterval(long now) {
+        long end = intervalEnd.get();
+        if (now >= end && intervalEnd.compareAndSet(end, now + statisticsInterval)) {
+            // only the thread which moved the interval end rolls over to the next interval
+            LatencyHistogram current = currentInterval;
+            // if more than one interval has passed then the last interval had no exchanges
+            lastInterval = current != null && now < end + statisticsInterval ? current : new LatencyHistogram(1);
+            currentInterval = new LatencyHistogram();
         }
+        // may be null if the interval has been disabled concurrently
+        return currentInterval;
+    }
 
-        lastExchangeFailureTimestamp.updateValue(now);
+    private void startInterval(long now) {
+        currentInterval = new LatencyHistogram();
+        lastInterval = null;
+        intervalEnd.set(now + statisticsInterval);
     }
 
 }
@@ -19,6 +19,7 @@ package org.apache.camel.management.mbean;
 import org.apache.camel.CamelContext;
 import org.apache.camel.impl.ProducerCache;
 import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
 import org.springframework.jmx.export.annotation.ManagedResource;
 
 /**
@@ -55,4 +56,24 @@ public class ManagedProducerCache extends ManagedService {
         return producerCache.getCapacity();
     }
 
+    @ManagedAttribute(description = "Number of cache hits")
+    public Long getHits() {
+        return producerCache.getHits();
+    }
+
+    @ManagedAttribute(description = "Number of cache misses")
+    public Long getMisses() {
+        return producerCache.getMisses();
+    }
+
+    @ManagedAttribute(description = "Number of cache evictions")
+    public Long getEvictions() {
+        return producerCache.getEvictions();
+    }
+
+    @ManagedOperation(description = "Reset cache statistics")
+    public void resetStatistics() {
+        producerCache.resetCacheStatistics();
+    }
+
 }
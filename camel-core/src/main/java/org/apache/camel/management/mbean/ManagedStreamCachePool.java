@@ -0,0 +1,91 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.management.mbean;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.converter.stream.StreamCachePool;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+/**
+ * @version 
+ */
+@ManagedResource(description = "Managed StreamCachePool")
+public class ManagedStreamCachePool extends ManagedService {
+    private final StreamCachePool pool;
+
+    public ManagedStreamCachePool(CamelContext context, StreamCachePool pool) {
+        super(context, pool);
+        this.pool = pool;
+    }
+
+    public StreamCachePool getPool() {
+        return pool;
+    }
+
+    @ManagedAttribute(description = "Size of the buffers in bytes")
+    public Integer getChunkSize() {
+        return pool.getChunkSize();
+    }
+
+    @ManagedAttribute(description = "Maximum number of bytes used by cached streams")
+    public Long getMemoryBudget() {
+        return pool.getMemoryBudget();
+    }
+
+    @ManagedAttribute(description = "Maximum number of bytes used by cached streams")
+    public void setMemoryBudget(Long memoryBudget) {
+        pool.setMemoryBudget(memoryBudget);
+    }
+
+    @ManagedAttribute(description = "Number of bytes currently used by cached streams")
+    public Long getUsedMemory() {
+        return pool.getUsedMemory();
+    }
+
+    @ManagedAttribute(description = "Highest number of bytes used by cached streams")
+    public Long getPeakUsedMemory() {
+        return pool.getPeakUsedMemory();
+    }
+
+    @ManagedAttribute(description = "Number of free buffers in the pool")
+    public Integer getPooledBuffers() {
+        return pool.getPooledBuffers();
+    }
+
+    @ManagedAttribute(description = "Number of streams spilled to file")
+    public Long getSpillCount() {
+        return pool.getSpillCount();
+    }
+
+    @ManagedAttribute(description = "Number of bytes written to file by spilled streams")
+    public Long getSpilledBytes() {
+        return pool.getSpilledBytes();
+    }
+
+    @ManagedAttribute(description = "Number of times the memory budget was used up")
+    public Long getBudgetExhaustedCount() {
+        return pool.getBudgetExhaustedCount();
+    }
+
+    @ManagedOperation(description = "Reset the statistics")
+    public void resetStatistics() {
+        pool.resetStatistics();
+    }
+
+}
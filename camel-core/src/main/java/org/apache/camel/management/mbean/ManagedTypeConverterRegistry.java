@@ -0,0 +1,76 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.management.mbean;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.impl.converter.BaseTypeConverterRegistry;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+/**
+ * @version 
+ */
+@ManagedResource(description = "Managed TypeConverterRegistry")
+public class ManagedTypeConverterRegistry extends ManagedService {
+    private final BaseTypeConverterRegistry registry;
+
+    public ManagedTypeConverterRegistry(CamelContext context, BaseTypeConverterRegistry registry) {
+        super(context, registry);
+        this.registry = registry;
+    }
+
+    public BaseTypeConverterRegistry getRegistry() {
+        return registry;
+    }
+
+    @ManagedAttribute(description = "Number of type converters")
+    public Integer getNumberOfTypeConverters() {
+        return registry.getTypeMappings().size();
+    }
+
+    @ManagedAttribute(description = "Whether the lookup cache counters is enabled")
+    public boolean isStatisticsEnabled() {
+        return registry.isStatisticsEnabled();
+    }
+
+    @ManagedAttribute(description = "Whether the lookup cache counters is enabled")
+    public void setStatisticsEnabled(boolean statisticsEnabled) {
+        registry.setStatisticsEnabled(statisticsEnabled);
+    }
+
+    @ManagedAttribute(description = "Number of conversions where the converter was found in the lookup cache")
+    public Long getCacheHits() {
+        return registry.getCacheHits();
+    }
+
+    @ManagedAttribute(description = "Number of conversions where the converter was not found in the lookup cache")
+    public Long getCacheMisses() {
+        return registry.getCacheMisses();
+    }
+
+    @ManagedAttribute(description = "Number of from/to type pairs in the lookup cache")
+    public Integer getCacheSize() {
+        return registry.getCacheSize();
+    }
+
+    @ManagedOperation(description = "Reset the lookup cache counters")
+    public void resetCacheStatistics() {
+        registry.resetCacheStatistics();
+    }
+
+}
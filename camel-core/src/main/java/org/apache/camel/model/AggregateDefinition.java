@@ -92,6 +92,10 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
     private Integer closeCorrelationKeyOnCompletion;
     @XmlAttribute
     private Boolean discardOnCompletionTimeout;
+    @XmlAttribute
+    private Integer lockStripes;
+    @XmlAttribute
+    private Boolean completionTimeoutTimingWheel;
 
     public AggregateDefinition() {
     }
@@ -208,6 +212,12 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
         if (getDiscardOnCompletionTimeout() != null) {
             answer.setDiscardOnCompletionTimeout(isDiscardOnCompletionTimeout());
         }
+        if (getLockStripes() != null) {
+            answer.setLockStripes(getLockStripes());
+        }
+        if (getCompletionTimeoutTimingWheel() != null) {
+            answer.setCompletionTimeoutTimingWheel(isCompletionTimeoutTimingWheel());
+        }
 
         return answer;
     }
@@ -427,6 +437,26 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
         this.discardOnCompletionTimeout = discardOnCompletionTimeout;
     }
 
+    public Integer getLockStripes() {
+        return lockStripes;
+    }
+
+    public void setLockStripes(Integer lockStripes) {
+        this.lockStripes = lockStripes;
+    }
+
+    public Boolean getCompletionTimeoutTimingWheel() {
+        return completionTimeoutTimingWheel;
+    }
+
+    public boolean isCompletionTimeoutTimingWheel() {
+        return completionTimeoutTimingWheel != null && completionTimeoutTimingWheel;
+    }
+
+    public void setCompletionTimeoutTimingWheel(Boolean completionTimeoutTimingWheel) {
+        this.completionTimeoutTimingWheel = completionTimeoutTimingWheel;
+    }
+
     // Fluent API
     //-------------------------------------------------------------------------
 
@@ -644,6 +674,33 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
         return this;
     }
     
+    /**
+     * Uses a number of lock stripes so exchanges with different correlation keys can be aggregated
+     * concurrently. Exchanges with the same correlation key is still aggregated one at a time.
+     * <p/>
+     * By default a single lock is used which means all exchanges is aggregated one at a time.
+     *
+     * @param lockStripes the number of lock stripes
+     * @return the builder
+     */
+    public AggregateDefinition lockStripes(int lockStripes) {
+        setLockStripes(lockStripes);
+        return this;
+    }
+
+    /**
+     * Uses a timing wheel to keep track of the completion timeouts, instead of scanning all the
+     * correlation keys every second. This is faster when there is a large number of correlation keys
+     * waiting for their completion timeout, and the completion timeouts can be triggered without
+     * acquiring all the lock stripes.
+     *
+     * @return the builder
+     */
+    public AggregateDefinition completionTimeoutTimingWheel() {
+        setCompletionTimeoutTimingWheel(true);
+        return this;
+    }
+
     public AggregateDefinition executorService(ExecutorService executorService) {
         setExecutorService(executorService);
         return this;
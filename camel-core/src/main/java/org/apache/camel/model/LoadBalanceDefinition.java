@@ -32,12 +32,14 @@ import javax.xml.bind.annotation.XmlRootElement;
 import org.apache.camel.Expression;
 import org.apache.camel.Processor;
 import org.apache.camel.model.loadbalancer.FailoverLoadBalancerDefinition;
+import org.apache.camel.model.loadbalancer.LeastLoadedLoadBalancerDefinition;
 import org.apache.camel.model.loadbalancer.RandomLoadBalancerDefinition;
 import org.apache.camel.model.loadbalancer.RoundRobinLoadBalancerDefinition;
 import org.apache.camel.model.loadbalancer.StickyLoadBalancerDefinition;
 import org.apache.camel.model.loadbalancer.TopicLoadBalancerDefinition;
 import org.apache.camel.model.loadbalancer.WeightedLoadBalancerDefinition;
 import org.apache.camel.processor.loadbalancer.FailOverLoadBalancer;
+import org.apache.camel.processor.loadbalancer.LeastLoadedLoadBalancer;
 import org.apache.camel.processor.loadbalancer.LoadBalancer;
 import org.apache.camel.processor.loadbalancer.RandomLoadBalancer;
 import org.apache.camel.processor.loadbalancer.RoundRobinLoadBalancer;
@@ -59,6 +61,7 @@ public class LoadBalanceDefinition extends ProcessorDefinition<LoadBalanceDefini
     private String ref;
     @XmlElements({
             @XmlElement(required = false, name = "failover", type = FailoverLoadBalancerDefinition.class),
+            @XmlElement(required = false, name = "leastLoaded", type = LeastLoadedLoadBalancerDefinition.class),
             @XmlElement(required = false, name = "random", type = RandomLoadBalancerDefinition.class),
             @XmlElement(required = false, name = "roundRobin", type = RoundRobinLoadBalancerDefinition.class),
             @XmlElement(required = false, name = "sticky", type = StickyLoadBalancerDefinition.class),
@@ -252,6 +255,47 @@ public class LoadBalanceDefinition extends ProcessorDefinition<LoadBalanceDefini
         return this;
     }
 
+    /**
+     * Uses least loaded load balancer, which sends to the processor with the lowest expected
+     * response time based on its number of in flight exchanges and its recent response times.
+     *
+     * @return the builder
+     */
+    public LoadBalanceDefinition leastLoaded() {
+        setLoadBalancerType(new LoadBalancerDefinition(new LeastLoadedLoadBalancer()));
+        return this;
+    }
+
+    /**
+     * Uses least loaded load balancer, which sends to the processor with the lowest expected
+     * response time based on its number of in flight exchanges and its recent response times.
+     *
+     * @param decayFactor how much weight a new response time has in the average response time, between 0 and 1
+     * @return the builder
+     */
+    public LoadBalanceDefinition leastLoaded(double decayFactor) {
+        LeastLoadedLoadBalancer leastLoaded = new LeastLoadedLoadBalancer();
+        leastLoaded.setDecayFactor(decayFactor);
+        setLoadBalancerType(new LoadBalancerDefinition(leastLoaded));
+        return this;
+    }
+
+    /**
+     * Uses least loaded load balancer, which sends to the processor with the lowest expected
+     * response time based on its number of in flight exchanges and its recent response times.
+     *
+     * @param decayFactor    how much weight a new response time has in the average response time, between 0 and 1
+     * @param failurePenalty the penalty in millis which is added to the response time of a failed exchange
+     * @return the builder
+     */
+    public LoadBalanceDefinition leastLoaded(double decayFactor, long failurePenalty) {
+        LeastLoadedLoadBalancer leastLoaded = new LeastLoadedLoadBalancer();
+        leastLoaded.setDecayFactor(decayFactor);
+        leastLoaded.setFailurePenalty(failurePenalty);
+        setLoadBalancerType(new LoadBalancerDefinition(leastLoaded));
+        return this;
+    }
+
     /**
      * Uses sticky load balancer
      *
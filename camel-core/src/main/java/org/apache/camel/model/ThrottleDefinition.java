@@ -21,11 +21,14 @@ import java.util.concurrent.ScheduledExecutorService;
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlTransient;
 
+import org.apache.camel.Expression;
 import org.apache.camel.Processor;
 import org.apache.camel.processor.Throttler;
+import org.apache.camel.processor.TokenBucketThrottler;
 import org.apache.camel.spi.RouteContext;
 import org.apache.camel.util.concurrent.ExecutorServiceHelper;
 
@@ -52,6 +55,12 @@ public class ThrottleDefinition extends OutputDefinition<ThrottleDefinition> imp
     private Boolean asyncDelayed;
     @XmlAttribute
     private Boolean callerRunsWhenRejected;
+    @XmlAttribute
+    private Boolean tokenBucket;
+    @XmlAttribute
+    private Long burstSize;
+    @XmlElement(name = "permits")
+    private ExpressionSubElementDefinition permitsExpression;
 
     public ThrottleDefinition() {
     }
@@ -90,7 +99,19 @@ public class ThrottleDefinition extends OutputDefinition<ThrottleDefinition> imp
 
         // should be default 1000 millis
         long period = getTimePeriodMillis() != null ? getTimePeriodMillis() : 1000L;
-        Throttler answer = new Throttler(childProcessor, getMaximumRequestsPerPeriod(), period, scheduled);
+        Throttler answer;
+        if (isTokenBucket()) {
+            TokenBucketThrottler tokenBucket = new TokenBucketThrottler(childProcessor, getMaximumRequestsPerPeriod(), period, scheduled);
+            if (getBurstSize() != null) {
+                tokenBucket.setBurstSize(getBurstSize());
+            }
+            if (getPermitsExpression() != null) {
+                tokenBucket.setPermitsExpression(getPermitsExpression().createExpression(routeContext));
+            }
+            answer = tokenBucket;
+        } else {
+            answer = new Throttler(childProcessor, getMaximumRequestsPerPeriod(), period, scheduled);
+        }
         if (getAsyncDelayed() != null) {
             answer.setAsyncDelayed(getAsyncDelayed());
         }
@@ -151,6 +172,49 @@ public class ThrottleDefinition extends OutputDefinition<ThrottleDefinition> imp
         return this;
     }
 
+    /**
+     * Uses a token bucket to throttle, which spreads the requests evenly over the time period,
+     * instead of allowing the maximum number of requests at the start of each time period.
+     * <p/>
+     * The token bucket does not use any locks, and is recommended for high throughput.
+     *
+     * @return the builder
+     */
+    public ThrottleDefinition tokenBucket() {
+        setTokenBucket(true);
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of requests which can be sent at once when using a token bucket,
+     * if no requests has been sent for a while.
+     * <p/>
+     * Is by default the same as the maximum requests per period
+     *
+     * @param burstSize the burst size
+     * @return the builder
+     */
+    public ThrottleDefinition burstSize(long burstSize) {
+        setTokenBucket(true);
+        setBurstSize(burstSize);
+        return this;
+    }
+
+    /**
+     * Sets the number of permits each exchange acquires when using a token bucket,
+     * such as when an exchange contains a batch of messages.
+     * <p/>
+     * Is by default one permit per exchange
+     *
+     * @param permits the number of permits as an {@link Expression} which is evaluated as a {@link Long} type
+     * @return the builder
+     */
+    public ThrottleDefinition permits(Expression permits) {
+        setTokenBucket(true);
+        setPermitsExpression(new ExpressionSubElementDefinition(permits));
+        return this;
+    }
+
     public ThrottleDefinition executorService(ExecutorService executorService) {
         setExecutorService(executorService);
         return this;
@@ -196,6 +260,34 @@ public class ThrottleDefinition extends OutputDefinition<ThrottleDefinition> imp
         this.callerRunsWhenRejected = callerRunsWhenRejected;
     }
 
+    public Boolean getTokenBucket() {
+        return tokenBucket;
+    }
+
+    public boolean isTokenBucket() {
+        return tokenBucket != null && tokenBucket;
+    }
+
+    public void setTokenBucket(Boolean tokenBucket) {
+        this.tokenBucket = tokenBucket;
+    }
+
+    public Long getBurstSize() {
+        return burstSize;
+    }
+
+    public void setBurstSize(Long burstSize) {
+        this.burstSize = burstSize;
+    }
+
+    public ExpressionSubElementDefinition getPermitsExpression() {
+        return permitsExpression;
+    }
+
+    public void setPermitsExpression(ExpressionSubElementDefinition permitsExpression) {
+        this.permitsExpression = permitsExpression;
+    }
+
     public ExecutorService getExecutorService() {
         return executorService;
     }
@@ -39,6 +39,12 @@ public class TokenizerExpression extends ExpressionDefinition {
     private String headerName;
     @XmlAttribute
     private Boolean regex;
+    @XmlAttribute
+    private Boolean streaming;
+    @XmlAttribute
+    private Integer group;
+    @XmlAttribute
+    private Boolean xml;
 
     public TokenizerExpression() {
     }
@@ -72,6 +78,30 @@ public class TokenizerExpression extends ExpressionDefinition {
         return regex;
     }
 
+    public void setStreaming(Boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    public Boolean getStreaming() {
+        return streaming;
+    }
+
+    public void setGroup(Integer group) {
+        this.group = group;
+    }
+
+    public Integer getGroup() {
+        return group;
+    }
+
+    public void setXml(Boolean xml) {
+        this.xml = xml;
+    }
+
+    public Boolean getXml() {
+        return xml;
+    }
+
     @Override
     public Expression createExpression(CamelContext camelContext) {
         TokenizeLanguage language = new TokenizeLanguage();
@@ -80,6 +110,15 @@ public class TokenizerExpression extends ExpressionDefinition {
         if (regex != null) {
             language.setRegex(regex);
         }
+        if (streaming != null) {
+            language.setStreaming(streaming);
+        }
+        if (group != null) {
+            language.setGroup(group);
+        }
+        if (xml != null) {
+            language.setXml(xml);
+        }
         return language.createExpression();
     }
 
@@ -83,7 +83,15 @@ public abstract class DelayProcessorSupport extends DelegateAsyncProcessor {
         }
 
         // calculate delay and wait
-        long delay = calculateDelay(exchange);
+        long delay;
+        try {
+            delay = calculateDelay(exchange);
+        } catch (Exception e) {
+            // such as evaluating an expression failed so we are done
+            exchange.setException(e);
+            callback.done(true);
+            return true;
+        }
         if (delay <= 0) {
             // no delay then continue routing
             return super.process(exchange, callback);
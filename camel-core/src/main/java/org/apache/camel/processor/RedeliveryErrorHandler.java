@@ -16,7 +16,14 @@
  */
 package org.apache.camel.processor;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -61,6 +68,8 @@ public abstract class RedeliveryErrorHandler extends ErrorHandlerSupport impleme
     protected final Predicate retryWhilePolicy;
     protected final CamelLogger logger;
     protected final boolean useOriginalMessagePolicy;
+    // the exchanges which is scheduled to be redelivered in the future
+    private final ConcurrentMap<String, PendingRedelivery> pendingRedeliveries = new ConcurrentHashMap<String, PendingRedelivery>();
 
     /**
      * Contains the current redelivery data
@@ -83,6 +92,54 @@ public abstract class RedeliveryErrorHandler extends ErrorHandlerSupport impleme
         boolean asyncDelayedRedelivery = redeliveryPolicy.isAsyncDelayedRedelivery();
     }
 
+    /**
+     * Details about an exchange which is scheduled to be redelivered.
+     */
+    public static final class PendingRedelivery {
+        private final String exchangeId;
+        private final int redeliveryCounter;
+        private final long redeliveryDelay;
+        private final long dueTime;
+
+        private PendingRedelivery(String exchangeId, int redeliveryCounter, long redeliveryDelay) {
+            this.exchangeId = exchangeId;
+            this.redeliveryCounter = redeliveryCounter;
+            this.redeliveryDelay = redeliveryDelay;
+            this.dueTime = System.currentTimeMillis() + redeliveryDelay;
+        }
+
+        public String getExchangeId() {
+            return exchangeId;
+        }
+
+        /**
+         * The redelivery attempt which is pending
+         */
+        public int getRedeliveryCounter() {
+            return redeliveryCounter;
+        }
+
+        /**
+         * The delay in millis the redelivery was scheduled with
+         */
+        public long getRedeliveryDelay() {
+            return redeliveryDelay;
+        }
+
+        /**
+         * The time in millis when the redelivery is due
+         */
+        public long getDueTime() {
+            return dueTime;
+        }
+
+        @Override
+        public String toString() {
+            return "PendingRedelivery[exchangeId=" + exchangeId + ", redeliveryCounter=" + redeliveryCounter
+                    + ", redeliveryDelay=" + redeliveryDelay + ", due=" + new Date(dueTime) + "]";
+        }
+    }
+
     /**
      * Tasks which performs asynchronous redelivery attempts, and being triggered by a
      * {@link java.util.concurrent.ScheduledExecutorService} to avoid having any threads blocking if a task
@@ -101,6 +158,8 @@ public abstract class RedeliveryErrorHandler extends ErrorHandlerSupport impleme
         }
 
         public Boolean call() throws Exception {
+            pendingRedeliveries.remove(exchange.getExchangeId());
+
             // prepare for redelivery
             prepareExchangeForRedelivery(exchange);
 
@@ -262,10 +321,7 @@ public abstract class RedeliveryErrorHandler extends ErrorHandlerSupport impleme
                         AsyncRedeliveryTask task = new AsyncRedeliveryTask(exchange, callback, data);
 
                         // schedule the redelivery task
-                        if (log.isTraceEnabled()) {
-                            log.trace("Scheduling redelivery task to run in " + data.redeliveryDelay + " millis for exchangeId: " + exchange.getExchangeId());
-                        }
-                        executorService.schedule(task, data.redeliveryDelay, TimeUnit.MILLISECONDS);
+                        scheduleRedelivery(exchange, task, data);
 
                         return false;
                     } else {
@@ -379,8 +435,21 @@ public abstract class RedeliveryErrorHandler extends ErrorHandlerSupport impleme
 
             // calculate the redelivery delay
             data.redeliveryDelay = data.currentRedeliveryPolicy.calculateRedeliveryDelay(data.redeliveryDelay, data.redeliveryCounter);
+            scheduleRedelivery(exchange, task, data);
+        }
+    }
+
+    /**
+     * Schedules the redelivery task to be executed when the redelivery delay is due, or immediately if there
+     * is no delay. The exchange is kept as pending redelivery until the task is executed.
+     */
+    private void scheduleRedelivery(Exchange exchange, AsyncRedeliveryTask task, RedeliveryData data) {
+        // add before scheduling as the task removes it when executed, which may happen before schedule returns
+        PendingRedelivery pending = new PendingRedelivery(exchange.getExchangeId(), data.redeliveryCounter, data.redeliveryDelay);
+        pendingRedeliveries.put(exchange.getExchangeId(), pending);
+
+        try {
             if (data.redeliveryDelay > 0) {
-                // schedule the redelivery task
                 if (log.isTraceEnabled()) {
                     log.trace("Scheduling redelivery task to run in " + data.redeliveryDelay + " millis for exchangeId: " + exchange.getExchangeId());
                 }
@@ -389,9 +458,33 @@ public abstract class RedeliveryErrorHandler extends ErrorHandlerSupport impleme
                 // execute the task immediately
                 executorService.submit(task);
             }
+        } catch (RejectedExecutionException e) {
+            // the task will never be executed, such as when shutting down, so its not pending anymore
+            pendingRedeliveries.remove(exchange.getExchangeId(), pending);
+            throw e;
         }
     }
 
+    /**
+     * Gets the number of exchanges which is currently scheduled to be redelivered.
+     */
+    public int getPendingRedeliveryCount() {
+        return pendingRedeliveries.size();
+    }
+
+    /**
+     * Gets the exchanges which is currently scheduled to be redelivered, ordered by when they are due.
+     */
+    public List<PendingRedelivery> getPendingRedeliveries() {
+        List<PendingRedelivery> answer = new ArrayList<PendingRedelivery>(pendingRedeliveries.values());
+        Collections.sort(answer, new Comparator<PendingRedelivery>() {
+            public int compare(PendingRedelivery o1, PendingRedelivery o2) {
+                return o1.getDueTime() < o2.getDueTime() ? -1 : (o1.getDueTime() == o2.getDueTime() ? 0 : 1);
+            }
+        });
+        return answer;
+    }
+
     /**
      * Strategy whether the exchange has an exception that we should try to handle.
      * <p/>
@@ -855,6 +948,7 @@ public abstract class RedeliveryErrorHandler extends ErrorHandlerSupport impleme
     @Override
     protected void doStop() throws Exception {
         ServiceHelper.stopServices(deadLetter, output, outputAsync);
+        pendingRedeliveries.clear();
     }
 
 }
@@ -0,0 +1,158 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Expression;
+import org.apache.camel.Processor;
+
+/**
+ * A <a href="http://camel.apache.org/throttler.html">Throttler</a> which uses a token bucket,
+ * implemented as the <a href="http://en.wikipedia.org/wiki/Generic_cell_rate_algorithm">generic cell rate algorithm</a>,
+ * instead of fixed time slots.
+ * <p/>
+ * The requests is spread evenly over the time period, and up till <tt>burstSize</tt> requests
+ * is allowed to be sent at once, if there has not been sent any requests for a while.
+ * By default the burst size is the same as the maximum number of requests per period, which
+ * matches how the {@link Throttler} allows the requests to be sent.
+ * <p/>
+ * The throttler does not use any locks. Each exchange reserves its permits by updating the
+ * theoretical arrival time using compare and set, and is then delayed until its permits is
+ * available. As the permits is reserved in arrival order, the delayed exchanges is woken up
+ * in arrival order as well, which also applies when using asynchronous delays.
+ * <p/>
+ * An exchange can acquire a batch of permits, such as an exchange which contains a batch
+ * of messages, by configuring an {@link Expression} which returns the number of permits.
+ *
+ * @version 
+ */
+public class TokenBucketThrottler extends Throttler {
+    // the theoretical arrival time in nanos of the next request, if the requests was sent at the maximum rate
+    private final AtomicLong theoreticalArrivalTime = new AtomicLong(Long.MIN_VALUE);
+    private long burstSize;
+    private Expression permitsExpression;
+
+    public TokenBucketThrottler(Processor processor, long maximumRequestsPerPeriod) {
+        this(processor, maximumRequestsPerPeriod, 1000, null);
+    }
+
+    public TokenBucketThrottler(Processor processor, long maximumRequestsPerPeriod, long timePeriodMillis, ScheduledExecutorService executorService) {
+        super(processor, maximumRequestsPerPeriod, timePeriodMillis, executorService);
+    }
+
+    @Override
+    public String toString() {
+        return "TokenBucketThrottler[requests: " + getMaximumRequestsPerPeriod() + " per: " + getTimePeriodMillis()
+               + " (ms) burst: " + getBurstSize() + " to: " + getProcessor() + "]";
+    }
+
+    @Override
+    public String getTraceLabel() {
+        return "throttle[" + getMaximumRequestsPerPeriod() + " per: " + getTimePeriodMillis() + " burst: " + getBurstSize() + "]";
+    }
+
+    // Properties
+    // -----------------------------------------------------------------------
+
+    /**
+     * Gets the burst size, which defaults to the maximum requests per period
+     */
+    public long getBurstSize() {
+        return burstSize > 0 ? burstSize : getMaximumRequestsPerPeriod();
+    }
+
+    /**
+     * Sets the maximum number of requests which can be sent at once, if no requests
+     * has been sent for a while.
+     */
+    public void setBurstSize(long burstSize) {
+        this.burstSize = burstSize;
+    }
+
+    public Expression getPermitsExpression() {
+        return permitsExpression;
+    }
+
+    /**
+     * Sets an expression to evaluate the number of permits the exchange acquires,
+     * by default each exchange acquires one permit.
+     */
+    public void setPermitsExpression(Expression permitsExpression) {
+        this.permitsExpression = permitsExpression;
+    }
+
+    // Implementation methods
+    // -----------------------------------------------------------------------
+
+    @Override
+    protected long calculateDelay(Exchange exchange) {
+        long permits = 1;
+        if (permitsExpression != null) {
+            Long value = permitsExpression.evaluate(exchange, Long.class);
+            if (value == null) {
+                throw new IllegalArgumentException("Permits expression evaluated as null for exchange: " + exchange);
+            }
+            permits = value;
+        }
+
+        long delay = acquire(permits, currentNanoTime());
+        // round up to avoid exceeding the rate
+        return (delay + 999999) / 1000000;
+    }
+
+    /**
+     * Acquires the permits.
+     *
+     * @param permits the number of permits to acquire, which must be at least one
+     * @param now     the current time in nanos
+     * @return the delay in nanos until the permits is available
+     */
+    protected long acquire(long permits, long now) {
+        if (permits < 1) {
+            // less permits would move the arrival time backwards and give away permits to the following exchanges
+            throw new IllegalArgumentException("Permits must be a positive number, was: " + permits);
+        }
+        if (getMaximumRequestsPerPeriod() <= 0) {
+            throw new IllegalArgumentException("MaximumRequestsPerPeriod must be a positive number, was: " + getMaximumRequestsPerPeriod());
+        }
+
+        // the time between each request at the maximum rate, which is calculated each time
+        // as the rate can be changed at runtime using JMX
+        long interval = TimeUnit.MILLISECONDS.toNanos(getTimePeriodMillis()) / getMaximumRequestsPerPeriod();
+        long burstTolerance = interval * getBurstSize();
+
+        while (true) {
+            long tat = theoreticalArrivalTime.get();
+            // if idle then the bucket is full, but it should not store more than the burst size
+            long start = Math.max(tat, now);
+            long next = start + interval * permits;
+            if (theoreticalArrivalTime.compareAndSet(tat, next)) {
+                long delay = next - burstTolerance - now;
+                return delay > 0 ? delay : 0;
+            }
+        }
+    }
+
+    protected long currentNanoTime() {
+        return System.nanoTime();
+    }
+
+}
@@ -17,8 +17,8 @@
 package org.apache.camel.processor.aggregate;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -32,6 +32,7 @@ import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.camel.CamelContext;
+import org.apache.camel.CamelContextAware;
 import org.apache.camel.CamelExchangeException;
 import org.apache.camel.Endpoint;
 import org.apache.camel.Exchange;
@@ -55,6 +56,8 @@ import org.apache.camel.util.LRUCache;
 import org.apache.camel.util.ObjectHelper;
 import org.apache.camel.util.ServiceHelper;
 import org.apache.camel.util.TimeoutMap;
+import org.apache.camel.util.TimeoutMapEntry;
+import org.apache.camel.util.TimingWheelTimeoutMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -79,7 +82,8 @@ public class AggregateProcessor extends ServiceSupport implements Processor, Nav
 
     private static final Logger LOG = LoggerFactory.getLogger(AggregateProcessor.class);
 
-    private final Lock lock = new ReentrantLock();
+    // the aggregation locks, which by default is a single shared lock
+    private Lock[] locks = new Lock[]{new ReentrantLock()};
     private final CamelContext camelContext;
     private final Processor processor;
     private final AggregationStrategy aggregationStrategy;
@@ -92,7 +96,7 @@ public class AggregateProcessor extends ServiceSupport implements Processor, Nav
     private AggregationRepository aggregationRepository = new MemoryAggregationRepository();
     private Map<Object, Object> closedCorrelationKeys;
     private Set<String> batchConsumerCorrelationKeys = new LinkedHashSet<String>();
-    private final Set<String> inProgressCompleteExchanges = new HashSet<String>();
+    private final Set<String> inProgressCompleteExchanges = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
     private final Map<String, RedeliveryData> redeliveryState = new ConcurrentHashMap<String, RedeliveryData>();
     // optional dead letter channel for exhausted recovered exchanges
     private Processor deadLetterProcessor;
@@ -107,6 +111,8 @@ public class AggregateProcessor extends ServiceSupport implements Processor, Nav
     private boolean ignoreInvalidCorrelationKeys;
     private Integer closeCorrelationKeyOnCompletion;
     private boolean parallelProcessing;
+    private int lockStripes;
+    private boolean completionTimeoutTimingWheel;
 
     // different ways to have completion triggered
     private boolean eagerCheckCompletion;
@@ -184,6 +190,8 @@ public class AggregateProcessor extends ServiceSupport implements Processor, Nav
         // when memory based then its fast using synchronized, but if the aggregation repository is IO
         // bound such as JPA etc then concurrent aggregation per correlation key could
         // improve performance as we can run aggregation repository get/add in parallel
+        // which is possible by using lock stripes where only the same correlation key is serialized
+        Lock lock = getLock(key);
         lock.lock();
         try {
             doAggregation(key, copy);
@@ -192,11 +200,49 @@ public class AggregateProcessor extends ServiceSupport implements Processor, Nav
         }
     }
 
+    /**
+     * Gets the lock which guards the aggregation of the given correlation key.
+     *
+     * @param key the correlation key
+     * @return the lock
+     */
+    protected Lock getLock(String key) {
+        if (locks.length == 1) {
+            return locks[0];
+        }
+        // spread the hash code to avoid clustering when keys only differ in the high bits
+        int hash = key.hashCode();
+        hash ^= (hash >>> 20) ^ (hash >>> 12);
+        hash ^= (hash >>> 7) ^ (hash >>> 4);
+        return locks[(hash & 0x7fffffff) % locks.length];
+    }
+
+    /**
+     * Acquires all the aggregation locks, which is needed by background tasks
+     * that complete aggregated exchanges across all the correlation keys.
+     * <p/>
+     * The locks is always acquired in the same order to avoid deadlocks.
+     */
+    private void lockAll() {
+        for (Lock lock : locks) {
+            lock.lock();
+        }
+    }
+
+    /**
+     * Releases all the aggregation locks in the reverse order they were acquired.
+     */
+    private void unlockAll() {
+        for (int i = locks.length - 1; i >= 0; i--) {
+            locks[i].unlock();
+        }
+    }
+
     /**
      * Aggregates the exchange with the given correlation key
      * <p/>
      * This method <b>must</b> be run synchronized as we cannot aggregate the same correlation key
-     * in parallel.
+     * in parallel. The lock for the given correlation key must be held by the caller.
      *
      * @param key      the correlation key
      * @param exchange the exchange
@@ -517,6 +563,41 @@ public class AggregateProcessor extends ServiceSupport implements Processor, Nav
         this.parallelProcessing = parallelProcessing;
     }
 
+    public int getLockStripes() {
+        return lockStripes;
+    }
+
+    /**
+     * Sets the number of locks used to guard the aggregation. Exchanges with correlation keys
+     * which maps to different locks are aggregated concurrently, while exchanges with the same
+     * correlation key is always aggregated one at a time.
+     * <p/>
+     * By default a single shared lock is used.
+     *
+     * @param lockStripes number of locks
+     */
+    public void setLockStripes(int lockStripes) {
+        this.lockStripes = lockStripes;
+    }
+
+    public boolean isCompletionTimeoutTimingWheel() {
+        return completionTimeoutTimingWheel;
+    }
+
+    /**
+     * Sets whether to use a {@link TimingWheelTimeoutMap} to keep track of the completion timeouts.
+     * <p/>
+     * By default the completion timeouts is kept in a {@link DefaultTimeoutMap} which scans all
+     * the correlation keys every second while holding all the aggregation locks. The timing wheel
+     * only looks at the correlation keys which has timed out, and only acquires the lock for
+     * the correlation key being completed.
+     *
+     * @param completionTimeoutTimingWheel <tt>true</tt> to use a timing wheel
+     */
+    public void setCompletionTimeoutTimingWheel(boolean completionTimeoutTimingWheel) {
+        this.completionTimeoutTimingWheel = completionTimeoutTimingWheel;
+    }
+
     public AggregationRepository getAggregationRepository() {
         return aggregationRepository;
     }
@@ -588,38 +669,78 @@ public class AggregateProcessor extends ServiceSupport implements Processor, Nav
 
         @Override
         public void purge() {
-            // must acquire the shared aggregation lock to be able to purge
-            lock.lock();
+            // must acquire all the aggregation locks to be able to purge
+            lockAll();
             try {
                 super.purge();
             } finally {
-                lock.unlock();
+                unlockAll();
             }
         }
 
         @Override
         public boolean onEviction(String key, String exchangeId) {
-            if (log.isDebugEnabled()) {
-                log.debug("Completion timeout triggered for correlation key: " + key);
-            }
+            return onCompletionTimeout(key, exchangeId);
+        }
+    }
 
-            boolean inProgress = inProgressCompleteExchanges.contains(exchangeId);
-            if (inProgress) {
-                if (LOG.isTraceEnabled()) {
-                    LOG.trace("Aggregated exchange with id: " + exchangeId + " is already in progress.");
-                }
-                return true;
+    /**
+     * Background task that looks for aggregated exchanges which is triggered by completion timeouts
+     * using a timing wheel.
+     */
+    private final class AggregationTimingWheelTimeoutMap extends TimingWheelTimeoutMap<String, String> {
+
+        private AggregationTimingWheelTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis) {
+            super(executor, requestMapPollTimeMillis);
+        }
+
+        @Override
+        protected boolean evict(TimeoutMapEntry<String, String> entry) {
+            // only acquire the aggregation lock for the correlation key, which ensures the entry
+            // cannot be updated by an aggregation while we evict it
+            Lock lock = getLock(entry.getKey());
+            lock.lock();
+            try {
+                return super.evict(entry);
+            } finally {
+                lock.unlock();
             }
+        }
+
+        @Override
+        public boolean onEviction(String key, String exchangeId) {
+            return onCompletionTimeout(key, exchangeId);
+        }
+    }
+
+    /**
+     * Completes the aggregated exchange for the correlation key which has timed out.
+     * <p/>
+     * This method <b>must</b> be invoked while holding the aggregation lock for the correlation key.
+     *
+     * @return <tt>true</tt> to remove the correlation key from the timeout map
+     */
+    private boolean onCompletionTimeout(String key, String exchangeId) {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Completion timeout triggered for correlation key: " + key);
+        }
 
-            // get the aggregated exchange
-            Exchange answer = aggregationRepository.get(camelContext, key);
-            if (answer != null) {
-                // indicate it was completed by timeout
-                answer.setProperty(Exchange.AGGREGATED_COMPLETED_BY, "timeout");
-                onCompletion(key, answer, true);
+        boolean inProgress = inProgressCompleteExchanges.contains(exchangeId);
+        if (inProgress) {
+            if (LOG.isTraceEnabled()) {
+                LOG.trace("Aggregated exchange with id: " + exchangeId + " is already in progress.");
             }
             return true;
         }
+
+        // get the aggregated exchange
+        Exchange answer = aggregationRepository.get(camelContext, key);
+        if (answer != null) {
+            // indicate it was completed by timeout
+            answer.setProperty(Exchange.AGGREGATED_COMPLETED_BY, "timeout");
+            onCompletion(key, answer, true);
+        }
+        return true;
     }
 
     /**
@@ -642,8 +763,8 @@ public class AggregateProcessor extends ServiceSupport implements Processor, Nav
             Set<String> keys = aggregationRepository.getKeys();
 
             if (keys != null && !keys.isEmpty()) {
-                // must acquire the shared aggregation lock to be able to trigger interval completion
-                lock.lock();
+                // must acquire all the aggregation locks to be able to trigger interval completion
+                lockAll();
                 try {
                     for (String key : keys) {
                         Exchange exchange = aggregationRepository.get(camelContext, key);
@@ -657,7 +778,7 @@ public class AggregateProcessor extends ServiceSupport implements Processor, Nav
                         }
                     }
                 } finally {
-                    lock.unlock();
+                    unlockAll();
                 }
             }
 
@@ -775,6 +896,20 @@ public class AggregateProcessor extends ServiceSupport implements Processor, Nav
                     + " [completionTimeout, completionInterval, completionSize, completionPredicate, completionFromBatchConsumer] must be set");
         }
 
+        if (getLockStripes() > 1) {
+            if (isCompletionFromBatchConsumer()) {
+                // batch consumer completion completes all the correlation keys in the batch at once
+                throw new IllegalArgumentException("Option lockStripes cannot be used together with completionFromBatchConsumer");
+            }
+            LOG.info("Using " + getLockStripes() + " lock stripes to allow concurrent aggregation of different correlation keys");
+            locks = new Lock[getLockStripes()];
+            for (int i = 0; i < locks.length; i++) {
+                locks[i] = new ReentrantLock();
+            }
+        } else {
+            locks = new Lock[]{new ReentrantLock()};
+        }
+
         if (getCloseCorrelationKeyOnCompletion() != null) {
             if (getCloseCorrelationKeyOnCompletion() > 0) {
                 LOG.info("Using ClosedCorrelationKeys with a LRUCache with a capacity of " + getCloseCorrelationKeyOnCompletion());
@@ -783,8 +918,18 @@ public class AggregateProcessor extends ServiceSupport implements Processor, Nav
                 LOG.info("Using ClosedCorrelationKeys with unbounded capacity");
                 closedCorrelationKeys = new HashMap<Object, Object>();
             }
+            if (locks.length > 1) {
+                // closed keys is shared among the lock stripes so it must be thread safe
+                closedCorrelationKeys = Collections.synchronizedMap(closedCorrelationKeys);
+            }
         }
 
+        if (aggregationRepository instanceof CamelContextAware) {
+            CamelContextAware aware = (CamelContextAware) aggregationRepository;
+            if (aware.getCamelContext() == null) {
+                aware.setCamelContext(camelContext);
+            }
+        }
         ServiceHelper.startServices(processor, aggregationRepository);
 
         // should we use recover checker
@@ -837,7 +982,11 @@ public class AggregateProcessor extends ServiceSupport implements Processor, Nav
             LOG.info("Using CompletionTimeout to trigger after " + getCompletionTimeout() + " millis of inactivity.");
             ScheduledExecutorService scheduler = camelContext.getExecutorServiceStrategy().newScheduledThreadPool(this, "AggregateTimeoutChecker", 1);
             // check for timed out aggregated messages once every second
-            timeoutMap = new AggregationTimeoutMap(scheduler, 1000L);
+            if (isCompletionTimeoutTimingWheel()) {
+                timeoutMap = new AggregationTimingWheelTimeoutMap(scheduler, 1000L);
+            } else {
+                timeoutMap = new AggregationTimeoutMap(scheduler, 1000L);
+            }
             ServiceHelper.startService(timeoutMap);
         }
     }
@@ -0,0 +1,814 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.idempotent;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import org.apache.camel.impl.ServiceSupport;
+import org.apache.camel.spi.IdempotentRepository;
+import org.apache.camel.util.IOHelper;
+import org.apache.camel.util.ObjectHelper;
+import org.apache.camel.util.concurrent.ExecutorServiceHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+/**
+ * A file based implementation of {@link org.apache.camel.spi.IdempotentRepository} which is
+ * designed for large number of keys.
+ * <p/>
+ * The keys are stored in an append only log which is split into segment files in the given directory.
+ * All the keys are held in an in-memory hash index, so {@link #contains(String)} does not take any lock
+ * or touch the disk. Adding or removing a key appends a single record to a write buffer, which is written
+ * to the active segment when full, and the segments are fsync'ed in batches, either every <tt>syncInterval</tt>
+ * millis or after every <tt>syncBatchSize</tt> records. This means keys added since the last sync may be lost
+ * if the process or the machine crashes.
+ * <p/>
+ * When the ratio of removed or superseded records in the sealed segments exceeds the
+ * <tt>compactionThreshold</tt>, the segments with the lowest ratio of live keys are compacted in the background,
+ * by appending their live keys to the active segment and deleting the segment file.
+ * <p/>
+ * Unlike {@link FileIdempotentRepository} this repository does not evict any keys, so care should
+ * be taken to remove keys which are no longer needed.
+ *
+ * @version 
+ */
+@ManagedResource("SegmentedFileIdempotentRepository")
+public class SegmentedFileIdempotentRepository extends ServiceSupport implements IdempotentRepository<String> {
+    private static final transient Logger LOG = LoggerFactory.getLogger(SegmentedFileIdempotentRepository.class);
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHARSET = "UTF-8";
+    private static final byte ADD = 'A';
+    private static final byte REMOVE = 'R';
+    // the operation, the length of the key and the checksum
+    private static final int HEADER_SIZE = 9;
+    private static final int COMPACTION_BATCH_SIZE = 1000;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final ConcurrentMap<String, Segment> index = new ConcurrentHashMap<String, Segment>();
+    // the segments ordered with the oldest first and the active segment last
+    private final List<Segment> segments = new CopyOnWriteArrayList<Segment>();
+    private final Lock writeLock = new ReentrantLock();
+    // the records not yet written to the active segment, guarded by the write lock
+    private final ByteBuffer writeBuffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+    private final Lock compactionLock = new ReentrantLock();
+    private final AtomicLong syncCount = new AtomicLong();
+    private final AtomicLong compactionCount = new AtomicLong();
+    private final Runnable syncTask = new Runnable() {
+        public void run() {
+            try {
+                sync();
+            } catch (Exception e) {
+                LOG.warn("Error syncing idempotent repository: " + directory + ". This exception is ignored.", e);
+            }
+        }
+    };
+    private final Runnable compactionTask = new Runnable() {
+        public void run() {
+            try {
+                compact();
+            } catch (Exception e) {
+                LOG.warn("Error compacting idempotent repository: " + directory + ". This exception is ignored.", e);
+            }
+        }
+    };
+    private volatile Segment active;
+    private ScheduledFuture<?> syncFuture;
+    private volatile boolean dirty;
+    private int unsynced;
+
+    private File directory;
+    private long maxSegmentSize = 64 * 1024 * 1024L;
+    private long syncInterval = 1000;
+    private int syncBatchSize;
+    private double compactionThreshold = 0.5;
+    private ScheduledExecutorService executorService;
+    private boolean shutdownExecutorService;
+
+    public SegmentedFileIdempotentRepository() {
+    }
+
+    public SegmentedFileIdempotentRepository(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Creates a new segmented file based repository storing the segments in the given directory.
+     *
+     * @param directory  the directory for the segment files
+     */
+    public static IdempotentRepository<String> segmentedFileIdempotentRepository(File directory) {
+        return new SegmentedFileIdempotentRepository(directory);
+    }
+
+    /**
+     * Creates a new segmented file based repository storing the segments in the given directory.
+     *
+     * @param directory  the directory for the segment files
+     * @param maxSegmentSize  the max size in bytes of a segment file
+     */
+    public static IdempotentRepository<String> segmentedFileIdempotentRepository(File directory, long maxSegmentSize) {
+        SegmentedFileIdempotentRepository repository = new SegmentedFileIdempotentRepository(directory);
+        repository.setMaxSegmentSize(maxSegmentSize);
+        return repository;
+    }
+
+    @ManagedOperation(description = "Adds the key to the store")
+    public boolean add(String key) {
+        if (index.containsKey(key)) {
+            return false;
+        }
+
+        writeLock.lock();
+        try {
+            if (index.containsKey(key)) {
+                return false;
+            }
+            Segment segment = append(ADD, key);
+            index.put(key, segment);
+            segment.live.incrementAndGet();
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @ManagedOperation(description = "Does the store contain the given key")
+    public boolean contains(String key) {
+        return index.containsKey(key);
+    }
+
+    @ManagedOperation(description = "Remove the key from the store")
+    public boolean remove(String key) {
+        writeLock.lock();
+        try {
+            Segment segment = index.remove(key);
+            if (segment == null) {
+                return false;
+            }
+            segment.live.decrementAndGet();
+            Segment target = append(REMOVE, key);
+            if (target != segment) {
+                target.removedFrom.add(segment.id);
+            }
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public boolean confirm(String key) {
+        // noop
+        return true;
+    }
+
+    /**
+     * Forces the records written to the active segment to disk.
+     */
+    @ManagedOperation(description = "Forces the store to disk")
+    public void sync() throws IOException {
+        if (!dirty) {
+            return;
+        }
+
+        FileChannel channel = null;
+        writeLock.lock();
+        try {
+            dirty = false;
+            flushWriteBuffer();
+            if (active != null) {
+                // read the channel under the lock as the segment may be sealed concurrently
+                channel = active.channel;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+
+        // do not hold the write lock while syncing so adding keys is not blocked
+        if (channel != null) {
+            try {
+                channel.force(false);
+                syncCount.incrementAndGet();
+            } catch (ClosedChannelException e) {
+                // the segment was sealed in the mean time which syncs it
+            }
+        }
+    }
+
+    /**
+     * Compacts the segments with the lowest ratio of live keys while the ratio of dead records
+     * in the sealed segments exceeds the compaction threshold.
+     *
+     * @return the number of segments which was compacted
+     */
+    @ManagedOperation(description = "Compacts the store")
+    public int compact() throws IOException {
+        if (!compactionLock.tryLock()) {
+            // already compacting
+            return 0;
+        }
+        try {
+            // only compact the segments sealed when we started, as compacting appends records to newer segments
+            Segment last = active;
+            int answer = 0;
+            while (isRunAllowed() && segments.size() > 1 && getGarbageRatio() >= compactionThreshold) {
+                Segment segment = lowestLiveRatioSegment(last.id);
+                if (segment == null) {
+                    break;
+                }
+                compactSegment(segment);
+                answer++;
+            }
+            return answer;
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(File directory) {
+        this.directory = directory;
+    }
+
+    @ManagedAttribute(description = "The directory for the segment files")
+    public String getDirectoryPath() {
+        return directory != null ? directory.getPath() : null;
+    }
+
+    @ManagedAttribute(description = "The number of keys in the store")
+    public int getSize() {
+        return index.size();
+    }
+
+    @ManagedAttribute(description = "The number of segment files")
+    public int getSegments() {
+        return segments.size();
+    }
+
+    @ManagedAttribute(description = "The ratio of dead records in the sealed segments")
+    public double getGarbageRatio() {
+        long records = 0;
+        long live = 0;
+        for (Segment segment : segments) {
+            if (segment != active) {
+                records += segment.records.get();
+                live += segment.live.get();
+            }
+        }
+        if (records == 0) {
+            return segments.size() > 1 ? 1.0 : 0.0;
+        }
+        return 1.0 - (double) live / records;
+    }
+
+    @ManagedAttribute(description = "The maximum size in bytes of a segment file")
+    public long getMaxSegmentSize() {
+        return maxSegmentSize;
+    }
+
+    /**
+     * Sets the maximum size in bytes of a segment file before a new segment is started.
+     * <p/>
+     * The default is 64mb.
+     */
+    @ManagedAttribute(description = "The maximum size in bytes of a segment file")
+    public void setMaxSegmentSize(long maxSegmentSize) {
+        this.maxSegmentSize = maxSegmentSize;
+    }
+
+    @ManagedAttribute(description = "The interval in millis between syncing the store to disk")
+    public long getSyncInterval() {
+        return syncInterval;
+    }
+
+    /**
+     * Sets the interval in millis between syncing the store to disk. Use 0 to disable syncing
+     * in the background.
+     * <p/>
+     * The default is 1000 millis.
+     */
+    public void setSyncInterval(long syncInterval) {
+        this.syncInterval = syncInterval;
+    }
+
+    @ManagedAttribute(description = "The number of records written before syncing the store to disk")
+    public int getSyncBatchSize() {
+        return syncBatchSize;
+    }
+
+    /**
+     * Sets the number of records to write before syncing the store to disk, use <tt>1</tt> to sync
+     * after every record. Use 0 to only sync in the background.
+     * <p/>
+     * The default is 0.
+     */
+    public void setSyncBatchSize(int syncBatchSize) {
+        this.syncBatchSize = syncBatchSize;
+    }
+
+    @ManagedAttribute(description = "The number of times the store was synced to disk")
+    public long getSyncCount() {
+        return syncCount.get();
+    }
+
+    @ManagedAttribute(description = "The ratio of dead records in the sealed segments which triggers compaction")
+    public double getCompactionThreshold() {
+        return compactionThreshold;
+    }
+
+    /**
+     * Sets the ratio of removed or superseded records in the sealed segments which triggers compaction.
+     * <p/>
+     * The default is 0.5.
+     */
+    @ManagedAttribute(description = "The ratio of dead records in the sealed segments which triggers compaction")
+    public void setCompactionThreshold(double compactionThreshold) {
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    @ManagedAttribute(description = "The number of segments which has been compacted")
+    public long getCompactionCount() {
+        return compactionCount.get();
+    }
+
+    public ScheduledExecutorService getExecutorService() {
+        return executorService;
+    }
+
+    /**
+     * Sets the executor service to use for syncing and compacting in the background.
+     * If none is set a single threaded executor is created.
+     */
+    public void setExecutorService(ScheduledExecutorService executorService) {
+        this.executorService = executorService;
+    }
+
+    @Override
+    public String toString() {
+        return "SegmentedFileIdempotentRepository[" + directory + "]";
+    }
+
+    /**
+     * Appends the record to the active segment, starting a new segment if the active is full.
+     * <p/>
+     * Must be invoked while holding the write lock.
+     *
+     * @return the segment the record was appended to
+     */
+    protected Segment append(byte op, String key) {
+        try {
+            byte[] data = key.getBytes(CHARSET);
+            int len = HEADER_SIZE + data.length;
+            if (active.size > 0 && active.size + len > maxSegmentSize) {
+                roll();
+            }
+
+            Segment segment = active;
+            if (writeBuffer.remaining() < len) {
+                flushWriteBuffer();
+            }
+            if (writeBuffer.remaining() >= len) {
+                writeBuffer.put(op).putInt(data.length).putInt(checksum(op, data)).put(data);
+            } else {
+                // the record does not fit in the write buffer so write it directly
+                ByteBuffer buffer = ByteBuffer.allocate(len);
+                buffer.put(op).putInt(data.length).putInt(checksum(op, data)).put(data);
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    segment.channel.write(buffer);
+                }
+            }
+            segment.size += len;
+            segment.records.incrementAndGet();
+
+            if (syncBatchSize > 0 && ++unsynced >= syncBatchSize) {
+                flushWriteBuffer();
+                segment.channel.force(false);
+                syncCount.incrementAndGet();
+                unsynced = 0;
+            } else {
+                dirty = true;
+            }
+            return segment;
+        } catch (IOException e) {
+            throw ObjectHelper.wrapRuntimeCamelException(e);
+        }
+    }
+
+    /**
+     * Writes the buffered records to the active segment.
+     * <p/>
+     * Must be invoked while holding the write lock.
+     */
+    private void flushWriteBuffer() throws IOException {
+        if (writeBuffer.position() == 0 || active == null) {
+            return;
+        }
+        writeBuffer.flip();
+        try {
+            while (writeBuffer.hasRemaining()) {
+                active.channel.write(writeBuffer);
+            }
+        } finally {
+            writeBuffer.clear();
+        }
+    }
+
+    /**
+     * Seals the active segment and starts a new segment.
+     */
+    private void roll() throws IOException {
+        flushWriteBuffer();
+        Segment sealed = active;
+        sealed.seal();
+        unsynced = 0;
+
+        active = openSegment(new Segment(sealed.id + 1, segmentFile(sealed.id + 1)));
+        segments.add(active);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Sealed segment " + sealed.file + " and started segment " + active.file);
+        }
+
+        if (executorService != null && compactionThreshold > 0) {
+            executorService.submit(compactionTask);
+        }
+    }
+
+    /**
+     * Gets the sealed segment older than the given segment with the lowest ratio of live keys,
+     * the oldest segment if there is a tie.
+     */
+    private Segment lowestLiveRatioSegment(long beforeId) {
+        Segment answer = null;
+        double lowest = 0;
+        for (Segment segment : segments) {
+            if (segment == active || segment.id >= beforeId) {
+                continue;
+            }
+            int records = segment.records.get();
+            double ratio = records == 0 ? 0.0 : (double) segment.live.get() / records;
+            if (answer == null || ratio < lowest) {
+                answer = segment;
+                lowest = ratio;
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Compacts the given sealed segment by appending its live keys to the active segment
+     * and deleting the segment file.
+     * <p/>
+     * If the segment removes keys added in older segments which remain, the removed keys are
+     * appended as well so they are not added again when loading the store.
+     */
+    private void compactSegment(Segment segment) throws IOException {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Compacting segment " + segment.file + " with " + segment.live.get() + " live keys of " + segment.records.get() + " records");
+        }
+
+        // the segments are sealed so we can read them without holding the lock
+        final List<String> keys = new ArrayList<String>();
+        final Set<String> removedKeys = new LinkedHashSet<String>();
+        final List<Segment> removedFrom = new ArrayList<Segment>();
+        for (Segment older : segments) {
+            if (older.id < segment.id && segment.removedFrom.contains(older.id)) {
+                removedFrom.add(older);
+            }
+        }
+        readSegment(segment, new RecordHandler() {
+            public void onRecord(byte op, String key) {
+                if (op == ADD) {
+                    keys.add(key);
+                } else if (!removedFrom.isEmpty()) {
+                    removedKeys.add(key);
+                }
+            }
+        });
+
+        // only keep the removed keys which the older segments add
+        final Set<String> addedKeys = new HashSet<String>();
+        for (Segment older : removedFrom) {
+            readSegment(older, new RecordHandler() {
+                public void onRecord(byte op, String key) {
+                    if (op == ADD && removedKeys.contains(key)) {
+                        addedKeys.add(key);
+                    }
+                }
+            });
+        }
+        removedKeys.retainAll(addedKeys);
+
+        // move the live keys in batches so adding keys is not blocked for too long
+        for (int i = 0; i < keys.size(); i += COMPACTION_BATCH_SIZE) {
+            writeLock.lock();
+            try {
+                for (String key : keys.subList(i, Math.min(i + COMPACTION_BATCH_SIZE, keys.size()))) {
+                    // the key may have been removed or added again in a newer segment
+                    if (index.get(key) == segment) {
+                        Segment target = append(ADD, key);
+                        index.put(key, target);
+                        target.live.incrementAndGet();
+                        segment.live.decrementAndGet();
+                    }
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        // and the removed keys so they are not added again from the older segments when loading the store
+        List<String> removed = new ArrayList<String>(removedKeys);
+        for (int i = 0; i < removed.size(); i += COMPACTION_BATCH_SIZE) {
+            writeLock.lock();
+            try {
+                for (String key : removed.subList(i, Math.min(i + COMPACTION_BATCH_SIZE, removed.size()))) {
+                    // unless the key has been added again in the mean time
+                    if (!index.containsKey(key)) {
+                        Segment target = append(REMOVE, key);
+                        for (Segment older : removedFrom) {
+                            target.removedFrom.add(older.id);
+                        }
+                    }
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        // ensure the moved keys is on disk before we delete the segment
+        writeLock.lock();
+        try {
+            flushWriteBuffer();
+            active.channel.force(false);
+            segments.remove(segment);
+        } finally {
+            writeLock.unlock();
+        }
+        if (!segment.file.delete()) {
+            LOG.warn("Cannot delete compacted segment " + segment.file);
+        }
+        compactionCount.incrementAndGet();
+    }
+
+    /**
+     * Loads the segments from the directory into the index
+     */
+    protected void loadStore() throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Cannot create directory " + directory);
+        }
+
+        List<Long> ids = new ArrayList<Long>();
+        String[] names = directory.list();
+        if (names != null) {
+            for (String name : names) {
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    ids.add(Long.valueOf(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+                }
+            }
+        }
+        Long[] sorted = ids.toArray(new Long[ids.size()]);
+        Arrays.sort(sorted);
+
+        for (int i = 0; i < sorted.length; i++) {
+            final Segment segment = new Segment(sorted[i], segmentFile(sorted[i]));
+            long valid = readSegment(segment, new RecordHandler() {
+                public void onRecord(byte op, String key) {
+                    Segment previous = op == ADD ? index.put(key, segment) : index.remove(key);
+                    if (previous != null) {
+                        previous.live.decrementAndGet();
+                        if (op == REMOVE && previous != segment) {
+                            segment.removedFrom.add(previous.id);
+                        }
+                    }
+                    if (op == ADD) {
+                        segment.live.incrementAndGet();
+                    }
+                    segment.records.incrementAndGet();
+                }
+            });
+            segment.size = valid;
+
+            if (valid < segment.file.length()) {
+                LOG.warn("Segment " + segment.file + " is corrupt after " + valid + " bytes, ignoring the remainder of the segment");
+                if (i == sorted.length - 1) {
+                    // truncate the active segment so we can append to it
+                    RandomAccessFile file = new RandomAccessFile(segment.file, "rw");
+                    try {
+                        file.setLength(valid);
+                    } finally {
+                        IOHelper.close(file, segment.file.getName(), LOG);
+                    }
+                }
+            }
+            segments.add(segment);
+        }
+
+        if (segments.isEmpty()) {
+            segments.add(new Segment(1, segmentFile(1)));
+        }
+        active = openSegment(segments.get(segments.size() - 1));
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Loaded " + index.size() + " keys from " + segments.size() + " segments in idempotent repository: " + directory);
+        }
+    }
+
+    /**
+     * Reads the records in the segment.
+     *
+     * @return the number of bytes of valid records
+     */
+    private long readSegment(Segment segment, RecordHandler handler) throws IOException {
+        if (!segment.file.exists()) {
+            return 0;
+        }
+
+        long valid = 0;
+        long length = segment.file.length();
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(segment.file), 64 * 1024));
+        try {
+            while (valid + HEADER_SIZE <= length) {
+                byte op = in.readByte();
+                int len = in.readInt();
+                int checksum = in.readInt();
+                if ((op != ADD && op != REMOVE) || len < 0 || valid + HEADER_SIZE + len > length) {
+                    break;
+                }
+                byte[] data = new byte[len];
+                in.readFully(data);
+                if (checksum != checksum(op, data)) {
+                    break;
+                }
+                handler.onRecord(op, new String(data, CHARSET));
+                valid += HEADER_SIZE + len;
+            }
+        } catch (EOFException e) {
+            // the segment was truncated
+        } finally {
+            IOHelper.close(in, segment.file.getName(), LOG);
+        }
+        return valid;
+    }
+
+    private Segment openSegment(Segment segment) throws IOException {
+        segment.channel = new RandomAccessFile(segment.file, "rw").getChannel();
+        segment.channel.position(segment.size);
+        return segment;
+    }
+
+    private File segmentFile(long id) {
+        return new File(directory, SEGMENT_PREFIX + String.format("%016d", id) + SEGMENT_SUFFIX);
+    }
+
+    private static int checksum(byte op, byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(op);
+        crc.update(data);
+        return (int) crc.getValue();
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        ObjectHelper.notNull(directory, "directory", this);
+        if (directory.exists() && !directory.isDirectory()) {
+            throw new IllegalArgumentException("The directory " + directory + " is not a directory");
+        }
+        loadStore();
+
+        if (executorService == null) {
+            executorService = ExecutorServiceHelper.newScheduledThreadPool(1, ExecutorServiceHelper.DEFAULT_PATTERN, "SegmentedFileIdempotentRepository", true);
+            shutdownExecutorService = true;
+        }
+        if (syncInterval > 0) {
+            syncFuture = executorService.scheduleWithFixedDelay(syncTask, syncInterval, syncInterval, TimeUnit.MILLISECONDS);
+        }
+        if (compactionThreshold > 0) {
+            executorService.submit(compactionTask);
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (syncFuture != null) {
+            syncFuture.cancel(false);
+            syncFuture = null;
+        }
+        if (shutdownExecutorService && executorService != null) {
+            executorService.shutdownNow();
+            executorService = null;
+            shutdownExecutorService = false;
+        }
+
+        compactionLock.lock();
+        writeLock.lock();
+        try {
+            if (active != null) {
+                flushWriteBuffer();
+                active.seal();
+                active = null;
+            }
+            writeBuffer.clear();
+            index.clear();
+            segments.clear();
+            dirty = false;
+            unsynced = 0;
+        } finally {
+            writeLock.unlock();
+            compactionLock.unlock();
+        }
+    }
+
+    /**
+     * Callback for the records read from a segment
+     */
+    private interface RecordHandler {
+        void onRecord(byte op, String key);
+    }
+
+    /**
+     * A segment file in the log
+     */
+    protected static final class Segment {
+        private final long id;
+        private final File file;
+        private final AtomicInteger records = new AtomicInteger();
+        private final AtomicInteger live = new AtomicInteger();
+        // the ids of the older segments holding keys which this segment removes
+        private final Set<Long> removedFrom = new CopyOnWriteArraySet<Long>();
+        private volatile FileChannel channel;
+        private long size;
+
+        private Segment(long id, File file) {
+            this.id = id;
+            this.file = file;
+        }
+
+        private void seal() throws IOException {
+            FileChannel ch = channel;
+            if (ch != null) {
+                channel = null;
+                try {
+                    ch.force(false);
+                } finally {
+                    ch.close();
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Segment[" + file + "]";
+        }
+    }
+
+}
@@ -0,0 +1,284 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.loadbalancer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.AsyncProcessor;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.impl.converter.AsyncProcessorTypeConverter;
+import org.apache.camel.util.AsyncProcessorHelper;
+
+/**
+ * Implements a latency aware least loaded load balancing policy.
+ * <p/>
+ * The load balancer keeps track of the number of in flight exchanges and an exponentially
+ * decayed average of the response time for each processor. For each exchange two processors
+ * is picked at random, and the exchange is sent to the processor with the lowest expected
+ * response time, which is the average response time plus 1 millis multiplied by the number of in flight
+ * exchanges including this exchange. This is also known as <i>the power of two choices</i>,
+ * which avoids sending all the exchanges to the same processor while its statistics is updated.
+ * Processors without any response times yet is compared by their number of in flight exchanges.
+ * <p/>
+ * A failed exchange is counted with its response time plus a penalty, so a processor which fails
+ * fast is not preferred over the processors which do not fail.
+ * <p/>
+ * The statistics is updated without any locks.
+ *
+ * @version 
+ */
+public class LeastLoadedLoadBalancer extends LoadBalancerSupport {
+
+    private static final ThreadLocal<Random> RANDOM = new ThreadLocal<Random>() {
+        @Override
+        protected Random initialValue() {
+            return new Random();
+        }
+    };
+
+    private volatile Target[] targets = new Target[0];
+    private volatile double decayFactor = 0.2;
+    private volatile long failurePenalty = 1000;
+
+    /**
+     * Statistics for a processor being load balanced.
+     */
+    public static final class Target {
+        private final Processor processor;
+        private final AsyncProcessor asyncProcessor;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        // the double bits of the average response time in millis
+        private final AtomicLong responseTime = new AtomicLong(Double.doubleToLongBits(0));
+
+        private Target(Processor processor) {
+            this.processor = processor;
+            this.asyncProcessor = AsyncProcessorTypeConverter.convert(processor);
+        }
+
+        public Processor getProcessor() {
+            return processor;
+        }
+
+        /**
+         * Number of exchanges currently being processed
+         */
+        public int getInFlight() {
+            return inFlight.get();
+        }
+
+        /**
+         * Exponentially decayed average response time in millis
+         */
+        public double getResponseTime() {
+            return Double.longBitsToDouble(responseTime.get());
+        }
+
+        public long getExchangesCompleted() {
+            return completed.get();
+        }
+
+        public long getExchangesFailed() {
+            return failed.get();
+        }
+
+        private boolean hasResponseTime() {
+            return completed.get() + failed.get() > 0;
+        }
+
+        private double getExpectedResponseTime() {
+            // add a floor of 1 millis so the in flight exchanges count for processors which respond very fast
+            return (getResponseTime() + 1) * (getInFlight() + 1);
+        }
+
+        private void done(long nanos, boolean failure, double decayFactor, long failurePenalty) {
+            inFlight.decrementAndGet();
+            if (failure) {
+                failed.incrementAndGet();
+            } else {
+                completed.incrementAndGet();
+            }
+
+            double sample = nanos / 1000000d;
+            while (true) {
+                long bits = responseTime.get();
+                double current = Double.longBitsToDouble(bits);
+                double value = sample;
+                if (failure) {
+                    // the response time of a failure is not representative, as it may have failed fast
+                    value = Math.max(sample, current) + failurePenalty;
+                }
+                // the first sample is used as is
+                double next = completed.get() + failed.get() <= 1 ? value : current + decayFactor * (value - current);
+                if (responseTime.compareAndSet(bits, Double.doubleToLongBits(next))) {
+                    break;
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return processor + " [inFlight: " + getInFlight() + ", responseTime: " + getResponseTime()
+                    + ", completed: " + getExchangesCompleted() + ", failed: " + getExchangesFailed() + "]";
+        }
+    }
+
+    @Override
+    public synchronized void addProcessor(Processor processor) {
+        super.addProcessor(processor);
+        Target[] answer = new Target[targets.length + 1];
+        System.arraycopy(targets, 0, answer, 0, targets.length);
+        answer[targets.length] = new Target(processor);
+        targets = answer;
+    }
+
+    @Override
+    public synchronized void removeProcessor(Processor processor) {
+        super.removeProcessor(processor);
+        List<Target> answer = new ArrayList<Target>(targets.length);
+        for (Target target : targets) {
+            if (target.getProcessor() != processor) {
+                answer.add(target);
+            }
+        }
+        targets = answer.toArray(new Target[answer.size()]);
+    }
+
+    public boolean process(final Exchange exchange, final AsyncCallback callback) {
+        final Target target = chooseTarget(targets);
+        if (target == null) {
+            // no processors but indicate we are done
+            callback.done(true);
+            return true;
+        }
+
+        final long start = System.nanoTime();
+        target.inFlight.incrementAndGet();
+        boolean sync = AsyncProcessorHelper.process(target.asyncProcessor, exchange, new AsyncCallback() {
+            public void done(boolean doneSync) {
+                target.done(System.nanoTime() - start, exchange.isFailed(), decayFactor, failurePenalty);
+                // only handle the async case
+                if (doneSync) {
+                    return;
+                }
+
+                callback.done(false);
+            }
+        });
+
+        if (!sync) {
+            // will continue routing asynchronously
+            return false;
+        }
+
+        callback.done(true);
+        return true;
+    }
+
+    /**
+     * Chooses the target to use using the power of two choices.
+     */
+    protected Target chooseTarget(Target[] targets) {
+        int size = targets.length;
+        if (size == 0) {
+            return null;
+        } else if (size == 1) {
+            return targets[0];
+        }
+
+        Random random = RANDOM.get();
+        int first = random.nextInt(size);
+        // pick another target than the first
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+
+        Target a = targets[first];
+        Target b = targets[second];
+        if (!a.hasResponseTime() || !b.hasResponseTime()) {
+            // no response times to compare, so use the least loaded and prefer the one without response times to try it
+            int inFlightA = a.getInFlight();
+            int inFlightB = b.getInFlight();
+            if (inFlightA == inFlightB) {
+                return a.hasResponseTime() ? b : a;
+            }
+            return inFlightA < inFlightB ? a : b;
+        }
+        double expectedA = a.getExpectedResponseTime();
+        double expectedB = b.getExpectedResponseTime();
+        if (expectedA == expectedB) {
+            return a.getInFlight() <= b.getInFlight() ? a : b;
+        }
+        return expectedA < expectedB ? a : b;
+    }
+
+    /**
+     * Gets the statistics for the processors being load balanced.
+     */
+    public List<Target> getTargets() {
+        List<Target> answer = new ArrayList<Target>(targets.length);
+        for (Target target : targets) {
+            answer.add(target);
+        }
+        return answer;
+    }
+
+    public double getDecayFactor() {
+        return decayFactor;
+    }
+
+    /**
+     * Sets how much weight a new response time has in the average response time, which must
+     * be between 0 and 1. A higher value reacts faster to changes in the response times.
+     * <p/>
+     * Is by default <tt>0.2</tt>
+     */
+    public void setDecayFactor(double decayFactor) {
+        if (decayFactor <= 0 || decayFactor > 1) {
+            throw new IllegalArgumentException("DecayFactor must be between 0 and 1, was: " + decayFactor);
+        }
+        this.decayFactor = decayFactor;
+    }
+
+    public long getFailurePenalty() {
+        return failurePenalty;
+    }
+
+    /**
+     * Sets the penalty in millis which is added to the response time of a failed exchange.
+     * <p/>
+     * Is by default <tt>1000</tt>
+     */
+    public void setFailurePenalty(long failurePenalty) {
+        if (failurePenalty < 0) {
+            throw new IllegalArgumentException("FailurePenalty must not be negative, was: " + failurePenalty);
+        }
+        this.failurePenalty = failurePenalty;
+    }
+
+    public String toString() {
+        return "LeastLoadedLoadBalancer";
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.spi;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.camel.impl.DefaultExchangeHolder;
+
+/**
+ * A plugin used to encode and decode a {@link DefaultExchangeHolder} to and from bytes, such as when
+ * an {@link AggregationRepository} persists exchanges.
+ * <p/>
+ * The <tt>transferExchange</tt> option of the mina, netty and jms components can use a codec by setting
+ * the <tt>exchangeCodec</tt> option, in which case the holder is transferred as the encoded bytes.
+ * By default the holder is transferred as a Java serialized object. Notice both peers must use the same codec.
+ *
+ * @version 
+ * @see org.apache.camel.impl.SerializationExchangeCodec
+ * @see org.apache.camel.impl.BinaryExchangeCodec
+ */
+public interface ExchangeCodec {
+
+    /**
+     * Encodes the holder to the stream
+     *
+     * @param holder the holder with the information from the exchange
+     * @param stream the stream to write to
+     * @throws IOException is thrown if error writing to the stream
+     */
+    void encode(DefaultExchangeHolder holder, OutputStream stream) throws IOException;
+
+    /**
+     * Decodes a holder from the stream
+     *
+     * @param stream the stream to read from
+     * @return the holder with the information to be transferred to an exchange
+     * @throws IOException is thrown if error reading from the stream, or the data cannot be decoded
+     */
+    DefaultExchangeHolder decode(InputStream stream) throws IOException;
+}
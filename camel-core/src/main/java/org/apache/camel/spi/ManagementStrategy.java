@@ -21,6 +21,7 @@ import java.util.List;
 import org.apache.camel.ManagementStatisticsLevel;
 import org.apache.camel.Service;
 import org.apache.camel.model.ProcessorDefinition;
+import org.fusesource.commons.management.Statistic;
 
 /**
  * Strategy for management.
@@ -139,4 +140,17 @@ public interface ManagementStrategy extends org.fusesource.commons.management.Ma
      * @return the level
      */
     ManagementStatisticsLevel getStatisticsLevel();
+
+    /**
+     * Creates a statistic
+     *
+     * @param name       name of the statistic
+     * @param owner      the owner of the statistic
+     * @param updateMode how the statistic is updated
+     * @return the statistic
+     * @deprecated the performance counters gather their statistics lock-free on their own and no longer use
+     *             the statistics created by this method, will be removed in Camel 3.0
+     */
+    @Deprecated
+    Statistic createStatistic(String name, Object owner, Statistic.UpdateMode updateMode);
 }
@@ -0,0 +1,464 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A map that uses case insensitive keys, but preserves the original keys, which is purpose built
+ * for storing message headers.
+ * <p/>
+ * This map allows you to do lookup using case insensitive keys so you can retrieve the value without worrying about
+ * whether some transport protocol affects the keys such as Http and Mail protocols can do.
+ * <p/>
+ * Compared to {@link CaseInsensitiveMap} this map uses a single hash table, where the hash code and
+ * comparison of the keys is done case insensitive without creating lower cased keys. The keys returned
+ * by {@link #keySet()} and {@link #entrySet()} is the original keys, so when copying from this map to a
+ * regular Map such as {@link java.util.HashMap} you get the old behavior back using a regular Map with
+ * case sensitive keys.
+ * <p/>
+ * Copies created using {@link #CaseInsensitiveHeaderMap(CaseInsensitiveHeaderMap)} are cheap as the copy
+ * shares the hash table with the original map until either of them is changed (copy on write).
+ * The entries in the hash table is immutable, so iterating the map while its being changed is safe and
+ * the iterator will not throw {@link java.util.ConcurrentModificationException}. Calling
+ * {@link java.util.Map.Entry#setValue(Object)} updates the map, but the entry itself keeps the old value.
+ * <p/>
+ * This map is <b>not</b> designed to be thread safe as concurrent access to it is not supposed to be performed
+ * by the Camel routing engine. Creating a copy marks the map copied from as shared, which means the map must not
+ * be changed while its being copied. Once the copy has been created the two maps can be used by different threads,
+ * such as when a multicast hands off copies of an exchange to other threads.
+ *
+ * @version 
+ */
+public class CaseInsensitiveHeaderMap extends AbstractMap<String, Object> implements Serializable {
+    private static final long serialVersionUID = 4914837265127349917L;
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    private transient HeaderEntry[] table;
+    private transient int size;
+    // whether the table is shared with another map, and thus must be copied before its changed,
+    // volatile as a copy marks the map it copies from which may be used by another thread
+    private transient volatile boolean shared;
+    private transient Set<Map.Entry<String, Object>> entrySetView;
+
+    public CaseInsensitiveHeaderMap() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    public CaseInsensitiveHeaderMap(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal initial capacity: " + initialCapacity);
+        }
+        int capacity = 1;
+        while (capacity < initialCapacity && capacity < MAXIMUM_CAPACITY) {
+            capacity <<= 1;
+        }
+        table = new HeaderEntry[capacity];
+    }
+
+    public CaseInsensitiveHeaderMap(Map<? extends String, ?> map) {
+        this(Math.max(DEFAULT_INITIAL_CAPACITY, (int) (map.size() / 0.75f) + 1));
+        putAll(map);
+    }
+
+    /**
+     * Creates a copy of the given map, which shares the hash table with the given map until either
+     * of them is changed.
+     * <p/>
+     * The given map is marked as shared, so it must not be changed by another thread while its being copied.
+     *
+     * @param map the map to copy
+     */
+    public CaseInsensitiveHeaderMap(CaseInsensitiveHeaderMap map) {
+        this.table = map.table;
+        this.size = map.size;
+        this.shared = true;
+        map.shared = true;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+        HeaderEntry entry = getEntry(key);
+        return entry != null ? entry.value : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return getEntry(key) != null;
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        ObjectHelper.notNull(key, "key");
+        int hash = hash(key);
+
+        ensureNotShared();
+        HeaderEntry[] tab = table;
+        int index = hash & (tab.length - 1);
+        HeaderEntry first = tab[index];
+        for (HeaderEntry e = first; e != null; e = e.next) {
+            if (e.hash == hash && matches(e.key, key)) {
+                Object old = e.value;
+                // the entries is immutable so replace the entry, and use the new key to preserve its case
+                tab[index] = replace(first, e, new HeaderEntry(key, hash, value, e.next));
+                return old;
+            }
+        }
+
+        tab[index] = new HeaderEntry(key, hash, value, first);
+        if (++size > threshold(tab.length)) {
+            resize();
+        }
+        return null;
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ?> map) {
+        if (map == null || map.isEmpty()) {
+            return;
+        }
+        if (size == 0 && map instanceof CaseInsensitiveHeaderMap) {
+            // we are empty so we can share the table as copy on write
+            CaseInsensitiveHeaderMap other = (CaseInsensitiveHeaderMap) map;
+            table = other.table;
+            size = other.size;
+            shared = true;
+            other.shared = true;
+            return;
+        }
+        for (Map.Entry<? extends String, ?> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public Object remove(Object key) {
+        if (key == null) {
+            return null;
+        }
+        String s = key.toString();
+        int hash = hash(s);
+
+        int index = hash & (table.length - 1);
+        HeaderEntry first = table[index];
+        for (HeaderEntry e = first; e != null; e = e.next) {
+            if (e.hash == hash && matches(e.key, s)) {
+                ensureNotShared();
+                table[index] = replace(first, e, e.next);
+                size--;
+                return e.value;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+        if (shared) {
+            // do not touch the shared table but start over with a new table
+            table = new HeaderEntry[table.length];
+            shared = false;
+        } else {
+            for (int i = 0; i < table.length; i++) {
+                table[i] = null;
+            }
+        }
+        size = 0;
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        if (entrySetView == null) {
+            entrySetView = new EntrySet();
+        }
+        return entrySetView;
+    }
+
+    private HeaderEntry getEntry(Object key) {
+        if (key == null) {
+            return null;
+        }
+        String s = key.toString();
+        int hash = hash(s);
+        HeaderEntry[] tab = table;
+        for (HeaderEntry e = tab[hash & (tab.length - 1)]; e != null; e = e.next) {
+            if (e.hash == hash && matches(e.key, s)) {
+                return e;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Copies the table if its shared with another map, which must be done before changing the table.
+     */
+    private void ensureNotShared() {
+        if (shared) {
+            // the entries is immutable so we only need to copy the table itself
+            table = table.clone();
+            shared = false;
+        }
+    }
+
+    private void resize() {
+        HeaderEntry[] oldTable = table;
+        int oldCapacity = oldTable.length;
+        if (oldCapacity >= MAXIMUM_CAPACITY) {
+            return;
+        }
+
+        // must create new entries as the entries is immutable and could be in use by an iterator
+        HeaderEntry[] newTable = new HeaderEntry[oldCapacity << 1];
+        int mask = newTable.length - 1;
+        for (HeaderEntry first : oldTable) {
+            for (HeaderEntry e = first; e != null; e = e.next) {
+                int index = e.hash & mask;
+                newTable[index] = new HeaderEntry(e.key, e.hash, e.value, newTable[index]);
+            }
+        }
+        table = newTable;
+    }
+
+    /**
+     * Replaces the given entry in the chain, by copying the entries in front of it
+     *
+     * @param first       the first entry in the chain
+     * @param entry       the entry to replace
+     * @param replacement the entry (and the rest of the chain) to replace with
+     * @return the new first entry of the chain
+     */
+    private static HeaderEntry replace(HeaderEntry first, HeaderEntry entry, HeaderEntry replacement) {
+        HeaderEntry answer = replacement;
+        for (HeaderEntry e = first; e != entry; e = e.next) {
+            answer = new HeaderEntry(e.key, e.hash, e.value, answer);
+        }
+        return answer;
+    }
+
+    private static int threshold(int capacity) {
+        return (int) (capacity * 0.75f);
+    }
+
+    private static boolean matches(String key, String other) {
+        return key == other || key.equalsIgnoreCase(other);
+    }
+
+    /**
+     * Computes a case insensitive hash code of the key without creating a lower cased key.
+     */
+    static int hash(String key) {
+        int h = 0;
+        int len = key.length();
+        for (int i = 0; i < len; i++) {
+            char c = key.charAt(i);
+            if (c < 128) {
+                // fast path for US-ASCII which is the most common for header keys
+                if (c >= 'A' && c <= 'Z') {
+                    c += 32;
+                }
+            } else {
+                // fold the same way as String.equalsIgnoreCase
+                c = Character.toLowerCase(Character.toUpperCase(c));
+            }
+            h = 31 * h + c;
+        }
+        // spread the bits as the table is power of two sized
+        h ^= (h >>> 20) ^ (h >>> 12);
+        return h ^ (h >>> 7) ^ (h >>> 4);
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(table.length);
+        out.writeInt(size);
+        for (HeaderEntry first : table) {
+            for (HeaderEntry e = first; e != null; e = e.next) {
+                out.writeObject(e.key);
+                out.writeObject(e.value);
+            }
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        table = new HeaderEntry[in.readInt()];
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String key = (String) in.readObject();
+            Object value = in.readObject();
+            put(key, value);
+        }
+    }
+
+    /**
+     * An immutable entry in the hash table.
+     */
+    private static final class HeaderEntry {
+        final String key;
+        final int hash;
+        final Object value;
+        final HeaderEntry next;
+
+        HeaderEntry(String key, int hash, Object value, HeaderEntry next) {
+            this.key = key;
+            this.hash = hash;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<String, Object>> {
+
+        @Override
+        public Iterator<Map.Entry<String, Object>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            HeaderEntry e = getEntry(entry.getKey());
+            return e != null && ObjectHelper.equal(e.value, entry.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (contains(o)) {
+                CaseInsensitiveHeaderMap.this.remove(((Map.Entry<?, ?>) o).getKey());
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void clear() {
+            CaseInsensitiveHeaderMap.this.clear();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<String, Object>> {
+        // iterate the table as it was when the iterator was created
+        private final HeaderEntry[] tab = table;
+        private HeaderEntry next;
+        private HeaderEntry last;
+        private int index;
+
+        private EntryIterator() {
+            advance();
+        }
+
+        private void advance() {
+            if (next != null) {
+                next = next.next;
+            }
+            while (next == null && index < tab.length) {
+                next = tab[index++];
+            }
+        }
+
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        public Map.Entry<String, Object> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            advance();
+            return new EntryView(last);
+        }
+
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException();
+            }
+            CaseInsensitiveHeaderMap.this.remove(last.key);
+            last = null;
+        }
+    }
+
+    private final class EntryView implements Map.Entry<String, Object> {
+        private final HeaderEntry entry;
+
+        private EntryView(HeaderEntry entry) {
+            this.entry = entry;
+        }
+
+        public String getKey() {
+            return entry.key;
+        }
+
+        public Object getValue() {
+            return entry.value;
+        }
+
+        public Object setValue(Object value) {
+            return put(entry.key, value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> other = (Map.Entry<?, ?>) o;
+            return ObjectHelper.equal(entry.key, other.getKey()) && ObjectHelper.equal(entry.value, other.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return (entry.key.hashCode()) ^ (entry.value == null ? 0 : entry.value.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return entry.key + "=" + entry.value;
+        }
+    }
+}
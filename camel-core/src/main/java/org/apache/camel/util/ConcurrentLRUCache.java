@@ -0,0 +1,353 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.camel.Service;
+
+/**
+ * A bounded cache which can be used concurrently without locking, evicting entries which
+ * has not been used recently when the cache is full.
+ * <p/>
+ * Unlike {@link LRUCache} which keeps the entries in exact access order, and therefore must be
+ * guarded by a lock as even reading changes its state, this cache approximates the least recently used
+ * order using the <i>second chance</i> (clock) algorithm. Reading an entry only marks it as accessed, and
+ * when the cache is full the oldest entries which has not been accessed since they was last checked are evicted.
+ * <p/>
+ * The number of hits, misses and evictions are recorded, and {@link #onEviction(Object, Object)} can be
+ * overridden to be notified when an entry has been evicted, for example to stop the evicted value.
+ * <p/>
+ * Removing an entry is <tt>O(1)</tt> as the entry is only marked as removed, and is unlinked from the clock
+ * when the clock hand reaches it, or when enough removed entries has accumulated to purge them in one pass.
+ * <p/>
+ * The {@link #entrySet()} is a snapshot of the entries and does not support modifications.
+ *
+ * @version 
+ */
+public class ConcurrentLRUCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>, Service {
+
+    private final ConcurrentHashMap<K, Node<K, V>> map;
+    private final ConcurrentLinkedQueue<Node<K, V>> clock = new ConcurrentLinkedQueue<Node<K, V>>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicInteger removedInClock = new AtomicInteger();
+    private final AtomicBoolean purging = new AtomicBoolean();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final int maxCacheSize;
+
+    private static final class Node<K, V> {
+        private static final int LIVE = 0;
+        private static final int REMOVED = 1;
+        private static final int UNLINKED = 2;
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<Node> STATE = AtomicIntegerFieldUpdater.newUpdater(Node.class, "state");
+
+        private final K key;
+        private final V value;
+        private volatile boolean accessed;
+        private volatile int state;
+
+        private Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    public ConcurrentLRUCache(int maximumCacheSize) {
+        if (maximumCacheSize <= 0) {
+            throw new IllegalArgumentException("MaximumCacheSize must be a positive number, was: " + maximumCacheSize);
+        }
+        this.maxCacheSize = maximumCacheSize;
+        this.map = new ConcurrentHashMap<K, Node<K, V>>(Math.min(maximumCacheSize, 1024));
+    }
+
+    /**
+     * Returns the maxCacheSize.
+     */
+    public int getMaxCacheSize() {
+        return maxCacheSize;
+    }
+
+    /**
+     * Number of lookups which found an entry in the cache
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Number of lookups which did not find an entry in the cache
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Number of entries evicted because the cache was full
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Resets the hits, misses and evictions statistics
+     */
+    public void resetStatistics() {
+        hits.set(0);
+        misses.set(0);
+        evictions.set(0);
+    }
+
+    @Override
+    public V get(Object key) {
+        Node<K, V> node = map.get(key);
+        if (node == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        // avoid writing to the node if its already marked
+        if (!node.accessed) {
+            node.accessed = true;
+        }
+        hits.incrementAndGet();
+        return node.value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return map.containsKey(key);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        ObjectHelper.notNull(value, "value");
+        Node<K, V> node = new Node<K, V>(key, value);
+        Node<K, V> old = map.put(key, node);
+        clock.offer(node);
+        if (old != null) {
+            markRemoved(old);
+            return old.value;
+        }
+        added();
+        return null;
+    }
+
+    public V putIfAbsent(K key, V value) {
+        ObjectHelper.notNull(value, "value");
+        Node<K, V> node = new Node<K, V>(key, value);
+        Node<K, V> existing = map.putIfAbsent(key, node);
+        if (existing != null) {
+            existing.accessed = true;
+            return existing.value;
+        }
+        clock.offer(node);
+        added();
+        return null;
+    }
+
+    @Override
+    public V remove(Object key) {
+        Node<K, V> node = map.remove(key);
+        if (node == null) {
+            return null;
+        }
+        removed(node);
+        return node.value;
+    }
+
+    public boolean remove(Object key, Object value) {
+        Node<K, V> node = map.get(key);
+        if (node != null && ObjectHelper.equal(node.value, value) && map.remove(key, node)) {
+            removed(node);
+            return true;
+        }
+        return false;
+    }
+
+    public V replace(K key, V value) {
+        ObjectHelper.notNull(value, "value");
+        Node<K, V> node = map.get(key);
+        while (node != null) {
+            if (replaceNode(key, node, value)) {
+                return node.value;
+            }
+            node = map.get(key);
+        }
+        return null;
+    }
+
+    public boolean replace(K key, V oldValue, V newValue) {
+        ObjectHelper.notNull(newValue, "newValue");
+        Node<K, V> node = map.get(key);
+        return node != null && ObjectHelper.equal(node.value, oldValue) && replaceNode(key, node, newValue);
+    }
+
+    private boolean replaceNode(K key, Node<K, V> node, V value) {
+        Node<K, V> replacement = new Node<K, V>(key, value);
+        if (map.replace(key, node, replacement)) {
+            clock.offer(replacement);
+            markRemoved(node);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+        for (K key : map.keySet()) {
+            remove(key);
+        }
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        Set<Map.Entry<K, V>> answer = new LinkedHashSet<Map.Entry<K, V>>();
+        for (Node<K, V> node : map.values()) {
+            answer.add(new AbstractMap.SimpleImmutableEntry<K, V>(node.key, node.value));
+        }
+        return Collections.unmodifiableSet(answer);
+    }
+
+    /**
+     * Callback when an entry has been evicted from the cache. Is invoked by the thread adding the entry
+     * which caused the cache to be full, but not while holding any locks.
+     *
+     * @param key   the key
+     * @param value the evicted value
+     */
+    protected void onEviction(K key, V value) {
+        // noop
+    }
+
+    private void added() {
+        if (size.incrementAndGet() > maxCacheSize) {
+            evict();
+        }
+    }
+
+    private void removed(Node<K, V> node) {
+        size.decrementAndGet();
+        markRemoved(node);
+    }
+
+    /**
+     * Marks the node as removed, leaving it in the clock to be unlinked later, as removing it from the
+     * middle of the clock queue would be <tt>O(n)</tt>.
+     */
+    private void markRemoved(Node<K, V> node) {
+        if (Node.STATE.compareAndSet(node, Node.LIVE, Node.REMOVED)
+                && removedInClock.incrementAndGet() > maxCacheSize) {
+            purge();
+        }
+    }
+
+    /**
+     * The node is no longer in the clock.
+     */
+    private void unlinked(Node<K, V> node) {
+        if (Node.STATE.getAndSet(node, Node.UNLINKED) == Node.REMOVED) {
+            removedInClock.decrementAndGet();
+        }
+    }
+
+    /**
+     * Unlinks all the removed nodes from the clock in one pass, so the cost is amortized over the removals.
+     */
+    private void purge() {
+        if (!purging.compareAndSet(false, true)) {
+            // another thread is purging
+            return;
+        }
+        try {
+            for (Iterator<Node<K, V>> it = clock.iterator(); it.hasNext();) {
+                Node<K, V> node = it.next();
+                if (node.state == Node.REMOVED) {
+                    it.remove();
+                    unlinked(node);
+                }
+            }
+        } finally {
+            purging.set(false);
+        }
+    }
+
+    private void evict() {
+        while (size.get() > maxCacheSize) {
+            Node<K, V> node = clock.poll();
+            if (node == null) {
+                return;
+            }
+            if (node.state != Node.LIVE) {
+                // was removed so just unlink it
+                unlinked(node);
+            } else if (node.accessed) {
+                // give the entry a second chance as it was accessed since last time
+                node.accessed = false;
+                clock.offer(node);
+            } else if (map.remove(node.key, node)) {
+                unlinked(node);
+                size.decrementAndGet();
+                evictions.incrementAndGet();
+                onEviction(node.key, node.value);
+            } else {
+                // was removed or replaced concurrently
+                unlinked(node);
+            }
+        }
+    }
+
+    public void start() throws Exception {
+        // noop
+    }
+
+    public void stop() throws Exception {
+        // stop the values and clear the cache
+        if (!isEmpty()) {
+            ServiceHelper.stopServices(values());
+            clear();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrentLRUCache@" + ObjectHelper.getIdentityHashCode(this);
+    }
+}
@@ -0,0 +1,374 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.camel.impl.ServiceSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link TimeoutMap} which uses a hierarchical timing wheel to find the expired entries,
+ * which is designed for maps with a large number of entries.
+ * <p/>
+ * Unlike {@link DefaultTimeoutMap} which scans all the entries on every purge, this implementation
+ * keeps the entries in buckets of time (ticks) so the purge task only has to look at the entries which
+ * expire in the ticks passed since the last purge. Adding, looking up and removing entries does not use
+ * a global lock, as the entries is kept in a {@link ConcurrentMap} and new entries is handed over to the purge
+ * task using a lock free queue. Removed entries is discarded by the purge task when their tick is reached.
+ * <p/>
+ * The wheel has four levels of 256 ticks each, where the first level covers the next 256 ticks, and each
+ * higher level covers 256 times more ticks than the level below. Entries is moved down a level when their
+ * tick comes within the range of the level below. The length of a tick is the purge poll time, which means
+ * entries is evicted at most one tick after they expired.
+ * <p/>
+ * You must provide a {@link java.util.concurrent.ScheduledExecutorService} in the constructor which is used
+ * to schedule the background task which advances the wheel.
+ *
+ * @version 
+ */
+public class TimingWheelTimeoutMap<K, V> extends ServiceSupport implements TimeoutMap<K, V>, Runnable {
+
+    private static final int WHEEL_BITS = 8;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+
+    protected final transient Logger log = LoggerFactory.getLogger(getClass());
+
+    private final ConcurrentMap<K, WheelEntry<K, V>> map = new ConcurrentHashMap<K, WheelEntry<K, V>>();
+    private final Queue<WheelEntry<K, V>> inbox = new ConcurrentLinkedQueue<WheelEntry<K, V>>();
+    private final ScheduledExecutorService executor;
+    private final long purgePollTime;
+    // the wheel is only accessed by the purge task which holds this lock
+    private final Lock purgeLock = new ReentrantLock();
+    private final List<List<WheelEntry<K, V>>> wheels = new ArrayList<List<WheelEntry<K, V>>>(LEVELS * WHEEL_SIZE);
+    private final long startTime;
+    private long currentTick;
+
+    public TimingWheelTimeoutMap(ScheduledExecutorService executor) {
+        this(executor, 1000);
+    }
+
+    public TimingWheelTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis) {
+        ObjectHelper.notNull(executor, "ScheduledExecutorService");
+        if (requestMapPollTimeMillis <= 0) {
+            throw new IllegalArgumentException("requestMapPollTimeMillis must be positive, was " + requestMapPollTimeMillis);
+        }
+        this.executor = executor;
+        this.purgePollTime = requestMapPollTimeMillis;
+        for (int i = 0; i < LEVELS * WHEEL_SIZE; i++) {
+            wheels.add(null);
+        }
+        this.startTime = currentTime();
+        schedulePoll();
+    }
+
+    public V get(K key) {
+        WheelEntry<K, V> entry = map.get(key);
+        if (entry == null) {
+            return null;
+        }
+        // the purge task will move the entry when its old tick is reached
+        updateExpireTime(entry);
+        return entry.getValue();
+    }
+
+    public void put(K key, V value, long timeoutMillis) {
+        WheelEntry<K, V> entry = new WheelEntry<K, V>(key, value, timeoutMillis);
+        updateExpireTime(entry);
+        map.put(key, entry);
+        inbox.add(entry);
+    }
+
+    public V remove(K key) {
+        WheelEntry<K, V> entry = map.remove(key);
+        return entry != null ? entry.getValue() : null;
+    }
+
+    public Object[] getKeys() {
+        Set<K> keySet = map.keySet();
+        Object[] keys = new Object[keySet.size()];
+        keySet.toArray(keys);
+        return keys;
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * The timer task which advances the wheel and evicts the expired entries
+     */
+    public void run() {
+        // only run if allowed
+        if (!isRunAllowed()) {
+            log.trace("Purge task not allowed to run");
+            return;
+        }
+
+        log.trace("Running purge task to see if any entries has been timed out");
+        try {
+            purge();
+        } catch (Throwable t) {
+            // must catch and log exception otherwise the executor will now schedule next run
+            log.warn("Exception occurred during purge task. This exception will be ignored.", t);
+        }
+    }
+
+    public void purge() {
+        purgeLock.lock();
+        try {
+            long now = currentTime();
+            long targetTick = (now - startTime) / purgePollTime;
+            List<WheelEntry<K, V>> expired = new ArrayList<WheelEntry<K, V>>();
+
+            // add the new entries to the wheel
+            WheelEntry<K, V> entry;
+            while ((entry = inbox.poll()) != null) {
+                schedule(entry, expired);
+            }
+
+            // advance the wheel tick by tick
+            while (currentTick < targetTick) {
+                currentTick++;
+
+                // move the entries from the higher levels down when the lower levels wrap around
+                for (int level = LEVELS - 1; level > 0; level--) {
+                    if ((currentTick & ((1L << (WHEEL_BITS * level)) - 1)) == 0) {
+                        List<WheelEntry<K, V>> bucket = takeBucket(level, currentTick);
+                        if (bucket != null) {
+                            for (WheelEntry<K, V> e : bucket) {
+                                schedule(e, expired);
+                            }
+                        }
+                    }
+                }
+
+                List<WheelEntry<K, V>> bucket = takeBucket(0, currentTick);
+                if (bucket != null) {
+                    for (WheelEntry<K, V> e : bucket) {
+                        schedule(e, expired);
+                    }
+                }
+            }
+
+            if (log.isTraceEnabled()) {
+                log.trace("There are " + map.size() + " in the timeout map with " + expired.size() + " expired");
+            }
+            if (expired.isEmpty()) {
+                return;
+            }
+
+            // sort according to the expired time so we got the first expired first
+            Collections.sort(expired, new Comparator<WheelEntry<K, V>>() {
+                public int compare(WheelEntry<K, V> a, WheelEntry<K, V> b) {
+                    long diff = a.getExpireTime() - b.getExpireTime();
+                    if (diff == 0) {
+                        return 0;
+                    }
+                    return diff > 0 ? 1 : -1;
+                }
+            });
+            for (WheelEntry<K, V> e : expired) {
+                if (!evict(e)) {
+                    // the eviction was vetoed so check again on the next tick
+                    place(e, currentTick + 1);
+                }
+            }
+        } finally {
+            purgeLock.unlock();
+        }
+    }
+
+    // Properties
+    // -------------------------------------------------------------------------
+
+    public long getPurgePollTime() {
+        return purgePollTime;
+    }
+
+    public ScheduledExecutorService getExecutor() {
+        return executor;
+    }
+
+    // Implementation methods
+    // -------------------------------------------------------------------------
+
+    /**
+     * Evicts the expired entry, unless it has been removed or replaced in the mean time.
+     * <p/>
+     * Derivations can override this method to guard the eviction, for example with a lock
+     * for the given key.
+     *
+     * @param entry the expired entry
+     * @return <tt>false</tt> if the eviction was vetoed and the entry should be kept
+     */
+    protected boolean evict(TimeoutMapEntry<K, V> entry) {
+        if (map.get(entry.getKey()) != entry) {
+            // removed or replaced
+            return true;
+        }
+        if (entry.getExpireTime() > currentTime()) {
+            // accessed in the mean time
+            inbox.add((WheelEntry<K, V>) entry);
+            return true;
+        }
+        if (!isValidForEviction(entry)) {
+            return false;
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Evicting inactive entry ID: " + entry);
+        }
+        if (!onEviction(entry.getKey(), entry.getValue())) {
+            return false;
+        }
+        map.remove(entry.getKey(), entry);
+        return true;
+    }
+
+    /**
+     * A hook to allow derivations to avoid evicting the current entry
+     */
+    protected boolean isValidForEviction(TimeoutMapEntry<K, V> entry) {
+        return true;
+    }
+
+    public boolean onEviction(K key, V value) {
+        return true;
+    }
+
+    /**
+     * Adds the entry to the bucket for the tick it expires in, or to the expired list if the tick has been reached
+     */
+    private void schedule(WheelEntry<K, V> entry, List<WheelEntry<K, V>> expired) {
+        if (map.get(entry.getKey()) != entry) {
+            // discard removed or replaced entries
+            return;
+        }
+        // round up so we never expire entries before their time
+        long tick = (entry.getExpireTime() - startTime + purgePollTime - 1) / purgePollTime;
+        if (tick <= currentTick) {
+            expired.add(entry);
+        } else {
+            place(entry, tick);
+        }
+    }
+
+    private void place(WheelEntry<K, V> entry, long tick) {
+        long delta = tick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (WHEEL_BITS * (level + 1)))) {
+            level++;
+        }
+        if (delta >= (1L << (WHEEL_BITS * LEVELS))) {
+            // too far in the future so park it in the last bucket of the wheel, and it will be moved again
+            tick = currentTick + (1L << (WHEEL_BITS * LEVELS)) - 1;
+        }
+
+        int index = level * WHEEL_SIZE + (int) ((tick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+        List<WheelEntry<K, V>> bucket = wheels.get(index);
+        if (bucket == null) {
+            bucket = new ArrayList<WheelEntry<K, V>>();
+            wheels.set(index, bucket);
+        }
+        bucket.add(entry);
+    }
+
+    private List<WheelEntry<K, V>> takeBucket(int level, long tick) {
+        int index = level * WHEEL_SIZE + (int) ((tick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+        List<WheelEntry<K, V>> bucket = wheels.get(index);
+        if (bucket != null) {
+            wheels.set(index, null);
+        }
+        return bucket;
+    }
+
+    /**
+     * lets schedule each time to allow folks to change the time at runtime
+     */
+    protected void schedulePoll() {
+        executor.scheduleWithFixedDelay(this, 0, purgePollTime, TimeUnit.MILLISECONDS);
+    }
+
+    protected void updateExpireTime(TimeoutMapEntry entry) {
+        long now = currentTime();
+        entry.setExpireTime(entry.getTimeout() + now);
+    }
+
+    protected long currentTime() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        if (executor.isShutdown()) {
+            throw new IllegalStateException("The ScheduledExecutorService is shutdown");
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        // clear map if we stop
+        map.clear();
+        inbox.clear();
+        purgeLock.lock();
+        try {
+            for (int i = 0; i < wheels.size(); i++) {
+                wheels.set(i, null);
+            }
+        } finally {
+            purgeLock.unlock();
+        }
+    }
+
+    /**
+     * An entry where the expire time can be updated by other threads than the purge task
+     */
+    private static final class WheelEntry<K, V> extends TimeoutMapEntry<K, V> {
+        private volatile long expireTime;
+
+        private WheelEntry(K key, V value, long timeout) {
+            super(key, value, timeout);
+        }
+
+        @Override
+        public long getExpireTime() {
+            return expireTime;
+        }
+
+        @Override
+        public void setExpireTime(long expireTime) {
+            this.expireTime = expireTime;
+        }
+    }
+
+}
@@ -0,0 +1,371 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.camel.util.ObjectHelper;
+
+/**
+ * A bounded lock-free {@link BlockingQueue} backed by a ring buffer which supports
+ * multiple producers and multiple consumers.
+ * <p/>
+ * Each slot in the ring has a sequence number which tells producers and consumers whether the
+ * slot is free or holds an element, so offering and polling only needs a single compare and set
+ * on the tail or head counter, and producers and consumers do not contend with each other.
+ * <p/>
+ * The capacity is rounded up to the nearest power of two, and is at least 2. When the queue is full or empty the
+ * blocking operations wait using the configured {@link WaitStrategy}. Once the wait strategy tells the thread
+ * to block, such as when <tt>Park</tt> has backed off to its maximum, the thread blocks on a lock until it is
+ * signalled by an offer or poll, so idle threads do not keep waking up. The lock is only taken when threads
+ * are blocked, so there is no lock involved while the queue is busy.
+ * <p/>
+ * The iterator is weakly consistent and works on a snapshot of the queue, and it does not support
+ * removing elements. Hence {@link #remove(Object)}, {@link #removeAll(Collection)} and
+ * {@link #retainAll(Collection)} is not supported either.
+ *
+ * @version 
+ */
+public class RingBufferBlockingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> buffer;
+    private final AtomicLongArray sequences;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final WaitStrategy waitStrategy;
+    // the slow path for threads which blocks until signalled
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final AtomicInteger blockedConsumers = new AtomicInteger();
+    private final AtomicInteger blockedProducers = new AtomicInteger();
+
+    public RingBufferBlockingQueue(int capacity) {
+        this(capacity, WaitStrategy.Park);
+    }
+
+    public RingBufferBlockingQueue(int capacity, WaitStrategy waitStrategy) {
+        if (capacity <= 0 || capacity > MAXIMUM_CAPACITY) {
+            throw new IllegalArgumentException("Capacity must be between 1 and " + MAXIMUM_CAPACITY + ", was " + capacity);
+        }
+        ObjectHelper.notNull(waitStrategy, "waitStrategy");
+
+        // the sequence numbers cannot tell a full slot from a free slot with a single slot
+        int size = 2;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.capacity = size;
+        this.mask = size - 1;
+        this.buffer = new AtomicReferenceArray<E>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.waitStrategy = waitStrategy;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    public boolean offer(E e) {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+
+        long pos = tail.get();
+        int index;
+        while (true) {
+            index = (int) pos & mask;
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                // the slot is free so claim it
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    break;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                // the slot still holds the element from the previous lap so we are full
+                return false;
+            } else {
+                // another producer claimed the slot
+                pos = tail.get();
+            }
+        }
+
+        buffer.set(index, e);
+        // publish the element to the consumers
+        sequences.set(index, pos + 1);
+        if (blockedConsumers.get() > 0) {
+            signal(notEmpty);
+        }
+        return true;
+    }
+
+    public E poll() {
+        long pos = head.get();
+        int index;
+        while (true) {
+            index = (int) pos & mask;
+            long diff = sequences.get(index) - (pos + 1);
+            if (diff == 0) {
+                // the slot holds an element so claim it
+                if (head.compareAndSet(pos, pos + 1)) {
+                    break;
+                }
+                pos = head.get();
+            } else if (diff < 0) {
+                // no element has been published in the slot yet so we are empty
+                return null;
+            } else {
+                // another consumer claimed the slot
+                pos = head.get();
+            }
+        }
+
+        E e = buffer.get(index);
+        buffer.set(index, null);
+        // free the slot for the producers in the next lap
+        sequences.set(index, pos + capacity);
+        if (blockedProducers.get() > 0) {
+            signal(notFull);
+        }
+        return e;
+    }
+
+    public E peek() {
+        while (true) {
+            long pos = head.get();
+            int index = (int) pos & mask;
+            long diff = sequences.get(index) - (pos + 1);
+            if (diff < 0) {
+                return null;
+            }
+            E e = buffer.get(index);
+            if (diff == 0 && e != null && head.get() == pos) {
+                return e;
+            }
+            // the element was taken in the mean time so try again
+        }
+    }
+
+    public void put(E e) throws InterruptedException {
+        int counter = 0;
+        while (!offer(e)) {
+            if (waitStrategy.isBlocking(counter)) {
+                offerBlocking(e, false, 0);
+                return;
+            }
+            counter = idle(counter);
+        }
+    }
+
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int counter = 0;
+        while (!offer(e)) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            if (waitStrategy.isBlocking(counter)) {
+                return offerBlocking(e, true, remaining);
+            }
+            counter = idle(counter);
+        }
+        return true;
+    }
+
+    public E take() throws InterruptedException {
+        int counter = 0;
+        E e;
+        while ((e = poll()) == null) {
+            if (waitStrategy.isBlocking(counter)) {
+                return pollBlocking(false, 0);
+            }
+            counter = idle(counter);
+        }
+        return e;
+    }
+
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int counter = 0;
+        E e;
+        while ((e = poll()) == null) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return null;
+            }
+            if (waitStrategy.isBlocking(counter)) {
+                return pollBlocking(true, remaining);
+            }
+            counter = idle(counter);
+        }
+        return e;
+    }
+
+    public int remainingCapacity() {
+        return capacity - size();
+    }
+
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        if (c == null) {
+            throw new NullPointerException();
+        }
+        if (c == this) {
+            throw new IllegalArgumentException("Cannot drain to itself");
+        }
+
+        int n = 0;
+        E e;
+        while (n < maxElements && (e = poll()) != null) {
+            c.add(e);
+            n++;
+        }
+        return n;
+    }
+
+    @Override
+    public int size() {
+        // read head before tail so the tail is never behind
+        long pos = head.get();
+        long size = tail.get() - pos;
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return peek() == null;
+    }
+
+    @Override
+    public void clear() {
+        while (poll() != null) {
+            // noop
+        }
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        List<E> answer = new ArrayList<E>();
+        long pos = head.get();
+        long end = tail.get();
+        for (; pos < end; pos++) {
+            int index = (int) pos & mask;
+            E e = buffer.get(index);
+            // only include the element if its still from the same lap
+            if (e != null && sequences.get(index) == pos + 1) {
+                answer.add(e);
+            }
+        }
+        return Collections.unmodifiableList(answer).iterator();
+    }
+
+    /**
+     * Offers the element, blocking until signalled by a consumer while the queue is full.
+     */
+    private boolean offerBlocking(E e, boolean timed, long nanos) throws InterruptedException {
+        lock.lockInterruptibly();
+        // register before trying again, so a consumer polling after our attempt will signal us
+        blockedProducers.incrementAndGet();
+        try {
+            while (!offer(e)) {
+                if (!timed) {
+                    notFull.await();
+                } else if (nanos > 0) {
+                    nanos = notFull.awaitNanos(nanos);
+                } else {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            blockedProducers.decrementAndGet();
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Polls an element, blocking until signalled by a producer while the queue is empty.
+     */
+    private E pollBlocking(boolean timed, long nanos) throws InterruptedException {
+        lock.lockInterruptibly();
+        // register before trying again, so a producer offering after our attempt will signal us
+        blockedConsumers.incrementAndGet();
+        try {
+            E e;
+            while ((e = poll()) == null) {
+                if (!timed) {
+                    notEmpty.await();
+                } else if (nanos > 0) {
+                    nanos = notEmpty.awaitNanos(nanos);
+                } else {
+                    return null;
+                }
+            }
+            return e;
+        } finally {
+            blockedConsumers.decrementAndGet();
+            lock.unlock();
+        }
+    }
+
+    private void signal(Condition condition) {
+        lock.lock();
+        try {
+            // signal all as a signalled thread may give up due its timeout
+            condition.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int idle(int counter) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        return waitStrategy.idle(counter);
+    }
+
+}
@@ -0,0 +1,68 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util.concurrent;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Strategies for how a thread waits for a lock-free data structure such as
+ * the {@link RingBufferBlockingQueue} to become available.
+ * <ul>
+ *   <li>Spin - busy spins, which gives the lowest latency but burns a CPU core while waiting</li>
+ *   <li>Yield - yields the thread to let other threads run</li>
+ *   <li>Park - parks the thread with an exponential back off up till 1 millis, and then blocks
+ *   the thread until it is signalled</li>
+ * </ul>
+ * Camel will by default use <tt>Park</tt>.
+ *
+ * @version 
+ */
+public enum WaitStrategy {
+
+    Spin, Yield, Park;
+
+    private static final long MIN_PARK_NANOS = 1000L;
+    private static final int MAX_PARK_SHIFT = 10;
+
+    /**
+     * Waits a little while before the caller should check its condition again.
+     *
+     * @param counter the number of times the caller has waited so far
+     * @return the counter to pass in on the next invocation
+     */
+    public int idle(int counter) {
+        if (this == Yield) {
+            Thread.yield();
+        } else if (this == Park) {
+            LockSupport.parkNanos(MIN_PARK_NANOS << Math.min(counter, MAX_PARK_SHIFT));
+        }
+        // when spinning we just return to let the caller check its condition again
+        return counter < Integer.MAX_VALUE ? counter + 1 : counter;
+    }
+
+    /**
+     * Whether the caller should stop waiting actively, and instead block until it is signalled.
+     *
+     * @param counter the number of times the caller has waited so far
+     * @return <tt>true</tt> to block, <tt>false</tt> to keep waiting using {@link #idle(int)}
+     */
+    public boolean isBlocking(int counter) {
+        // block when the back off has reached its maximum, so idle threads do not keep waking up
+        return this == Park && counter > MAX_PARK_SHIFT;
+    }
+
+}
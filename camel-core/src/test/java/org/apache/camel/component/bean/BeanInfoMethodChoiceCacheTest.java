@@ -0,0 +1,115 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.bean;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.ExchangePattern;
+import org.apache.camel.impl.DefaultExchange;
+
+/**
+ * @version 
+ */
+public class BeanInfoMethodChoiceCacheTest extends ContextTestSupport {
+
+    public void testChosenMethodByBodyType() throws Exception {
+        BeanInfo beanInfo = new BeanInfo(context, MyOverloadedBean.class);
+        MyOverloadedBean bean = new MyOverloadedBean();
+
+        // invoke several times so the chosen methods are cached
+        for (int i = 0; i < 3; i++) {
+            assertEquals("hello", invoke(beanInfo, bean, createExchange("hello")));
+            assertEquals(124, invoke(beanInfo, bean, createExchange(123)));
+            assertEquals(2.5d, invoke(beanInfo, bean, createExchange(1.25d)));
+        }
+    }
+
+    public void testConvertedBodyNotCached() throws Exception {
+        BeanInfo beanInfo = new BeanInfo(context, MyConvertBean.class);
+        MyConvertBean bean = new MyConvertBean();
+
+        // the method is chosen by converting the body so it depends on the value of the body
+        assertEquals(11, invoke(beanInfo, bean, createExchange("10")));
+        assertEquals(21, invoke(beanInfo, bean, createExchange("20")));
+    }
+
+    public void testChosenMethodByPattern() throws Exception {
+        BeanInfo beanInfo = new BeanInfo(context, MyPatternBean.class);
+        MyPatternBean bean = new MyPatternBean();
+
+        Exchange exchange = createExchange("World");
+        assertEquals("Hello World", invoke(beanInfo, bean, exchange));
+
+        // the previous choice should not be used as the void method is also possible for InOnly
+        exchange = createExchange("World");
+        exchange.setPattern(ExchangePattern.InOnly);
+        try {
+            beanInfo.createInvocation(bean, exchange);
+            fail("Should have thrown exception");
+        } catch (AmbiguousMethodCallException e) {
+            assertEquals(2, e.getMethods().size());
+        }
+
+        exchange = createExchange("Camel");
+        assertEquals("Hello Camel", invoke(beanInfo, bean, exchange));
+    }
+
+    private Exchange createExchange(Object body) {
+        Exchange exchange = new DefaultExchange(context, ExchangePattern.InOut);
+        exchange.getIn().setBody(body);
+        return exchange;
+    }
+
+    private static Object invoke(BeanInfo beanInfo, Object bean, Exchange exchange) throws Exception {
+        return beanInfo.createInvocation(bean, exchange).proceed(null, null);
+    }
+
+    public static class MyOverloadedBean {
+        public String echo(String s) {
+            return s;
+        }
+
+        public int echo(Integer i) {
+            return i + 1;
+        }
+
+        public double echo(Double d) {
+            return d * 2;
+        }
+    }
+
+    public static class MyConvertBean {
+        public int increment(Integer i) {
+            return i + 1;
+        }
+
+        public int echo(java.util.Date date) {
+            return -1;
+        }
+    }
+
+    public static class MyPatternBean {
+        public String hello(String name) {
+            return "Hello " + name;
+        }
+
+        public void log(String name) {
+            // noop
+        }
+    }
+
+}
@@ -0,0 +1,115 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.file;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.builder.NotifyBuilder;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.JndiRegistry;
+
+/**
+ * Unit test for committing the files processed in parallel in the order they was polled
+ */
+public class FileConsumerParallelOrderedCommitTest extends ContextTestSupport {
+
+    private final List<String> done = Collections.synchronizedList(new ArrayList<String>());
+    private final List<String> commits = Collections.synchronizedList(new ArrayList<String>());
+
+    @Override
+    protected void setUp() throws Exception {
+        deleteDirectory("target/parallelordered");
+        super.setUp();
+    }
+
+    @Override
+    protected JndiRegistry createRegistry() throws Exception {
+        JndiRegistry jndi = super.createRegistry();
+        jndi.bind("myStrategy", new MyStrategy());
+        return jndi;
+    }
+
+    public void testOrderedCommit() throws Exception {
+        NotifyBuilder notify = new NotifyBuilder(context).whenDone(5).create();
+
+        for (String name : new String[]{"A", "B", "C", "D", "E"}) {
+            template.sendBodyAndHeader("file:target/parallelordered", name, Exchange.FILE_NAME, name + ".txt");
+        }
+        context.startRoute("ordered");
+
+        assertTrue(notify.matches(10, TimeUnit.SECONDS));
+
+        // the first files takes the longest time to process
+        assertEquals("E", done.get(0));
+        // but is still committed or rolled back in the order they was polled
+        assertEquals("[commit A, commit B, rollback C, commit D, commit E]", commits.toString());
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("file:target/parallelordered?parallelProcessing=true&poolSize=5&orderedCommit=true"
+                        + "&sortBy=file:name&idempotent=true&processStrategy=#myStrategy&initialDelay=0&delay=10")
+                    .routeId("ordered").noAutoStartup()
+                    .convertBodyTo(String.class)
+                    .process(new Processor() {
+                        public void process(Exchange exchange) throws Exception {
+                            String body = exchange.getIn().getBody(String.class);
+                            // the files polled first are done last
+                            int index = exchange.getProperty(Exchange.BATCH_INDEX, Integer.class);
+                            Thread.sleep((5 - index) * 200);
+                            done.add(body);
+                            if ("C".equals(body)) {
+                                throw new IllegalArgumentException("Forced");
+                            }
+                        }
+                    });
+            }
+        };
+    }
+
+    private class MyStrategy implements GenericFileProcessStrategy<File> {
+
+        public void prepareOnStartup(GenericFileOperations<File> operations, GenericFileEndpoint<File> endpoint) throws Exception {
+        }
+
+        public boolean begin(GenericFileOperations<File> operations, GenericFileEndpoint<File> endpoint,
+                             Exchange exchange, GenericFile<File> file) throws Exception {
+            return true;
+        }
+
+        public void commit(GenericFileOperations<File> operations, GenericFileEndpoint<File> endpoint,
+                           Exchange exchange, GenericFile<File> file) throws Exception {
+            commits.add("commit " + file.getFileNameOnly().replace(".txt", ""));
+        }
+
+        public void rollback(GenericFileOperations<File> operations, GenericFileEndpoint<File> endpoint,
+                             Exchange exchange, GenericFile<File> file) throws Exception {
+            commits.add("rollback " + file.getFileNameOnly().replace(".txt", ""));
+        }
+    }
+
+}
@@ -0,0 +1,109 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.file;
+
+import java.io.File;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.builder.NotifyBuilder;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+
+/**
+ * Unit test for processing the files from a poll in parallel
+ */
+public class FileConsumerParallelProcessingTest extends ContextTestSupport {
+
+    private final Set<String> threads = new CopyOnWriteArraySet<String>();
+    private final CountDownLatch latch = new CountDownLatch(3);
+
+    @Override
+    protected void setUp() throws Exception {
+        deleteDirectory("target/parallel");
+        super.setUp();
+    }
+
+    public void testParallelProcessing() throws Exception {
+        NotifyBuilder notify = new NotifyBuilder(context).whenDone(5).create();
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(5);
+        mock.expectedBodiesReceivedInAnyOrder("A", "B", "C", "D", "E");
+
+        for (String name : new String[]{"A", "B", "C", "D", "E"}) {
+            template.sendBodyAndHeader("file:target/parallel", name, Exchange.FILE_NAME, name + ".txt");
+        }
+        // the files are written before the route is started so they are all in the first poll
+        context.startRoute("parallel");
+
+        assertMockEndpointsSatisfied();
+        assertTrue("Should process files in parallel but was processed by: " + threads, threads.size() > 1);
+        assertTrue(notify.matches(5, TimeUnit.SECONDS));
+
+        // each file should have been committed by moving it
+        for (String name : new String[]{"A", "B", "C", "D", "E"}) {
+            assertTrue("File should have been moved: " + name, new File("target/parallel/.camel/" + name + ".txt").exists());
+            assertFalse("File should have been moved: " + name, new File("target/parallel/" + name + ".txt").exists());
+        }
+    }
+
+    public void testParallelProcessingFailedFileRolledBack() throws Exception {
+        NotifyBuilder notify = new NotifyBuilder(context).whenDone(5).create();
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedBodiesReceivedInAnyOrder("A", "B", "C", "D");
+
+        for (String name : new String[]{"A", "B", "C", "D", "Kaboom"}) {
+            template.sendBodyAndHeader("file:target/parallel", name, Exchange.FILE_NAME, name + ".txt");
+        }
+        context.startRoute("parallel");
+
+        assertMockEndpointsSatisfied();
+        assertTrue(notify.matches(5, TimeUnit.SECONDS));
+
+        // the failed file should be left as is
+        assertTrue(new File("target/parallel/Kaboom.txt").exists());
+        assertTrue(new File("target/parallel/.camel/A.txt").exists());
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("file:target/parallel?parallelProcessing=true&poolSize=3&initialDelay=0&delay=10").routeId("parallel").noAutoStartup()
+                    .convertBodyTo(String.class)
+                    .process(new Processor() {
+                        public void process(Exchange exchange) throws Exception {
+                            threads.add(Thread.currentThread().getName());
+                            // wait for other threads to process files at the same time
+                            latch.countDown();
+                            latch.await(5, TimeUnit.SECONDS);
+                            if ("Kaboom".equals(exchange.getIn().getBody())) {
+                                throw new IllegalArgumentException("Forced");
+                            }
+                        }
+                    })
+                    .to("mock:result");
+            }
+        };
+    }
+}
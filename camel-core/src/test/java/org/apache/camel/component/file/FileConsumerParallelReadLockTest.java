@@ -0,0 +1,90 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.file;
+
+import java.io.File;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+
+/**
+ * Unit test for the read locks when processing the files from a poll in parallel
+ */
+public class FileConsumerParallelReadLockTest extends ContextTestSupport {
+
+    private static final String[] NAMES = {"A", "B", "C", "D", "E", "F", "G", "H"};
+
+    @Override
+    protected void setUp() throws Exception {
+        deleteDirectory("target/parallellock");
+        super.setUp();
+    }
+
+    public void testMarkerFileReadLock() throws Exception {
+        doTestReadLock("markerFile");
+
+        // each file should have its own lock file deleted
+        File[] files = new File("target/parallellock/markerFile").listFiles();
+        for (File file : files) {
+            assertFalse("Lock file should be deleted: " + file, file.getName().endsWith(FileComponent.DEFAULT_LOCK_FILE_POSTFIX));
+        }
+    }
+
+    public void testFileLockReadLock() throws Exception {
+        doTestReadLock("fileLock");
+    }
+
+    private void doTestReadLock(String readLock) throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedBodiesReceivedInAnyOrder((Object[]) NAMES);
+
+        for (String name : NAMES) {
+            template.sendBodyAndHeader("file:target/parallellock/" + readLock, name, Exchange.FILE_NAME, name + ".txt");
+        }
+        context.startRoute(readLock);
+
+        assertMockEndpointsSatisfied();
+        // wait a bit for the last files to be committed
+        Thread.sleep(500);
+
+        for (String name : NAMES) {
+            assertTrue("File should have been moved: " + name, new File("target/parallellock/" + readLock + "/.camel/" + name + ".txt").exists());
+        }
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("file:target/parallellock/markerFile?readLock=markerFile&parallelProcessing=true&poolSize=4&initialDelay=0&delay=10")
+                    .routeId("markerFile").noAutoStartup()
+                    .convertBodyTo(String.class)
+                    .delay(50)
+                    .to("mock:result");
+
+                from("file:target/parallellock/fileLock?readLock=fileLock&parallelProcessing=true&poolSize=4&initialDelay=0&delay=10")
+                    .routeId("fileLock").noAutoStartup()
+                    .convertBodyTo(String.class)
+                    .delay(50)
+                    .to("mock:result");
+            }
+        };
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.file;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.impl.JndiRegistry;
+
+/**
+ * Unit test for the watch option of the file consumer.
+ * <p/>
+ * The files are written using a temp prefix so they are not consumed before they are fully written.
+ */
+public class FileConsumerWatchTest extends ContextTestSupport {
+
+    private final MyFileFilter filter = new MyFileFilter();
+    private final MyLaterFileFilter laterFilter = new MyLaterFileFilter();
+
+    @Override
+    protected JndiRegistry createRegistry() throws Exception {
+        JndiRegistry jndi = super.createRegistry();
+        jndi.bind("myFilter", filter);
+        jndi.bind("myLaterFilter", laterFilter);
+        return jndi;
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        deleteDirectory("target/watch");
+        createDirectory("target/watch/filter");
+        createDirectory("target/watch/later");
+        createDirectory("target/watch/batch");
+        createDirectory("target/watch/noop/sub");
+        super.setUp();
+    }
+
+    public void testRejectedFilesNotEvaluatedAgain() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:filter");
+        mock.expectedBodiesReceived("Hello World");
+
+        template.sendBodyAndHeader("file:target/watch/filter?tempPrefix=.inprogress", "Skip me", Exchange.FILE_NAME, "skipme.txt");
+        // make the directory timestamp old so its not listed again due to its granularity
+        File dir = new File("target/watch/filter");
+        dir.setLastModified(System.currentTimeMillis() - 10000);
+
+        Thread.sleep(500);
+        int evaluated = filter.getCount();
+        assertTrue("Should have evaluated the file", evaluated > 0);
+
+        // the directory is unchanged so the rejected file is not evaluated again
+        Thread.sleep(500);
+        assertEquals(evaluated, filter.getCount());
+
+        template.sendBodyAndHeader("file:target/watch/filter?tempPrefix=.inprogress", "Hello World", Exchange.FILE_NAME, "hello.txt");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testFilterRejectedFilesEvaluatedWhenDirectoryChanged() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:later");
+        mock.expectedBodiesReceivedInAnyOrder("Later", "Hello World");
+
+        template.sendBodyAndHeader("file:target/watch/later?tempPrefix=.inprogress", "Later", Exchange.FILE_NAME, "later.txt");
+        File dir = new File("target/watch/later");
+        dir.setLastModified(System.currentTimeMillis() - 10000);
+
+        Thread.sleep(500);
+        assertTrue("Should have evaluated the file", laterFilter.getCount() > 0);
+        assertEquals(0, mock.getReceivedCounter());
+
+        // the filter now accepts the file, which is picked up as the directory is changed
+        laterFilter.setAccept(true);
+        template.sendBodyAndHeader("file:target/watch/later?tempPrefix=.inprogress", "Hello World", Exchange.FILE_NAME, "hello.txt");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testMaxMessagesPerPoll() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:batch");
+        mock.expectedBodiesReceivedInAnyOrder("A", "B", "C", "D", "E");
+
+        template.sendBodyAndHeader("file:target/watch/batch?tempPrefix=.inprogress", "A", Exchange.FILE_NAME, "a.txt");
+        template.sendBodyAndHeader("file:target/watch/batch?tempPrefix=.inprogress", "B", Exchange.FILE_NAME, "b.txt");
+        template.sendBodyAndHeader("file:target/watch/batch?tempPrefix=.inprogress", "C", Exchange.FILE_NAME, "c.txt");
+        template.sendBodyAndHeader("file:target/watch/batch?tempPrefix=.inprogress", "D", Exchange.FILE_NAME, "d.txt");
+        template.sendBodyAndHeader("file:target/watch/batch?tempPrefix=.inprogress", "E", Exchange.FILE_NAME, "e.txt");
+
+        assertMockEndpointsSatisfied();
+        for (Exchange exchange : mock.getExchanges()) {
+            assertTrue(exchange.getProperty(Exchange.BATCH_SIZE, Integer.class) <= 2);
+        }
+    }
+
+    public void testNoopRecursiveConsumedOnce() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:noop");
+        mock.expectedBodiesReceivedInAnyOrder("Hello World", "Bye World");
+
+        template.sendBodyAndHeader("file:target/watch/noop?tempPrefix=.inprogress", "Hello World", Exchange.FILE_NAME, "hello.txt");
+        template.sendBodyAndHeader("file:target/watch/noop/sub?tempPrefix=.inprogress", "Bye World", Exchange.FILE_NAME, "bye.txt");
+
+        assertMockEndpointsSatisfied();
+
+        // should not consume the files again
+        Thread.sleep(500);
+        mock.assertIsSatisfied();
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("file:target/watch/filter?watch=true&filter=#myFilter&initialDelay=0&delay=10")
+                    .convertBodyTo(String.class).to("mock:filter");
+
+                from("file:target/watch/later?watch=true&filter=#myLaterFilter&initialDelay=0&delay=10")
+                    .convertBodyTo(String.class).to("mock:later");
+
+                from("file:target/watch/batch?watch=true&maxMessagesPerPoll=2&initialDelay=0&delay=10")
+                    .convertBodyTo(String.class).to("mock:batch");
+
+                from("file:target/watch/noop?watch=true&noop=true&recursive=true&initialDelay=0&delay=10")
+                    .convertBodyTo(String.class).to("mock:noop");
+            }
+        };
+    }
+
+    private static class MyFileFilter implements GenericFileFilter {
+        private final AtomicInteger count = new AtomicInteger();
+
+        public boolean accept(GenericFile file) {
+            count.incrementAndGet();
+            return !file.getFileNameOnly().startsWith("skip");
+        }
+
+        public int getCount() {
+            return count.get();
+        }
+    }
+
+    private static class MyLaterFileFilter implements GenericFileFilter {
+        private final AtomicInteger count = new AtomicInteger();
+        private volatile boolean accept;
+
+        public boolean accept(GenericFile file) {
+            count.incrementAndGet();
+            return accept || !file.getFileNameOnly().startsWith("later");
+        }
+
+        public int getCount() {
+            return count.get();
+        }
+
+        public void setAccept(boolean accept) {
+            this.accept = accept;
+        }
+    }
+
+}
@@ -0,0 +1,89 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.seda;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.impl.JndiRegistry;
+import org.apache.camel.util.concurrent.RingBufferBlockingQueue;
+import org.apache.camel.util.concurrent.WaitStrategy;
+
+/**
+ * @version 
+ */
+public class SedaQueueFactoryTest extends ContextTestSupport {
+
+    @Override
+    protected JndiRegistry createRegistry() throws Exception {
+        JndiRegistry jndi = super.createRegistry();
+        jndi.bind("ringBuffer", new RingBufferBlockingQueueFactory<Object>(WaitStrategy.Yield));
+        return jndi;
+    }
+
+    public void testQueueFactory() throws Exception {
+        SedaEndpoint endpoint = context.getEndpoint("seda:foo?queueFactory=#ringBuffer&size=100&drainSize=10&concurrentConsumers=2", SedaEndpoint.class);
+        RingBufferBlockingQueue<?> queue = assertIsInstanceOf(RingBufferBlockingQueue.class, endpoint.getQueue());
+        assertEquals(128, queue.getCapacity());
+        assertEquals(WaitStrategy.Yield, queue.getWaitStrategy());
+        assertEquals(10, endpoint.getDrainSize());
+
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(200);
+
+        for (int i = 0; i < 200; i++) {
+            template.sendBody("seda:foo", "Message " + i);
+        }
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testComponentQueueFactory() throws Exception {
+        SedaComponent component = new SedaComponent();
+        component.setQueueFactory(new RingBufferBlockingQueueFactory<Exchange>());
+        context.addComponent("ring", component);
+
+        SedaEndpoint endpoint = context.getEndpoint("ring:bar", SedaEndpoint.class);
+        RingBufferBlockingQueue<?> queue = assertIsInstanceOf(RingBufferBlockingQueue.class, endpoint.getQueue());
+        assertEquals(1024, queue.getCapacity());
+        assertEquals(WaitStrategy.Park, queue.getWaitStrategy());
+    }
+
+    public void testDrainSize() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:drain");
+        mock.expectedMessageCount(100);
+
+        for (int i = 0; i < 100; i++) {
+            template.sendBody("seda:drain", "Message " + i);
+        }
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("seda:foo?queueFactory=#ringBuffer&size=100&drainSize=10&concurrentConsumers=2").to("mock:result");
+
+                from("seda:drain?drainSize=25").to("mock:drain");
+            }
+        };
+    }
+}
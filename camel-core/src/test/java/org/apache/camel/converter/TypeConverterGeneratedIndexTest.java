@@ -0,0 +1,90 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.converter;
+
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.camel.TestSupport;
+import org.apache.camel.component.file.GenericFile;
+import org.apache.camel.impl.DefaultClassResolver;
+import org.apache.camel.impl.DefaultFactoryFinderResolver;
+import org.apache.camel.impl.DefaultPackageScanClassResolver;
+import org.apache.camel.impl.converter.AnnotationTypeConverterLoader;
+import org.apache.camel.impl.converter.DefaultTypeConverter;
+import org.apache.camel.util.IOHelper;
+import org.apache.camel.util.ReflectionInjector;
+
+/**
+ * Tests that the index generated by the <tt>converter-index-maven-plugin</tt> when building
+ * camel-core is loaded instead of scanning the camel-core packages.
+ *
+ * @version 
+ */
+public class TypeConverterGeneratedIndexTest extends TestSupport {
+
+    private final Set<String> scannedPackages = new HashSet<String>();
+    private final DefaultPackageScanClassResolver resolver = new DefaultPackageScanClassResolver() {
+        @Override
+        public Set<Class<?>> findAnnotated(Class<? extends Annotation> annotation, String... packageNames) {
+            for (String name : packageNames) {
+                scannedPackages.add(name);
+            }
+            return super.findAnnotated(annotation, packageNames);
+        }
+    };
+
+    public void testGeneratedIndexIsOnClasspath() throws Exception {
+        URL index = null;
+        Enumeration<URL> urls = getClass().getClassLoader().getResources(AnnotationTypeConverterLoader.META_INF_SERVICES);
+        while (urls.hasMoreElements()) {
+            URL url = new URL(urls.nextElement(), "TypeConverterIndex");
+            try {
+                InputStream is = url.openStream();
+                IOHelper.close(is);
+                index = url;
+            } catch (FileNotFoundException e) {
+                // the test TypeConverter file has no index
+            }
+        }
+        assertNotNull("The camel-core build should have generated " + AnnotationTypeConverterLoader.META_INF_SERVICES_INDEX, index);
+    }
+
+    public void testGeneratedIndexIsLoaded() throws Exception {
+        DefaultTypeConverter registry = new DefaultTypeConverter(resolver, new ReflectionInjector(),
+                new DefaultFactoryFinderResolver().resolveDefaultFactoryFinder(new DefaultClassResolver()));
+
+        new AnnotationTypeConverterLoader(resolver).load(registry);
+
+        // the packages listed only in the camel-core TypeConverter file is indexed and should not be scanned
+        assertFalse("Should not scan " + scannedPackages, scannedPackages.contains("org.apache.camel.component.bean"));
+        assertFalse("Should not scan " + scannedPackages, scannedPackages.contains("org.apache.camel.component.file"));
+        // the test converters is listed by class name so their package should not be scanned either
+        assertTrue("Should not scan " + scannedPackages, scannedPackages.isEmpty());
+
+        // but the converters from the index should be loaded
+        assertNotNull(registry.lookup(InputStream.class, GenericFile.class));
+        assertNotNull(registry.lookup(Integer.class, String.class));
+        assertNotNull(registry.lookup(PurchaseOrder.class, byte[].class));
+    }
+
+}
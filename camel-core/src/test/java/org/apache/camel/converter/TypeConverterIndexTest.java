@@ -0,0 +1,131 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.converter;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.camel.TestSupport;
+import org.apache.camel.impl.DefaultClassResolver;
+import org.apache.camel.impl.DefaultFactoryFinderResolver;
+import org.apache.camel.impl.DefaultPackageScanClassResolver;
+import org.apache.camel.impl.converter.AnnotationTypeConverterLoader;
+import org.apache.camel.impl.converter.DefaultTypeConverter;
+import org.apache.camel.util.ReflectionInjector;
+
+/**
+ * @version 
+ */
+public class TypeConverterIndexTest extends TestSupport {
+
+    private final Set<String> scannedPackages = new HashSet<String>();
+    private final DefaultPackageScanClassResolver resolver = new DefaultPackageScanClassResolver() {
+        @Override
+        public Set<Class<?>> findAnnotated(Class<? extends Annotation> annotation, String... packageNames) {
+            for (String name : packageNames) {
+                scannedPackages.add(name);
+            }
+            return super.findAnnotated(annotation, packageNames);
+        }
+    };
+    private DefaultTypeConverter registry;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        deleteDirectory("target/converterindex");
+        registry = new DefaultTypeConverter(resolver, new ReflectionInjector(),
+                new DefaultFactoryFinderResolver().resolveDefaultFactoryFinder(new DefaultClassResolver()));
+    }
+
+    public void testIndexedConvertersAreNotScanned() throws Exception {
+        File dir = new File("target/converterindex/indexed");
+        write(dir, "TypeConverter", "org.apache.camel.converter.myindexed");
+        write(dir, "TypeConverterIndex", "# generated\n" + PurchaseOrderConverter.class.getName());
+
+        createLoader(dir).load(registry);
+
+        assertTrue("Should not scan packages", scannedPackages.isEmpty());
+        assertNotNull(registry.lookup(PurchaseOrder.class, byte[].class));
+    }
+
+    public void testConverterClassesAreNotScanned() throws Exception {
+        File dir = new File("target/converterindex/classes");
+        write(dir, "TypeConverter", PurchaseOrderConverter.class.getName() + ", org.apache.camel.converter.stream");
+
+        createLoader(dir).load(registry);
+
+        assertEquals("Should only scan the package", 1, scannedPackages.size());
+        assertTrue(scannedPackages.contains("org.apache.camel.converter.stream"));
+        assertNotNull(registry.lookup(PurchaseOrder.class, byte[].class));
+    }
+
+    public void testScanWhenNoIndex() throws Exception {
+        File dir = new File("target/converterindex/scanned");
+        write(dir, "TypeConverter", "org.apache.camel.converter.stream");
+
+        createLoader(dir).load(registry);
+
+        assertTrue(scannedPackages.contains("org.apache.camel.converter.stream"));
+        assertNull(registry.lookup(PurchaseOrder.class, byte[].class));
+    }
+
+    public void testScanWhenIndexedClassNotFound() throws Exception {
+        File dir = new File("target/converterindex/invalid");
+        write(dir, "TypeConverter", "org.apache.camel.converter.stream");
+        write(dir, "TypeConverterIndex", "org.apache.camel.converter.DoesNotExistConverter");
+
+        createLoader(dir).load(registry);
+
+        assertTrue(scannedPackages.contains("org.apache.camel.converter.stream"));
+    }
+
+    private AnnotationTypeConverterLoader createLoader(File dir) throws Exception {
+        final ClassLoader classLoader = new URLClassLoader(new URL[]{dir.toURI().toURL()}, null) {
+            @Override
+            protected Class<?> findClass(String name) throws ClassNotFoundException {
+                return TypeConverterIndexTest.class.getClassLoader().loadClass(name);
+            }
+        };
+        return new AnnotationTypeConverterLoader(resolver) {
+            @Override
+            protected String[] findPackageNames() throws IOException, URISyntaxException {
+                Set<String> packages = new HashSet<String>();
+                findPackages(packages, classLoader);
+                return packages.toArray(new String[packages.size()]);
+            }
+        };
+    }
+
+    private static void write(File dir, String name, String text) throws IOException {
+        File file = new File(dir, "META-INF/services/org/apache/camel/" + name);
+        file.getParentFile().mkdirs();
+        FileWriter writer = new FileWriter(file);
+        try {
+            writer.write(text);
+        } finally {
+            writer.close();
+        }
+    }
+}
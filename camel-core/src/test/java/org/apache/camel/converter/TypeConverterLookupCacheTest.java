@@ -0,0 +1,184 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.converter;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.TypeConverter;
+import org.apache.camel.impl.converter.BaseTypeConverterRegistry;
+
+/**
+ * @version 
+ */
+public class TypeConverterLookupCacheTest extends ContextTestSupport {
+
+    public void testLookupCache() throws Exception {
+        BaseTypeConverterRegistry registry = (BaseTypeConverterRegistry) context.getTypeConverterRegistry();
+        registry.setStatisticsEnabled(true);
+        registry.resetCacheStatistics();
+
+        assertEquals(Integer.valueOf(123), context.getTypeConverter().convertTo(Integer.class, "123"));
+        assertEquals(1, registry.getCacheMisses());
+        assertEquals(0, registry.getCacheHits());
+
+        assertEquals(Integer.valueOf(456), context.getTypeConverter().convertTo(Integer.class, "456"));
+        assertEquals(Integer.valueOf(789), context.getTypeConverter().convertTo(Integer.class, "789"));
+        assertEquals(1, registry.getCacheMisses());
+        assertEquals(2, registry.getCacheHits());
+    }
+
+    public void testStatisticsDisabledByDefault() throws Exception {
+        BaseTypeConverterRegistry registry = (BaseTypeConverterRegistry) context.getTypeConverterRegistry();
+        assertFalse(registry.isStatisticsEnabled());
+        registry.resetCacheStatistics();
+
+        assertEquals(Integer.valueOf(123), context.getTypeConverter().convertTo(Integer.class, "123"));
+        assertEquals(0, registry.getCacheMisses());
+        assertEquals(0, registry.getCacheHits());
+    }
+
+    public void testLookupCacheMiss() throws Exception {
+        BaseTypeConverterRegistry registry = (BaseTypeConverterRegistry) context.getTypeConverterRegistry();
+        registry.setStatisticsEnabled(true);
+        registry.resetCacheStatistics();
+
+        assertNull(context.getTypeConverter().convertTo(MyBean.class, Boolean.TRUE));
+        assertNull(context.getTypeConverter().convertTo(MyBean.class, Boolean.FALSE));
+        assertEquals(1, registry.getCacheMisses());
+        assertEquals(1, registry.getCacheHits());
+    }
+
+    public void testLookupCacheFallback() throws Exception {
+        BaseTypeConverterRegistry registry = (BaseTypeConverterRegistry) context.getTypeConverterRegistry();
+        registry.setStatisticsEnabled(true);
+        registry.resetCacheStatistics();
+
+        // uses the toString fallback converter which cannot be promoted
+        MyBean bean = new MyBean();
+        assertEquals(bean.toString(), context.getTypeConverter().convertTo(String.class, bean));
+        bean = new MyBean();
+        assertEquals(bean.toString(), context.getTypeConverter().convertTo(String.class, bean));
+        assertEquals(1, registry.getCacheMisses());
+        assertEquals(1, registry.getCacheHits());
+    }
+
+    public void testLookupCacheClearedWhenAddingTypeConverter() throws Exception {
+        BaseTypeConverterRegistry registry = (BaseTypeConverterRegistry) context.getTypeConverterRegistry();
+
+        assertNull(context.getTypeConverter().convertTo(MyBean.class, Boolean.TRUE));
+        assertTrue(registry.getCacheSize() > 0);
+
+        context.getTypeConverterRegistry().addTypeConverter(MyBean.class, Boolean.class, new TypeConverter() {
+            public <T> T convertTo(Class<T> type, Object value) {
+                return type.cast(new MyBean());
+            }
+
+            public <T> T convertTo(Class<T> type, org.apache.camel.Exchange exchange, Object value) {
+                return convertTo(type, value);
+            }
+
+            public <T> T mandatoryConvertTo(Class<T> type, Object value) {
+                return convertTo(type, value);
+            }
+
+            public <T> T mandatoryConvertTo(Class<T> type, org.apache.camel.Exchange exchange, Object value) {
+                return convertTo(type, value);
+            }
+        });
+
+        assertNotNull(context.getTypeConverter().convertTo(MyBean.class, Boolean.TRUE));
+    }
+
+    public void testLookupCacheKeptWhenAddingOtherTypeConverter() throws Exception {
+        BaseTypeConverterRegistry registry = (BaseTypeConverterRegistry) context.getTypeConverterRegistry();
+
+        assertEquals(Integer.valueOf(123), context.getTypeConverter().convertTo(Integer.class, "123"));
+        assertNull(context.getTypeConverter().convertTo(MyBean.class, Boolean.TRUE));
+        int size = registry.getCacheSize();
+
+        // only the lookup from boolean to the bean is affected
+        context.getTypeConverterRegistry().addTypeConverter(MyBean.class, Boolean.class, new MyConverter("bean"));
+        assertEquals(size - 1, registry.getCacheSize());
+
+        registry.setStatisticsEnabled(true);
+        registry.resetCacheStatistics();
+        assertEquals(Integer.valueOf(456), context.getTypeConverter().convertTo(Integer.class, "456"));
+        assertEquals(1, registry.getCacheHits());
+        assertEquals(0, registry.getCacheMisses());
+    }
+
+    public void testLookupCacheKeptWhenAddingFallbackConverter() throws Exception {
+        BaseTypeConverterRegistry registry = (BaseTypeConverterRegistry) context.getTypeConverterRegistry();
+
+        assertEquals(Integer.valueOf(123), context.getTypeConverter().convertTo(Integer.class, "123"));
+        assertNull(context.getTypeConverter().convertTo(MyBean.class, Boolean.TRUE));
+        int size = registry.getCacheSize();
+
+        // only the miss is affected as the fallback converter may be able to convert it
+        context.getTypeConverterRegistry().addFallbackTypeConverter(new MyConverter("bean"), false);
+        assertEquals(size - 1, registry.getCacheSize());
+        assertNotNull(context.getTypeConverter().convertTo(MyBean.class, Boolean.TRUE));
+    }
+
+    public void testFallbackConvertersTriedInOrder() throws Exception {
+        // the last added fallback converter is tried first and can only convert some of the values
+        context.getTypeConverterRegistry().addFallbackTypeConverter(new MyConverter("any"), false);
+        context.getTypeConverterRegistry().addFallbackTypeConverter(new MyConverter("b", "b"), false);
+
+        assertEquals("any", context.getTypeConverter().convertTo(MyBean.class, new StringBuilder("a1")).getBar());
+        assertEquals("b", context.getTypeConverter().convertTo(MyBean.class, new StringBuilder("b1")).getBar());
+        assertEquals("any", context.getTypeConverter().convertTo(MyBean.class, new StringBuilder("a2")).getBar());
+        assertEquals("b", context.getTypeConverter().convertTo(MyBean.class, new StringBuilder("b2")).getBar());
+    }
+
+    /**
+     * Converts values starting with the prefix to a {@link MyBean} with the given name as bar.
+     */
+    private static final class MyConverter implements TypeConverter {
+        private final String name;
+        private final String prefix;
+
+        private MyConverter(String name) {
+            this(name, "");
+        }
+
+        private MyConverter(String name, String prefix) {
+            this.name = name;
+            this.prefix = prefix;
+        }
+
+        public <T> T convertTo(Class<T> type, Object value) {
+            if (type != MyBean.class || !value.toString().startsWith(prefix)) {
+                return null;
+            }
+            return type.cast(new MyBean(0, name));
+        }
+
+        public <T> T convertTo(Class<T> type, Exchange exchange, Object value) {
+            return convertTo(type, value);
+        }
+
+        public <T> T mandatoryConvertTo(Class<T> type, Object value) {
+            return convertTo(type, value);
+        }
+
+        public <T> T mandatoryConvertTo(Class<T> type, Exchange exchange, Object value) {
+            return convertTo(type, value);
+        }
+    }
+
+}
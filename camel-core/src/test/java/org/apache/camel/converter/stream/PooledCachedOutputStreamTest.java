@@ -0,0 +1,274 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.converter.stream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.StreamCache;
+import org.apache.camel.converter.IOConverter;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.impl.DefaultUnitOfWork;
+import org.apache.camel.impl.JndiRegistry;
+
+/**
+ * @version 
+ */
+public class PooledCachedOutputStreamTest extends ContextTestSupport {
+    private static final String TEST_STRING = "This is a test string and it has enough"
+        + " aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa ";
+
+    private StreamCachePool pool;
+
+    @Override
+    protected void setUp() throws Exception {
+        pool = new StreamCachePool(256);
+        pool.setChunkSize(16);
+        super.setUp();
+
+        context.getProperties().put(CachedOutputStream.TEMP_DIR, "./target/cachedir");
+        context.getProperties().put(CachedOutputStream.THRESHOLD, "1024");
+        context.getProperties().put(CachedOutputStream.POOL, "myPool");
+        deleteDirectory("./target/cachedir");
+        createDirectory("./target/cachedir");
+    }
+
+    @Override
+    protected JndiRegistry createRegistry() throws Exception {
+        JndiRegistry jndi = super.createRegistry();
+        jndi.bind("myPool", pool);
+        return jndi;
+    }
+
+    private Exchange createExchange() {
+        Exchange exchange = new DefaultExchange(context);
+        exchange.setUnitOfWork(new DefaultUnitOfWork(exchange));
+        return exchange;
+    }
+
+    private static String[] tempFiles() {
+        return new File("./target/cachedir").list();
+    }
+
+    public void testCacheStreamInMemory() throws IOException {
+        Exchange exchange = createExchange();
+        CachedOutputStream cos = new CachedOutputStream(exchange);
+        cos.write(TEST_STRING.getBytes("UTF-8"));
+
+        assertEquals("we should have no temp file", 0, tempFiles().length);
+        assertEquals(128, pool.getUsedMemory());
+
+        StreamCache cache = cos.getStreamCache();
+        assertTrue("Should get the ByteBufferInputStreamCache", cache instanceof ByteBufferInputStreamCache);
+        assertEquals(TEST_STRING, IOConverter.toString((InputStream) cache, null));
+        cache.reset();
+        assertEquals(TEST_STRING, IOConverter.toString((InputStream) cache, null));
+
+        exchange.getUnitOfWork().done(exchange);
+        assertEquals(0, pool.getUsedMemory());
+        assertEquals(8, pool.getPooledBuffers());
+        assertEquals(0, pool.getSpillCount());
+
+        cache.reset();
+        try {
+            ((InputStream) cache).read();
+            fail("Should have thrown exception");
+        } catch (IOException e) {
+            // expected as the buffers has been released
+        }
+    }
+
+    public void testNotClosedOnCompletionUsesHeap() throws IOException {
+        Exchange exchange = createExchange();
+        CachedOutputStream cos = new CachedOutputStream(exchange, false);
+        cos.write(TEST_STRING.getBytes("UTF-8"));
+
+        // the pool is not used as the stream may never be closed
+        assertEquals(0, pool.getUsedMemory());
+
+        StreamCache cache = cos.getStreamCache();
+        assertTrue("Should get the InputStreamCache", cache instanceof InputStreamCache);
+        assertEquals(TEST_STRING, IOConverter.toString((InputStream) cache, null));
+
+        exchange.getUnitOfWork().done(exchange);
+        assertEquals(0, pool.getUsedMemory());
+        assertEquals(0, pool.getPooledBuffers());
+        cos.close();
+    }
+
+    public void testSpillWhenMemoryBudgetUsedUp() throws IOException {
+        pool.setMemoryBudget(64);
+
+        Exchange exchange = createExchange();
+        CachedOutputStream cos = new CachedOutputStream(exchange);
+        byte[] data = TEST_STRING.getBytes("UTF-8");
+        cos.write(data);
+
+        assertEquals("we should have a temp file", 1, tempFiles().length);
+        assertEquals("The buffers should be released when spilled", 0, pool.getUsedMemory());
+        assertEquals(1, pool.getSpillCount());
+        assertEquals(1, pool.getBudgetExhaustedCount());
+
+        StreamCache cache = cos.getStreamCache();
+        assertTrue("Should get the FileInputStreamCache", cache instanceof FileInputStreamCache);
+        assertEquals(TEST_STRING, IOConverter.toString((InputStream) cache, null));
+        assertEquals(data.length, pool.getSpilledBytes());
+
+        exchange.getUnitOfWork().done(exchange);
+        assertEquals("we should have no temp file", 0, tempFiles().length);
+    }
+
+    public void testSpillWhenThresholdExceeded() throws IOException {
+        context.getProperties().put(CachedOutputStream.THRESHOLD, "50");
+
+        Exchange exchange = createExchange();
+        CachedOutputStream cos = new CachedOutputStream(exchange);
+        byte[] data = TEST_STRING.getBytes("UTF-8");
+        cos.write(data, 0, 40);
+        assertEquals("we should have no temp file", 0, tempFiles().length);
+
+        cos.write(data, 40, data.length - 40);
+        assertEquals("we should have a temp file", 1, tempFiles().length);
+        assertEquals(0, pool.getBudgetExhaustedCount());
+
+        StreamCache cache = cos.getStreamCache();
+        assertEquals(TEST_STRING, IOConverter.toString((InputStream) cache, null));
+
+        exchange.getUnitOfWork().done(exchange);
+        assertEquals("we should have no temp file", 0, tempFiles().length);
+    }
+
+    public void testDefaultThresholdNotUsedWithPool() throws IOException {
+        context.getProperties().remove(CachedOutputStream.THRESHOLD);
+        pool.setChunkSize(16 * 1024);
+        pool.setMemoryBudget(256 * 1024);
+
+        Exchange exchange = createExchange();
+        CachedOutputStream cos = new CachedOutputStream(exchange);
+        byte[] data = new byte[128 * 1024];
+        cos.write(data);
+
+        assertEquals("we should have no temp file", 0, tempFiles().length);
+        assertEquals(0, pool.getSpillCount());
+        assertEquals(data.length, pool.getUsedMemory());
+
+        exchange.getUnitOfWork().done(exchange);
+        assertEquals(0, pool.getUsedMemory());
+    }
+
+    public void testReadStreamCacheAfterSpill() throws IOException {
+        pool.setMemoryBudget(64);
+        byte[] data = TEST_STRING.getBytes("UTF-8");
+
+        Exchange exchange = createExchange();
+        CachedOutputStream cos = new CachedOutputStream(exchange);
+        cos.write(data, 0, 32);
+        StreamCache cache = cos.getStreamCache();
+
+        // spill to the file while the stream cache is still reading the buffers
+        cos.write(data, 32, data.length - 32);
+        assertEquals("we should have a temp file", 1, tempFiles().length);
+        assertEquals("The buffers should be kept as they are being read", 32, pool.getUsedMemory());
+
+        // use the rest of the memory budget so free buffers would be reused
+        Exchange other = createExchange();
+        CachedOutputStream cos2 = new CachedOutputStream(other);
+        byte[] garbage = new byte[32];
+        Arrays.fill(garbage, (byte) 'x');
+        cos2.write(garbage);
+        assertEquals(64, pool.getUsedMemory());
+
+        assertEquals(TEST_STRING.substring(0, 32), IOConverter.toString((InputStream) cache, null));
+        assertEquals(TEST_STRING, IOConverter.toString(cos.getInputStream(), null));
+
+        exchange.getUnitOfWork().done(exchange);
+        other.getUnitOfWork().done(other);
+        assertEquals(0, pool.getUsedMemory());
+        assertEquals(0, tempFiles().length);
+    }
+
+    public void testWriteAfterSpill() throws IOException {
+        pool.setMemoryBudget(32);
+
+        Exchange exchange = createExchange();
+        CachedOutputStream cos = new CachedOutputStream(exchange);
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            String s = "Line " + i + "\n";
+            if (i % 2 == 0) {
+                cos.write(s.getBytes("UTF-8"));
+            } else {
+                for (byte b : s.getBytes("UTF-8")) {
+                    cos.write(b);
+                }
+            }
+            expected.append(s);
+
+            if (i == 50) {
+                // read the stream in the middle which reads the file
+                assertEquals(expected.toString(), IOConverter.toString(cos.getInputStream(), null));
+            }
+        }
+
+        StreamCache cache = cos.getStreamCache();
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        cache.writeTo(bos);
+        assertEquals(expected.toString(), bos.toString("UTF-8"));
+        assertEquals(expected.length(), pool.getSpilledBytes());
+
+        exchange.getUnitOfWork().done(exchange);
+    }
+
+    public void testMemoryBudgetSharedByExchanges() throws IOException {
+        pool.setMemoryBudget(128);
+        byte[] data = TEST_STRING.getBytes("UTF-8");
+
+        Exchange exchange1 = createExchange();
+        CachedOutputStream cos1 = new CachedOutputStream(exchange1);
+        cos1.write(data);
+        assertEquals(0, tempFiles().length);
+
+        // no more memory so this one is spilled
+        Exchange exchange2 = createExchange();
+        CachedOutputStream cos2 = new CachedOutputStream(exchange2);
+        cos2.write(data);
+        assertEquals(1, tempFiles().length);
+        assertEquals(1, pool.getSpillCount());
+
+        // and when the first is done the memory can be reused
+        exchange1.getUnitOfWork().done(exchange1);
+        Exchange exchange3 = createExchange();
+        CachedOutputStream cos3 = new CachedOutputStream(exchange3);
+        cos3.write(data);
+        assertEquals(1, pool.getSpillCount());
+        assertEquals(128, pool.getPeakUsedMemory());
+
+        assertEquals(TEST_STRING, IOConverter.toString(cos2.getInputStream(), null));
+        assertEquals(TEST_STRING, IOConverter.toString(cos3.getInputStream(), null));
+
+        exchange2.getUnitOfWork().done(exchange2);
+        exchange3.getUnitOfWork().done(exchange3);
+        assertEquals(0, tempFiles().length);
+        assertEquals(0, pool.getUsedMemory());
+    }
+
+}
@@ -0,0 +1,183 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.converter.jaxp.BytesSource;
+import org.apache.camel.spi.ExchangeCodec;
+import org.apache.camel.spi.ObjectInputStreamFactory;
+
+/**
+ * @version 
+ */
+public class BinaryExchangeCodecTest extends ContextTestSupport {
+
+    private ExchangeCodec codec = new BinaryExchangeCodec();
+
+    public void testRoundTrip() throws Exception {
+        Date date = new Date();
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setBody("Hello World");
+        exchange.getIn().setHeader("string", "foo");
+        exchange.getIn().setHeader("int", 123);
+        exchange.getIn().setHeader("long", 456L);
+        exchange.getIn().setHeader("double", 1.5d);
+        exchange.getIn().setHeader("boolean", true);
+        exchange.getIn().setHeader("char", 'c');
+        exchange.getIn().setHeader("date", date);
+        exchange.getIn().setHeader("bigDecimal", new BigDecimal("12.34"));
+        exchange.getIn().setHeader("bytes", new byte[]{1, 2, 3});
+        exchange.getOut().setBody(new BytesSource("Bye World".getBytes()));
+        exchange.getOut().setHeader("reply", "bar");
+        exchange.getOut().setFault(true);
+        exchange.setProperty("property", "baz");
+        exchange.setException(new IllegalArgumentException("Damn"));
+
+        Exchange copy = roundTrip(exchange);
+
+        assertEquals(exchange.getExchangeId(), copy.getExchangeId());
+        assertEquals("Hello World", copy.getIn().getBody());
+        assertEquals("foo", copy.getIn().getHeader("string"));
+        assertEquals(123, copy.getIn().getHeader("int"));
+        assertEquals(456L, copy.getIn().getHeader("long"));
+        assertEquals(1.5d, copy.getIn().getHeader("double"));
+        assertEquals(Boolean.TRUE, copy.getIn().getHeader("boolean"));
+        assertEquals('c', copy.getIn().getHeader("char"));
+        assertEquals(date, copy.getIn().getHeader("date"));
+        assertEquals(new BigDecimal("12.34"), copy.getIn().getHeader("bigDecimal"));
+        assertEquals(3, copy.getIn().getHeader("bytes", byte[].class).length);
+
+        BytesSource out = copy.getOut().getBody(BytesSource.class);
+        assertEquals("Bye World", new String(out.getData()));
+        assertEquals("bar", copy.getOut().getHeader("reply"));
+        assertTrue(copy.getOut().isFault());
+        assertEquals("baz", copy.getProperty("property"));
+
+        assertIsInstanceOf(IllegalArgumentException.class, copy.getException());
+        assertEquals("Damn", copy.getException().getMessage());
+    }
+
+    public void testEmptyExchange() throws Exception {
+        Exchange exchange = new DefaultExchange(context);
+
+        Exchange copy = roundTrip(exchange);
+        assertEquals(exchange.getExchangeId(), copy.getExchangeId());
+        assertNull(copy.getIn().getBody());
+        assertFalse(copy.getIn().hasHeaders());
+        assertFalse(copy.hasOut());
+        assertNull(copy.getException());
+    }
+
+    public void testSmallerThanSerialization() throws Exception {
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setBody("Hello World");
+        exchange.getIn().setHeader("foo", 123);
+        exchange.getIn().setHeader("bar", "Camel");
+        DefaultExchangeHolder holder = DefaultExchangeHolder.marshal(exchange);
+
+        ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        codec.encode(holder, binary);
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        new SerializationExchangeCodec().encode(holder, serialized);
+
+        assertTrue("Binary size " + binary.size() + " should be smaller than serialized size " + serialized.size(),
+                binary.size() < serialized.size());
+    }
+
+    public void testDecodeSerialized() throws Exception {
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setBody("Hello World");
+        exchange.getIn().setHeader("foo", 123);
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        new SerializationExchangeCodec().encode(DefaultExchangeHolder.marshal(exchange), bos);
+
+        // the binary codec should be able to decode data encoded using serialization
+        DefaultExchangeHolder holder = codec.decode(new ByteArrayInputStream(bos.toByteArray()));
+        Exchange copy = new DefaultExchange(context);
+        DefaultExchangeHolder.unmarshal(copy, holder);
+        assertEquals("Hello World", copy.getIn().getBody());
+        assertEquals(123, copy.getIn().getHeader("foo"));
+    }
+
+    public void testObjectInputStreamFactory() throws Exception {
+        final AtomicInteger created = new AtomicInteger();
+        BinaryExchangeCodec binary = new BinaryExchangeCodec();
+        binary.setObjectInputStreamFactory(new ObjectInputStreamFactory() {
+            public ObjectInputStream createObjectInputStream(InputStream stream) throws IOException {
+                created.incrementAndGet();
+                return new ObjectInputStream(stream);
+            }
+        });
+        codec = binary;
+
+        // big decimal is not written directly so it falls back to serialization
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setBody(new BigDecimal("12.34"));
+        Exchange copy = roundTrip(exchange);
+        assertEquals(new BigDecimal("12.34"), copy.getIn().getBody());
+        assertEquals(1, created.get());
+
+        // and data encoded using serialization is read using the factory as well
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        new SerializationExchangeCodec().encode(DefaultExchangeHolder.marshal(exchange), bos);
+        codec.decode(new ByteArrayInputStream(bos.toByteArray()));
+        assertEquals(2, created.get());
+    }
+
+    public void testDecodeUnknownData() throws Exception {
+        try {
+            codec.decode(new ByteArrayInputStream("Hello World".getBytes()));
+            fail("Should have thrown exception");
+        } catch (IOException e) {
+            // expected
+        }
+
+        // a newer version of the format is not supported
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        codec.encode(DefaultExchangeHolder.marshal(new DefaultExchange(context)), bos);
+        byte[] data = bos.toByteArray();
+        data[2] = (byte) (BinaryExchangeCodec.VERSION + 1);
+        try {
+            codec.decode(new ByteArrayInputStream(data));
+            fail("Should have thrown exception");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("version"));
+        }
+    }
+
+    private Exchange roundTrip(Exchange exchange) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        codec.encode(DefaultExchangeHolder.marshal(exchange), bos);
+
+        DefaultExchangeHolder holder = codec.decode(new ByteArrayInputStream(bos.toByteArray()));
+        Exchange answer = new DefaultExchange(context);
+        DefaultExchangeHolder.unmarshal(answer, holder);
+        return answer;
+    }
+
+}
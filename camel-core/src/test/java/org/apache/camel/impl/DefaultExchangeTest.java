@@ -19,6 +19,7 @@ package org.apache.camel.impl;
 import java.io.IOException;
 import java.net.ConnectException;
 
+import org.apache.camel.Exchange;
 import org.apache.camel.ExchangeTestSupport;
 import org.apache.camel.InvalidPayloadException;
 import org.apache.camel.RuntimeCamelException;
@@ -112,6 +113,29 @@ public class DefaultExchangeTest extends ExchangeTestSupport {
         assertEquals("banana", exchange.getProperty("beer", "banana", String.class));
     }
 
+    public void testCopyProperties() throws Exception {
+        exchange.setProperty("fruit", "apple");
+        exchange.setProperty("beer", "Carlsberg");
+
+        Exchange copy = exchange.copy();
+        assertEquals("apple", copy.getProperty("fruit"));
+        assertEquals("Carlsberg", copy.getProperty("beer"));
+
+        // changing the copy should not affect the original
+        copy.setProperty("fruit", "banana");
+        copy.removeProperty("beer");
+        assertEquals("banana", copy.getProperty("fruit"));
+        assertNull(copy.getProperty("beer"));
+        assertEquals("apple", exchange.getProperty("fruit"));
+        assertEquals("Carlsberg", exchange.getProperty("beer"));
+
+        // and changing the original should not affect another copy
+        Exchange copy2 = exchange.copy();
+        exchange.setProperty("fruit", "orange");
+        assertEquals("apple", copy2.getProperty("fruit"));
+        assertEquals("banana", copy.getProperty("fruit"));
+    }
+
     public void testInType() throws Exception {
         exchange.setIn(new MyMessage());
 
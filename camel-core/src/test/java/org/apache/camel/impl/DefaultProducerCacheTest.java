@@ -16,8 +16,15 @@
  */
 package org.apache.camel.impl;
 
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.AsyncProcessor;
+import org.apache.camel.AsyncProducerCallback;
 import org.apache.camel.ContextTestSupport;
 import org.apache.camel.Endpoint;
+import org.apache.camel.Exchange;
+import org.apache.camel.ExchangePattern;
 import org.apache.camel.Producer;
 
 /**
@@ -39,6 +46,76 @@ public class DefaultProducerCacheTest extends ContextTestSupport {
         }
 
         assertEquals("Size should be 1000", 1000, cache.size());
+        assertEquals(3, cache.getEvictions());
+        assertEquals(1003, cache.getMisses());
+        cache.stop();
+    }
+
+    public void testEvictedProducerStopped() throws Exception {
+        ProducerCache cache = new ProducerCache(this, context, 1);
+        cache.start();
+
+        Endpoint a = context.getEndpoint("mock:a");
+        Endpoint b = context.getEndpoint("mock:b");
+
+        Producer producerA = cache.acquireProducer(a);
+        cache.releaseProducer(a, producerA);
+
+        // a is evicted and stopped when adding b
+        Producer producerB = cache.acquireProducer(b);
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertTrue("Evicted producer should be stopped", ((ServiceSupport) producerA).isStopped());
+
+        // b is being used while evicted so it is not stopped until released
+        Producer newA = cache.acquireProducer(a);
+        assertNotSame(producerA, newA);
+        assertEquals(2, cache.getEvictions());
+        assertTrue("Producer in use should not be stopped", ((ServiceSupport) producerB).isStarted());
+
+        cache.releaseProducer(b, producerB);
+        assertTrue("Evicted producer should be stopped when released", ((ServiceSupport) producerB).isStopped());
+
+        cache.releaseProducer(a, newA);
+        cache.stop();
+    }
+
+    public void testEvictedAsyncProducerNotStoppedWhileInFlight() throws Exception {
+        ProducerCache cache = new ProducerCache(this, context, 1);
+        cache.start();
+
+        final AtomicReference<Producer> producer = new AtomicReference<Producer>();
+        final AtomicReference<AsyncCallback> pending = new AtomicReference<AsyncCallback>();
+        final AtomicReference<Boolean> done = new AtomicReference<Boolean>();
+
+        Endpoint a = context.getEndpoint("mock:a");
+        Exchange exchange = a.createExchange();
+        boolean sync = cache.doInAsyncProducer(a, exchange, null, new AsyncCallback() {
+            public void done(boolean doneSync) {
+                done.set(doneSync);
+            }
+        }, new AsyncProducerCallback() {
+            public boolean doInAsyncProducer(Producer p, AsyncProcessor asyncProducer, Exchange exchange,
+                                             ExchangePattern exchangePattern, AsyncCallback callback) {
+                // continue asynchronously
+                producer.set(p);
+                pending.set(callback);
+                return false;
+            }
+        });
+        assertFalse(sync);
+
+        // a is evicted when adding b, but is still in flight so must not be stopped
+        Endpoint b = context.getEndpoint("mock:b");
+        cache.releaseProducer(b, cache.acquireProducer(b));
+        assertEquals(1, cache.getEvictions());
+        assertTrue("In flight producer should not be stopped", ((ServiceSupport) producer.get()).isStarted());
+
+        // complete the exchange which releases the producer
+        pending.get().done(false);
+        assertEquals(Boolean.FALSE, done.get());
+        assertTrue("Evicted producer should be stopped when done", ((ServiceSupport) producer.get()).isStopped());
+
         cache.stop();
     }
 
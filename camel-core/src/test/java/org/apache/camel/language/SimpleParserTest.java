@@ -0,0 +1,184 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.language;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.camel.Expression;
+import org.apache.camel.LanguageTestSupport;
+import org.apache.camel.Predicate;
+import org.apache.camel.impl.JndiRegistry;
+import org.apache.camel.language.simple.BinaryNode;
+import org.apache.camel.language.simple.CompositeNode;
+import org.apache.camel.language.simple.FunctionNode;
+import org.apache.camel.language.simple.LiteralNode;
+import org.apache.camel.language.simple.LogicalNode;
+import org.apache.camel.language.simple.SimpleExpressionParser;
+import org.apache.camel.language.simple.SimpleLanguage;
+import org.apache.camel.language.simple.SimpleLanguageOperator;
+import org.apache.camel.language.simple.SimpleNode;
+
+/**
+ * @version 
+ */
+public class SimpleParserTest extends LanguageTestSupport {
+
+    private final List<String> invoked = new ArrayList<String>();
+
+    @Override
+    protected JndiRegistry createRegistry() throws Exception {
+        JndiRegistry jndi = super.createRegistry();
+        jndi.bind("counter", new Counter());
+        return jndi;
+    }
+
+    public void testParseFunction() throws Exception {
+        SimpleNode node = new SimpleExpressionParser("body").parse();
+        assertIsInstanceOf(FunctionNode.class, node);
+        assertFalse(((FunctionNode) node).isStrict());
+    }
+
+    public void testParseTemplate() throws Exception {
+        SimpleNode node = new SimpleExpressionParser("Hello ${in.header.foo} and $simple{body}!").parse();
+        CompositeNode composite = assertIsInstanceOf(CompositeNode.class, node);
+        assertEquals(5, composite.getChildren().size());
+        assertEquals("Hello ", assertIsInstanceOf(LiteralNode.class, composite.getChildren().get(0)).getText());
+        assertEquals("in.header.foo", assertIsInstanceOf(FunctionNode.class, composite.getChildren().get(1)).getFunction());
+        assertEquals(" and ", assertIsInstanceOf(LiteralNode.class, composite.getChildren().get(2)).getText());
+        assertEquals("body", assertIsInstanceOf(FunctionNode.class, composite.getChildren().get(3)).getFunction());
+        assertEquals("!", assertIsInstanceOf(LiteralNode.class, composite.getChildren().get(4)).getText());
+    }
+
+    public void testParseBinary() throws Exception {
+        SimpleNode node = new SimpleExpressionParser("${in.header.foo} not contains 'Hello World'").parse();
+        BinaryNode binary = assertIsInstanceOf(BinaryNode.class, node);
+        assertEquals("in.header.foo", binary.getLeft().getFunction());
+        assertEquals(SimpleLanguageOperator.NOT_CONTAINS, binary.getOperator());
+        assertEquals("'Hello World'", binary.getRightText());
+    }
+
+    public void testParseLogical() throws Exception {
+        SimpleNode node = new SimpleExpressionParser("${in.header.foo} == abc and ${in.header.bar} > 100 or ${body} == null").parse();
+        LogicalNode or = assertIsInstanceOf(LogicalNode.class, node);
+        assertEquals(SimpleLanguageOperator.OR, or.getOperator());
+        assertIsInstanceOf(BinaryNode.class, or.getRight());
+
+        LogicalNode and = assertIsInstanceOf(LogicalNode.class, or.getLeft());
+        assertEquals(SimpleLanguageOperator.AND, and.getOperator());
+        assertIsInstanceOf(BinaryNode.class, and.getLeft());
+        assertIsInstanceOf(BinaryNode.class, and.getRight());
+    }
+
+    public void testTextStartingWithOperatorIsTemplate() throws Exception {
+        SimpleNode node = new SimpleExpressionParser("${in.header.foo} == abc is the value").parse();
+        assertIsInstanceOf(CompositeNode.class, node);
+
+        assertExpression("${in.header.foo} == abc is the value", "abc == abc is the value");
+    }
+
+    public void testMissingOperandAfterAnd() throws Exception {
+        try {
+            new SimpleExpressionParser("${in.header.foo} == abc and foo").parse();
+            fail("Should have thrown an exception");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().startsWith("Syntax error"));
+        }
+    }
+
+    public void testCachedExpression() throws Exception {
+        SimpleLanguage simple = (SimpleLanguage) context.resolveLanguage("simple");
+        Expression expression = simple.createExpression("${in.header.foo} == abc");
+        assertSame(expression, simple.createExpression("${in.header.foo} == abc"));
+        Predicate predicate = simple.createPredicate("${in.header.foo} == abc");
+        assertSame(predicate, simple.createPredicate("${in.header.foo} == abc"));
+        assertTrue(predicate.matches(exchange));
+
+        simple.clearCache();
+        assertNotSame(expression, simple.createExpression("${in.header.foo} == abc"));
+    }
+
+    public void testCacheIsBounded() throws Exception {
+        SimpleLanguage simple = new SimpleLanguage();
+        simple.setCacheSize(2);
+        Expression foo = simple.createExpression("${in.header.foo}");
+        Expression bar = simple.createExpression("${in.header.bar}");
+        assertSame(foo, simple.createExpression("${in.header.foo}"));
+
+        // bar is the least recently used so it is evicted
+        simple.createExpression("${in.header.baz}");
+        assertSame(foo, simple.createExpression("${in.header.foo}"));
+        assertNotSame(bar, simple.createExpression("${in.header.bar}"));
+    }
+
+    public void testStaticSimpleIsNotCached() throws Exception {
+        // the static simple language is not owned by a CamelContext so it must not cache
+        assertNotSame(SimpleLanguage.simple("${in.header.foo}"), SimpleLanguage.simple("${in.header.foo}"));
+    }
+
+    public void testShortCircuit() throws Exception {
+        assertPredicate("${in.header.foo} == abc or ${bean:counter.count} == 1", true);
+        assertEquals(0, invoked.size());
+
+        assertPredicate("${in.header.foo} == xxx and ${bean:counter.count} == 1", false);
+        assertEquals(0, invoked.size());
+
+        assertPredicate("${in.header.foo} == abc and ${bean:counter.count} == 1", true);
+        assertTrue("Should invoke the bean", invoked.size() > 0);
+    }
+
+    public void testRegexAndInWithFunction() throws Exception {
+        exchange.getIn().setHeader("pattern", "^a.c$");
+        exchange.getIn().setHeader("values", "x,abc,y");
+        assertPredicate("${in.header.foo} regex ${in.header.pattern}", true);
+        assertPredicate("${in.header.foo} in ${in.header.values}", true);
+
+        exchange.getIn().setHeader("pattern", "^x.c$");
+        exchange.getIn().setHeader("values", "x,y");
+        assertPredicate("${in.header.foo} regex ${in.header.pattern}", false);
+        assertPredicate("${in.header.foo} in ${in.header.values}", false);
+    }
+
+    public void testOgnlOnDifferentBodyTypes() throws Exception {
+        exchange.getIn().setBody("Hello World");
+        assertExpression("${body.length}", 11);
+
+        Map<String, String> map = new HashMap<String, String>();
+        map.put("a", "b");
+        exchange.getIn().setBody(map);
+        assertExpression("${body.size}", 1);
+
+        List<String> list = new ArrayList<String>();
+        list.add("a");
+        list.add("b");
+        exchange.getIn().setBody(list);
+        assertExpression("${body.size}", 2);
+    }
+
+    protected String getLanguageName() {
+        return "simple";
+    }
+
+    public class Counter {
+        public int count() {
+            invoked.add("count");
+            return 1;
+        }
+    }
+}
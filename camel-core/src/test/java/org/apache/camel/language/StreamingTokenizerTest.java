@@ -0,0 +1,208 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.language;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.ExchangeTestSupport;
+import org.apache.camel.Expression;
+import org.apache.camel.component.file.GenericFile;
+import org.apache.camel.language.tokenizer.DelimitedTokenIterator;
+import org.apache.camel.language.tokenizer.StreamingTokenIterator;
+import org.apache.camel.language.tokenizer.TokenizeLanguage;
+import org.apache.camel.language.tokenizer.XmlElementTokenIterator;
+
+/**
+ * @version 
+ */
+public class StreamingTokenizerTest extends ExchangeTestSupport {
+
+    @Override
+    protected void setUp() throws Exception {
+        deleteDirectory("target/tokenizer");
+        super.setUp();
+    }
+
+    public void testStreamingTokenizeBody() throws Exception {
+        Expression exp = TokenizeLanguage.streamingTokenize(",", 1);
+
+        exchange.getIn().setBody("Hadrian,,Charles,");
+
+        List names = exp.evaluate(exchange, List.class);
+        assertEquals(3, names.size());
+        assertEquals("Hadrian", names.get(0));
+        assertEquals("", names.get(1));
+        assertEquals("Charles", names.get(2));
+    }
+
+    public void testStreamingTokenizeGroup() throws Exception {
+        Expression exp = TokenizeLanguage.streamingTokenize("\n", 2);
+
+        exchange.getIn().setBody("A\nB\nC\nD\nE\n");
+
+        List lines = exp.evaluate(exchange, List.class);
+        assertEquals(3, lines.size());
+        assertEquals("A\nB", lines.get(0));
+        assertEquals("C\nD", lines.get(1));
+        assertEquals("E", lines.get(2));
+    }
+
+    public void testStreamingTokenizeMultiByteDelimiter() throws Exception {
+        exchange.getIn().setBody("Hello World");
+
+        assertEquals("[Hello, World]", tokens(new DelimitedTokenIterator(exchange, "Hello\r\nWorld\r\n", "\r\n")).toString());
+        assertEquals("[A, B\r, C]", tokens(new DelimitedTokenIterator(exchange, "A\r\nB\r\r\nC", "\r\n")).toString());
+    }
+
+    public void testStreamingTokenizeCharset() throws Exception {
+        exchange.setProperty(Exchange.CHARSET_NAME, "UTF-8");
+        byte[] data = "Kaffeæøå;Café".getBytes("UTF-8");
+
+        List<String> tokens = tokens(new DelimitedTokenIterator(exchange, data, ";"));
+        assertEquals("[Kaffeæøå, Café]", tokens.toString());
+    }
+
+    public void testStreamingTokenizeStreamGrowsBuffer() throws Exception {
+        String text = createLines(500);
+
+        DelimitedTokenIterator it = new DelimitedTokenIterator(exchange, new ByteArrayInputStream(text.getBytes()), "\n", 3);
+        it.setBufferSize(8);
+        List<String> tokens = tokens(it);
+
+        assertEquals(167, tokens.size());
+        assertEquals("Line 0\nLine 1\nLine 2", tokens.get(0));
+        assertEquals("Line 498\nLine 499", tokens.get(166));
+    }
+
+    public void testStreamingTokenizeFile() throws Exception {
+        String text = createLines(1000);
+        template.sendBodyAndHeader("file:target/tokenizer", text, Exchange.FILE_NAME, "lines.txt");
+
+        DelimitedTokenIterator it = new DelimitedTokenIterator(exchange, new File("target/tokenizer/lines.txt"), "\n");
+        it.setBufferSize(100);
+        List<String> tokens = tokens(it);
+
+        assertEquals(1000, tokens.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("Line " + i, tokens.get(i));
+        }
+    }
+
+    public void testStreamingTokenizeRemoteGenericFile() throws Exception {
+        // a remote file is not a java.io.File so its body is converted to a stream
+        GenericFile<String> file = new GenericFile<String>();
+        file.setFile("remote/names.txt");
+        file.setBody("Hadrian,Charles");
+
+        assertEquals("[Hadrian, Charles]", tokens(new DelimitedTokenIterator(exchange, file, ",")).toString());
+    }
+
+    public void testInvalidArgumentsValidatedBeforeOpeningFile() throws Exception {
+        // the file does not exist so it would fail differently if it was opened first
+        File file = new File("target/tokenizer/doesnotexist.txt");
+        try {
+            new DelimitedTokenIterator(exchange, file, "");
+            fail("Should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            new DelimitedTokenIterator(exchange, file, ",", 0);
+            fail("Should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            new XmlElementTokenIterator(exchange, file, "");
+            fail("Should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    public void testTokenizeXML() throws Exception {
+        Expression exp = TokenizeLanguage.tokenizeXML("order");
+
+        exchange.getIn().setBody("<?xml version=\"1.0\"?>\n<orders>\n"
+            + "<order id=\"1\">Camel</order>\n"
+            + "<!-- <order id=\"x\">commented</order> -->\n"
+            + "<orders-summary/>\n"
+            + "<order id=\"2\" note=\"a > b\"><order>nested</order><![CDATA[</order>]]></order>\n"
+            + "<order id=\"3\"/>\n"
+            + "</orders>");
+
+        List orders = exp.evaluate(exchange, List.class);
+        assertEquals(3, orders.size());
+        assertEquals("<order id=\"1\">Camel</order>", orders.get(0));
+        assertEquals("<order id=\"2\" note=\"a > b\"><order>nested</order><![CDATA[</order>]]></order>", orders.get(1));
+        assertEquals("<order id=\"3\"/>", orders.get(2));
+    }
+
+    public void testTokenizeXMLFile() throws Exception {
+        StringBuilder sb = new StringBuilder("<records>\n");
+        for (int i = 0; i < 200; i++) {
+            sb.append("  <record id=\"").append(i).append("\"><name>Record ").append(i).append("</name></record>\n");
+        }
+        sb.append("</records>");
+        template.sendBodyAndHeader("file:target/tokenizer", sb.toString(), Exchange.FILE_NAME, "records.xml");
+
+        XmlElementTokenIterator it = new XmlElementTokenIterator(exchange, new File("target/tokenizer/records.xml"), "<record>");
+        it.setBufferSize(16);
+        List<String> tokens = tokens(it);
+
+        assertEquals(200, tokens.size());
+        assertEquals("<record id=\"0\"><name>Record 0</name></record>", tokens.get(0));
+        assertEquals("<record id=\"199\"><name>Record 199</name></record>", tokens.get(199));
+    }
+
+    public void testTokenizeXMLCommentAndCDataAcrossBuffer() throws Exception {
+        // pad the content so the comment and CDATA openers straddle the end of the buffer at some point
+        for (int pad = 0; pad < 16; pad++) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < pad; i++) {
+                sb.append(' ');
+            }
+            sb.append("<!-- <a>comment</a> --><![CDATA[<a>cdata</a>]]><a>Camel</a>");
+
+            XmlElementTokenIterator it = new XmlElementTokenIterator(exchange, new ByteArrayInputStream(sb.toString().getBytes()), "a");
+            it.setBufferSize(8);
+            assertEquals("Padding " + pad, "[<a>Camel</a>]", tokens(it).toString());
+        }
+    }
+
+    private static String createLines(int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append("Line ").append(i).append("\n");
+        }
+        return sb.toString();
+    }
+
+    private static List<String> tokens(StreamingTokenIterator it) {
+        List<String> answer = new ArrayList<String>();
+        while (it.hasNext()) {
+            answer.add(it.next());
+        }
+        assertFalse(it.hasNext());
+        return answer;
+    }
+
+}
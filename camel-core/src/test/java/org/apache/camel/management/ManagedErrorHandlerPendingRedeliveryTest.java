@@ -0,0 +1,92 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.management;
+
+import java.util.Set;
+import java.util.concurrent.Future;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.builder.RouteBuilder;
+
+/**
+ * @version 
+ */
+public class ManagedErrorHandlerPendingRedeliveryTest extends ManagementTestSupport {
+
+    private static int counter;
+
+    public void testPendingRedelivery() throws Exception {
+        counter = 0;
+
+        MBeanServer mbeanServer = getMBeanServer();
+        Set<ObjectName> set = mbeanServer.queryNames(new ObjectName("*:type=errorhandlers,*"), null);
+        assertEquals(1, set.size());
+        ObjectName on = set.iterator().next();
+
+        assertEquals(Boolean.TRUE, mbeanServer.getAttribute(on, "AsyncDelayedRedelivery"));
+        assertEquals(0, ((Integer) mbeanServer.getAttribute(on, "PendingRedeliveryCount")).intValue());
+        assertEquals(0, ((String[]) mbeanServer.getAttribute(on, "PendingRedeliveries")).length);
+
+        getMockEndpoint("mock:result").expectedBodiesReceived("Bye World");
+
+        Future<Object> reply = template.asyncRequestBody("direct:start", "Hello World");
+
+        // wait until the first redelivery is pending
+        Integer count = 0;
+        for (int i = 0; i < 50 && count == 0; i++) {
+            Thread.sleep(100);
+            count = (Integer) mbeanServer.getAttribute(on, "PendingRedeliveryCount");
+        }
+        assertEquals(1, count.intValue());
+
+        String[] pending = (String[]) mbeanServer.getAttribute(on, "PendingRedeliveries");
+        assertEquals(1, pending.length);
+        assertTrue(pending[0], pending[0].contains("redeliveryCounter=1"));
+        assertTrue(pending[0], pending[0].contains("redeliveryDelay=1000"));
+
+        assertEquals("Bye World", reply.get());
+        assertMockEndpointsSatisfied();
+        assertEquals(3, counter);
+
+        assertEquals(0, ((Integer) mbeanServer.getAttribute(on, "PendingRedeliveryCount")).intValue());
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                errorHandler(defaultErrorHandler().maximumRedeliveries(5).redeliveryDelay(1000).asyncDelayedRedelivery());
+
+                from("direct:start")
+                    .process(new Processor() {
+                        public void process(Exchange exchange) throws Exception {
+                            counter++;
+                            if (counter < 3) {
+                                throw new IllegalArgumentException("Forced");
+                            }
+                            exchange.getIn().setBody("Bye World");
+                        }
+                    }).to("mock:result");
+            }
+        };
+    }
+
+}
@@ -0,0 +1,67 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.management;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.camel.builder.RouteBuilder;
+
+/**
+ * @version 
+ */
+public class ManagedLeastLoadedLoadBalancerTest extends ManagementTestSupport {
+
+    public void testManageLeastLoadedLoadBalancer() throws Exception {
+        getMockEndpoint("mock:a").expectedMinimumMessageCount(0);
+        for (int i = 0; i < 10; i++) {
+            template.sendBody("direct:start", "Hello World");
+        }
+
+        MBeanServer mbeanServer = getMBeanServer();
+        ObjectName on = ObjectName.getInstance("org.apache.camel:context=localhost/camel-1,type=processors,name=\"mybalancer\"");
+
+        assertEquals(2, mbeanServer.getAttribute(on, "TargetCount"));
+        assertEquals(0.2, mbeanServer.getAttribute(on, "DecayFactor"));
+        mbeanServer.setAttribute(on, new Attribute("DecayFactor", 0.5));
+        assertEquals(0.5, mbeanServer.getAttribute(on, "DecayFactor"));
+
+        String[] stats = (String[]) mbeanServer.getAttribute(on, "TargetStatistics");
+        assertEquals(2, stats.length);
+
+        long completed = 0;
+        for (int i = 0; i < 2; i++) {
+            Integer inFlight = (Integer) mbeanServer.invoke(on, "targetInFlight", new Object[]{i}, new String[]{"int"});
+            assertEquals(0, inFlight.intValue());
+            completed += (Long) mbeanServer.invoke(on, "targetExchangesCompleted", new Object[]{i}, new String[]{"int"});
+        }
+        assertEquals(10, completed);
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .loadBalance().leastLoaded().id("mybalancer")
+                        .to("mock:a", "mock:b");
+            }
+        };
+    }
+}
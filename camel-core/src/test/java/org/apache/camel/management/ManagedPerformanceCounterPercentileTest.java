@@ -0,0 +1,93 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.management;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.camel.builder.RouteBuilder;
+
+/**
+ * @version 
+ */
+public class ManagedPerformanceCounterPercentileTest extends ManagementTestSupport {
+
+    public void testPercentiles() throws Exception {
+        MBeanServer mbeanServer = getMBeanServer();
+        ObjectName on = ObjectName.getInstance("org.apache.camel:context=localhost/camel-1,type=routes,name=\"route1\"");
+
+        Long p99 = (Long) mbeanServer.getAttribute(on, "P99ProcessingTime");
+        assertEquals(0, p99.longValue());
+
+        for (int i = 0; i < 5; i++) {
+            template.sendBody("direct:start", "Hello World");
+        }
+
+        Long completed = (Long) mbeanServer.getAttribute(on, "ExchangesCompleted");
+        assertEquals(5, completed.longValue());
+        Long total = (Long) mbeanServer.getAttribute(on, "ExchangesTotal");
+        assertEquals(5, total.longValue());
+
+        Long p50 = (Long) mbeanServer.getAttribute(on, "P50ProcessingTime");
+        p99 = (Long) mbeanServer.getAttribute(on, "P99ProcessingTime");
+        Long p999 = (Long) mbeanServer.getAttribute(on, "P999ProcessingTime");
+        Long max = (Long) mbeanServer.getAttribute(on, "MaxProcessingTime");
+        assertTrue("Should be delayed, was: " + p50, p50 >= 40);
+        assertTrue(p50 <= p99);
+        assertTrue(p99 <= p999);
+        assertTrue(p999 <= max);
+
+        Long p75 = (Long) mbeanServer.invoke(on, "percentileProcessingTime", new Object[]{75.0}, new String[]{"double"});
+        assertTrue(p50 <= p75 && p75 <= p99);
+    }
+
+    public void testStatisticsInterval() throws Exception {
+        MBeanServer mbeanServer = getMBeanServer();
+        ObjectName on = ObjectName.getInstance("org.apache.camel:context=localhost/camel-1,type=routes,name=\"route1\"");
+
+        mbeanServer.setAttribute(on, new Attribute("StatisticsInterval", 500L));
+        assertEquals(500L, mbeanServer.getAttribute(on, "StatisticsInterval"));
+
+        template.sendBody("direct:start", "Hello World");
+
+        // wait for the interval to complete
+        Thread.sleep(600);
+        Long p99 = (Long) mbeanServer.getAttribute(on, "P99ProcessingTime");
+        assertTrue("Should be delayed, was: " + p99, p99 >= 40);
+
+        // then after another interval with no exchanges there is no recent processing times
+        Thread.sleep(1100);
+        p99 = (Long) mbeanServer.getAttribute(on, "P99ProcessingTime");
+        assertEquals(0, p99.longValue());
+
+        // but the statistics since start is kept
+        Long completed = (Long) mbeanServer.getAttribute(on, "ExchangesCompleted");
+        assertEquals(1, completed.longValue());
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start").delay(50).to("mock:result");
+            }
+        };
+    }
+
+}
@@ -59,6 +59,16 @@ public class ManagedProducerCacheTest extends ManagementTestSupport {
 
         String source = (String) mbeanServer.getAttribute(on, "Source");
         assertEquals("sendTo(Endpoint[mock://result])", source);
+
+        Long hits = (Long) mbeanServer.getAttribute(on, "Hits");
+        Long misses = (Long) mbeanServer.getAttribute(on, "Misses");
+        assertTrue("Should have cache hits", hits.longValue() > 0);
+        assertEquals(1, misses.longValue());
+        assertEquals(0L, mbeanServer.getAttribute(on, "Evictions"));
+
+        mbeanServer.invoke(on, "resetStatistics", null, null);
+        assertEquals(0L, mbeanServer.getAttribute(on, "Hits"));
+        assertEquals(0L, mbeanServer.getAttribute(on, "Misses"));
     }
 
     @Override
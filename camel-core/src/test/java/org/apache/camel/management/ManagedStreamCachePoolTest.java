@@ -0,0 +1,92 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.management;
+
+import java.io.ByteArrayInputStream;
+import java.util.Set;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.converter.stream.CachedOutputStream;
+import org.apache.camel.converter.stream.StreamCachePool;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.JndiRegistry;
+
+/**
+ * @version 
+ */
+public class ManagedStreamCachePoolTest extends ManagementTestSupport {
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        StreamCachePool pool = new StreamCachePool(64);
+        pool.setChunkSize(16);
+        JndiRegistry jndi = createRegistry();
+        jndi.bind("myPool", pool);
+
+        DefaultCamelContext context = (DefaultCamelContext) super.createCamelContext();
+        context.setRegistry(jndi);
+        context.getProperties().put(CachedOutputStream.TEMP_DIR, "./target/cachedir");
+        context.getProperties().put(CachedOutputStream.POOL, "myPool");
+        return context;
+    }
+
+    public void testManageStreamCachePool() throws Exception {
+        getMockEndpoint("mock:result").expectedBodiesReceived("Hello World", new String(new byte[200]));
+
+        template.sendBody("direct:start", new ByteArrayInputStream("Hello World".getBytes()));
+        // this one is bigger than the memory budget
+        template.sendBody("direct:start", new ByteArrayInputStream(new byte[200]));
+
+        assertMockEndpointsSatisfied();
+
+        MBeanServer mbeanServer = getMBeanServer();
+        ObjectName on = null;
+        Set<ObjectName> set = mbeanServer.queryNames(new ObjectName("*:type=services,*"), null);
+        for (ObjectName name : set) {
+            if (name.getCanonicalName().contains("StreamCachePool")) {
+                on = name;
+                break;
+            }
+        }
+        assertNotNull("Should have found StreamCachePool", on);
+
+        assertEquals(16, mbeanServer.getAttribute(on, "ChunkSize"));
+        assertEquals(64L, mbeanServer.getAttribute(on, "MemoryBudget"));
+        assertEquals(0L, mbeanServer.getAttribute(on, "UsedMemory"));
+        assertEquals(64L, mbeanServer.getAttribute(on, "PeakUsedMemory"));
+        assertEquals(1L, mbeanServer.getAttribute(on, "SpillCount"));
+        assertEquals(200L, mbeanServer.getAttribute(on, "SpilledBytes"));
+
+        mbeanServer.invoke(on, "resetStatistics", null, null);
+        assertEquals(0L, mbeanServer.getAttribute(on, "SpillCount"));
+        assertEquals(0L, mbeanServer.getAttribute(on, "SpilledBytes"));
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start").streamCaching().convertBodyTo(String.class).to("mock:result");
+            }
+        };
+    }
+
+}
@@ -0,0 +1,80 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.management;
+
+import java.util.Set;
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.camel.builder.RouteBuilder;
+
+/**
+ * @version 
+ */
+public class ManagedTypeConverterRegistryTest extends ManagementTestSupport {
+
+    public void testManageTypeConverterRegistry() throws Exception {
+        MBeanServer mbeanServer = getMBeanServer();
+        ObjectName on = null;
+        Set<ObjectName> set = mbeanServer.queryNames(new ObjectName("*:type=services,*"), null);
+        for (ObjectName name : set) {
+            if (name.getCanonicalName().contains("DefaultTypeConverter")) {
+                on = name;
+                break;
+            }
+        }
+        assertNotNull("Should have found DefaultTypeConverter", on);
+
+        // the counters is disabled by default
+        assertEquals(Boolean.FALSE, mbeanServer.getAttribute(on, "StatisticsEnabled"));
+        mbeanServer.setAttribute(on, new Attribute("StatisticsEnabled", true));
+
+        getMockEndpoint("mock:result").expectedMessageCount(1);
+
+        template.sendBody("direct:start", "3");
+
+        assertMockEndpointsSatisfied();
+
+        Integer converters = (Integer) mbeanServer.getAttribute(on, "NumberOfTypeConverters");
+        assertTrue("Should have type converters", converters > 0);
+
+        Long hits = (Long) mbeanServer.getAttribute(on, "CacheHits");
+        Long misses = (Long) mbeanServer.getAttribute(on, "CacheMisses");
+        assertTrue("Should have lookup cache misses", misses > 0);
+
+        // convert the same again which should be a cache hit
+        template.sendBody("direct:start", "3");
+        Long hits2 = (Long) mbeanServer.getAttribute(on, "CacheHits");
+        assertTrue("Should have more lookup cache hits", hits2 > hits);
+
+        mbeanServer.invoke(on, "resetCacheStatistics", null, null);
+        assertEquals(0L, mbeanServer.getAttribute(on, "CacheHits"));
+        assertEquals(0L, mbeanServer.getAttribute(on, "CacheMisses"));
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start").convertBodyTo(Integer.class).to("mock:result");
+            }
+        };
+    }
+
+}
@@ -21,6 +21,7 @@ import javax.xml.bind.JAXBException;
 
 import org.apache.camel.model.language.ExpressionDefinition;
 import org.apache.camel.model.loadbalancer.FailoverLoadBalancerDefinition;
+import org.apache.camel.model.loadbalancer.LeastLoadedLoadBalancerDefinition;
 import org.apache.camel.model.loadbalancer.RandomLoadBalancerDefinition;
 import org.apache.camel.model.loadbalancer.RoundRobinLoadBalancerDefinition;
 import org.apache.camel.model.loadbalancer.StickyLoadBalancerDefinition;
@@ -227,6 +228,17 @@ public class XmlParseTest extends XmlTestSupport {
         assertTrue("The loadBalancer shoud be RandomLoadBalancerDefinition", loadBalance.getLoadBalancerType() instanceof RandomLoadBalancerDefinition);
     }
 
+    public void testParseLeastLoadedLoadBalance() throws Exception {
+        RouteDefinition route = assertOneRoute("routeWithLeastLoadedLoadBalance.xml");
+        assertFrom(route, "seda:a");
+        LoadBalanceDefinition loadBalance = assertOneProcessorInstanceOf(LoadBalanceDefinition.class, route);
+        assertEquals("Here should have 3 output here", 3, loadBalance.getOutputs().size());
+        assertTrue("The loadBalancer shoud be LeastLoadedLoadBalancerDefinition", loadBalance.getLoadBalancerType() instanceof LeastLoadedLoadBalancerDefinition);
+        LeastLoadedLoadBalancerDefinition leastLoaded = (LeastLoadedLoadBalancerDefinition) loadBalance.getLoadBalancerType();
+        assertEquals(0.5, leastLoaded.getDecayFactor());
+        assertEquals(Long.valueOf(5000), leastLoaded.getFailurePenalty());
+    }
+
     public void testParseTopicLoadBalance() throws Exception {
         RouteDefinition route = assertOneRoute("routeWithTopicLoadBalance.xml");
         assertFrom(route, "seda:a");
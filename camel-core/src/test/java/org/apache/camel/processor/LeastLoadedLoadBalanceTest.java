@@ -0,0 +1,144 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.processor.loadbalancer.LeastLoadedLoadBalancer;
+
+/**
+ * @version 
+ */
+public class LeastLoadedLoadBalanceTest extends ContextTestSupport {
+
+    public void testPrefersFastProcessor() throws Exception {
+        MockEndpoint fast = getMockEndpoint("mock:fast");
+        MockEndpoint slow = getMockEndpoint("mock:slow");
+
+        final int count = 100;
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        for (int i = 0; i < count; i++) {
+            executor.submit(new Runnable() {
+                public void run() {
+                    template.sendBody("direct:start", "Hello World");
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(count, fast.getReceivedCounter() + slow.getReceivedCounter());
+        assertTrue("Fast should get most of the exchanges, was fast: " + fast.getReceivedCounter() + " slow: " + slow.getReceivedCounter(),
+                fast.getReceivedCounter() > slow.getReceivedCounter() * 3);
+    }
+
+    public void testUsesAllProcessors() throws Exception {
+        LeastLoadedLoadBalancer loadBalancer = new LeastLoadedLoadBalancer();
+        MyProcessor a = new MyProcessor();
+        MyProcessor b = new MyProcessor();
+        loadBalancer.addProcessor(a);
+        loadBalancer.addProcessor(b);
+        assertEquals(2, loadBalancer.getTargets().size());
+
+        for (int i = 0; i < 100; i++) {
+            loadBalancer.process(new DefaultExchange(context));
+        }
+        assertEquals(100, a.counter + b.counter);
+        assertTrue("Both should be used, was a: " + a.counter + " b: " + b.counter, a.counter > 0 && b.counter > 0);
+        assertEquals(0, loadBalancer.getTargets().get(0).getInFlight());
+
+        loadBalancer.removeProcessor(a);
+        assertEquals(1, loadBalancer.getTargets().size());
+        assertSame(b, loadBalancer.getTargets().get(0).getProcessor());
+    }
+
+    public void testAvoidsProcessorFailingFast() throws Exception {
+        LeastLoadedLoadBalancer loadBalancer = new LeastLoadedLoadBalancer();
+        MyProcessor ok = new MyProcessor();
+        loadBalancer.addProcessor(new Processor() {
+            public void process(Exchange exchange) throws Exception {
+                Thread.sleep(5);
+                exchange.setException(new IllegalArgumentException("Damn"));
+            }
+        });
+        loadBalancer.addProcessor(ok);
+
+        for (int i = 0; i < 20; i++) {
+            loadBalancer.process(new DefaultExchange(context));
+        }
+        // the failing processor is only used until it has a response time
+        assertTrue("Should prefer the processor which does not fail, was: " + ok.counter, ok.counter >= 18);
+        assertTrue(loadBalancer.getTargets().get(0).getResponseTime() >= 1000);
+    }
+
+    public void testNoResponseTimesUsesInFlight() throws Exception {
+        LeastLoadedLoadBalancer loadBalancer = new LeastLoadedLoadBalancer();
+        MyProcessor a = new MyProcessor();
+        MyProcessor b = new MyProcessor();
+        loadBalancer.addProcessor(a);
+        loadBalancer.addProcessor(b);
+
+        // a processor without response times is tried before one which has
+        loadBalancer.process(new DefaultExchange(context));
+        loadBalancer.process(new DefaultExchange(context));
+        assertEquals(1, a.counter);
+        assertEquals(1, b.counter);
+    }
+
+    public void testDecayFactor() throws Exception {
+        LeastLoadedLoadBalancer loadBalancer = new LeastLoadedLoadBalancer();
+        try {
+            loadBalancer.setDecayFactor(0);
+            fail("Should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    private static class MyProcessor implements Processor {
+        private int counter;
+
+        public void process(Exchange exchange) throws Exception {
+            counter++;
+        }
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                // START SNIPPET: e1
+                from("direct:start")
+                    .loadBalance().leastLoaded()
+                        .to("direct:fast", "direct:slow");
+                // END SNIPPET: e1
+
+                from("direct:fast").to("mock:fast");
+                from("direct:slow").delay(50).to("mock:slow");
+            }
+        };
+    }
+}
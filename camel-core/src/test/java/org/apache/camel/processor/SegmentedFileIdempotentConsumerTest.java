@@ -0,0 +1,199 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.processor.idempotent.SegmentedFileIdempotentRepository;
+
+/**
+ * @version 
+ */
+public class SegmentedFileIdempotentConsumerTest extends ContextTestSupport {
+    private File directory = new File("target/segmentedidempotent");
+    private SegmentedFileIdempotentRepository repo;
+
+    @Override
+    protected void setUp() throws Exception {
+        deleteDirectory(directory.getPath());
+
+        repo = new SegmentedFileIdempotentRepository(directory);
+        repo.setSyncInterval(100);
+        super.setUp();
+    }
+
+    public void testDuplicateMessagesAreFilteredOut() throws Exception {
+        MockEndpoint result = getMockEndpoint("mock:result");
+        result.expectedBodiesReceived("one", "two", "three");
+
+        template.sendBodyAndHeader("direct:start", "one", "messageId", "1");
+        template.sendBodyAndHeader("direct:start", "two", "messageId", "2");
+        template.sendBodyAndHeader("direct:start", "one", "messageId", "1");
+        template.sendBodyAndHeader("direct:start", "two", "messageId", "2");
+        template.sendBodyAndHeader("direct:start", "three", "messageId", "3");
+
+        assertMockEndpointsSatisfied();
+
+        assertTrue(repo.contains("1"));
+        assertTrue(repo.contains("2"));
+        assertTrue(repo.contains("3"));
+        assertEquals(3, repo.getSize());
+    }
+
+    public void testReloadAfterRestart() throws Exception {
+        assertTrue(repo.add("A"));
+        assertTrue(repo.add("B"));
+        assertTrue(repo.add("C"));
+        assertFalse(repo.add("B"));
+        assertTrue(repo.remove("B"));
+        assertFalse(repo.remove("B"));
+
+        repo.stop();
+        repo.start();
+
+        assertEquals(2, repo.getSize());
+        assertTrue(repo.contains("A"));
+        assertFalse(repo.contains("B"));
+        assertTrue(repo.contains("C"));
+    }
+
+    public void testRollAndCompact() throws Exception {
+        repo.stop();
+        // do not compact in the background so we can compact manually
+        repo.setCompactionThreshold(1.1);
+        repo.setMaxSegmentSize(200);
+        repo.start();
+
+        for (int i = 0; i < 100; i++) {
+            repo.add("key-" + i);
+        }
+        assertTrue("Should have rolled segments", repo.getSegments() > 5);
+        for (int i = 0; i < 90; i++) {
+            repo.remove("key-" + i);
+        }
+        int segments = repo.getSegments();
+        assertEquals(0, repo.compact());
+
+        repo.setCompactionThreshold(0.5);
+        assertTrue("Should compact segments", repo.compact() > 0);
+        assertTrue("Should have less segments", repo.getSegments() < segments);
+        assertTrue(repo.getGarbageRatio() < 0.5);
+        assertEquals(10, repo.getSize());
+
+        repo.stop();
+        repo.start();
+
+        assertEquals(10, repo.getSize());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i >= 90, repo.contains("key-" + i));
+        }
+    }
+
+    public void testCompactSegmentWithLowestLiveRatio() throws Exception {
+        repo.stop();
+        repo.setCompactionThreshold(1.1);
+        repo.setMaxSegmentSize(200);
+        repo.start();
+
+        for (int i = 0; i < 10; i++) {
+            repo.add("a-" + i);
+        }
+        for (int i = 0; i < 50; i++) {
+            repo.add("b-" + i);
+        }
+        // the removals are appended to newer segments than the key was added to
+        repo.remove("a-0");
+        for (int i = 0; i < 50; i++) {
+            repo.remove("b-" + i);
+        }
+        for (int i = 0; i < 50; i++) {
+            repo.add("c-" + i);
+        }
+
+        repo.setCompactionThreshold(0.3);
+        assertTrue("Should compact segments", repo.compact() > 0);
+        assertTrue(repo.getGarbageRatio() < 0.3);
+        assertTrue("Should not compact the oldest segment", new File(directory, "segment-0000000000000001.log").exists());
+
+        repo.stop();
+        repo.start();
+
+        assertEquals(59, repo.getSize());
+        assertFalse(repo.contains("a-0"));
+        assertTrue(repo.contains("a-1"));
+        assertFalse(repo.contains("b-0"));
+        assertTrue(repo.contains("c-0"));
+    }
+
+    public void testDirectoryMustBeDirectory() throws Exception {
+        SegmentedFileIdempotentRepository other = new SegmentedFileIdempotentRepository();
+        assertNull(other.getDirectoryPath());
+
+        File file = new File(directory, "notadirectory.txt");
+        assertTrue(file.createNewFile());
+        other.setDirectory(file);
+        try {
+            other.start();
+            fail("Should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    public void testRecoverTornRecord() throws Exception {
+        repo.add("A");
+        repo.add("B");
+        repo.stop();
+
+        // simulate a crash while writing the last record
+        File[] files = directory.listFiles();
+        assertEquals(1, files.length);
+        RandomAccessFile file = new RandomAccessFile(files[0], "rw");
+        try {
+            file.setLength(file.length() - 1);
+        } finally {
+            file.close();
+        }
+
+        repo.start();
+        assertTrue(repo.contains("A"));
+        assertFalse(repo.contains("B"));
+
+        // and we can continue appending to the segment
+        assertTrue(repo.add("C"));
+        repo.stop();
+        repo.start();
+        assertEquals(2, repo.getSize());
+        assertTrue(repo.contains("C"));
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .idempotentConsumer(header("messageId"), repo)
+                    .to("mock:result");
+            }
+        };
+    }
+}
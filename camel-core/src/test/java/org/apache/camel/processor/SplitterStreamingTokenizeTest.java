@@ -0,0 +1,69 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+
+/**
+ * @version 
+ */
+public class SplitterStreamingTokenizeTest extends ContextTestSupport {
+
+    @Override
+    protected void setUp() throws Exception {
+        deleteDirectory("target/splitter");
+        super.setUp();
+    }
+
+    public void testSplitLinesInGroups() throws Exception {
+        getMockEndpoint("mock:line").expectedBodiesReceived("A\nB", "C\nD", "E");
+        getMockEndpoint("mock:done").expectedMessageCount(1);
+
+        template.sendBodyAndHeader("file:target/splitter/lines", "A\nB\nC\nD\nE\n", Exchange.FILE_NAME, "lines.txt");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testSplitXmlRecords() throws Exception {
+        getMockEndpoint("mock:record").expectedBodiesReceived("<record>1</record>", "<record>2</record>");
+
+        template.sendBodyAndHeader("file:target/splitter/xml", "<records><record>1</record><record>2</record></records>",
+            Exchange.FILE_NAME, "records.xml");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("file:target/splitter/lines?delete=true")
+                    .split(body().streamingTokenize("\n", 2)).streaming()
+                        .to("mock:line")
+                    .end()
+                    .to("mock:done");
+
+                from("file:target/splitter/xml?delete=true")
+                    .split(body().tokenizeXML("record")).streaming()
+                        .to("mock:record");
+            }
+        };
+    }
+}
@@ -0,0 +1,172 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.CamelExecutionException;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+
+/**
+ * @version 
+ */
+public class TokenBucketThrottlerTest extends ContextTestSupport {
+
+    public void testTokenBucketCalculus() throws Exception {
+        // 10 per second is one per 100 millis with a burst of 3
+        TokenBucketThrottler throttler = new TokenBucketThrottler(null, 10, 1000, null);
+        throttler.setBurstSize(3);
+        long now = 0;
+
+        // the burst is allowed at once
+        assertEquals(0, throttler.acquire(1, now));
+        assertEquals(0, throttler.acquire(1, now));
+        assertEquals(0, throttler.acquire(1, now));
+        // and then we must wait for the next permit
+        assertEquals(millis(100), throttler.acquire(1, now));
+        assertEquals(millis(200), throttler.acquire(1, now));
+
+        // a batch of permits
+        assertEquals(millis(400), throttler.acquire(2, now));
+
+        // when idle the bucket is filled up, but only to the burst size
+        now = millis(10000);
+        assertEquals(0, throttler.acquire(3, now));
+        assertEquals(millis(100), throttler.acquire(1, now));
+    }
+
+    public void testInvalidPermits() throws Exception {
+        TokenBucketThrottler throttler = new TokenBucketThrottler(null, 10, 1000, null);
+        throttler.setBurstSize(1);
+        long now = 0;
+
+        assertEquals(0, throttler.acquire(1, now));
+        try {
+            throttler.acquire(0, now);
+            fail("Should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Permits must be a positive number, was: 0", e.getMessage());
+        }
+        try {
+            throttler.acquire(-5, now);
+            fail("Should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Permits must be a positive number, was: -5", e.getMessage());
+        }
+
+        // no permits has been given away
+        assertEquals(millis(100), throttler.acquire(1, now));
+    }
+
+    public void testInvalidPermitsExpression() throws Exception {
+        getMockEndpoint("mock:permits").expectedMessageCount(0);
+
+        try {
+            template.sendBodyAndHeader("direct:permits", "Hello World", "size", 0);
+            fail("Should have thrown exception");
+        } catch (CamelExecutionException e) {
+            assertIsInstanceOf(IllegalArgumentException.class, e.getCause());
+        }
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testBurstSizeDefaultsToMaximumRequests() throws Exception {
+        TokenBucketThrottler throttler = new TokenBucketThrottler(null, 5, 1000, null);
+        assertEquals(5, throttler.getBurstSize());
+        throttler.setMaximumRequestsPerPeriod(8);
+        assertEquals(8, throttler.getBurstSize());
+    }
+
+    public void testBurstThenThrottled() throws Exception {
+        MockEndpoint result = getMockEndpoint("mock:result");
+        result.expectedMessageCount(6);
+
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 6; i++) {
+            template.sendBody("direct:start", "Message " + i);
+        }
+        assertMockEndpointsSatisfied();
+
+        // 2 in the burst and then 4 with 100 millis between
+        long delta = System.currentTimeMillis() - start;
+        assertTrue("Should take at least 350 millis, was: " + delta, delta >= 350);
+    }
+
+    public void testAsyncDelayedInArrivalOrder() throws Exception {
+        MockEndpoint result = getMockEndpoint("mock:async");
+        result.expectedBodiesReceived("A", "B", "C", "D", "E", "F");
+
+        for (String body : new String[]{"A", "B", "C", "D", "E", "F"}) {
+            template.sendBody("seda:async", body);
+        }
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testPermits() throws Exception {
+        MockEndpoint result = getMockEndpoint("mock:permits");
+        result.expectedMessageCount(3);
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 3; i++) {
+            executor.execute(new Runnable() {
+                public void run() {
+                    // each exchange acquire 5 permits, with 10 per second
+                    template.sendBodyAndHeader("direct:permits", "Hello World", "size", 5);
+                }
+            });
+        }
+        assertMockEndpointsSatisfied();
+        executor.shutdownNow();
+
+        long delta = System.currentTimeMillis() - start;
+        assertTrue("Should take at least 900 millis, was: " + delta, delta >= 900);
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                // START SNIPPET: e1
+                from("direct:start")
+                    // 10 per second with a burst of 2
+                    .throttle(10).tokenBucket().burstSize(2)
+                    .to("log:result", "mock:result");
+                // END SNIPPET: e1
+
+                from("seda:async")
+                    .throttle(20).tokenBucket().burstSize(1).asyncDelayed()
+                    .to("mock:async");
+
+                from("direct:permits")
+                    .throttle(10).permits(header("size")).burstSize(5)
+                    .to("mock:permits");
+            }
+        };
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.aggregator;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.processor.BodyInAggregatingStrategy;
+
+/**
+ * Unit test for completion timeout using a timing wheel.
+ *
+ * @version 
+ */
+public class AggregateTimingWheelTimeoutTest extends ContextTestSupport {
+
+    public void testAggregateTimingWheelTimeout() throws Exception {
+        MockEndpoint result = getMockEndpoint("mock:result");
+        result.expectedBodiesReceived("A+B", "C+D");
+        result.expectedPropertyReceived(Exchange.AGGREGATED_COMPLETED_BY, "timeout");
+        result.setMinimumResultWaitTime(500);
+
+        template.sendBodyAndHeader("direct:start", "A", "id", "1");
+        template.sendBodyAndHeader("direct:start", "B", "id", "1");
+        template.sendBodyAndHeader("direct:start", "C", "id", "2");
+        template.sendBodyAndHeader("direct:start", "D", "id", "2");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testAggregateTimingWheelTimeoutManyKeys() throws Exception {
+        MockEndpoint result = getMockEndpoint("mock:result");
+        result.expectedMessageCount(200);
+
+        for (int i = 0; i < 200; i++) {
+            template.sendBodyAndHeader("direct:start", "A", "id", i);
+            template.sendBodyAndHeader("direct:start", "B", "id", i);
+        }
+
+        assertMockEndpointsSatisfied();
+        for (Exchange exchange : result.getReceivedExchanges()) {
+            assertEquals("A+B", exchange.getIn().getBody());
+        }
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .aggregate(header("id"), new BodyInAggregatingStrategy())
+                        .completionTimeout(1000).completionTimeoutTimingWheel()
+                    .to("mock:result");
+            }
+        };
+    }
+}
@@ -0,0 +1,242 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+/**
+ * @version 
+ */
+public class CaseInsensitiveHeaderMapTest extends TestCase {
+
+    public void testLookupCaseAgnostic() {
+        Map<String, Object> map = new CaseInsensitiveHeaderMap();
+        assertNull(map.get("foo"));
+
+        map.put("foo", "cheese");
+
+        assertEquals("cheese", map.get("foo"));
+        assertEquals("cheese", map.get("Foo"));
+        assertEquals("cheese", map.get("FOO"));
+        assertNull(map.get("unknown"));
+    }
+
+    public void testSetWithDifferentCase() {
+        Map<String, Object> map = new CaseInsensitiveHeaderMap();
+        map.put("foo", "cheese");
+        map.put("Foo", "bar");
+
+        assertEquals(1, map.size());
+        assertEquals("bar", map.get("FOO"));
+        assertEquals("bar", map.get("foo"));
+        assertEquals("bar", map.get("Foo"));
+
+        // the last key is preserved
+        assertEquals("Foo", map.keySet().iterator().next());
+    }
+
+    public void testRemoveWithDifferentCase() {
+        Map<String, Object> map = new CaseInsensitiveHeaderMap();
+        map.put("foo", "cheese");
+        map.put("Foo", "bar");
+
+        assertEquals("bar", map.remove("FOO"));
+
+        assertEquals(null, map.get("foo"));
+        assertEquals(null, map.get("Foo"));
+        assertEquals(null, map.get("FOO"));
+        assertTrue(map.isEmpty());
+        assertNull(map.remove("foo"));
+    }
+
+    public void testPutAll() {
+        Map<String, Object> map = new CaseInsensitiveHeaderMap();
+        map.put("beer", "Carlsberg");
+
+        Map<String, Object> other = new CaseInsensitiveHeaderMap();
+        other.put("Foo", "cheese");
+        other.put("bar", 123);
+
+        map.putAll(other);
+        assertEquals(3, map.size());
+
+        assertEquals("cheese", map.get("FOO"));
+        assertEquals(123, map.get("BaR"));
+        assertEquals("Carlsberg", map.get("BEER"));
+
+        // key case should be preserved
+        Map<String, Object> keys = new HashMap<String, Object>(map);
+        assertEquals("cheese", keys.get("Foo"));
+        assertNull(keys.get("foo"));
+        assertEquals(123, keys.get("bar"));
+        assertNull(keys.get("Bar"));
+    }
+
+    public void testKeySet() {
+        Map<String, Object> map = new CaseInsensitiveHeaderMap();
+        map.put("Foo", "cheese");
+        map.put("BAR", 123);
+        map.put("baZ", "beer");
+
+        Set<String> keys = map.keySet();
+        assertEquals(3, keys.size());
+
+        // we should be able to lookup no matter what case
+        assertTrue(keys.contains("Foo"));
+        assertTrue(keys.contains("foo"));
+        assertTrue(keys.contains("BAR"));
+        assertTrue(keys.contains("bar"));
+        assertTrue(keys.contains("baz"));
+        assertTrue(keys.contains("BAZ"));
+
+        // but the original keys is kept
+        Map<String, Object> other = new HashMap<String, Object>();
+        for (String key : keys) {
+            other.put(key, map.get(key));
+        }
+        assertTrue(other.containsKey("Foo"));
+        assertTrue(other.containsKey("BAR"));
+        assertTrue(other.containsKey("baZ"));
+    }
+
+    public void testManyKeys() {
+        Map<String, Object> map = new CaseInsensitiveHeaderMap(2);
+        for (int i = 0; i < 1000; i++) {
+            map.put("Key" + i, i);
+        }
+        assertEquals(1000, map.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, map.get("KEY" + i));
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            assertEquals(i, map.remove("key" + i));
+        }
+        assertEquals(500, map.size());
+        assertNull(map.get("key0"));
+        assertEquals(1, map.get("key1"));
+    }
+
+    public void testNonAsciiKeys() {
+        Map<String, Object> map = new CaseInsensitiveHeaderMap();
+        map.put("\u00c6bleGr\u00d8d", "yummy");
+
+        assertEquals("yummy", map.get("\u00e6blegr\u00f8d"));
+        assertEquals("yummy", map.get("\u00c6BLEGR\u00d8D"));
+    }
+
+    public void testRemoveWhileIterating() {
+        Map<String, Object> map = new CaseInsensitiveHeaderMap();
+        map.put("foo", "cheese");
+        map.put("bar", "beer");
+        map.put("baz", "wine");
+
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            if (entry.getKey().startsWith("ba")) {
+                map.remove(entry.getKey());
+            }
+        }
+        assertEquals(1, map.size());
+        assertEquals("cheese", map.get("FOO"));
+
+        Iterator<String> it = map.keySet().iterator();
+        it.next();
+        it.remove();
+        assertTrue(map.isEmpty());
+    }
+
+    public void testEntrySetValue() {
+        Map<String, Object> map = new CaseInsensitiveHeaderMap();
+        map.put("Foo", "cheese");
+
+        Map.Entry<String, Object> entry = map.entrySet().iterator().next();
+        assertEquals("cheese", entry.setValue("beer"));
+        assertEquals("beer", map.get("foo"));
+    }
+
+    public void testCopyOnWrite() {
+        CaseInsensitiveHeaderMap map = new CaseInsensitiveHeaderMap();
+        map.put("foo", "cheese");
+        map.put("bar", "beer");
+
+        CaseInsensitiveHeaderMap copy = new CaseInsensitiveHeaderMap(map);
+        CaseInsensitiveHeaderMap copy2 = new CaseInsensitiveHeaderMap(map);
+        assertEquals(2, copy.size());
+        assertEquals("cheese", copy.get("FOO"));
+
+        // change the copy should not affect the original
+        copy.put("foo", "wine");
+        copy.put("baz", "water");
+        copy.remove("bar");
+        assertEquals("wine", copy.get("foo"));
+        assertEquals("water", copy.get("baz"));
+        assertNull(copy.get("bar"));
+        assertEquals(2, copy.size());
+
+        assertEquals("cheese", map.get("foo"));
+        assertEquals("beer", map.get("bar"));
+        assertNull(map.get("baz"));
+        assertEquals(2, map.size());
+
+        // and change the original should not affect the copies
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertEquals(2, copy.size());
+        assertEquals("cheese", copy2.get("foo"));
+        assertEquals("beer", copy2.get("bar"));
+    }
+
+    public void testEquals() {
+        Map<String, Object> map = new CaseInsensitiveHeaderMap();
+        map.put("Foo", "cheese");
+        map.put("bar", 123);
+
+        Map<String, Object> other = new HashMap<String, Object>();
+        other.put("Foo", "cheese");
+        other.put("bar", 123);
+
+        assertEquals(other, map);
+        assertEquals(map, other);
+        assertEquals(other.hashCode(), map.hashCode());
+    }
+
+    public void testSerialization() throws Exception {
+        CaseInsensitiveHeaderMap map = new CaseInsensitiveHeaderMap();
+        map.put("Key", "value");
+        map.entrySet();
+
+        ByteArrayOutputStream bStream = new ByteArrayOutputStream();
+        ObjectOutputStream objStream = new ObjectOutputStream(bStream);
+        objStream.writeObject(map);
+
+        ObjectInputStream inStream = new ObjectInputStream(new ByteArrayInputStream(bStream.toByteArray()));
+        CaseInsensitiveHeaderMap copy = (CaseInsensitiveHeaderMap) inStream.readObject();
+
+        assertEquals("value", copy.get("key"));
+        assertEquals("Key", copy.keySet().iterator().next());
+        assertEquals(1, copy.size());
+    }
+
+}
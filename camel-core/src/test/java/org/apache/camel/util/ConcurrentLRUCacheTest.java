@@ -0,0 +1,154 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+/**
+ * @version 
+ */
+public class ConcurrentLRUCacheTest extends TestCase {
+
+    public void testEvictsNotRecentlyUsed() throws Exception {
+        final List<String> evicted = new ArrayList<String>();
+        ConcurrentLRUCache<String, String> cache = new ConcurrentLRUCache<String, String>(3) {
+            @Override
+            protected void onEviction(String key, String value) {
+                evicted.add(key);
+            }
+        };
+
+        cache.put("A", "a");
+        cache.put("B", "b");
+        cache.put("C", "c");
+        assertEquals(3, cache.size());
+
+        // A is used so B is the least recently used
+        assertEquals("a", cache.get("A"));
+        cache.put("D", "d");
+
+        assertEquals(3, cache.size());
+        assertEquals("[B]", evicted.toString());
+        assertTrue(cache.containsKey("A"));
+        assertFalse(cache.containsKey("B"));
+
+        cache.put("E", "e");
+        assertEquals("[B, C]", evicted.toString());
+        assertEquals(2, cache.getEvictions());
+    }
+
+    public void testStatistics() throws Exception {
+        ConcurrentLRUCache<String, String> cache = new ConcurrentLRUCache<String, String>(10);
+        assertNull(cache.get("A"));
+        assertNull(cache.putIfAbsent("A", "a"));
+        assertEquals("a", cache.putIfAbsent("A", "b"));
+        assertEquals("a", cache.get("A"));
+        assertEquals("a", cache.get("A"));
+
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0, cache.getEvictions());
+
+        cache.resetStatistics();
+        assertEquals(0, cache.getHits());
+        assertEquals(0, cache.getMisses());
+    }
+
+    public void testMapOperations() throws Exception {
+        ConcurrentLRUCache<String, String> cache = new ConcurrentLRUCache<String, String>(2);
+        assertNull(cache.put("A", "a"));
+        assertEquals("a", cache.put("A", "b"));
+        assertEquals(1, cache.size());
+
+        assertEquals("b", cache.replace("A", "c"));
+        assertFalse(cache.replace("A", "b", "d"));
+        assertTrue(cache.replace("A", "c", "d"));
+        assertFalse(cache.remove("A", "c"));
+        assertTrue(cache.remove("A", "d"));
+        assertTrue(cache.isEmpty());
+
+        cache.put("B", "b");
+        cache.put("C", "c");
+        assertEquals(2, cache.entrySet().size());
+        assertEquals("b", cache.remove("B"));
+        cache.clear();
+        assertEquals(0, cache.size());
+
+        // should be able to fill the cache again after removals
+        cache.put("D", "d");
+        cache.put("E", "e");
+        assertEquals(2, cache.size());
+        assertEquals(0, cache.getEvictions());
+    }
+
+    public void testManyRemovals() throws Exception {
+        ConcurrentLRUCache<Integer, Integer> cache = new ConcurrentLRUCache<Integer, Integer>(10);
+        for (int i = 0; i < 100000; i++) {
+            cache.put(i, i);
+            if (i % 2 == 0) {
+                cache.put(i, i + 1);
+            }
+            assertEquals(Integer.valueOf(i % 2 == 0 ? i + 1 : i), cache.remove(i));
+        }
+        assertTrue(cache.isEmpty());
+
+        // removed entries should not count when evicting
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, i);
+        }
+        assertEquals(10, cache.size());
+        assertEquals(0, cache.getEvictions());
+
+        cache.put(10, 10);
+        assertEquals(10, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertFalse(cache.containsKey(0));
+    }
+
+    public void testConcurrentBounded() throws Exception {
+        final ConcurrentLRUCache<Integer, Integer> cache = new ConcurrentLRUCache<Integer, Integer>(100);
+        final CountDownLatch latch = new CountDownLatch(5);
+
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        for (int i = 0; i < 5; i++) {
+            final int offset = i * 1000;
+            executor.submit(new Runnable() {
+                public void run() {
+                    for (int j = 0; j < 1000; j++) {
+                        cache.putIfAbsent(offset + j, j);
+                        cache.get(offset + j / 2);
+                    }
+                    latch.countDown();
+                }
+            });
+        }
+
+        assertTrue(latch.await(20, TimeUnit.SECONDS));
+        executor.shutdownNow();
+
+        assertEquals(100, cache.size());
+        assertEquals(4900, cache.getEvictions());
+    }
+
+}
@@ -0,0 +1,209 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import junit.framework.TestCase;
+
+/**
+ * @version 
+ */
+public class TimingWheelTimeoutMapTest extends TestCase {
+
+    private ScheduledExecutorService executor = new ScheduledThreadPoolExecutor(1);
+    private final AtomicLong clock = new AtomicLong(1000000);
+    private final List<String> evicted = Collections.synchronizedList(new ArrayList<String>());
+
+    @Override
+    protected void tearDown() throws Exception {
+        executor.shutdownNow();
+        super.tearDown();
+    }
+
+    public void testPurge() throws Exception {
+        TimingWheelTimeoutMap<String, Integer> map = new TimingWheelTimeoutMap<String, Integer>(executor, 50);
+        assertEquals(50, map.getPurgePollTime());
+        assertSame(executor, map.getExecutor());
+
+        map.put("A", 123, 50);
+        assertEquals(1, map.size());
+
+        Thread.sleep(250);
+
+        assertEquals(0, map.size());
+    }
+
+    public void testGetRemove() throws Exception {
+        TimingWheelTimeoutMap<String, Integer> map = new TimingWheelTimeoutMap<String, Integer>(executor, 100);
+
+        map.put("A", 123, 50);
+        map.put("B", 456, 50);
+        assertEquals(2, map.size());
+        assertEquals(2, map.getKeys().length);
+        assertEquals(123, (int) map.get("A"));
+
+        assertEquals(Integer.valueOf(123), map.remove("A"));
+        assertNull(map.get("A"));
+        assertNull(map.remove("A"));
+        assertEquals(1, map.size());
+    }
+
+    public void testExpiredInCorrectOrder() throws Exception {
+        TimingWheelTimeoutMap<String, Integer> map = createMap(100);
+
+        map.put("A", 1, 50);
+        map.put("B", 2, 30);
+        map.put("C", 3, 40);
+        map.put("D", 4, 20);
+        map.put("E", 5, 40);
+        // is not expired
+        map.put("F", 6, 800);
+
+        advance(map, 250);
+
+        assertEquals("[D, B, C, E, A]", evicted.toString());
+        assertEquals(1, map.size());
+        assertEquals(Integer.valueOf(6), map.get("F"));
+    }
+
+    public void testRemovedAndReplacedNotEvicted() throws Exception {
+        TimingWheelTimeoutMap<String, Integer> map = createMap(100);
+
+        map.put("A", 1, 50);
+        map.put("B", 2, 50);
+        map.remove("A");
+        // replace B with a longer timeout
+        map.put("B", 3, 500);
+
+        advance(map, 250);
+        assertEquals(0, evicted.size());
+        assertEquals(1, map.size());
+
+        advance(map, 300);
+        assertEquals("[B]", evicted.toString());
+        assertEquals(0, map.size());
+    }
+
+    public void testGetRefreshesTimeout() throws Exception {
+        TimingWheelTimeoutMap<String, Integer> map = createMap(10);
+
+        map.put("A", 1, 100);
+        for (int i = 0; i < 10; i++) {
+            advance(map, 50);
+            assertEquals(Integer.valueOf(1), map.get("A"));
+        }
+        assertEquals(0, evicted.size());
+
+        advance(map, 120);
+        assertEquals("[A]", evicted.toString());
+    }
+
+    public void testExpiredNotEvicted() throws Exception {
+        TimingWheelTimeoutMap<String, Integer> map = new TimingWheelTimeoutMap<String, Integer>(executor, 10) {
+            @Override
+            public boolean onEviction(String key, Integer value) {
+                // do not evict special key
+                if ("gold".equals(key)) {
+                    return false;
+                }
+                evicted.add(key);
+                return true;
+            }
+
+            @Override
+            protected long currentTime() {
+                return clock.get();
+            }
+        };
+
+        map.put("A", 1, 90);
+        map.put("gold", 9, 110);
+        map.put("C", 3, 120);
+
+        advance(map, 250);
+        assertEquals("[A, C]", evicted.toString());
+
+        // and keep the gold in the map
+        advance(map, 250);
+        assertEquals(1, map.size());
+        assertEquals(Integer.valueOf(9), map.get("gold"));
+    }
+
+    public void testLongTimeoutMovesDownTheWheel() throws Exception {
+        TimingWheelTimeoutMap<String, Integer> map = createMap(10);
+
+        // beyond the first two levels of the wheel
+        long timeout = 10L * 256 * 256 * 3 + 5;
+        map.put("A", 1, timeout);
+        map.put("B", 2, 25);
+
+        advance(map, 30);
+        assertEquals("[B]", evicted.toString());
+
+        advance(map, timeout - 40);
+        assertEquals(1, map.size());
+
+        advance(map, 20);
+        assertEquals("[B, A]", evicted.toString());
+        assertEquals(0, map.size());
+    }
+
+    public void testManyEntries() throws Exception {
+        TimingWheelTimeoutMap<String, Integer> map = createMap(10);
+
+        for (int i = 0; i < 10000; i++) {
+            map.put("K" + i, i, 10 + (i % 1000) * 10);
+        }
+        for (int i = 0; i < 10000; i += 2) {
+            map.remove("K" + i);
+        }
+
+        advance(map, 5000);
+        assertEquals(2500, evicted.size());
+        assertEquals(2500, map.size());
+
+        advance(map, 5010);
+        assertEquals(5000, evicted.size());
+        assertEquals(0, map.size());
+    }
+
+    private TimingWheelTimeoutMap<String, Integer> createMap(long purgePollTime) {
+        return new TimingWheelTimeoutMap<String, Integer>(executor, purgePollTime) {
+            @Override
+            public boolean onEviction(String key, Integer value) {
+                evicted.add(key);
+                return true;
+            }
+
+            @Override
+            protected long currentTime() {
+                return clock.get();
+            }
+        };
+    }
+
+    private void advance(TimingWheelTimeoutMap<?, ?> map, long millis) {
+        clock.addAndGet(millis);
+        map.purge();
+    }
+}
@@ -0,0 +1,264 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util.concurrent;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import junit.framework.TestCase;
+
+/**
+ * @version 
+ */
+public class RingBufferBlockingQueueTest extends TestCase {
+
+    public void testCapacityRoundedUp() throws Exception {
+        assertEquals(2, new RingBufferBlockingQueue<String>(1).getCapacity());
+        assertEquals(8, new RingBufferBlockingQueue<String>(5).getCapacity());
+        assertEquals(16, new RingBufferBlockingQueue<String>(16).getCapacity());
+
+        try {
+            new RingBufferBlockingQueue<String>(0);
+            fail("Should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    public void testOfferAndPoll() throws Exception {
+        BlockingQueue<String> queue = new RingBufferBlockingQueue<String>(4);
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+        assertNull(queue.peek());
+
+        assertTrue(queue.offer("A"));
+        assertTrue(queue.offer("B"));
+        assertTrue(queue.offer("C"));
+        assertTrue(queue.offer("D"));
+        assertFalse("Should be full", queue.offer("E"));
+        assertEquals(4, queue.size());
+        assertEquals(0, queue.remainingCapacity());
+
+        try {
+            queue.add("E");
+            fail("Should have thrown exception");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        assertEquals("A", queue.peek());
+        assertEquals("A", queue.poll());
+        assertEquals("B", queue.poll());
+        assertTrue(queue.offer("E"));
+        assertEquals("C", queue.poll());
+        assertEquals("D", queue.poll());
+        assertEquals("E", queue.poll());
+        assertNull(queue.poll());
+        assertEquals(0, queue.size());
+        assertEquals(4, queue.remainingCapacity());
+    }
+
+    public void testOfferNull() throws Exception {
+        BlockingQueue<String> queue = new RingBufferBlockingQueue<String>(4);
+        try {
+            queue.offer(null);
+            fail("Should have thrown exception");
+        } catch (NullPointerException e) {
+            // expected
+        }
+    }
+
+    public void testTimeouts() throws Exception {
+        BlockingQueue<String> queue = new RingBufferBlockingQueue<String>(2);
+
+        long start = System.currentTimeMillis();
+        assertNull(queue.poll(100, TimeUnit.MILLISECONDS));
+        assertTrue("Should have waited", System.currentTimeMillis() - start >= 90);
+
+        queue.put("A");
+        queue.put("B");
+        start = System.currentTimeMillis();
+        assertFalse(queue.offer("C", 100, TimeUnit.MILLISECONDS));
+        assertTrue("Should have waited", System.currentTimeMillis() - start >= 90);
+
+        assertEquals("A", queue.take());
+    }
+
+    public void testTakeInterrupted() throws Exception {
+        final BlockingQueue<String> queue = new RingBufferBlockingQueue<String>(4);
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    queue.take();
+                } catch (InterruptedException e) {
+                    latch.countDown();
+                }
+            }
+        });
+        thread.start();
+        thread.interrupt();
+
+        assertTrue("Should have been interrupted", latch.await(5, TimeUnit.SECONDS));
+    }
+
+    public void testBlockedTakeIsSignalled() throws Exception {
+        final BlockingQueue<String> queue = new RingBufferBlockingQueue<String>(4, WaitStrategy.Park);
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    if ("A".equals(queue.take())) {
+                        latch.countDown();
+                    }
+                } catch (InterruptedException e) {
+                    // ignore
+                }
+            }
+        });
+        thread.start();
+
+        // let the consumer back off and block
+        Thread.sleep(200);
+        assertEquals(1, latch.getCount());
+        queue.put("A");
+
+        assertTrue("Should have been signalled", latch.await(5, TimeUnit.SECONDS));
+    }
+
+    public void testBlockedPutIsSignalled() throws Exception {
+        final BlockingQueue<String> queue = new RingBufferBlockingQueue<String>(2, WaitStrategy.Park);
+        queue.put("A");
+        queue.put("B");
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    if (queue.offer("C", 10, TimeUnit.SECONDS)) {
+                        latch.countDown();
+                    }
+                } catch (InterruptedException e) {
+                    // ignore
+                }
+            }
+        });
+        thread.start();
+
+        // let the producer back off and block
+        Thread.sleep(200);
+        assertEquals(1, latch.getCount());
+        assertEquals("A", queue.poll());
+
+        assertTrue("Should have been signalled", latch.await(5, TimeUnit.SECONDS));
+        assertEquals("B", queue.poll());
+        assertEquals("C", queue.poll());
+    }
+
+    public void testIteratorAndDrainTo() throws Exception {
+        BlockingQueue<String> queue = new RingBufferBlockingQueue<String>(4);
+        queue.add("A");
+        queue.add("B");
+        queue.poll();
+        queue.add("C");
+        queue.add("D");
+        queue.add("E");
+
+        Iterator<String> it = queue.iterator();
+        assertEquals("B", it.next());
+        assertEquals("C", it.next());
+        assertEquals("D", it.next());
+        assertEquals("E", it.next());
+        assertFalse(it.hasNext());
+        assertTrue(queue.contains("C"));
+
+        List<String> list = new ArrayList<String>();
+        assertEquals(3, queue.drainTo(list, 3));
+        assertEquals("[B, C, D]", list.toString());
+        assertEquals(1, queue.drainTo(list));
+        assertEquals("E", list.get(3));
+        assertTrue(queue.isEmpty());
+    }
+
+    public void testConcurrentSpin() throws Exception {
+        doTestConcurrent(WaitStrategy.Spin);
+    }
+
+    public void testConcurrentYield() throws Exception {
+        doTestConcurrent(WaitStrategy.Yield);
+    }
+
+    public void testConcurrentPark() throws Exception {
+        doTestConcurrent(WaitStrategy.Park);
+    }
+
+    private void doTestConcurrent(WaitStrategy waitStrategy) throws Exception {
+        final int producers = 3;
+        final int consumers = 3;
+        final int messages = 10000;
+
+        final BlockingQueue<Long> queue = new RingBufferBlockingQueue<Long>(64, waitStrategy);
+        final AtomicLong sum = new AtomicLong();
+        final CountDownLatch latch = new CountDownLatch(producers * messages);
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers + consumers);
+        for (int i = 0; i < consumers; i++) {
+            executor.submit(new Runnable() {
+                public void run() {
+                    try {
+                        while (true) {
+                            sum.addAndGet(queue.take());
+                            latch.countDown();
+                        }
+                    } catch (InterruptedException e) {
+                        // stopped
+                    }
+                }
+            });
+        }
+        for (int i = 0; i < producers; i++) {
+            executor.submit(new Runnable() {
+                public void run() {
+                    try {
+                        for (long j = 1; j <= messages; j++) {
+                            queue.put(j);
+                        }
+                    } catch (InterruptedException e) {
+                        // stopped
+                    }
+                }
+            });
+        }
+
+        assertTrue("Should consume all messages", latch.await(30, TimeUnit.SECONDS));
+        executor.shutdownNow();
+
+        long expected = producers * ((long) messages * (messages + 1) / 2);
+        assertEquals(expected, sum.get());
+        assertTrue(queue.isEmpty());
+    }
+
+}
@@ -69,6 +69,12 @@ public abstract class RemoteFileConsumer<T> extends GenericFileConsumer<T> {
         return true;
     }
 
+    @Override
+    protected boolean isOperationsThreadSafe() {
+        // the operations use a single connection to the remote server
+        return false;
+    }
+
     @Override
     protected void postPollCheck() {
         if (getEndpoint().isDisconnect()) {
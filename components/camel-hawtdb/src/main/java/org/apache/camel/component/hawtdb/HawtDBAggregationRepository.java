@@ -28,6 +28,7 @@ import java.util.concurrent.TimeUnit;
 import org.apache.camel.CamelContext;
 import org.apache.camel.Exchange;
 import org.apache.camel.impl.ServiceSupport;
+import org.apache.camel.spi.ExchangeCodec;
 import org.apache.camel.spi.RecoverableAggregationRepository;
 import org.apache.camel.util.ObjectHelper;
 import org.apache.camel.util.ServiceHelper;
@@ -48,8 +49,11 @@ public class HawtDBAggregationRepository extends ServiceSupport implements Recov
     private String repositoryName;
     private int bufferSize = 8 * 1024 * 1024;
     private boolean sync = true;
+    private boolean groupCommit;
+    private long groupCommitDelay;
     private short pageSize = 512;
     private boolean returnOldExchange;
+    private ExchangeCodec exchangeCodec;
     private HawtDBCamelCodec codec = new HawtDBCamelCodec();
     private long recoveryInterval = 5000;
     private boolean useRecovery = true;
@@ -408,6 +412,28 @@ public class HawtDBAggregationRepository extends ServiceSupport implements Recov
         this.sync = sync;
     }
 
+    public boolean isGroupCommit() {
+        return groupCommit;
+    }
+
+    /**
+     * Whether concurrent add, remove and confirm operations should be committed together in a shared transaction.
+     */
+    public void setGroupCommit(boolean groupCommit) {
+        this.groupCommit = groupCommit;
+    }
+
+    public long getGroupCommitDelay() {
+        return groupCommitDelay;
+    }
+
+    /**
+     * Delay in millis to wait before a group commit, to allow more operations to be committed together.
+     */
+    public void setGroupCommitDelay(long groupCommitDelay) {
+        this.groupCommitDelay = groupCommitDelay;
+    }
+
     public Integer getBufferSize() {
         return bufferSize;
     }
@@ -460,6 +486,19 @@ public class HawtDBAggregationRepository extends ServiceSupport implements Recov
         this.deadLetterUri = deadLetterUri;
     }
 
+    public ExchangeCodec getExchangeCodec() {
+        return exchangeCodec;
+    }
+
+    /**
+     * Sets the codec to use for encoding the exchanges, such as {@link org.apache.camel.impl.BinaryExchangeCodec}.
+     * By default Java serialization is used.
+     */
+    public void setExchangeCodec(ExchangeCodec exchangeCodec) {
+        this.exchangeCodec = exchangeCodec;
+        this.codec = new HawtDBCamelCodec(exchangeCodec);
+    }
+
     public short getPageSize() {
         return pageSize;
     }
@@ -475,6 +514,8 @@ public class HawtDBAggregationRepository extends ServiceSupport implements Recov
             hawtDBFile = new HawtDBFile();
             hawtDBFile.setFile(new File(persistentFileName));
             hawtDBFile.setSync(isSync());
+            hawtDBFile.setGroupCommit(isGroupCommit());
+            hawtDBFile.setGroupCommitDelay(getGroupCommitDelay());
             if (getBufferSize() != null) {
                 hawtDBFile.setMappingSegementSize(getBufferSize());
             }
@@ -16,14 +16,15 @@
  */
 package org.apache.camel.component.hawtdb;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.Serializable;
 
 import org.apache.camel.CamelContext;
 import org.apache.camel.Endpoint;
 import org.apache.camel.Exchange;
 import org.apache.camel.impl.DefaultExchange;
 import org.apache.camel.impl.DefaultExchangeHolder;
+import org.apache.camel.spi.ExchangeCodec;
 import org.fusesource.hawtbuf.Buffer;
 import org.fusesource.hawtbuf.DataByteArrayInputStream;
 import org.fusesource.hawtbuf.DataByteArrayOutputStream;
@@ -37,7 +38,21 @@ import org.fusesource.hawtbuf.codec.StringCodec;
 public final class HawtDBCamelCodec {
 
     private Codec<String> keyCodec = new StringCodec();
-    private Codec<DefaultExchangeHolder> exchangeCodec = new ObjectCodec<DefaultExchangeHolder>();
+    private Codec<DefaultExchangeHolder> holderCodec = new ObjectCodec<DefaultExchangeHolder>();
+    private final ExchangeCodec exchangeCodec;
+
+    public HawtDBCamelCodec() {
+        this(null);
+    }
+
+    /**
+     * Creates a codec which uses the given {@link ExchangeCodec} to encode the exchanges.
+     *
+     * @param exchangeCodec the codec to use, or <tt>null</tt> to use Java serialization
+     */
+    public HawtDBCamelCodec(ExchangeCodec exchangeCodec) {
+        this.exchangeCodec = exchangeCodec;
+    }
 
     public Buffer marshallKey(String key) throws IOException {
         DataByteArrayOutputStream baos = new DataByteArrayOutputStream();
@@ -65,13 +80,28 @@ public final class HawtDBCamelCodec {
         if (exchange.getFromEndpoint() != null) {
             DefaultExchangeHolder.addProperty(pe, "CamelAggregatedFromEndpoint", exchange.getFromEndpoint().getEndpointUri());
         }
-        exchangeCodec.encode(pe, baos);
+        if (exchangeCodec != null) {
+            // write the data length prefixed as the object codec does
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            exchangeCodec.encode(pe, bos);
+            baos.writeInt(bos.size());
+            bos.writeTo(baos);
+        } else {
+            holderCodec.encode(pe, baos);
+        }
         return baos.toBuffer();
     }
 
     public Exchange unmarshallExchange(CamelContext camelContext, Buffer buffer) throws IOException {
         DataByteArrayInputStream bais = new DataByteArrayInputStream(buffer);
-        DefaultExchangeHolder pe = exchangeCodec.decode(bais);
+        DefaultExchangeHolder pe;
+        if (exchangeCodec != null) {
+            // skip the length
+            bais.readInt();
+            pe = exchangeCodec.decode(bais);
+        } else {
+            pe = holderCodec.decode(bais);
+        }
         Exchange answer = new DefaultExchange(camelContext);
         DefaultExchangeHolder.unmarshal(answer, pe);
         // restore the from endpoint
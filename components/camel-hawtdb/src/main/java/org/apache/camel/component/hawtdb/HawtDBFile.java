@@ -16,6 +16,13 @@
  */
 package org.apache.camel.component.hawtdb;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
 import org.apache.camel.Service;
 import org.fusesource.hawtbuf.Buffer;
 import org.fusesource.hawtbuf.codec.BufferCodec;
@@ -35,6 +42,11 @@ import org.slf4j.LoggerFactory;
  * <p/>
  * Will by default not sync writes which allows it to be faster.
  * You can force syncing by setting the sync option to <tt>true</tt>.
+ * <p/>
+ * By default each work is executed in its own transaction which is committed and flushed.
+ * If the <tt>groupCommit</tt> option is enabled then work from concurrent threads is executed in a shared
+ * transaction which is committed and flushed once for all of them. Use the <tt>groupCommitDelay</tt> option
+ * to wait a little before committing to allow more work to be included in the commit.
  */
 public class HawtDBFile extends TxPageFileFactory implements Service {
 
@@ -46,6 +58,10 @@ public class HawtDBFile extends TxPageFileFactory implements Service {
     private static final BTreeIndexFactory<Buffer, Buffer> INDEX_FACTORY = new BTreeIndexFactory<Buffer, Buffer>();
 
     private TxPageFile pageFile;
+    private boolean groupCommit;
+    private long groupCommitDelay;
+    private final Queue<PendingWork<?>> pendingWork = new ConcurrentLinkedQueue<PendingWork<?>>();
+    private final Lock commitLock = new ReentrantLock();
 
     static {
         ROOT_INDEXES_FACTORY.setKeyCodec(StringCodec.INSTANCE);
@@ -107,8 +123,13 @@ public class HawtDBFile extends TxPageFileFactory implements Service {
             LOG.trace("Executing work +++ start +++ " + work);
         }
 
-        Transaction tx = pageFile.tx();
-        T answer = doExecute(work, tx, pageFile);
+        T answer;
+        if (groupCommit) {
+            answer = doExecuteGroupCommit(work);
+        } else {
+            Transaction tx = pageFile.tx();
+            answer = doExecute(work, tx, pageFile);
+        }
 
         if (LOG.isTraceEnabled()) {
             LOG.trace("Executing work +++ done  +++ " + work);
@@ -148,6 +169,107 @@ public class HawtDBFile extends TxPageFileFactory implements Service {
         return answer;
     }
 
+    public boolean isGroupCommit() {
+        return groupCommit;
+    }
+
+    /**
+     * Whether work from concurrent threads should be executed in a shared transaction,
+     * which is committed and flushed once.
+     */
+    public void setGroupCommit(boolean groupCommit) {
+        this.groupCommit = groupCommit;
+    }
+
+    public long getGroupCommitDelay() {
+        return groupCommitDelay;
+    }
+
+    /**
+     * Delay in millis to wait before committing a group commit, to allow more work to be included in the commit.
+     * Is by default 0 to not wait, which still allows work to be grouped if it arrives while a commit is in progress.
+     */
+    public void setGroupCommitDelay(long groupCommitDelay) {
+        this.groupCommitDelay = groupCommitDelay;
+    }
+
+    private <T> T doExecuteGroupCommit(Work<T> work) {
+        PendingWork<T> pending = new PendingWork<T>(work);
+        pendingWork.add(pending);
+
+        // the thread which gets the lock commits all the pending work, and while it does that
+        // other threads queue up their work which the next thread getting the lock commits
+        commitLock.lock();
+        try {
+            if (!pending.done) {
+                if (groupCommitDelay > 0) {
+                    try {
+                        Thread.sleep(groupCommitDelay);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                commitPendingWork();
+            }
+        } finally {
+            commitLock.unlock();
+        }
+
+        if (pending.exception != null) {
+            throw pending.exception;
+        }
+        return pending.answer;
+    }
+
+    private void commitPendingWork() {
+        final List<PendingWork<?>> batch = new ArrayList<PendingWork<?>>();
+        PendingWork<?> next;
+        while ((next = pendingWork.poll()) != null) {
+            batch.add(next);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        if (LOG.isTraceEnabled()) {
+            LOG.trace("Group commit of " + batch.size() + " work");
+        }
+
+        try {
+            doExecute(new Work<Boolean>() {
+                public Boolean execute(Transaction tx) {
+                    for (PendingWork<?> pending : batch) {
+                        pending.execute(tx);
+                    }
+                    return true;
+                }
+
+                @Override
+                public String toString() {
+                    return "Group commit of " + batch.size() + " work";
+                }
+            }, pageFile.tx(), pageFile);
+        } catch (RuntimeException e) {
+            // the transaction was rolled back so execute the work individually,
+            // so only the work which failed is affected by its failure
+            for (PendingWork<?> pending : batch) {
+                try {
+                    doExecute(pending, pageFile.tx(), pageFile);
+                } catch (RuntimeException ex) {
+                    pending.exception = ex;
+                }
+            }
+        }
+
+        for (PendingWork<?> pending : batch) {
+            pending.done = true;
+        }
+    }
+
+    private static <T> void doExecute(final PendingWork<T> pending, Transaction tx, TxPageFile page) {
+        pending.answer = doExecute(pending.work, tx, page);
+    }
+
     private static <T> T doExecute(Work<T> work, Transaction tx, TxPageFile page) {
         T answer = null;
 
@@ -188,4 +310,21 @@ public class HawtDBFile extends TxPageFileFactory implements Service {
         return answer;
     }
 
+    /**
+     * Work which is waiting to be executed in a group commit.
+     */
+    private static final class PendingWork<T> {
+        private final Work<T> work;
+        private T answer;
+        private RuntimeException exception;
+        private volatile boolean done;
+
+        private PendingWork(Work<T> work) {
+            this.work = work;
+        }
+
+        private void execute(Transaction tx) {
+            answer = work.execute(tx);
+        }
+    }
 }
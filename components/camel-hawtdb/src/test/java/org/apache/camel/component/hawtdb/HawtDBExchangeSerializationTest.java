@@ -20,6 +20,7 @@ import java.io.File;
 import java.util.Date;
 
 import org.apache.camel.Exchange;
+import org.apache.camel.impl.BinaryExchangeCodec;
 import org.apache.camel.impl.DefaultExchange;
 import org.apache.camel.test.junit4.CamelTestSupport;
 import org.junit.Test;
@@ -88,4 +89,32 @@ public class HawtDBExchangeSerializationTest extends CamelTestSupport {
         assertSame(context, actual.getContext());
     }
 
+    @Test
+    public void testExchangeBinaryCodec() {
+        HawtDBAggregationRepository repo = new HawtDBAggregationRepository();
+        repo.setHawtDBFile(hawtDBFile);
+        repo.setRepositoryName("repo1");
+
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setBody("Hello World");
+        exchange.getIn().setHeader("number", 123);
+
+        // add using java serialization
+        repo.add(context, "foo", exchange);
+
+        // which the binary codec should be able to read
+        repo.setExchangeCodec(new BinaryExchangeCodec());
+        Exchange actual = repo.get(context, "foo");
+        assertEquals("Hello World", actual.getIn().getBody());
+        assertEquals(123, actual.getIn().getHeader("number"));
+
+        exchange.getIn().setBody("Bye World");
+        repo.add(context, "foo", exchange);
+
+        actual = repo.get(context, "foo");
+        assertEquals("Bye World", actual.getIn().getBody());
+        assertEquals(123, actual.getIn().getHeader("number"));
+        assertSame(context, actual.getContext());
+    }
+
 }
\ No newline at end of file
@@ -57,6 +57,9 @@ public class HttpEndpoint extends DefaultPollingEndpoint implements HeaderFilter
     private boolean chunked = true;
     private boolean disableStreamCache;
     private boolean transferException;
+    private boolean workerPool;
+    private int workerPoolSize = 20;
+    private int workerPoolMaxQueueSize = 1000;
 
     public HttpEndpoint() {
     }
@@ -80,6 +83,9 @@ public class HttpEndpoint extends DefaultPollingEndpoint implements HeaderFilter
     }
 
     public Producer createProducer() throws Exception {
+        if (isWorkerPool()) {
+            return new HttpWorkerPoolProducer(this);
+        }
         return new HttpProducer(this);
     }
 
@@ -303,4 +309,42 @@ public class HttpEndpoint extends DefaultPollingEndpoint implements HeaderFilter
     public void setTransferException(boolean transferException) {
         this.transferException = transferException;
     }
+
+    public boolean isWorkerPool() {
+        return workerPool;
+    }
+
+    /**
+     * Whether to use the {@link HttpWorkerPoolProducer} which executes the blocking HTTP calls in a pool
+     * of worker threads, so the caller thread is released while waiting for the response.
+     * <p/>
+     * Notice this is not non-blocking I/O, as each call in-flight still holds a worker thread.
+     */
+    public void setWorkerPool(boolean workerPool) {
+        this.workerPool = workerPool;
+    }
+
+    public int getWorkerPoolSize() {
+        return workerPoolSize;
+    }
+
+    /**
+     * Number of worker threads executing the HTTP calls when using the worker pool,
+     * which is also the maximum number of concurrent HTTP calls as each call holds a thread.
+     */
+    public void setWorkerPoolSize(int workerPoolSize) {
+        this.workerPoolSize = workerPoolSize;
+    }
+
+    public int getWorkerPoolMaxQueueSize() {
+        return workerPoolMaxQueueSize;
+    }
+
+    /**
+     * Maximum number of requests waiting for a free worker thread when using the worker pool.
+     * When the queue is full the exchange fails with a {@link java.util.concurrent.RejectedExecutionException}.
+     */
+    public void setWorkerPoolMaxQueueSize(int workerPoolMaxQueueSize) {
+        this.workerPoolMaxQueueSize = workerPoolMaxQueueSize;
+    }
 }
@@ -72,6 +72,35 @@ public class HttpProducer extends DefaultProducer {
     }
 
     public void process(Exchange exchange) throws Exception {
+        HttpRequestBase httpRequest = createRequest(exchange);
+
+        // lets store the result in the output message.
+        HttpResponse httpResponse = null;
+        try {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Executing http " + httpRequest.getMethod() + " method: " + httpRequest.getURI().toString());
+            }
+            httpResponse = executeMethod(httpRequest);
+            processResponse(exchange, httpRequest, httpResponse);
+        } finally {
+            if (httpResponse != null) {
+                try {
+                    EntityUtils.consume(httpResponse.getEntity());
+                } catch (IOException e) {
+                    // nothing we could do
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates the request to send with the headers from the exchange.
+     *
+     * @param exchange the exchange
+     * @return the request
+     * @throws Exception is thrown if error creating the request
+     */
+    protected HttpRequestBase createRequest(Exchange exchange) throws Exception {
         if (getEndpoint().isBridgeEndpoint()) {
             exchange.setProperty(Exchange.SKIP_GZIP_ENCODING, Boolean.TRUE);
         }
@@ -91,32 +120,27 @@ public class HttpProducer extends DefaultProducer {
                 httpRequest.addHeader(entry.getKey(), headerValue);
             }
         }
+        return httpRequest;
+    }
 
-        // lets store the result in the output message.
-        HttpResponse httpResponse = null;
-        try {
-            if (LOG.isDebugEnabled()) {
-                LOG.debug("Executing http " + httpRequest.getMethod() + " method: " + httpRequest.getURI().toString());
-            }
-            httpResponse = executeMethod(httpRequest);
-            int responseCode = httpResponse.getStatusLine().getStatusCode();
-            if (LOG.isDebugEnabled()) {
-                LOG.debug("Http responseCode: " + responseCode);
-            }
+    /**
+     * Processes the response by populating the exchange, or throws an exception if the response is a failure.
+     *
+     * @param exchange     the exchange
+     * @param httpRequest  the executed request
+     * @param httpResponse the response
+     * @throws Exception is thrown if the response is a failure and <tt>throwExceptionOnFailure</tt> is enabled
+     */
+    protected void processResponse(Exchange exchange, HttpRequestBase httpRequest, HttpResponse httpResponse) throws Exception {
+        int responseCode = httpResponse.getStatusLine().getStatusCode();
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Http responseCode: " + responseCode);
+        }
 
-            if (throwException && (responseCode < 100 || responseCode >= 300)) {
-                throw populateHttpOperationFailedException(exchange, httpRequest, httpResponse, responseCode);
-            } else {
-                populateResponse(exchange, httpRequest, httpResponse, in, strategy, responseCode);
-            }
-        } finally {
-            if (httpResponse != null) {
-                try {
-                    EntityUtils.consume(httpResponse.getEntity());
-                } catch (IOException e) {
-                    // nothing we could do
-                }
-            }
+        if (throwException && (responseCode < 100 || responseCode >= 300)) {
+            throw populateHttpOperationFailedException(exchange, httpRequest, httpResponse, responseCode);
+        } else {
+            populateResponse(exchange, httpRequest, httpResponse, exchange.getIn(), getEndpoint().getHeaderFilterStrategy(), responseCode);
         }
     }
 
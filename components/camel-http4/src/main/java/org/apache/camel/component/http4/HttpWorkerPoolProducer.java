@@ -0,0 +1,287 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.http4;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.AsyncProcessor;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.management.mbean.ManagedProducer;
+import org.apache.camel.util.AsyncProcessorHelper;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.impl.conn.tsccm.ThreadSafeClientConnManager;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+/**
+ * HTTP producer which executes the HTTP calls in a pool of worker threads, so the caller thread is released
+ * while waiting for the response.
+ * <p/>
+ * The HTTP call is executed by a worker thread using the connection pool of the component, which completes
+ * the {@link AsyncCallback} when the response has been received. The caller thread is therefore free to
+ * process other exchanges in the meantime.
+ * <p/>
+ * Notice this is <b>not</b> non-blocking I/O. The HTTP call itself is blocking, so each request in-flight holds
+ * a worker thread until its response has been received, and the number of concurrent requests is limited by the
+ * <tt>workerPoolSize</tt> option. Requests exceeding that is queued up to <tt>workerPoolMaxQueueSize</tt>,
+ * and when the queue is full the exchange fails with a {@link RejectedExecutionException}.
+ * <p/>
+ * As producers is not managed by default, this producer registers itself in JMX to expose its statistics.
+ *
+ * @version 
+ */
+@ManagedResource(description = "Managed HttpWorkerPoolProducer")
+public class HttpWorkerPoolProducer extends HttpProducer implements AsyncProcessor {
+    private static final transient Logger LOG = LoggerFactory.getLogger(HttpWorkerPoolProducer.class);
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private final AtomicLong completedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong totalProcessingTime = new AtomicLong();
+    private volatile long minProcessingTime = -1;
+    private volatile long maxProcessingTime;
+    private volatile long lastProcessingTime;
+    private ExecutorService executorService;
+    private boolean shutdownExecutorService;
+    private ManagedProducer managedObject;
+
+    public HttpWorkerPoolProducer(HttpEndpoint endpoint) {
+        super(endpoint);
+    }
+
+    @Override
+    public void process(Exchange exchange) throws Exception {
+        AsyncProcessorHelper.process(this, exchange);
+    }
+
+    public boolean process(final Exchange exchange, final AsyncCallback callback) {
+        final HttpRequestBase httpRequest;
+        try {
+            httpRequest = createRequest(exchange);
+        } catch (Exception e) {
+            exchange.setException(e);
+            callback.done(true);
+            return true;
+        }
+
+        pendingCount.incrementAndGet();
+        try {
+            executorService.submit(new Runnable() {
+                public void run() {
+                    doExecute(exchange, httpRequest, callback);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pendingCount.decrementAndGet();
+            exchange.setException(e);
+            callback.done(true);
+            return true;
+        }
+
+        // the callback is completed by the worker thread when the response has been received
+        return false;
+    }
+
+    private void doExecute(Exchange exchange, HttpRequestBase httpRequest, AsyncCallback callback) {
+        pendingCount.decrementAndGet();
+        activeCount.incrementAndGet();
+        long start = System.currentTimeMillis();
+
+        HttpResponse httpResponse = null;
+        try {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Executing http " + httpRequest.getMethod() + " method: " + httpRequest.getURI().toString());
+            }
+            httpResponse = executeMethod(httpRequest);
+            processResponse(exchange, httpRequest, httpResponse);
+        } catch (Throwable e) {
+            exchange.setException(e);
+        } finally {
+            if (httpResponse != null) {
+                try {
+                    EntityUtils.consume(httpResponse.getEntity());
+                } catch (IOException e) {
+                    // nothing we could do
+                }
+            }
+            activeCount.decrementAndGet();
+            recordTime(System.currentTimeMillis() - start, exchange.getException() != null);
+
+            // signal callback from the worker thread to continue routing
+            callback.done(false);
+        }
+    }
+
+    private void recordTime(long time, boolean failed) {
+        if (failed) {
+            failedCount.incrementAndGet();
+        } else {
+            completedCount.incrementAndGet();
+        }
+        totalProcessingTime.addAndGet(time);
+        lastProcessingTime = time;
+        if (minProcessingTime == -1 || time < minProcessingTime) {
+            minProcessingTime = time;
+        }
+        if (time > maxProcessingTime) {
+            maxProcessingTime = time;
+        }
+    }
+
+    public ExecutorService getExecutorService() {
+        return executorService;
+    }
+
+    /**
+     * Sets the thread pool of worker threads executing the HTTP calls.
+     */
+    public void setExecutorService(ExecutorService executorService) {
+        this.executorService = executorService;
+    }
+
+    @ManagedAttribute(description = "Endpoint uri")
+    public String getEndpointUri() {
+        return getEndpoint().getEndpointUri();
+    }
+
+    /**
+     * Number of requests waiting for a free worker thread, when the thread pool is saturated.
+     * If the queue of the thread pool is full then the request is rejected and the exchange fails.
+     */
+    @ManagedAttribute(description = "Number of requests waiting for a free worker thread")
+    public int getPendingCount() {
+        return pendingCount.get();
+    }
+
+    @ManagedAttribute(description = "Number of requests currently being executed")
+    public int getActiveCount() {
+        return activeCount.get();
+    }
+
+    @ManagedAttribute(description = "Maximum number of worker threads")
+    public int getMaxPoolSize() {
+        if (executorService instanceof ThreadPoolExecutor) {
+            return ((ThreadPoolExecutor) executorService).getMaximumPoolSize();
+        }
+        return -1;
+    }
+
+    @ManagedAttribute(description = "Number of completed requests")
+    public long getCompletedCount() {
+        return completedCount.get();
+    }
+
+    @ManagedAttribute(description = "Number of failed requests")
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    @ManagedAttribute(description = "Min processing time [milliseconds]")
+    public long getMinProcessingTime() {
+        return minProcessingTime;
+    }
+
+    @ManagedAttribute(description = "Max processing time [milliseconds]")
+    public long getMaxProcessingTime() {
+        return maxProcessingTime;
+    }
+
+    @ManagedAttribute(description = "Mean processing time [milliseconds]")
+    public long getMeanProcessingTime() {
+        long count = completedCount.get() + failedCount.get();
+        return count > 0 ? totalProcessingTime.get() / count : 0;
+    }
+
+    @ManagedAttribute(description = "Last processing time [milliseconds]")
+    public long getLastProcessingTime() {
+        return lastProcessingTime;
+    }
+
+    @ManagedAttribute(description = "Number of connections in the connection pool")
+    public int getConnectionsInPool() {
+        ClientConnectionManager manager = getEndpoint().getClientConnectionManager();
+        if (manager instanceof ThreadSafeClientConnManager) {
+            return ((ThreadSafeClientConnManager) manager).getConnectionsInPool();
+        }
+        return -1;
+    }
+
+    @ManagedAttribute(description = "Maximum number of connections in the connection pool")
+    public int getMaxTotalConnections() {
+        ClientConnectionManager manager = getEndpoint().getClientConnectionManager();
+        if (manager instanceof ThreadSafeClientConnManager) {
+            return ((ThreadSafeClientConnManager) manager).getMaxTotal();
+        }
+        return -1;
+    }
+
+    @ManagedOperation(description = "Reset counters")
+    public void reset() {
+        completedCount.set(0);
+        failedCount.set(0);
+        totalProcessingTime.set(0);
+        minProcessingTime = -1;
+        maxProcessingTime = 0;
+        lastProcessingTime = 0;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
+        CamelContext context = getEndpoint().getCamelContext();
+        if (executorService == null) {
+            int poolSize = getEndpoint().getWorkerPoolSize();
+            // reject requests when the queue is full, as running them in the caller thread would block it
+            executorService = context.getExecutorServiceStrategy().newThreadPool(this, "HttpWorkerPoolProducer", poolSize, poolSize,
+                    60, TimeUnit.SECONDS, getEndpoint().getWorkerPoolMaxQueueSize(), new ThreadPoolExecutor.AbortPolicy(), true);
+            shutdownExecutorService = true;
+        }
+
+        managedObject = new ManagedProducer(context, this);
+        managedObject.init(context.getManagementStrategy());
+        context.getManagementStrategy().manageObject(managedObject);
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (managedObject != null) {
+            getEndpoint().getCamelContext().getManagementStrategy().unmanageObject(managedObject);
+            managedObject = null;
+        }
+        if (shutdownExecutorService && executorService != null) {
+            getEndpoint().getCamelContext().getExecutorServiceStrategy().shutdown(executorService);
+            executorService = null;
+            shutdownExecutorService = false;
+        }
+        super.doStop();
+    }
+
+}
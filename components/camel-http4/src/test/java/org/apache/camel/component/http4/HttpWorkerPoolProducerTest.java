@@ -0,0 +1,215 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.http4;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.Exchange;
+import org.apache.camel.Producer;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.localserver.LocalTestServer;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestHandler;
+import org.junit.Test;
+
+/**
+ * @version 
+ */
+public class HttpWorkerPoolProducerTest extends BaseHttpTest {
+
+    private final AtomicInteger counter = new AtomicInteger();
+
+    @Override
+    protected void registerHandler(LocalTestServer server) {
+        server.register("/", new HttpRequestHandler() {
+            public void handle(HttpRequest request, HttpResponse response, HttpContext context) throws HttpException, IOException {
+                try {
+                    Thread.sleep(500);
+                } catch (InterruptedException e) {
+                    // ignore
+                }
+                response.setStatusCode(HttpStatus.SC_OK);
+                response.setEntity(new StringEntity("" + counter.incrementAndGet()));
+            }
+        });
+        server.register("/missing", new HttpRequestHandler() {
+            public void handle(HttpRequest request, HttpResponse response, HttpContext context) throws HttpException, IOException {
+                response.setStatusCode(HttpStatus.SC_NOT_FOUND);
+            }
+        });
+    }
+
+    @Override
+    protected boolean useJmx() {
+        return true;
+    }
+
+    @Test
+    public void testCreateWorkerPoolProducer() throws Exception {
+        Producer producer = context.getEndpoint("http4://" + getHostName() + ":" + getPort() + "?workerPool=true").createProducer();
+        assertIsInstanceOf(HttpWorkerPoolProducer.class, producer);
+
+        producer = context.getEndpoint("http4://" + getHostName() + ":" + getPort()).createProducer();
+        assertFalse(producer instanceof HttpWorkerPoolProducer);
+    }
+
+    @Test
+    public void testSyncRequest() throws Exception {
+        String out = template.requestBody("http4://" + getHostName() + ":" + getPort() + "?workerPool=true", null, String.class);
+        assertEquals("1", out);
+    }
+
+    @Test
+    public void testConcurrentRequests() throws Exception {
+        final int messages = 10;
+
+        HttpWorkerPoolProducer producer = (HttpWorkerPoolProducer) context.getEndpoint("http4://" + getHostName() + ":" + getPort()
+                + "?workerPool=true&workerPoolSize=5").createProducer();
+        producer.start();
+        try {
+            final CountDownLatch latch = new CountDownLatch(messages);
+            final Exchange[] exchanges = new Exchange[messages];
+            for (int i = 0; i < messages; i++) {
+                exchanges[i] = new DefaultExchange(context);
+                boolean sync = producer.process(exchanges[i], new AsyncCallback() {
+                    public void done(boolean doneSync) {
+                        latch.countDown();
+                    }
+                });
+                assertFalse("Should be processed asynchronously", sync);
+            }
+
+            // all requests was submitted without waiting for the responses
+            assertTrue("Should complete all requests", latch.await(20, TimeUnit.SECONDS));
+
+            Set<Object> unique = new HashSet<Object>();
+            for (Exchange exchange : exchanges) {
+                assertNull(exchange.getException());
+                unique.add(exchange.getOut().getBody(String.class));
+            }
+            assertEquals("Should be " + messages + " unique responses", messages, unique.size());
+
+            assertEquals(messages, producer.getCompletedCount());
+            assertEquals(0, producer.getFailedCount());
+            assertEquals(0, producer.getPendingCount());
+            assertEquals(5, producer.getMaxPoolSize());
+            assertTrue(producer.getMinProcessingTime() > 0);
+            assertTrue(producer.getMaxProcessingTime() >= producer.getMeanProcessingTime());
+        } finally {
+            producer.stop();
+        }
+    }
+
+    @Test
+    public void testManagedProducer() throws Exception {
+        HttpWorkerPoolProducer producer = (HttpWorkerPoolProducer) context.getEndpoint("http4://" + getHostName() + ":" + getPort()
+                + "?workerPool=true&workerPoolSize=3").createProducer();
+        producer.start();
+        try {
+            Exchange exchange = new DefaultExchange(context);
+            producer.process(exchange);
+            assertEquals("1", exchange.getOut().getBody(String.class));
+
+            MBeanServer mbeanServer = context.getManagementStrategy().getManagementAgent().getMBeanServer();
+            Set<ObjectName> names = mbeanServer.queryNames(new ObjectName("*:type=producers,name=HttpWorkerPoolProducer*"), null);
+            assertEquals(1, names.size());
+            ObjectName on = names.iterator().next();
+
+            assertEquals(1L, mbeanServer.getAttribute(on, "CompletedCount"));
+            assertEquals(0L, mbeanServer.getAttribute(on, "FailedCount"));
+            assertEquals(0, mbeanServer.getAttribute(on, "PendingCount"));
+            assertEquals(0, mbeanServer.getAttribute(on, "ActiveCount"));
+            assertEquals(3, mbeanServer.getAttribute(on, "MaxPoolSize"));
+            assertTrue((Long) mbeanServer.getAttribute(on, "LastProcessingTime") > 0);
+
+            mbeanServer.invoke(on, "reset", null, null);
+            assertEquals(0L, mbeanServer.getAttribute(on, "CompletedCount"));
+
+            producer.stop();
+            assertFalse("Should no longer be registered", mbeanServer.isRegistered(on));
+        } finally {
+            producer.stop();
+        }
+    }
+
+    @Test
+    public void testQueueFullRejected() throws Exception {
+        HttpWorkerPoolProducer producer = (HttpWorkerPoolProducer) context.getEndpoint("http4://" + getHostName() + ":" + getPort()
+                + "?workerPool=true&workerPoolSize=1&workerPoolMaxQueueSize=1").createProducer();
+        producer.start();
+        try {
+            final CountDownLatch latch = new CountDownLatch(3);
+            Exchange[] exchanges = new Exchange[3];
+            for (int i = 0; i < 3; i++) {
+                exchanges[i] = new DefaultExchange(context);
+                producer.process(exchanges[i], new AsyncCallback() {
+                    public void done(boolean doneSync) {
+                        latch.countDown();
+                    }
+                });
+            }
+            assertTrue("Should complete all requests", latch.await(10, TimeUnit.SECONDS));
+
+            // one request is executing and one is queued, so the last is rejected
+            assertNull(exchanges[0].getException());
+            assertNull(exchanges[1].getException());
+            assertIsInstanceOf(RejectedExecutionException.class, exchanges[2].getException());
+        } finally {
+            producer.stop();
+        }
+    }
+
+    @Test
+    public void testRequestFailed() throws Exception {
+        HttpWorkerPoolProducer producer = (HttpWorkerPoolProducer) context.getEndpoint("http4://" + getHostName() + ":" + getPort()
+                + "/missing?workerPool=true").createProducer();
+        producer.start();
+        try {
+            final CountDownLatch latch = new CountDownLatch(1);
+            Exchange exchange = new DefaultExchange(context);
+            producer.process(exchange, new AsyncCallback() {
+                public void done(boolean doneSync) {
+                    latch.countDown();
+                }
+            });
+
+            assertTrue("Should complete request", latch.await(10, TimeUnit.SECONDS));
+
+            HttpOperationFailedException cause = assertIsInstanceOf(HttpOperationFailedException.class, exchange.getException());
+            assertEquals(404, cause.getStatusCode());
+            assertEquals(0, producer.getCompletedCount());
+            assertEquals(1, producer.getFailedCount());
+        } finally {
+            producer.stop();
+        }
+    }
+
+}
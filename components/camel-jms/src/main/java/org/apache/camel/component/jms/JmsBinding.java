@@ -17,6 +17,7 @@
 package org.apache.camel.component.jms;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.io.Serializable;
@@ -147,7 +148,13 @@ public class JmsBinding {
                 if (LOG.isTraceEnabled()) {
                     LOG.trace("Extracting body as a BytesMessage from JMS message: " + message);
                 }
-                return createByteArrayFromBytesMessage((BytesMessage)message);
+                byte[] data = createByteArrayFromBytesMessage((BytesMessage)message);
+                if (endpoint != null && endpoint.isTransferExchange() && endpoint.getExchangeCodec() != null) {
+                    // the exchange was transferred encoded by the codec
+                    DefaultExchangeHolder.unmarshal(exchange, data, endpoint.getExchangeCodec());
+                    return exchange.getIn().getBody();
+                }
+                return data;
             } else if (message instanceof StreamMessage) {
                 if (LOG.isTraceEnabled()) {
                     LOG.trace("Extracting body as a StreamMessage from JMS message: " + message);
@@ -158,6 +165,8 @@ public class JmsBinding {
             }
         } catch (JMSException e) {
             throw new RuntimeCamelException("Failed to extract body due to: " + e + ". Message: " + message, e);
+        } catch (IOException e) {
+            throw new RuntimeCamelException("Failed to decode exchange due to: " + e + ". Message: " + message, e);
         }
     }
 
@@ -426,6 +435,18 @@ public class JmsBinding {
 
         // special for transferExchange
         if (endpoint != null && endpoint.isTransferExchange()) {
+            if (endpoint.getExchangeCodec() != null) {
+                if (LOG.isTraceEnabled()) {
+                    LOG.trace("Option transferExchange=true with exchangeCodec so we use JmsMessageType: Bytes");
+                }
+                BytesMessage message = session.createBytesMessage();
+                try {
+                    message.writeBytes(DefaultExchangeHolder.marshal(exchange, endpoint.getExchangeCodec()));
+                } catch (IOException e) {
+                    throw new RuntimeCamelException("Failed to encode exchange due to: " + e, e);
+                }
+                return message;
+            }
             if (LOG.isTraceEnabled()) {
                 LOG.trace("Option transferExchange=true so we use JmsMessageType: Object");
             }
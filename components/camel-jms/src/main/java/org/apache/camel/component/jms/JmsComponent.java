@@ -24,6 +24,7 @@ import javax.jms.Session;
 import org.apache.camel.CamelContext;
 import org.apache.camel.Endpoint;
 import org.apache.camel.impl.DefaultComponent;
+import org.apache.camel.spi.ExchangeCodec;
 import org.apache.camel.spi.HeaderFilterStrategy;
 import org.apache.camel.spi.HeaderFilterStrategyAware;
 import org.apache.camel.util.CastUtils;
@@ -309,10 +310,18 @@ public class JmsComponent extends DefaultComponent implements ApplicationContext
         getConfiguration().setRequestTimeout(requestTimeout);
     }
 
+    public void setRequestTimeoutTimingWheel(boolean requestTimeoutTimingWheel) {
+        getConfiguration().setRequestTimeoutTimingWheel(requestTimeoutTimingWheel);
+    }
+
     public void setTransferExchange(boolean transferExchange) {
         getConfiguration().setTransferExchange(transferExchange);
     }
 
+    public void setExchangeCodec(ExchangeCodec exchangeCodec) {
+        getConfiguration().setExchangeCodec(exchangeCodec);
+    }
+
     public void setTransferException(boolean transferException) {
         getConfiguration().setTransferException(transferException);
     }
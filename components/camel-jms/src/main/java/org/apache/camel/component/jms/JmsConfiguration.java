@@ -25,6 +25,7 @@ import javax.jms.MessageProducer;
 import javax.jms.Session;
 
 import org.apache.camel.RuntimeCamelException;
+import org.apache.camel.spi.ExchangeCodec;
 import org.apache.camel.util.ObjectHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -79,6 +80,7 @@ public class JmsConfiguration implements Cloneable {
     private long recoveryInterval = -1;
     private long receiveTimeout = -1;
     private long requestTimeout = 20000L;
+    private boolean requestTimeoutTimingWheel;
     private int idleTaskExecutionLimit = 1;
     private int maxConcurrentConsumers;
     // JmsTemplate only
@@ -111,6 +113,7 @@ public class JmsConfiguration implements Cloneable {
     private JmsMessageType jmsMessageType;
     private JmsKeyFormatStrategy jmsKeyFormatStrategy;
     private boolean transferExchange;
+    private ExchangeCodec exchangeCodec;
     private boolean transferException;
     private boolean testConnectionOnStartup;
     // if the message is a JmsMessage and mapJmsMessage=false, force the 
@@ -1002,6 +1005,18 @@ public class JmsConfiguration implements Cloneable {
         this.requestTimeout = requestTimeout;
     }
 
+    public boolean isRequestTimeoutTimingWheel() {
+        return requestTimeoutTimingWheel;
+    }
+
+    /**
+     * Sets whether to use a timing wheel to keep track of request timeouts for request/reply over JMS,
+     * which scales better than scanning all the pending replies when there are many in flight.
+     */
+    public void setRequestTimeoutTimingWheel(boolean requestTimeoutTimingWheel) {
+        this.requestTimeoutTimingWheel = requestTimeoutTimingWheel;
+    }
+
     public String getReplyTo() {
         return replyToDestination;
     }
@@ -1063,6 +1078,19 @@ public class JmsConfiguration implements Cloneable {
         this.transferExchange = transferExchange;
     }
 
+    public ExchangeCodec getExchangeCodec() {
+        return exchangeCodec;
+    }
+
+    /**
+     * Sets the codec to encode the exchange when using <tt>transferExchange</tt>, in which case the exchange
+     * is sent as a {@link javax.jms.BytesMessage}. By default the exchange is sent as a Java serialized object
+     * in a {@link javax.jms.ObjectMessage}.
+     */
+    public void setExchangeCodec(ExchangeCodec exchangeCodec) {
+        this.exchangeCodec = exchangeCodec;
+    }
+
     public boolean isTransferException() {
         return transferException;
     }
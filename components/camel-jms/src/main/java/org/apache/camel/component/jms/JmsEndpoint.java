@@ -44,6 +44,7 @@ import org.apache.camel.component.jms.reply.TemporaryQueueReplyManager;
 import org.apache.camel.impl.DefaultEndpoint;
 import org.apache.camel.impl.DefaultExchange;
 import org.apache.camel.impl.SynchronousDelegateProducer;
+import org.apache.camel.spi.ExchangeCodec;
 import org.apache.camel.spi.HeaderFilterStrategy;
 import org.apache.camel.spi.HeaderFilterStrategyAware;
 import org.apache.camel.util.ObjectHelper;
@@ -544,6 +545,11 @@ public class JmsEndpoint extends DefaultEndpoint implements HeaderFilterStrategy
         return getConfiguration().getRequestTimeout();
     }
 
+    @ManagedAttribute
+    public boolean isRequestTimeoutTimingWheel() {
+        return getConfiguration().isRequestTimeoutTimingWheel();
+    }
+
     public TaskExecutor getTaskExecutor() {
         return getConfiguration().getTaskExecutor();
     }
@@ -833,6 +839,10 @@ public class JmsEndpoint extends DefaultEndpoint implements HeaderFilterStrategy
         getConfiguration().setRequestTimeout(requestTimeout);
     }
 
+    public void setRequestTimeoutTimingWheel(boolean requestTimeoutTimingWheel) {
+        getConfiguration().setRequestTimeoutTimingWheel(requestTimeoutTimingWheel);
+    }
+
     @ManagedAttribute
     public void setSubscriptionDurable(boolean subscriptionDurable) {
         getConfiguration().setSubscriptionDurable(subscriptionDurable);
@@ -906,6 +916,14 @@ public class JmsEndpoint extends DefaultEndpoint implements HeaderFilterStrategy
         getConfiguration().setTransferExchange(transferExchange);
     }
 
+    public ExchangeCodec getExchangeCodec() {
+        return getConfiguration().getExchangeCodec();
+    }
+
+    public void setExchangeCodec(ExchangeCodec exchangeCodec) {
+        getConfiguration().setExchangeCodec(exchangeCodec);
+    }
+
     @ManagedAttribute
     public boolean isTransferException() {
         return getConfiguration().isTransferException();
@@ -21,6 +21,7 @@ import java.util.List;
 
 import org.apache.camel.LoggingLevel;
 import org.apache.camel.RuntimeCamelException;
+import org.apache.camel.spi.ExchangeCodec;
 import org.apache.mina.common.IoFilter;
 import org.apache.mina.filter.codec.ProtocolCodecFactory;
 
@@ -39,6 +40,7 @@ public class MinaConfiguration implements Cloneable {
     private long timeout = 30000;
     private boolean lazySessionCreation = true;
     private boolean transferExchange;
+    private ExchangeCodec exchangeCodec;
     private boolean minaLogger;
     private int encoderMaxLineLength = -1;
     private int decoderMaxLineLength = -1;
@@ -158,6 +160,18 @@ public class MinaConfiguration implements Cloneable {
         this.transferExchange = transferExchange;
     }
 
+    public ExchangeCodec getExchangeCodec() {
+        return exchangeCodec;
+    }
+
+    /**
+     * Sets the codec to encode the exchange when using <tt>transferExchange</tt>.
+     * By default the exchange is transferred as a Java serialized object.
+     */
+    public void setExchangeCodec(ExchangeCodec exchangeCodec) {
+        this.exchangeCodec = exchangeCodec;
+    }
+
     public void setEncoderMaxLineLength(int encoderMaxLineLength) {
         this.encoderMaxLineLength = encoderMaxLineLength;
     }
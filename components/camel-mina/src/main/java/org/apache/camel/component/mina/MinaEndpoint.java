@@ -89,7 +89,7 @@ public class MinaEndpoint extends DefaultEndpoint implements MultipleConsumersSu
         exchange.getIn().setHeader(MinaConstants.MINA_IOSESSION, session);
         exchange.getIn().setHeader(MinaConstants.MINA_LOCAL_ADDRESS, session.getLocalAddress());
         exchange.getIn().setHeader(MinaConstants.MINA_REMOTE_ADDRESS, session.getRemoteAddress());
-        MinaPayloadHelper.setIn(exchange, payload);
+        MinaPayloadHelper.setIn(this, exchange, payload);
         return exchange;
     }
 
@@ -22,7 +22,15 @@ import org.jboss.netty.channel.ChannelPipeline;
 import org.jboss.netty.channel.ChannelPipelineFactory;
 import org.jboss.netty.channel.Channels;
 
+/**
+ * Factory for the {@link ChannelPipeline} of the client channels.
+ * <p/>
+ * A channel opened by a producer is bound to the producer and the exchange being sent. A channel opened by the
+ * {@link NettyChannelPool} is shared by the producers of the endpoint, and is therefore only bound to the
+ * endpoint, where the producer, exchange and callback is <tt>null</tt>.
+ */
 public abstract class ClientPipelineFactory implements ChannelPipelineFactory {
+    protected NettyEndpoint endpoint;
     protected NettyProducer producer;
     protected Exchange exchange;
     protected AsyncCallback callback;
@@ -35,12 +43,31 @@ public abstract class ClientPipelineFactory implements ChannelPipelineFactory {
         this.exchange = exchange;
         this.callback = callback;
     }
+
+    public ClientPipelineFactory(NettyEndpoint endpoint) {
+        this.endpoint = endpoint;
+    }
     
     public ChannelPipeline getPipeline() throws Exception {
         ChannelPipeline channelPipeline = Channels.pipeline();
         return channelPipeline;
     }
 
+    /**
+     * Gets the endpoint the channel is opened for, which is the endpoint of the producer if bound to a producer.
+     */
+    public NettyEndpoint getEndpoint() {
+        return producer != null ? producer.getEndpoint() : endpoint;
+    }
+
+    public void setEndpoint(NettyEndpoint endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public NettyConfiguration getConfiguration() {
+        return getEndpoint().getConfiguration();
+    }
+
     public NettyProducer getProducer() {
         return producer;
     }
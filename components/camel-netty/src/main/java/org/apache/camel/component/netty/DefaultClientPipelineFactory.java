@@ -39,6 +39,13 @@ public class DefaultClientPipelineFactory extends ClientPipelineFactory {
         super(producer, exchange, callback);
     }
 
+    /**
+     * Creates a factory for the pooled channels of the endpoint
+     */
+    public DefaultClientPipelineFactory(NettyEndpoint endpoint) {
+        super(endpoint);
+    }
+
     public ChannelPipeline getPipeline() throws Exception {
         // create a new pipeline
         ChannelPipeline channelPipeline = Channels.pipeline();
@@ -51,45 +58,50 @@ public class DefaultClientPipelineFactory extends ClientPipelineFactory {
             channelPipeline.addLast("ssl", sslHandler);
         }
 
-        List<ChannelUpstreamHandler> decoders = producer.getConfiguration().getDecoders();
+        List<ChannelUpstreamHandler> decoders = getConfiguration().getDecoders();
         for (int x = 0; x < decoders.size(); x++) {
             channelPipeline.addLast("decoder-" + x, decoders.get(x));
         }
 
-        List<ChannelDownstreamHandler> encoders = producer.getConfiguration().getEncoders();
+        List<ChannelDownstreamHandler> encoders = getConfiguration().getEncoders();
         for (int x = 0; x < encoders.size(); x++) {
             channelPipeline.addLast("encoder-" + x, encoders.get(x));
         }
 
         // our handler must be added last
-        channelPipeline.addLast("handler", new ClientChannelHandler(producer, exchange, callback));
+        if (exchange == null) {
+            // pooled channels is used by many exchanges
+            channelPipeline.addLast("handler", new ClientChannelHandler(getEndpoint()));
+        } else {
+            channelPipeline.addLast("handler", new ClientChannelHandler(producer, exchange, callback));
+        }
 
         return channelPipeline;
     }
 
     private SslHandler configureClientSSLOnDemand() throws Exception {
-        if (!producer.getConfiguration().isSsl()) {
+        if (!getConfiguration().isSsl()) {
             return null;
         }
 
-        if (producer.getConfiguration().getSslHandler() != null) {
-            return producer.getConfiguration().getSslHandler();
+        if (getConfiguration().getSslHandler() != null) {
+            return getConfiguration().getSslHandler();
         } else {
-            if (producer.getConfiguration().getKeyStoreFile() == null) {
+            if (getConfiguration().getKeyStoreFile() == null) {
                 LOG.debug("keystorefile is null");
             }
-            if (producer.getConfiguration().getTrustStoreFile() == null) {
+            if (getConfiguration().getTrustStoreFile() == null) {
                 LOG.debug("truststorefile is null");
             }
-            if (producer.getConfiguration().getPassphrase().toCharArray() == null) {
+            if (getConfiguration().getPassphrase().toCharArray() == null) {
                 LOG.debug("passphrase is null");
             }
             SSLEngineFactory sslEngineFactory = new SSLEngineFactory(
-                producer.getConfiguration().getKeyStoreFormat(),
-                producer.getConfiguration().getSecurityProvider(),
-                producer.getConfiguration().getKeyStoreFile(),
-                producer.getConfiguration().getTrustStoreFile(),
-                producer.getConfiguration().getPassphrase().toCharArray());
+                getConfiguration().getKeyStoreFormat(),
+                getConfiguration().getSecurityProvider(),
+                getConfiguration().getKeyStoreFile(),
+                getConfiguration().getTrustStoreFile(),
+                getConfiguration().getPassphrase().toCharArray());
             SSLEngine sslEngine = sslEngineFactory.createClientSSLEngine();
             return new SslHandler(sslEngine);
         }
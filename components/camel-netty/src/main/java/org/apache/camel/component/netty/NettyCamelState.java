@@ -0,0 +1,78 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.netty;
+
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.Exchange;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.util.Timeout;
+
+/**
+ * State of an exchange waiting for its reply on a pooled {@link Channel}.
+ *
+ * @version 
+ */
+public final class NettyCamelState {
+
+    private final Exchange exchange;
+    private final AsyncCallback callback;
+    private final Channel channel;
+    private Object correlationId;
+    private volatile Timeout timeout;
+
+    public NettyCamelState(Exchange exchange, AsyncCallback callback, Channel channel) {
+        this.exchange = exchange;
+        this.callback = callback;
+        this.channel = channel;
+    }
+
+    public Exchange getExchange() {
+        return exchange;
+    }
+
+    public AsyncCallback getCallback() {
+        return callback;
+    }
+
+    public Channel getChannel() {
+        return channel;
+    }
+
+    public Object getCorrelationId() {
+        return correlationId;
+    }
+
+    public void setCorrelationId(Object correlationId) {
+        this.correlationId = correlationId;
+    }
+
+    public Timeout getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Sets the scheduled request timeout which is cancelled when the reply is received.
+     */
+    public void setTimeout(Timeout timeout) {
+        this.timeout = timeout;
+    }
+
+    @Override
+    public String toString() {
+        return "NettyCamelState[" + exchange.getExchangeId() + "]";
+    }
+}
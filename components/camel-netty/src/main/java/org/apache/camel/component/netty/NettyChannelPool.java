@@ -0,0 +1,527 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.netty;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.CamelException;
+import org.apache.camel.CamelExchangeException;
+import org.apache.camel.Exchange;
+import org.apache.camel.ExchangeTimedOutException;
+import org.apache.camel.impl.ServiceSupport;
+import org.apache.camel.util.ObjectHelper;
+import org.jboss.netty.bootstrap.ClientBootstrap;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelFactory;
+import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelPipeline;
+import org.jboss.netty.channel.group.ChannelGroup;
+import org.jboss.netty.channel.group.DefaultChannelGroup;
+import org.jboss.netty.channel.socket.nio.NioClientSocketChannelFactory;
+import org.jboss.netty.util.Timeout;
+import org.jboss.netty.util.TimerTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A bounded pool of persistent TCP {@link Channel}s to the remote address of a {@link NettyEndpoint},
+ * which is shared by the producers of the endpoint.
+ * <p/>
+ * By default a channel is borrowed exclusively by an exchange until its reply has been received, and then
+ * returned to the pool to be reused. Idle channels is health checked before being reused,
+ * and evicted if they have been idle for longer than <tt>channelPoolIdleTimeout</tt>.
+ * <p/>
+ * When the <tt>multiplexing</tt> option is enabled then many requests can be in-flight on the same channel,
+ * and the replies is correlated to their exchange using the {@link NettyCorrelationStrategy}.
+ * The requests is spread over up to <tt>channelPoolMaxActive</tt> shared channels.
+ * <p/>
+ * The channels is opened by the pool itself and bound to the endpoint, as they outlive the producers using them.
+ * An exchange which has not received its reply within the <tt>requestTimeout</tt> is failed with an
+ * {@link ExchangeTimedOutException}, so a lost reply does not hold on to its channel forever.
+ *
+ * @version 
+ */
+public class NettyChannelPool extends ServiceSupport {
+    private static final transient Logger LOG = LoggerFactory.getLogger(NettyChannelPool.class);
+
+    private final NettyEndpoint endpoint;
+    private final NettyConfiguration configuration;
+    private final ChannelGroup allChannels = new DefaultChannelGroup("NettyChannelPool");
+    private final Queue<IdleChannel> idleChannels = new ConcurrentLinkedQueue<IdleChannel>();
+    private final List<Channel> sharedChannels = new ArrayList<Channel>();
+    // number of shared channels being connected, guarded by sharedChannels
+    private int connectingCount;
+    private final ConcurrentMap<Channel, NettyCamelState> channelStates = new ConcurrentHashMap<Channel, NettyCamelState>();
+    private final ConcurrentMap<Object, NettyCamelState> correlationStates = new ConcurrentHashMap<Object, NettyCamelState>();
+    private final AtomicLong createdCounter = new AtomicLong();
+    private final AtomicLong evictedCounter = new AtomicLong();
+    private final AtomicInteger sharedIndex = new AtomicInteger();
+    private Semaphore permits;
+    private ChannelFactory channelFactory;
+    private ScheduledExecutorService evictor;
+    private NettyCorrelationStrategy correlationStrategy;
+
+    /**
+     * A channel which is idle in the pool
+     */
+    private static final class IdleChannel {
+        private final Channel channel;
+        private final long since = System.currentTimeMillis();
+
+        private IdleChannel(Channel channel) {
+            this.channel = channel;
+        }
+    }
+
+    public NettyChannelPool(NettyEndpoint endpoint) {
+        this.endpoint = endpoint;
+        this.configuration = endpoint.getConfiguration();
+    }
+
+    public NettyConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    public boolean isMultiplexing() {
+        return configuration.isMultiplexing();
+    }
+
+    public NettyCorrelationStrategy getCorrelationStrategy() {
+        return correlationStrategy;
+    }
+
+    /**
+     * Number of channels created by this pool
+     */
+    public long getCreatedCount() {
+        return createdCounter.get();
+    }
+
+    /**
+     * Number of idle channels evicted by this pool
+     */
+    public long getEvictedCount() {
+        return evictedCounter.get();
+    }
+
+    /**
+     * Number of idle channels in the pool
+     */
+    public int getIdleCount() {
+        return idleChannels.size();
+    }
+
+    /**
+     * Number of exchanges waiting for their reply
+     */
+    public int getInflightCount() {
+        return isMultiplexing() ? correlationStates.size() : channelStates.size();
+    }
+
+    /**
+     * Acquires a channel to write to, which must be released using {@link #release(Channel, boolean)}
+     * when done using the channel.
+     *
+     * @return the channel
+     * @throws Exception is thrown if no channel could be acquired
+     */
+    public Channel acquire() throws Exception {
+        if (isMultiplexing()) {
+            return acquireShared();
+        }
+
+        if (!permits.tryAcquire(configuration.getConnectTimeout(), TimeUnit.MILLISECONDS)) {
+            throw new CamelException("Timeout waiting for a channel to " + configuration.getAddress()
+                    + " as all " + configuration.getChannelPoolMaxActive() + " channels is in use");
+        }
+        try {
+            IdleChannel idle;
+            while ((idle = idleChannels.poll()) != null) {
+                if (isHealthy(idle.channel)) {
+                    if (LOG.isTraceEnabled()) {
+                        LOG.trace("Reusing pooled channel: " + idle.channel);
+                    }
+                    return idle.channel;
+                }
+                closeChannel(idle.channel);
+            }
+            return createChannel();
+        } catch (Exception e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private Channel acquireShared() throws Exception {
+        synchronized (sharedChannels) {
+            for (Iterator<Channel> it = sharedChannels.iterator(); it.hasNext();) {
+                if (!isHealthy(it.next())) {
+                    it.remove();
+                }
+            }
+            long deadline = 0;
+            while (sharedChannels.size() + connectingCount >= configuration.getChannelPoolMaxActive()) {
+                // spread the requests over the shared channels
+                if (!sharedChannels.isEmpty()) {
+                    int index = Math.abs(sharedIndex.getAndIncrement() % sharedChannels.size());
+                    return sharedChannels.get(index);
+                }
+                // all the channels is being connected by other producers so wait for one of them
+                long now = System.currentTimeMillis();
+                if (deadline == 0) {
+                    deadline = now + configuration.getConnectTimeout();
+                } else if (now >= deadline) {
+                    throw new CamelException("Timeout waiting for a channel to " + configuration.getAddress() + " to be connected");
+                }
+                sharedChannels.wait(deadline - now);
+            }
+            connectingCount++;
+        }
+
+        // connect without holding the lock so the other producers can use the connected channels meanwhile
+        Channel channel = null;
+        try {
+            channel = createChannel();
+            return channel;
+        } finally {
+            synchronized (sharedChannels) {
+                connectingCount--;
+                if (channel != null) {
+                    sharedChannels.add(channel);
+                }
+                sharedChannels.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Releases the acquired channel back to the pool.
+     *
+     * @param channel the channel
+     * @param close   whether to close the channel instead of reusing it
+     */
+    public void release(Channel channel, boolean close) {
+        if (isMultiplexing()) {
+            if (close) {
+                synchronized (sharedChannels) {
+                    sharedChannels.remove(channel);
+                }
+                closeChannel(channel);
+            }
+            return;
+        }
+
+        try {
+            if (!close && isRunAllowed() && isHealthy(channel) && idleChannels.size() < configuration.getChannelPoolMaxIdle()) {
+                idleChannels.offer(new IdleChannel(channel));
+            } else {
+                closeChannel(channel);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Adds the state of an exchange which is waiting for its reply on the channel, and schedules its
+     * request timeout.
+     *
+     * @param state   the state
+     * @param request the request to be written
+     * @throws CamelExchangeException is thrown if another request with the same correlation id is in-flight
+     */
+    public void addState(NettyCamelState state, Object request) throws CamelExchangeException {
+        if (isMultiplexing()) {
+            Object id = correlationStrategy.getRequestCorrelationId(state.getExchange(), request);
+            if (id == null) {
+                throw new CamelExchangeException("No correlation id for request", state.getExchange());
+            }
+            state.setCorrelationId(id);
+            if (correlationStates.putIfAbsent(id, state) != null) {
+                throw new CamelExchangeException("Request with correlation id " + id + " is already in-flight", state.getExchange());
+            }
+        } else {
+            channelStates.put(state.getChannel(), state);
+        }
+
+        if (configuration.getRequestTimeout() > 0) {
+            final NettyCamelState timedOut = state;
+            state.setTimeout(endpoint.getTimer().newTimeout(new TimerTask() {
+                public void run(Timeout timeout) throws Exception {
+                    requestTimedOut(timedOut);
+                }
+            }, configuration.getRequestTimeout(), TimeUnit.MILLISECONDS));
+        }
+    }
+
+    /**
+     * Removes the state of the exchange which the received reply belongs to.
+     *
+     * @param channel the channel the reply was received on
+     * @param reply   the reply
+     * @return the state, or <tt>null</tt> if no exchange is waiting for the reply
+     */
+    public NettyCamelState removeState(Channel channel, Object reply) {
+        NettyCamelState state;
+        if (isMultiplexing()) {
+            Object id = correlationStrategy.getReplyCorrelationId(reply);
+            state = id != null ? correlationStates.remove(id) : null;
+        } else {
+            state = channelStates.remove(channel);
+        }
+        cancelTimeout(state);
+        return state;
+    }
+
+    /**
+     * Removes the given state.
+     *
+     * @return <tt>true</tt> if removed, <tt>false</tt> if the state has already been removed
+     */
+    public boolean removeState(NettyCamelState state) {
+        boolean removed;
+        if (isMultiplexing()) {
+            removed = correlationStates.remove(state.getCorrelationId(), state);
+        } else {
+            removed = channelStates.remove(state.getChannel(), state);
+        }
+        if (removed) {
+            cancelTimeout(state);
+        }
+        return removed;
+    }
+
+    /**
+     * Fails the exchanges waiting for their reply on the given channel which has failed or been closed,
+     * and closes the channel.
+     *
+     * @param channel the channel
+     * @param cause   the cause, or <tt>null</tt> if the channel was closed
+     */
+    public void channelFailed(Channel channel, Throwable cause) {
+        List<NettyCamelState> states = new ArrayList<NettyCamelState>();
+        if (isMultiplexing()) {
+            for (NettyCamelState state : correlationStates.values()) {
+                if (state.getChannel() == channel && correlationStates.remove(state.getCorrelationId(), state)) {
+                    states.add(state);
+                }
+            }
+        } else {
+            NettyCamelState state = channelStates.remove(channel);
+            if (state != null) {
+                states.add(state);
+            }
+        }
+
+        if (isMultiplexing() || !states.isEmpty()) {
+            // only release the channel if its in use, idle channels is checked when acquired
+            release(channel, true);
+        }
+
+        for (NettyCamelState state : states) {
+            cancelTimeout(state);
+            if (cause != null) {
+                state.getExchange().setException(cause);
+            } else {
+                state.getExchange().setException(new CamelExchangeException("No response received from remote server: "
+                        + configuration.getAddress(), state.getExchange()));
+            }
+            state.getCallback().done(false);
+        }
+    }
+
+    /**
+     * Evicts the idle channels which has been idle for too long or is no longer connected.
+     */
+    public void evictIdleChannels() {
+        long now = System.currentTimeMillis();
+        for (IdleChannel idle : idleChannels) {
+            boolean expired = configuration.getChannelPoolIdleTimeout() > 0 && now - idle.since > configuration.getChannelPoolIdleTimeout();
+            if ((expired || !isHealthy(idle.channel)) && idleChannels.remove(idle)) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Evicting idle channel: " + idle.channel);
+                }
+                evictedCounter.incrementAndGet();
+                closeChannel(idle.channel);
+            }
+        }
+    }
+
+    /**
+     * Fails the exchange which has not received its reply within the request timeout.
+     */
+    private void requestTimedOut(NettyCamelState state) {
+        if (!removeState(state)) {
+            // the reply has been received or the channel has failed meanwhile
+            return;
+        }
+
+        Exchange exchange = state.getExchange();
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Timeout waiting for reply of exchange: " + exchange.getExchangeId() + " on pooled channel: " + state.getChannel());
+        }
+        // the late reply may still arrive so an exclusive channel must be closed instead of being reused
+        // by another exchange, whereas the late reply on a multiplexed channel is discarded as it cannot be correlated
+        try {
+            release(state.getChannel(), !isMultiplexing());
+        } finally {
+            exchange.setException(new ExchangeTimedOutException(exchange, configuration.getRequestTimeout()));
+            state.getCallback().done(false);
+        }
+    }
+
+    private void cancelTimeout(NettyCamelState state) {
+        Timeout timeout = state != null ? state.getTimeout() : null;
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    protected boolean isHealthy(Channel channel) {
+        return channel.isConnected();
+    }
+
+    private Channel createChannel() throws Exception {
+        Channel channel = openChannel();
+        allChannels.add(channel);
+        createdCounter.incrementAndGet();
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Created pooled channel: " + channel + " to address: " + configuration.getAddress());
+        }
+        return channel;
+    }
+
+    /**
+     * Opens a new channel, where the pipeline is bound to the endpoint and not to any producer.
+     */
+    private Channel openChannel() throws Exception {
+        ChannelPipeline pipeline;
+        ClientPipelineFactory factory = configuration.getClientPipelineFactory();
+        if (factory != null) {
+            // initialize user defined client pipeline factory, a pooled channel is not bound to any exchange
+            factory.setEndpoint(endpoint);
+            factory.setProducer(null);
+            factory.setExchange(null);
+            factory.setCallback(null);
+            pipeline = factory.getPipeline();
+        } else {
+            pipeline = new DefaultClientPipelineFactory(endpoint).getPipeline();
+        }
+
+        ClientBootstrap clientBootstrap = new ClientBootstrap(channelFactory);
+        clientBootstrap.setOption("child.keepAlive", configuration.isKeepAlive());
+        clientBootstrap.setOption("child.tcpNoDelay", configuration.isTcpNoDelay());
+        clientBootstrap.setOption("child.reuseAddress", configuration.isReuseAddress());
+        clientBootstrap.setOption("child.connectTimeoutMillis", configuration.getConnectTimeout());
+        clientBootstrap.setPipeline(pipeline);
+
+        ChannelFuture future = clientBootstrap.connect(new InetSocketAddress(configuration.getHost(), configuration.getPort()));
+        future.awaitUninterruptibly();
+        if (!future.isSuccess()) {
+            throw new CamelException("Cannot connect to " + configuration.getAddress(), future.getCause());
+        }
+        return future.getChannel();
+    }
+
+    private void closeChannel(Channel channel) {
+        NettyHelper.close(channel);
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        if (configuration.getChannelPoolMaxActive() <= 0) {
+            throw new IllegalArgumentException("ChannelPoolMaxActive must be a positive number, was: " + configuration.getChannelPoolMaxActive());
+        }
+        permits = new Semaphore(configuration.getChannelPoolMaxActive(), true);
+
+        if (configuration.isSync() && configuration.getRequestTimeout() <= 0) {
+            throw new IllegalArgumentException("A requestTimeout must be configured when using a channel pool with sync=true"
+                    + " as otherwise a lost reply holds on to its pooled channel forever");
+        }
+        if (configuration.getRequestTimeout() > 0) {
+            ObjectHelper.notNull(endpoint.getTimer(), "timer");
+        }
+
+        correlationStrategy = configuration.getCorrelationStrategy();
+        if (isMultiplexing() && configuration.isDisconnect()) {
+            throw new IllegalArgumentException("Cannot use disconnect when using multiplexing as the channels is shared");
+        }
+        if (isMultiplexing() && correlationStrategy == null) {
+            if (!configuration.isTransferExchange()) {
+                throw new IllegalArgumentException("A correlationStrategy must be configured when using multiplexing without transferExchange");
+            }
+            correlationStrategy = new TransferExchangeCorrelationStrategy();
+        }
+
+        CamelContext context = endpoint.getCamelContext();
+        if (channelFactory == null) {
+            ExecutorService bossExecutor = context.getExecutorServiceStrategy().newThreadPool(this, "NettyTCPBoss",
+                    configuration.getCorePoolSize(), configuration.getMaxPoolSize());
+            ExecutorService workerExecutor = context.getExecutorServiceStrategy().newThreadPool(this, "NettyTCPWorker",
+                    configuration.getCorePoolSize(), configuration.getMaxPoolSize());
+            channelFactory = new NioClientSocketChannelFactory(bossExecutor, workerExecutor);
+        }
+
+        long interval = configuration.getChannelPoolEvictionInterval();
+        if (interval > 0) {
+            evictor = context.getExecutorServiceStrategy().newScheduledThreadPool(this, "NettyChannelPoolEvictor", 1);
+            evictor.scheduleWithFixedDelay(new Runnable() {
+                public void run() {
+                    evictIdleChannels();
+                }
+            }, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Stopping channel pool to address: " + configuration.getAddress());
+        }
+        if (evictor != null) {
+            endpoint.getCamelContext().getExecutorServiceStrategy().shutdownNow(evictor);
+            evictor = null;
+        }
+
+        allChannels.close().awaitUninterruptibly();
+        idleChannels.clear();
+        synchronized (sharedChannels) {
+            sharedChannels.clear();
+            sharedChannels.notifyAll();
+        }
+
+        if (channelFactory != null) {
+            channelFactory.releaseExternalResources();
+            channelFactory = null;
+        }
+    }
+
+}
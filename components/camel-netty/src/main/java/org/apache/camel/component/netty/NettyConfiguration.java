@@ -25,6 +25,7 @@ import java.util.Map;
 
 import org.apache.camel.LoggingLevel;
 import org.apache.camel.RuntimeCamelException;
+import org.apache.camel.spi.ExchangeCodec;
 import org.apache.camel.util.EndpointHelper;
 import org.jboss.netty.channel.ChannelDownstreamHandler;
 import org.jboss.netty.channel.ChannelUpstreamHandler;
@@ -73,11 +74,20 @@ public class NettyConfiguration implements Cloneable {
     private boolean disconnect;
     private boolean lazyChannelCreation = true;
     private boolean transferExchange;
+    private ExchangeCodec exchangeCodec;
     private boolean disconnectOnNoReply = true;
     private LoggingLevel noReplyLogLevel = LoggingLevel.WARN;
     private boolean allowDefaultCodec = true;
     private ClientPipelineFactory clientPipelineFactory;
     private ServerPipelineFactory serverPipelineFactory;
+    private boolean channelPool;
+    private int channelPoolMaxActive = 16;
+    private int channelPoolMaxIdle = 8;
+    private long channelPoolIdleTimeout = 5 * 60 * 1000L;
+    private long channelPoolEvictionInterval = 30 * 1000L;
+    private long requestTimeout;
+    private boolean multiplexing;
+    private NettyCorrelationStrategy correlationStrategy;
     
     /**
      * Returns a copy of this configuration
@@ -114,6 +124,8 @@ public class NettyConfiguration implements Cloneable {
         trustStoreFile = component.resolveAndRemoveReferenceParameter(parameters, "trustStoreFile", File.class, null);
         clientPipelineFactory = component.resolveAndRemoveReferenceParameter(parameters, "clientPipelineFactory", ClientPipelineFactory.class, null);
         serverPipelineFactory = component.resolveAndRemoveReferenceParameter(parameters, "serverPipelineFactory", ServerPipelineFactory.class, null);
+        correlationStrategy = component.resolveAndRemoveReferenceParameter(parameters, "correlationStrategy", NettyCorrelationStrategy.class, null);
+        exchangeCodec = component.resolveAndRemoveReferenceParameter(parameters, "exchangeCodec", ExchangeCodec.class, exchangeCodec);
 
         // set custom encoders and decoders first
         List<ChannelDownstreamHandler> referencedEncoders = component.resolveAndRemoveReferenceListParameter(parameters, "encoders", ChannelDownstreamHandler.class, null);
@@ -432,6 +444,18 @@ public class NettyConfiguration implements Cloneable {
         this.transferExchange = transferExchange;
     }
 
+    public ExchangeCodec getExchangeCodec() {
+        return exchangeCodec;
+    }
+
+    /**
+     * Sets the codec to encode the exchange when using <tt>transferExchange</tt>.
+     * By default the exchange is transferred as a Java serialized object.
+     */
+    public void setExchangeCodec(ExchangeCodec exchangeCodec) {
+        this.exchangeCodec = exchangeCodec;
+    }
+
     public boolean isDisconnectOnNoReply() {
         return disconnectOnNoReply;
     }
@@ -487,4 +511,96 @@ public class NettyConfiguration implements Cloneable {
         return serverPipelineFactory;
     }
 
+    public boolean isChannelPool() {
+        return channelPool;
+    }
+
+    /**
+     * Whether producers should use a pool of persistent channels (TCP only).
+     */
+    public void setChannelPool(boolean channelPool) {
+        this.channelPool = channelPool;
+    }
+
+    public int getChannelPoolMaxActive() {
+        return channelPoolMaxActive;
+    }
+
+    /**
+     * Maximum number of channels in use at the same time.
+     */
+    public void setChannelPoolMaxActive(int channelPoolMaxActive) {
+        this.channelPoolMaxActive = channelPoolMaxActive;
+    }
+
+    public int getChannelPoolMaxIdle() {
+        return channelPoolMaxIdle;
+    }
+
+    /**
+     * Maximum number of idle channels to keep in the pool.
+     */
+    public void setChannelPoolMaxIdle(int channelPoolMaxIdle) {
+        this.channelPoolMaxIdle = channelPoolMaxIdle;
+    }
+
+    public long getChannelPoolIdleTimeout() {
+        return channelPoolIdleTimeout;
+    }
+
+    /**
+     * Time in millis a channel can be idle in the pool before its evicted.
+     */
+    public void setChannelPoolIdleTimeout(long channelPoolIdleTimeout) {
+        this.channelPoolIdleTimeout = channelPoolIdleTimeout;
+    }
+
+    public long getChannelPoolEvictionInterval() {
+        return channelPoolEvictionInterval;
+    }
+
+    /**
+     * Interval in millis to check for idle channels to evict. Use 0 to disable.
+     */
+    public void setChannelPoolEvictionInterval(long channelPoolEvictionInterval) {
+        this.channelPoolEvictionInterval = channelPoolEvictionInterval;
+    }
+
+    public long getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    /**
+     * Timeout in millis to wait for the reply of a request sent on a pooled channel, after which the exchange is
+     * failed with an {@link org.apache.camel.ExchangeTimedOutException}. Must be set when using <tt>channelPool</tt>
+     * or <tt>multiplexing</tt> with <tt>sync=true</tt>.
+     */
+    public void setRequestTimeout(long requestTimeout) {
+        this.requestTimeout = requestTimeout;
+    }
+
+    public boolean isMultiplexing() {
+        return multiplexing;
+    }
+
+    /**
+     * Whether many requests can be in-flight on the same pooled channel, where the replies is correlated using
+     * the correlation strategy (TCP only).
+     */
+    public void setMultiplexing(boolean multiplexing) {
+        this.multiplexing = multiplexing;
+    }
+
+    public NettyCorrelationStrategy getCorrelationStrategy() {
+        return correlationStrategy;
+    }
+
+    /**
+     * Strategy to correlate replies when using multiplexing. When using <tt>transferExchange=true</tt> the
+     * exchange id is used by default.
+     */
+    public void setCorrelationStrategy(NettyCorrelationStrategy correlationStrategy) {
+        this.correlationStrategy = correlationStrategy;
+    }
+
 }
@@ -0,0 +1,46 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.netty;
+
+import org.apache.camel.Exchange;
+
+/**
+ * Strategy to correlate replies to requests when using the <tt>multiplexing</tt> option,
+ * where many requests can be in-flight on the same channel.
+ *
+ * @version 
+ */
+public interface NettyCorrelationStrategy {
+
+    /**
+     * Gets the correlation id of the request to be written.
+     *
+     * @param exchange the exchange
+     * @param request  the request to be written
+     * @return the correlation id, must not be <tt>null</tt>
+     */
+    Object getRequestCorrelationId(Exchange exchange, Object request);
+
+    /**
+     * Gets the correlation id of the received reply.
+     *
+     * @param reply the received reply
+     * @return the correlation id, or <tt>null</tt> if the reply has no correlation id
+     */
+    Object getReplyCorrelationId(Object reply);
+
+}
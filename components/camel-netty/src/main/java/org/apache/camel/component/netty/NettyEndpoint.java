@@ -23,6 +23,7 @@ import org.apache.camel.Producer;
 import org.apache.camel.impl.DefaultEndpoint;
 import org.apache.camel.impl.SynchronousDelegateProducer;
 import org.apache.camel.util.ObjectHelper;
+import org.apache.camel.util.ServiceHelper;
 import org.jboss.netty.channel.ChannelHandlerContext;
 import org.jboss.netty.channel.MessageEvent;
 import org.jboss.netty.util.Timer;
@@ -30,6 +31,7 @@ import org.jboss.netty.util.Timer;
 public class NettyEndpoint extends DefaultEndpoint {
     private NettyConfiguration configuration;
     private Timer timer;
+    private volatile NettyChannelPool channelPool;
 
     public NettyEndpoint(String endpointUri, NettyComponent component, NettyConfiguration configuration) {
         super(endpointUri, component);
@@ -54,7 +56,7 @@ public class NettyEndpoint extends DefaultEndpoint {
         exchange.getIn().setHeader(NettyConstants.NETTY_CHANNEL_HANDLER_CONTEXT, ctx);
         exchange.getIn().setHeader(NettyConstants.NETTY_MESSAGE_EVENT, messageEvent);
         exchange.getIn().setHeader(NettyConstants.NETTY_REMOTE_ADDRESS, messageEvent.getRemoteAddress());
-        NettyPayloadHelper.setIn(exchange, messageEvent.getMessage());
+        NettyPayloadHelper.setIn(this, exchange, messageEvent.getMessage());
         return exchange;
     }
     
@@ -78,9 +80,38 @@ public class NettyEndpoint extends DefaultEndpoint {
         return timer;
     }
 
+    /**
+     * Gets the channel pool shared by the producers of this endpoint.
+     *
+     * @return the channel pool, or <tt>null</tt> if not yet created
+     */
+    public NettyChannelPool getChannelPool() {
+        return channelPool;
+    }
+
+    /**
+     * Gets the channel pool shared by the producers of this endpoint, creating and starting it if needed.
+     */
+    public synchronized NettyChannelPool getOrCreateChannelPool() throws Exception {
+        if (channelPool == null) {
+            NettyChannelPool pool = new NettyChannelPool(this);
+            ServiceHelper.startService(pool);
+            channelPool = pool;
+        }
+        return channelPool;
+    }
+
     @Override
     protected void doStart() throws Exception {
         ObjectHelper.notNull(timer, "timer");
     }
 
+    @Override
+    protected void doStop() throws Exception {
+        synchronized (this) {
+            ServiceHelper.stopService(channelPool);
+            channelPool = null;
+        }
+    }
+
 }
\ No newline at end of file
@@ -16,15 +16,20 @@
  */
 package org.apache.camel.component.netty;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
 import org.apache.camel.Exchange;
 import org.apache.camel.impl.DefaultExchangeHolder;
+import org.apache.camel.spi.ExchangeCodec;
+import org.apache.camel.util.ObjectHelper;
 
 /**
  * Helper to get and set the correct payload when transferring data using camel-netty.
  * Always use this helper instead of direct access on the exchange object.
  * <p/>
  * This helper ensures that we can also transfer exchange objects over the wire using the
- * <tt>transferExchange=true</tt> option.
+ * <tt>transferExchange=true</tt> option, which is encoded using the <tt>exchangeCodec</tt> if configured.
  *
  * @version 
  */
@@ -37,7 +42,7 @@ public final class NettyPayloadHelper {
     public static Object getIn(NettyEndpoint endpoint, Exchange exchange) {
         if (endpoint.getConfiguration().isTransferExchange()) {
             // we should transfer the entire exchange over the wire (includes in/out)
-            return DefaultExchangeHolder.marshal(exchange);
+            return marshal(endpoint, exchange);
         } else {
             // normal transfer using the body only
             return exchange.getIn().getBody();
@@ -47,13 +52,37 @@ public final class NettyPayloadHelper {
     public static Object getOut(NettyEndpoint endpoint, Exchange exchange) {
         if (endpoint.getConfiguration().isTransferExchange()) {
             // we should transfer the entire exchange over the wire (includes in/out)
-            return DefaultExchangeHolder.marshal(exchange);
+            return marshal(endpoint, exchange);
         } else {
             // normal transfer using the body only
             return exchange.getOut().getBody();
         }
     }
 
+    public static void setIn(NettyEndpoint endpoint, Exchange exchange, Object payload) {
+        setIn(exchange, decode(endpoint, payload));
+    }
+
+    public static void setOut(NettyEndpoint endpoint, Exchange exchange, Object payload) {
+        setOut(exchange, decode(endpoint, payload));
+    }
+
+    /**
+     * Decodes the payload to a {@link DefaultExchangeHolder} if the exchange was transferred encoded by the
+     * <tt>exchangeCodec</tt>, otherwise the payload is returned as is.
+     */
+    public static Object decode(NettyEndpoint endpoint, Object payload) {
+        ExchangeCodec codec = endpoint.getConfiguration().getExchangeCodec();
+        if (codec == null || !endpoint.getConfiguration().isTransferExchange() || !(payload instanceof byte[])) {
+            return payload;
+        }
+        try {
+            return codec.decode(new ByteArrayInputStream((byte[]) payload));
+        } catch (IOException e) {
+            throw ObjectHelper.wrapRuntimeCamelException(e);
+        }
+    }
+
     public static void setIn(Exchange exchange, Object payload) {
         if (payload instanceof DefaultExchangeHolder) {
             DefaultExchangeHolder.unmarshal(exchange, (DefaultExchangeHolder) payload);
@@ -73,4 +102,16 @@ public final class NettyPayloadHelper {
         }
     }
 
+    private static Object marshal(NettyEndpoint endpoint, Exchange exchange) {
+        ExchangeCodec codec = endpoint.getConfiguration().getExchangeCodec();
+        if (codec == null) {
+            return DefaultExchangeHolder.marshal(exchange);
+        }
+        try {
+            return DefaultExchangeHolder.marshal(exchange, codec);
+        } catch (IOException e) {
+            throw ObjectHelper.wrapRuntimeCamelException(e);
+        }
+    }
+
 }
@@ -55,6 +55,7 @@ public class NettyProducer extends DefaultAsyncProducer implements ServicePoolAw
     private ChannelFactory channelFactory;
     private DatagramChannelFactory datagramChannelFactory;
     private CamelLogger noReplyLogger;
+    private NettyChannelPool channelPool;
 
     public NettyProducer(NettyEndpoint nettyEndpoint, NettyConfiguration configuration) {
         super(nettyEndpoint);
@@ -83,11 +84,18 @@ public class NettyProducer extends DefaultAsyncProducer implements ServicePoolAw
         return configuration.getProtocol().equalsIgnoreCase("tcp");
     }
 
+    protected boolean isChannelPoolEnabled() {
+        return isTcp() && (configuration.isChannelPool() || configuration.isMultiplexing());
+    }
+
     @Override
     protected void doStart() throws Exception {
         super.doStart();
 
-        if (isTcp()) {
+        if (isChannelPoolEnabled()) {
+            // the channel pool is shared by the producers of the endpoint
+            channelPool = getEndpoint().getOrCreateChannelPool();
+        } else if (isTcp()) {
             setupTCPCommunication();
         } else {
             setupUDPCommunication();
@@ -95,7 +103,11 @@ public class NettyProducer extends DefaultAsyncProducer implements ServicePoolAw
 
         if (!configuration.isLazyChannelCreation()) {
             // ensure the connection can be established when we start up
-            openAndCloseConnection();
+            if (channelPool != null) {
+                channelPool.release(channelPool.acquire(), false);
+            } else {
+                openAndCloseConnection();
+            }
         }
     }
 
@@ -112,6 +124,8 @@ public class NettyProducer extends DefaultAsyncProducer implements ServicePoolAw
         if (channelFactory != null) {
             channelFactory.releaseExternalResources();
         }
+        // the channel pool is stopped by the endpoint
+        channelPool = null;
         super.doStop();
     }
 
@@ -147,6 +161,10 @@ public class NettyProducer extends DefaultAsyncProducer implements ServicePoolAw
             exchange.setProperty(Exchange.CHARSET_NAME, IOConverter.normalizeCharset(getConfiguration().getCharsetName()));
         }
 
+        if (channelPool != null) {
+            return processWithChannelPool(exchange, callback, body);
+        }
+
         ChannelFuture channelFuture;
         final Channel channel;
         try {
@@ -212,6 +230,61 @@ public class NettyProducer extends DefaultAsyncProducer implements ServicePoolAw
         return false;
     }
 
+    private boolean processWithChannelPool(final Exchange exchange, final AsyncCallback callback, Object body) {
+        final Channel channel;
+        try {
+            channel = channelPool.acquire();
+        } catch (Exception e) {
+            exchange.setException(e);
+            callback.done(true);
+            return true;
+        }
+
+        final NettyCamelState state = new NettyCamelState(exchange, callback, channel);
+        if (configuration.isSync()) {
+            // the reply is handled by the ClientChannelHandler which looks up the state
+            try {
+                channelPool.addState(state, body);
+            } catch (Exception e) {
+                channelPool.release(channel, false);
+                exchange.setException(e);
+                callback.done(true);
+                return true;
+            }
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Writing body: " + body + " using pooled channel: " + channel);
+        }
+        ChannelFuture future = channel.write(body);
+
+        future.addListener(new ChannelFutureListener() {
+            public void operationComplete(ChannelFuture channelFuture) throws Exception {
+                if (!channelFuture.isSuccess()) {
+                    // only signal callback if the exchange has not already been failed by the ClientChannelHandler
+                    if (!configuration.isSync() || channelPool.removeState(state)) {
+                        channelPool.release(channel, true);
+                        exchange.setException(channelFuture.getCause());
+                        callback.done(false);
+                    }
+                    return;
+                }
+
+                // if we do not expect any reply then release the channel and signal callback to continue routing
+                if (!configuration.isSync()) {
+                    try {
+                        channelPool.release(channel, NettyHelper.isCloseChannelWhenComplete(configuration, exchange));
+                    } finally {
+                        callback.done(false);
+                    }
+                }
+            }
+        });
+
+        // continue routing asynchronously
+        return false;
+    }
+
     protected void setupTCPCommunication() throws Exception {
         if (channelFactory == null) {
             ExecutorService bossExecutor = context.getExecutorServiceStrategy().newThreadPool(this, "NettyTCPBoss",
@@ -321,4 +394,11 @@ public class NettyProducer extends DefaultAsyncProducer implements ServicePoolAw
     public ChannelGroup getAllChannels() {
         return ALL_CHANNELS;
     }
+
+    /**
+     * Gets the channel pool, or <tt>null</tt> if not using a channel pool.
+     */
+    public NettyChannelPool getChannelPool() {
+        return channelPool;
+    }
 }
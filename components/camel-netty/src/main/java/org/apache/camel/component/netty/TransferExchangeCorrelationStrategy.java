@@ -0,0 +1,44 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.netty;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultExchangeHolder;
+
+/**
+ * {@link NettyCorrelationStrategy} which correlates using the exchange id, which is transferred
+ * over the wire and back again when using the <tt>transferExchange=true</tt> option.
+ *
+ * @version 
+ */
+public class TransferExchangeCorrelationStrategy implements NettyCorrelationStrategy {
+
+    public Object getRequestCorrelationId(Exchange exchange, Object request) {
+        if (request instanceof DefaultExchangeHolder) {
+            return ((DefaultExchangeHolder) request).getExchangeId();
+        }
+        return exchange.getExchangeId();
+    }
+
+    public Object getReplyCorrelationId(Object reply) {
+        if (reply instanceof DefaultExchangeHolder) {
+            return ((DefaultExchangeHolder) reply).getExchangeId();
+        }
+        return null;
+    }
+
+}
@@ -20,7 +20,10 @@ import org.apache.camel.AsyncCallback;
 import org.apache.camel.CamelExchangeException;
 import org.apache.camel.Exchange;
 import org.apache.camel.NoTypeConversionAvailableException;
+import org.apache.camel.component.netty.NettyCamelState;
+import org.apache.camel.component.netty.NettyChannelPool;
 import org.apache.camel.component.netty.NettyConstants;
+import org.apache.camel.component.netty.NettyEndpoint;
 import org.apache.camel.component.netty.NettyHelper;
 import org.apache.camel.component.netty.NettyPayloadHelper;
 import org.apache.camel.component.netty.NettyProducer;
@@ -35,9 +38,13 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Client handler which cannot be shared
+ * <p/>
+ * The handler is either bound to a single exchange, or used by a pooled channel where the exchange waiting for the
+ * reply is looked up in the {@link NettyChannelPool}.
  */
 public class ClientChannelHandler extends SimpleChannelUpstreamHandler {
     private static final transient Logger LOG = LoggerFactory.getLogger(ClientChannelHandler.class);
+    private final NettyEndpoint endpoint;
     private final NettyProducer producer;
     private final Exchange exchange;
     private final AsyncCallback callback;
@@ -46,15 +53,38 @@ public class ClientChannelHandler extends SimpleChannelUpstreamHandler {
 
     public ClientChannelHandler(NettyProducer producer, Exchange exchange, AsyncCallback callback) {
         super();
+        this.endpoint = producer.getEndpoint();
         this.producer = producer;
         this.exchange = exchange;
         this.callback = callback;
     }
 
+    /**
+     * Creates a handler for a pooled channel, which is bound to the endpoint as the channel is shared by
+     * the producers of the endpoint and may outlive them.
+     */
+    public ClientChannelHandler(NettyEndpoint endpoint) {
+        super();
+        this.endpoint = endpoint;
+        this.producer = null;
+        this.exchange = null;
+        this.callback = null;
+    }
+
+    private boolean isPooled() {
+        return exchange == null;
+    }
+
+    private NettyChannelPool getChannelPool() {
+        return endpoint.getChannelPool();
+    }
+
     @Override
     public void channelOpen(ChannelHandlerContext ctx, ChannelStateEvent channelStateEvent) throws Exception {
-        // to keep track of open sockets
-        producer.getAllChannels().add(channelStateEvent.getChannel());
+        // to keep track of open sockets, pooled channels is tracked by the pool
+        if (!isPooled()) {
+            producer.getAllChannels().add(channelStateEvent.getChannel());
+        }
     }
 
     @Override
@@ -63,6 +93,17 @@ public class ClientChannelHandler extends SimpleChannelUpstreamHandler {
             LOG.trace("Exception caught at Channel: " + ctx.getChannel(), exceptionEvent.getCause());
 
         }
+        if (isPooled()) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Closing pooled channel as an exception was thrown from Netty", exceptionEvent.getCause());
+            }
+            NettyChannelPool pool = getChannelPool();
+            if (pool != null) {
+                pool.channelFailed(exceptionEvent.getChannel(), exceptionEvent.getCause());
+            }
+            NettyHelper.close(exceptionEvent.getChannel());
+            return;
+        }
         if (exceptionHandled) {
             // ignore subsequent exceptions being thrown
             return;
@@ -90,6 +131,15 @@ public class ClientChannelHandler extends SimpleChannelUpstreamHandler {
             LOG.trace("Channel closed: " + ctx.getChannel());
         }
 
+        if (isPooled()) {
+            // fail the exchanges waiting for a reply on the closed channel
+            NettyChannelPool pool = getChannelPool();
+            if (pool != null) {
+                pool.channelFailed(ctx.getChannel(), null);
+            }
+            return;
+        }
+
         if (producer.getConfiguration().isSync() && !messageReceived && !exceptionHandled) {
             // session was closed but no message received. This could be because the remote server had an internal error
             // and could not return a response. We should count down to stop waiting for a response
@@ -104,6 +154,11 @@ public class ClientChannelHandler extends SimpleChannelUpstreamHandler {
 
     @Override
     public void messageReceived(ChannelHandlerContext ctx, MessageEvent messageEvent) throws Exception {
+        if (isPooled()) {
+            pooledMessageReceived(ctx, messageEvent);
+            return;
+        }
+
         messageReceived = true;
 
         Object body = messageEvent.getMessage();
@@ -124,9 +179,9 @@ public class ClientChannelHandler extends SimpleChannelUpstreamHandler {
 
         // set the result on either IN or OUT on the original exchange depending on its pattern
         if (ExchangeHelper.isOutCapable(exchange)) {
-            NettyPayloadHelper.setOut(exchange, body);
+            NettyPayloadHelper.setOut(producer.getEndpoint(), exchange, body);
         } else {
-            NettyPayloadHelper.setIn(exchange, body);
+            NettyPayloadHelper.setIn(producer.getEndpoint(), exchange, body);
         }
 
         try {
@@ -155,4 +210,60 @@ public class ClientChannelHandler extends SimpleChannelUpstreamHandler {
         }
     }
 
+    private void pooledMessageReceived(ChannelHandlerContext ctx, MessageEvent messageEvent) {
+        Object body = messageEvent.getMessage();
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Message received: " + body);
+        }
+
+        // decode the transferred exchange up front so the reply can be correlated by its exchange id
+        try {
+            body = NettyPayloadHelper.decode(endpoint, body);
+        } catch (RuntimeException e) {
+            LOG.warn("Cannot decode the reply received from address: " + endpoint.getConfiguration().getAddress()
+                    + ". The reply is discarded.", e);
+            return;
+        }
+
+        NettyChannelPool pool = getChannelPool();
+        NettyCamelState state = pool != null ? pool.removeState(ctx.getChannel(), body) : null;
+        if (state == null) {
+            LOG.warn("No exchange is waiting for the reply received from address: " + endpoint.getConfiguration().getAddress()
+                    + ". The reply is discarded: " + body);
+            return;
+        }
+        Exchange exchange = state.getExchange();
+        AsyncCallback callback = state.getCallback();
+
+        boolean close = false;
+        try {
+            // if textline enabled then covert to a String which must be used for textline
+            if (endpoint.getConfiguration().isTextline()) {
+                body = endpoint.getCamelContext().getTypeConverter().mandatoryConvertTo(String.class, exchange, body);
+            }
+
+            // set the result on either IN or OUT on the original exchange depending on its pattern
+            if (ExchangeHelper.isOutCapable(exchange)) {
+                NettyPayloadHelper.setOut(exchange, body);
+            } else {
+                NettyPayloadHelper.setIn(exchange, body);
+            }
+
+            close = NettyHelper.isCloseChannelWhenComplete(endpoint.getConfiguration(), exchange);
+            if (close && pool.isMultiplexing()) {
+                // a multiplexed channel is shared with the other exchanges in-flight so it must not be closed
+                LOG.debug("Ignoring close channel when complete as the channel is multiplexed");
+                close = false;
+            } else if (close && LOG.isDebugEnabled()) {
+                LOG.debug("Closing channel when complete at address: " + endpoint.getConfiguration().getAddress());
+            }
+        } catch (NoTypeConversionAvailableException e) {
+            exchange.setException(e);
+        } finally {
+            // release the channel back to the pool and signal callback
+            pool.release(ctx.getChannel(), close);
+            callback.done(false);
+        }
+    }
+
 }
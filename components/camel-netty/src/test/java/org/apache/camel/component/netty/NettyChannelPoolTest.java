@@ -0,0 +1,147 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.netty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.ExchangeTimedOutException;
+import org.apache.camel.Processor;
+import org.apache.camel.RuntimeCamelException;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.test.junit4.CamelTestSupport;
+import org.junit.Test;
+
+/**
+ * @version 
+ */
+public class NettyChannelPoolTest extends CamelTestSupport {
+
+    private String uri = "netty:tcp://localhost:5156?textline=true&sync=true&channelPool=true&channelPoolMaxActive=5&requestTimeout=5000";
+
+    @Test
+    public void testChannelReused() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertEquals("Bye " + i, template.requestBody(uri, "" + i, String.class));
+        }
+
+        NettyChannelPool pool = context.getEndpoint(uri, NettyEndpoint.class).getChannelPool();
+        assertNotNull(pool);
+        // the same channel should be reused for each request
+        assertEquals(1, pool.getCreatedCount());
+        assertEquals(1, pool.getIdleCount());
+        assertEquals(0, pool.getInflightCount());
+    }
+
+    @Test
+    public void testConcurrentChannelPool() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        List<Future<String>> futures = new ArrayList<Future<String>>();
+        for (int i = 0; i < 50; i++) {
+            final int index = i;
+            futures.add(executor.submit(new Callable<String>() {
+                public String call() throws Exception {
+                    return template.requestBody(uri, "" + index, String.class);
+                }
+            }));
+        }
+
+        for (int i = 0; i < 50; i++) {
+            assertEquals("Bye " + i, futures.get(i).get());
+        }
+        executor.shutdownNow();
+
+        NettyChannelPool pool = context.getEndpoint(uri, NettyEndpoint.class).getChannelPool();
+        // the pool is bounded
+        assertTrue("Should not create more channels than the max active", pool.getCreatedCount() <= 5);
+        assertEquals(0, pool.getInflightCount());
+    }
+
+    @Test
+    public void testEvictIdleChannels() throws Exception {
+        assertEquals("Bye World", template.requestBody(uri, "World", String.class));
+
+        NettyChannelPool pool = context.getEndpoint(uri, NettyEndpoint.class).getChannelPool();
+        assertEquals(1, pool.getIdleCount());
+
+        pool.getConfiguration().setChannelPoolIdleTimeout(1);
+        Thread.sleep(10);
+        pool.evictIdleChannels();
+        assertEquals(0, pool.getIdleCount());
+        assertEquals(1, pool.getEvictedCount());
+
+        // a new channel should be created
+        assertEquals("Bye Camel", template.requestBody(uri, "Camel", String.class));
+        assertEquals(2, pool.getCreatedCount());
+    }
+
+    @Test
+    public void testRequestTimeout() throws Exception {
+        String timeoutUri = "netty:tcp://localhost:5156?textline=true&sync=true&channelPool=true&requestTimeout=1000";
+        try {
+            template.requestBody(timeoutUri, "Slow", String.class);
+            fail("Should have timed out with an exception");
+        } catch (RuntimeCamelException e) {
+            assertIsInstanceOf(ExchangeTimedOutException.class, e.getCause());
+        }
+
+        // the channel should be closed as the late reply must not be used as the reply of another request
+        NettyChannelPool pool = context.getEndpoint(timeoutUri, NettyEndpoint.class).getChannelPool();
+        assertEquals(0, pool.getInflightCount());
+        assertEquals(0, pool.getIdleCount());
+
+        assertEquals("Bye Camel", template.requestBody(timeoutUri, "Camel", String.class));
+        assertEquals(2, pool.getCreatedCount());
+    }
+
+    @Test
+    public void testRequestTimeoutRequiredWhenSync() throws Exception {
+        try {
+            template.requestBody("netty:tcp://localhost:5156?textline=true&sync=true&channelPool=true", "World", String.class);
+            fail("Should have thrown an exception");
+        } catch (Exception e) {
+            Throwable cause = e;
+            while (cause != null && !(cause instanceof IllegalArgumentException)) {
+                cause = cause.getCause();
+            }
+            assertNotNull("Should fail with IllegalArgumentException", cause);
+        }
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            public void configure() throws Exception {
+                from("netty:tcp://localhost:5156?textline=true&sync=true").process(new Processor() {
+                    public void process(Exchange exchange) throws Exception {
+                        String body = exchange.getIn().getBody(String.class);
+                        if ("Slow".equals(body)) {
+                            Thread.sleep(1500);
+                        }
+                        exchange.getOut().setBody("Bye " + body);
+                    }
+                });
+            }
+        };
+    }
+
+}
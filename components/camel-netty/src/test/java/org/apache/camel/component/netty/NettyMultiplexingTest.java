@@ -0,0 +1,129 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.netty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.ExchangeTimedOutException;
+import org.apache.camel.Processor;
+import org.apache.camel.RuntimeCamelException;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.test.junit4.CamelTestSupport;
+import org.junit.Test;
+
+/**
+ * @version 
+ */
+public class NettyMultiplexingTest extends CamelTestSupport {
+
+    private String uri = "netty:tcp://localhost:5157?transferExchange=true&sync=true&multiplexing=true&channelPoolMaxActive=2&requestTimeout=5000";
+
+    @Test
+    public void testMultiplexing() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        List<Future<String>> futures = new ArrayList<Future<String>>();
+        for (int i = 0; i < 50; i++) {
+            final int index = i;
+            futures.add(executor.submit(new Callable<String>() {
+                public String call() throws Exception {
+                    return template.requestBody(uri, "" + index, String.class);
+                }
+            }));
+        }
+
+        // each reply should be correlated to its request
+        for (int i = 0; i < 50; i++) {
+            assertEquals("Bye " + i, futures.get(i).get());
+        }
+        executor.shutdownNow();
+
+        NettyChannelPool pool = context.getEndpoint(uri, NettyEndpoint.class).getChannelPool();
+        assertTrue("Should share the channels", pool.getCreatedCount() <= 2);
+        assertEquals(0, pool.getInflightCount());
+    }
+
+    @Test
+    public void testCloseChannelWhenCompleteIsIgnored() throws Exception {
+        String single = "netty:tcp://localhost:5157?transferExchange=true&sync=true&multiplexing=true&channelPoolMaxActive=1&requestTimeout=5000";
+        for (int i = 0; i < 3; i++) {
+            String reply = template.requestBodyAndHeader(single, "" + i, NettyConstants.NETTY_CLOSE_CHANNEL_WHEN_COMPLETE, true, String.class);
+            assertEquals("Bye " + i, reply);
+        }
+
+        // the shared channel should not have been closed
+        NettyChannelPool pool = context.getEndpoint(single, NettyEndpoint.class).getChannelPool();
+        assertEquals(1, pool.getCreatedCount());
+    }
+
+    @Test
+    public void testRequestTimeout() throws Exception {
+        String single = "netty:tcp://localhost:5157?transferExchange=true&sync=true&multiplexing=true&channelPoolMaxActive=1&requestTimeout=1000";
+        try {
+            template.requestBody(single, "Slow", String.class);
+            fail("Should have timed out with an exception");
+        } catch (RuntimeCamelException e) {
+            assertIsInstanceOf(ExchangeTimedOutException.class, e.getCause());
+        }
+
+        // wait for the late reply which should be discarded
+        Thread.sleep(1000);
+
+        // the shared channel should still be used
+        assertEquals("Bye Camel", template.requestBody(single, "Camel", String.class));
+        NettyChannelPool pool = context.getEndpoint(single, NettyEndpoint.class).getChannelPool();
+        assertEquals(1, pool.getCreatedCount());
+        assertEquals(0, pool.getInflightCount());
+    }
+
+    @Test
+    public void testDisconnectNotAllowed() throws Exception {
+        try {
+            template.requestBody(uri + "&disconnect=true", "Hello", String.class);
+            fail("Should have thrown an exception");
+        } catch (Exception e) {
+            Throwable cause = e;
+            while (cause != null && !(cause instanceof IllegalArgumentException)) {
+                cause = cause.getCause();
+            }
+            assertNotNull("Should fail with IllegalArgumentException", cause);
+        }
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            public void configure() throws Exception {
+                from("netty:tcp://localhost:5157?transferExchange=true&sync=true").process(new Processor() {
+                    public void process(Exchange exchange) throws Exception {
+                        String body = exchange.getIn().getBody(String.class);
+                        if ("Slow".equals(body)) {
+                            Thread.sleep(1500);
+                        }
+                        exchange.getOut().setBody("Bye " + body);
+                    }
+                });
+            }
+        };
+    }
+
+}
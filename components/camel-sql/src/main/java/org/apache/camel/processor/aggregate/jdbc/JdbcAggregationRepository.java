@@ -20,28 +20,51 @@ import java.io.IOException;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.sql.DataSource;
 
 import org.apache.camel.CamelContext;
+import org.apache.camel.CamelContextAware;
 import org.apache.camel.Exchange;
 import org.apache.camel.impl.ServiceSupport;
+import org.apache.camel.management.mbean.ManagedService;
+import org.apache.camel.spi.ExchangeCodec;
 import org.apache.camel.spi.RecoverableAggregationRepository;
 import org.apache.camel.util.ObjectHelper;
+import org.apache.camel.util.concurrent.ExecutorServiceHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.support.AbstractLobCreatingPreparedStatementCallback;
 import org.springframework.jdbc.support.lob.DefaultLobHandler;
 import org.springframework.jdbc.support.lob.LobCreator;
 import org.springframework.jdbc.support.lob.LobHandler;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.support.TransactionCallback;
@@ -50,12 +73,29 @@ import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * JDBC based {@link org.apache.camel.spi.AggregationRepository}
+ * <p/>
+ * By default each add is written to the database in its own transaction. If the <tt>writeBehind</tt> option
+ * is enabled then added exchanges are buffered in memory and written to the database using JDBC batch
+ * statements, when <tt>writeBehindBatchSize</tt> exchanges is buffered or every <tt>writeBehindInterval</tt> millis.
+ * Exchanges which are not yet completed can therefore be lost if the JVM crashes before they are flushed.
+ * Removing (completing) and confirming exchanges is always written immediately, so recovery of completed
+ * exchanges is not affected.
+ * <p/>
+ * If the table has a version column then set the <tt>versionColumn</tt> option to use optimistic locking,
+ * to detect concurrent writers when flushing the buffered exchanges. A buffered exchange which is in conflict
+ * with another writer is discarded, and the next <tt>get</tt> or <tt>add</tt> of its key fails with an
+ * {@link OptimisticLockingFailureException}, so the aggregated messages is not lost silently.
+ * <p/>
+ * The write behind buffer and flush statistics are exposed in JMX when the repository is used by the aggregator.
  */
-public class JdbcAggregationRepository extends ServiceSupport implements RecoverableAggregationRepository {
+@ManagedResource("JdbcAggregationRepository")
+public class JdbcAggregationRepository extends ServiceSupport implements RecoverableAggregationRepository, CamelContextAware {
 
     private static final transient Logger LOG = LoggerFactory.getLogger(JdbcAggregationRepository.class);
     private static final String ID = "id";
     private static final String EXCHANGE = "exchange";
+    private CamelContext camelContext;
+    private ManagedService managedObject;
     private PlatformTransactionManager transactionManager;
     private DataSource dataSource;
     private TransactionTemplate transactionTemplate;
@@ -64,11 +104,38 @@ public class JdbcAggregationRepository extends ServiceSupport implements Recover
     private LobHandler lobHandler = new DefaultLobHandler();
     private String repositoryName;
     private boolean returnOldExchange;
+    private ExchangeCodec exchangeCodec;
     private JdbcCamelCodec codec = new JdbcCamelCodec();
     private long recoveryInterval = 5000;
     private boolean useRecovery = true;
     private int maximumRedeliveries;
     private String deadLetterUri;
+    private String versionColumn;
+    private boolean writeBehind;
+    private int writeBehindBatchSize = 100;
+    private long writeBehindInterval = 1000;
+    private final Map<String, byte[]> writeBehindBuffer = new LinkedHashMap<String, byte[]>();
+    private final Map<String, Long> versions = new ConcurrentHashMap<String, Long>();
+    // the keys of the buffered exchanges which was discarded due to a concurrent writer
+    private final Set<String> conflictedKeys = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private final Lock flushLock = new ReentrantLock();
+    private ScheduledExecutorService executorService;
+    private boolean shutdownExecutorService;
+    private ScheduledFuture<?> flushFuture;
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong flushedExchangesCount = new AtomicLong();
+    private final AtomicLong totalFlushTime = new AtomicLong();
+    private final AtomicLong optimisticLockFailures = new AtomicLong();
+    private volatile long lastFlushTime;
+    private volatile long maxFlushTime;
+    private volatile boolean batchUpdateCounts = true;
+
+    /**
+     * Thrown when the JDBC driver does not report the number of rows updated by each statement in a batch.
+     */
+    private static final class UpdateCountsNotReportedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+    }
 
     /**
      * Creates an aggregation repository
@@ -111,6 +178,10 @@ public class JdbcAggregationRepository extends ServiceSupport implements Recover
 
     @SuppressWarnings("unchecked")
     public Exchange add(final CamelContext camelContext, final String correlationId, final Exchange exchange) {
+        if (isWriteBehind()) {
+            return addWriteBehind(camelContext, correlationId, exchange);
+        }
+
         return (Exchange) transactionTemplate.execute(new TransactionCallback() {
 
             public Exchange doInTransaction(TransactionStatus status) {
@@ -125,12 +196,15 @@ public class JdbcAggregationRepository extends ServiceSupport implements Recover
                         LOG.debug("Adding exchange with key: [" + key + "]");
                     }
 
-                    String insert = "INSERT INTO " + getRepositoryName() + " (" + EXCHANGE + ", " + ID + ") VALUES (?, ?)";
-                    String update = "UPDATE " + getRepositoryName() + " SET " + EXCHANGE + " = ? WHERE " + ID + " = ?";
+                    String insert = createInsertSql();
+                    String update = "UPDATE " + getRepositoryName() + " SET " + EXCHANGE + " = ?"
+                            + (versionColumn != null ? ", " + versionColumn + " = " + versionColumn + " + 1" : "")
+                            + " WHERE " + ID + " = ?";
 
                     boolean present = jdbcTemplate.queryForInt(
-                            "SELECT COUNT (*) FROM " + getRepositoryName() + " WHERE " + ID + " = ?", key) != 0;
+                            "SELECT COUNT(*) FROM " + getRepositoryName() + " WHERE " + ID + " = ?", key) != 0;
                     sql = present ? update : insert;
+                    final boolean isInsert = !present;
 
                     // Recover existing exchange with that ID
                     if (isReturnOldExchange() && present) {
@@ -143,6 +217,9 @@ public class JdbcAggregationRepository extends ServiceSupport implements Recover
                                 protected void setValues(PreparedStatement ps, LobCreator lobCreator) throws SQLException {
                                     lobCreator.setBlobAsBytes(ps, 1, data);
                                     ps.setString(2, key);
+                                    if (isInsert && versionColumn != null) {
+                                        ps.setLong(3, 1);
+                                    }
                                 }
                             });
 
@@ -156,9 +233,57 @@ public class JdbcAggregationRepository extends ServiceSupport implements Recover
 
     }
 
+    private Exchange addWriteBehind(final CamelContext camelContext, final String key, final Exchange exchange) {
+        // the exchange may be aggregated from an exchange which has been discarded
+        checkConflict(key);
+
+        byte[] data;
+        try {
+            data = codec.marshallExchange(camelContext, exchange);
+        } catch (IOException e) {
+            throw new RuntimeException("Error adding to repository " + repositoryName + " with key " + key, e);
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Adding exchange with key: [" + key + "] to write behind buffer");
+        }
+
+        Exchange result = null;
+        if (isReturnOldExchange()) {
+            result = get(camelContext, key);
+        }
+
+        int size;
+        synchronized (writeBehindBuffer) {
+            writeBehindBuffer.put(key, data);
+            size = writeBehindBuffer.size();
+        }
+
+        if (size >= writeBehindBatchSize) {
+            // conflicts of the other keys is reported to their next get or add and not to this caller
+            flush(false);
+            checkConflict(key);
+        }
+
+        return result;
+    }
+
     public Exchange get(final CamelContext camelContext, final String correlationId) {
         final String key = correlationId;
-        Exchange result = get(key, getRepositoryName(), camelContext);
+        Exchange result;
+
+        byte[] buffered = null;
+        if (isWriteBehind()) {
+            checkConflict(key);
+            synchronized (writeBehindBuffer) {
+                buffered = writeBehindBuffer.get(key);
+            }
+        }
+        if (buffered != null) {
+            result = unmarshallExchange(camelContext, key, getRepositoryName(), buffered);
+        } else {
+            result = get(key, getRepositoryName(), camelContext);
+        }
 
         if (LOG.isDebugEnabled()) {
             LOG.debug("Getting key  [" + key + "] -> " + result);
@@ -171,25 +296,70 @@ public class JdbcAggregationRepository extends ServiceSupport implements Recover
     private Exchange get(final String key, final String repositoryName, final CamelContext camelContext) {
         return (Exchange) transactionTemplateReadOnly.execute(new TransactionCallback() {
             public Exchange doInTransaction(TransactionStatus status) {
+                // keep track of the version of the aggregated exchanges as they are updated by the write behind flush
+                final boolean trackVersion = isWriteBehind() && versionColumn != null && repositoryName.equals(getRepositoryName());
                 try {
-                    final byte[] data = jdbcTemplate.queryForObject(
-                            "SELECT " + EXCHANGE + " FROM " + repositoryName + " WHERE " + ID + " = ?",
-                            new Object[]{key}, byte[].class);
-                    return codec.unmarshallExchange(camelContext, data);
+                    final byte[] data;
+                    if (trackVersion) {
+                        Object[] row = jdbcTemplate.queryForObject(
+                                "SELECT " + EXCHANGE + ", " + versionColumn + " FROM " + repositoryName + " WHERE " + ID + " = ?",
+                                new Object[]{key}, new RowMapper<Object[]>() {
+                                    public Object[] mapRow(ResultSet rs, int rowNum) throws SQLException {
+                                        return new Object[]{getLobHandler().getBlobAsBytes(rs, 1), rs.getLong(2)};
+                                    }
+                                });
+                        data = (byte[]) row[0];
+                        versions.put(key, (Long) row[1]);
+                    } else {
+                        data = jdbcTemplate.queryForObject(
+                                "SELECT " + EXCHANGE + " FROM " + repositoryName + " WHERE " + ID + " = ?",
+                                new Object[]{key}, byte[].class);
+                    }
+                    return unmarshallExchange(camelContext, key, repositoryName, data);
                 } catch (EmptyResultDataAccessException ex) {
+                    if (trackVersion) {
+                        versions.remove(key);
+                    }
                     return null;
-                } catch (IOException ex) {
-                    // Rollback the transaction
-                    throw new RuntimeException("Error getting key " + key + " from repository " + repositoryName, ex);
-                } catch (ClassNotFoundException ex) {
-                    // Rollback the transaction
-                    throw new RuntimeException(ex);
                 }
             }
         });
     }
 
+    private Exchange unmarshallExchange(CamelContext camelContext, String key, String repositoryName, byte[] data) {
+        try {
+            return codec.unmarshallExchange(camelContext, data);
+        } catch (IOException ex) {
+            // Rollback the transaction
+            throw new RuntimeException("Error getting key " + key + " from repository " + repositoryName, ex);
+        } catch (ClassNotFoundException ex) {
+            // Rollback the transaction
+            throw new RuntimeException(ex);
+        }
+    }
+
     public void remove(final CamelContext camelContext, final String correlationId, final Exchange exchange) {
+        if (!isWriteBehind()) {
+            doRemove(camelContext, correlationId, exchange);
+            return;
+        }
+
+        // the buffered exchange is not needed as its removed, but we must not remove while flushing
+        // as the flush could otherwise write the removed exchange back to the database
+        flushLock.lock();
+        try {
+            synchronized (writeBehindBuffer) {
+                writeBehindBuffer.remove(correlationId);
+            }
+            doRemove(camelContext, correlationId, exchange);
+            versions.remove(correlationId);
+            conflictedKeys.remove(correlationId);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void doRemove(final CamelContext camelContext, final String correlationId, final Exchange exchange) {
         transactionTemplate.execute(new TransactionCallbackWithoutResult() {
             protected void doInTransactionWithoutResult(TransactionStatus status) {
                 final String key = correlationId;
@@ -236,6 +406,9 @@ public class JdbcAggregationRepository extends ServiceSupport implements Recover
 
     @SuppressWarnings("unchecked")
     public Set<String> getKeys() {
+        // flush so the keys of the buffered exchanges is included
+        flush(false);
+
         return (LinkedHashSet<String>) transactionTemplateReadOnly.execute(new TransactionCallback() {
             public LinkedHashSet<String> doInTransaction(TransactionStatus status) {
                 List<String> keys = jdbcTemplate.query("SELECT " + ID + " FROM " + getRepositoryName(),
@@ -272,6 +445,289 @@ public class JdbcAggregationRepository extends ServiceSupport implements Recover
         });
     }
 
+    /**
+     * Flushes the exchanges in the write behind buffer to the database using JDBC batch statements.
+     *
+     * @throws OptimisticLockingFailureException is thrown if some of the exchanges has been updated by
+     * a concurrent writer. Those exchanges is discarded from the buffer, and the next get or add of their keys
+     * fails as well. The other exchanges is kept in the buffer to be flushed again.
+     */
+    @ManagedOperation(description = "Flushes the write behind buffer")
+    public void flush() {
+        flush(true);
+    }
+
+    /**
+     * Fails if the buffered exchange with the given key has been discarded due to a concurrent writer,
+     * which is only reported once.
+     */
+    private void checkConflict(String key) {
+        if (conflictedKeys.remove(key)) {
+            throw new OptimisticLockingFailureException("The buffered exchange with key " + key + " has been discarded as"
+                    + " it was updated or removed by another writer in repository " + getRepositoryName());
+        }
+    }
+
+    /**
+     * Flushes the write behind buffer.
+     *
+     * @param throwConflicts whether to throw an {@link OptimisticLockingFailureException} if some of the exchanges
+     * is in conflict with a concurrent writer, or only log it
+     */
+    @SuppressWarnings("unchecked")
+    private void flush(boolean throwConflicts) {
+        if (!isWriteBehind()) {
+            return;
+        }
+
+        flushLock.lock();
+        try {
+            final Map<String, byte[]> batch;
+            synchronized (writeBehindBuffer) {
+                if (writeBehindBuffer.isEmpty()) {
+                    return;
+                }
+                batch = new LinkedHashMap<String, byte[]>(writeBehindBuffer);
+            }
+
+            long start = System.currentTimeMillis();
+            final List<String> conflicts = new ArrayList<String>();
+            final List<String> duplicates = new ArrayList<String>();
+            Map<String, Long> written;
+            try {
+                try {
+                    written = doFlushInTransaction(batch, conflicts, duplicates);
+                } catch (UpdateCountsNotReportedException e) {
+                    LOG.warn("The JDBC driver does not report the number of updated rows for batch statements."
+                            + " The updates to repository " + getRepositoryName() + " is executed one by one instead.");
+                    batchUpdateCounts = false;
+                    conflicts.clear();
+                    duplicates.clear();
+                    written = doFlushInTransaction(batch, conflicts, duplicates);
+                }
+            } catch (OptimisticLockingFailureException e) {
+                if (!duplicates.isEmpty()) {
+                    // the exchanges which another writer has inserted concurrently is in conflict
+                    conflicts.addAll(findExistingKeys(duplicates));
+                }
+                optimisticLockFailures.addAndGet(conflicts.size());
+                // discard the conflicting exchanges and remember them, so the next get or add of their keys fails
+                // instead of silently loading the exchange of the other writer from the database
+                synchronized (writeBehindBuffer) {
+                    for (String key : conflicts) {
+                        if (writeBehindBuffer.get(key) == batch.get(key)) {
+                            writeBehindBuffer.remove(key);
+                        }
+                        versions.remove(key);
+                        conflictedKeys.add(key);
+                    }
+                }
+                if (throwConflicts) {
+                    throw e;
+                }
+                LOG.warn("Discarded buffered exchanges with keys " + conflicts + " as they has been updated or removed"
+                        + " by another writer in repository " + getRepositoryName() + ". Caused by: " + e.getMessage());
+                return;
+            }
+
+            if (versionColumn != null) {
+                versions.putAll(written);
+            }
+            synchronized (writeBehindBuffer) {
+                for (Map.Entry<String, byte[]> entry : batch.entrySet()) {
+                    // only remove if the exchange was not added again while flushing
+                    if (writeBehindBuffer.get(entry.getKey()) == entry.getValue()) {
+                        writeBehindBuffer.remove(entry.getKey());
+                    }
+                }
+            }
+
+            long delta = System.currentTimeMillis() - start;
+            flushCount.incrementAndGet();
+            flushedExchangesCount.addAndGet(batch.size());
+            totalFlushTime.addAndGet(delta);
+            lastFlushTime = delta;
+            if (delta > maxFlushTime) {
+                maxFlushTime = delta;
+            }
+
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Flushed " + batch.size() + " exchanges to repository " + getRepositoryName() + " took " + delta + " millis");
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Long> doFlushInTransaction(final Map<String, byte[]> batch, final List<String> conflicts,
+                                                   final List<String> duplicates) {
+        return (Map<String, Long>) transactionTemplate.execute(new TransactionCallback() {
+            public Map<String, Long> doInTransaction(TransactionStatus status) {
+                return doFlush(batch, conflicts, duplicates);
+            }
+        });
+    }
+
+    private Map<String, Long> doFlush(final Map<String, byte[]> batch, final List<String> conflicts, final List<String> duplicates) {
+        final List<String> updates = new ArrayList<String>();
+        final List<String> inserts = new ArrayList<String>();
+        if (versionColumn == null) {
+            // we do not know which exists so try updating all of them and insert those which was not updated
+            updates.addAll(batch.keySet());
+        } else {
+            for (String key : batch.keySet()) {
+                if (versions.containsKey(key)) {
+                    updates.add(key);
+                } else {
+                    inserts.add(key);
+                }
+            }
+        }
+
+        final LobCreator lobCreator = getLobHandler().getLobCreator();
+        try {
+            if (!updates.isEmpty()) {
+                String update;
+                if (versionColumn != null) {
+                    update = "UPDATE " + getRepositoryName() + " SET " + EXCHANGE + " = ?, " + versionColumn + " = ? WHERE "
+                            + ID + " = ? AND " + versionColumn + " = ?";
+                } else {
+                    update = "UPDATE " + getRepositoryName() + " SET " + EXCHANGE + " = ? WHERE " + ID + " = ?";
+                }
+
+                int[] counts = executeUpdates(update, new BatchPreparedStatementSetter() {
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        String key = updates.get(i);
+                        lobCreator.setBlobAsBytes(ps, 1, batch.get(key));
+                        if (versionColumn != null) {
+                            long version = versions.get(key);
+                            ps.setLong(2, version + 1);
+                            ps.setString(3, key);
+                            ps.setLong(4, version);
+                        } else {
+                            ps.setString(2, key);
+                        }
+                    }
+
+                    public int getBatchSize() {
+                        return updates.size();
+                    }
+                });
+
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] == 0) {
+                        if (versionColumn != null) {
+                            conflicts.add(updates.get(i));
+                        } else {
+                            inserts.add(updates.get(i));
+                        }
+                    }
+                }
+                if (!conflicts.isEmpty()) {
+                    throw new OptimisticLockingFailureException("Exchanges with keys " + conflicts
+                            + " has been updated or removed by another writer in repository " + getRepositoryName());
+                }
+            }
+
+            if (!inserts.isEmpty()) {
+                try {
+                    jdbcTemplate.batchUpdate(createInsertSql(), new BatchPreparedStatementSetter() {
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            String key = inserts.get(i);
+                            lobCreator.setBlobAsBytes(ps, 1, batch.get(key));
+                            ps.setString(2, key);
+                            if (versionColumn != null) {
+                                ps.setLong(3, 1);
+                            }
+                        }
+
+                        public int getBatchSize() {
+                            return inserts.size();
+                        }
+                    });
+                } catch (DuplicateKeyException e) {
+                    if (versionColumn == null) {
+                        throw e;
+                    }
+                    // another writer has inserted some of the exchanges concurrently, which of them is
+                    // found after the transaction has been rolled back
+                    duplicates.addAll(inserts);
+                    throw new OptimisticLockingFailureException("Exchanges has been inserted by another writer in repository "
+                            + getRepositoryName(), e);
+                }
+            }
+        } finally {
+            lobCreator.close();
+        }
+
+        // the versions of the written exchanges
+        Map<String, Long> answer = new HashMap<String, Long>();
+        if (versionColumn != null) {
+            for (String key : updates) {
+                answer.put(key, versions.get(key) + 1);
+            }
+            for (String key : inserts) {
+                answer.put(key, 1L);
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Executes the updates as a JDBC batch, or one by one if the JDBC driver does not report the number of
+     * rows updated by each statement in a batch, as the update counts is needed to detect the exchanges to
+     * be inserted or which is in conflict.
+     *
+     * @throws UpdateCountsNotReportedException is thrown the first time the driver is detected not to report
+     * the update counts, to rollback the batch and flush again
+     */
+    private int[] executeUpdates(String sql, final BatchPreparedStatementSetter setter) {
+        if (batchUpdateCounts) {
+            int[] counts = jdbcTemplate.batchUpdate(sql, setter);
+            for (int count : counts) {
+                if (count == Statement.SUCCESS_NO_INFO) {
+                    throw new UpdateCountsNotReportedException();
+                }
+            }
+            return counts;
+        }
+
+        int[] counts = new int[setter.getBatchSize()];
+        for (int i = 0; i < counts.length; i++) {
+            final int index = i;
+            counts[i] = jdbcTemplate.update(sql, new PreparedStatementSetter() {
+                public void setValues(PreparedStatement ps) throws SQLException {
+                    setter.setValues(ps, index);
+                }
+            });
+        }
+        return counts;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> findExistingKeys(final List<String> keys) {
+        return (List<String>) transactionTemplateReadOnly.execute(new TransactionCallback() {
+            public List<String> doInTransaction(TransactionStatus status) {
+                List<String> answer = new ArrayList<String>();
+                for (String key : keys) {
+                    if (jdbcTemplate.queryForInt("SELECT COUNT(*) FROM " + getRepositoryName() + " WHERE " + ID + " = ?", key) != 0) {
+                        answer.add(key);
+                    }
+                }
+                return answer;
+            }
+        });
+    }
+
+    private String createInsertSql() {
+        if (versionColumn != null) {
+            return "INSERT INTO " + getRepositoryName() + " (" + EXCHANGE + ", " + ID + ", " + versionColumn + ") VALUES (?, ?, ?)";
+        } else {
+            return "INSERT INTO " + getRepositoryName() + " (" + EXCHANGE + ", " + ID + ") VALUES (?, ?)";
+        }
+    }
+
     public Exchange recover(CamelContext camelContext, String exchangeId) {
         final String key = exchangeId;
         Exchange answer = get(key, getRepositoryNameCompleted(), camelContext);
@@ -327,6 +783,130 @@ public class JdbcAggregationRepository extends ServiceSupport implements Recover
         this.returnOldExchange = returnOldExchange;
     }
 
+    public ExchangeCodec getExchangeCodec() {
+        return exchangeCodec;
+    }
+
+    /**
+     * Sets the codec to use for encoding the exchanges, such as {@link org.apache.camel.impl.BinaryExchangeCodec}.
+     * By default Java serialization is used.
+     */
+    public void setExchangeCodec(ExchangeCodec exchangeCodec) {
+        this.exchangeCodec = exchangeCodec;
+        this.codec = new JdbcCamelCodec(exchangeCodec);
+    }
+
+    public String getVersionColumn() {
+        return versionColumn;
+    }
+
+    /**
+     * Sets the name of a numeric version column in the repository table, which is used for optimistic locking
+     * when flushing the write behind buffer.
+     */
+    public void setVersionColumn(String versionColumn) {
+        this.versionColumn = versionColumn;
+    }
+
+    @ManagedAttribute(description = "Whether write behind is enabled")
+    public boolean isWriteBehind() {
+        return writeBehind;
+    }
+
+    /**
+     * Whether to buffer added exchanges in memory and write them to the database in batches.
+     */
+    public void setWriteBehind(boolean writeBehind) {
+        this.writeBehind = writeBehind;
+    }
+
+    @ManagedAttribute(description = "Number of buffered exchanges which triggers a flush")
+    public int getWriteBehindBatchSize() {
+        return writeBehindBatchSize;
+    }
+
+    /**
+     * Number of buffered exchanges which triggers a flush. Is by default 100.
+     */
+    public void setWriteBehindBatchSize(int writeBehindBatchSize) {
+        this.writeBehindBatchSize = writeBehindBatchSize;
+    }
+
+    @ManagedAttribute(description = "Interval in millis to flush the buffered exchanges")
+    public long getWriteBehindInterval() {
+        return writeBehindInterval;
+    }
+
+    /**
+     * Interval in millis to flush the buffered exchanges. Is by default 1000. Use 0 to only flush when the batch size
+     * is reached.
+     */
+    public void setWriteBehindInterval(long writeBehindInterval) {
+        this.writeBehindInterval = writeBehindInterval;
+    }
+
+    public ScheduledExecutorService getExecutorService() {
+        return executorService;
+    }
+
+    /**
+     * Sets the executor service to use for flushing the write behind buffer.
+     */
+    public void setExecutorService(ScheduledExecutorService executorService) {
+        this.executorService = executorService;
+    }
+
+    /**
+     * Number of exchanges currently in the write behind buffer
+     */
+    @ManagedAttribute(description = "Number of exchanges in the write behind buffer")
+    public int getWriteBehindBufferSize() {
+        synchronized (writeBehindBuffer) {
+            return writeBehindBuffer.size();
+        }
+    }
+
+    @ManagedAttribute(description = "Number of flushes")
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    @ManagedAttribute(description = "Number of exchanges flushed")
+    public long getFlushedExchangesCount() {
+        return flushedExchangesCount.get();
+    }
+
+    @ManagedAttribute(description = "Number of exchanges discarded due to concurrent writers")
+    public long getOptimisticLockFailures() {
+        return optimisticLockFailures.get();
+    }
+
+    @ManagedAttribute(description = "Last flush time [milliseconds]")
+    public long getLastFlushTime() {
+        return lastFlushTime;
+    }
+
+    @ManagedAttribute(description = "Max flush time [milliseconds]")
+    public long getMaxFlushTime() {
+        return maxFlushTime;
+    }
+
+    @ManagedAttribute(description = "Mean flush time [milliseconds]")
+    public long getMeanFlushTime() {
+        long count = flushCount.get();
+        return count > 0 ? totalFlushTime.get() / count : 0;
+    }
+
+    @ManagedOperation(description = "Resets the flush statistics")
+    public void resetStatistics() {
+        flushCount.set(0);
+        flushedExchangesCount.set(0);
+        totalFlushTime.set(0);
+        optimisticLockFailures.set(0);
+        lastFlushTime = 0;
+        maxFlushTime = 0;
+    }
+
     /**
      * @return the lobHandler
      */
@@ -341,6 +921,19 @@ public class JdbcAggregationRepository extends ServiceSupport implements Recover
         this.lobHandler = lobHandler;
     }
 
+    public CamelContext getCamelContext() {
+        return camelContext;
+    }
+
+    /**
+     * Sets the CamelContext which the repository registers its statistics in JMX with when started.
+     * The aggregator sets it if not already set.
+     */
+    public void setCamelContext(CamelContext camelContext) {
+        this.camelContext = camelContext;
+    }
+
+    @ManagedAttribute(description = "The repository name")
     public String getRepositoryName() {
         return repositoryName;
     }
@@ -355,6 +948,22 @@ public class JdbcAggregationRepository extends ServiceSupport implements Recover
         ObjectHelper.notNull(transactionManager, "TransactionManager");
         ObjectHelper.notNull(dataSource, "DataSource");
 
+        if (isWriteBehind() && writeBehindInterval > 0) {
+            if (executorService == null) {
+                executorService = ExecutorServiceHelper.newScheduledThreadPool(1, ExecutorServiceHelper.DEFAULT_PATTERN, "JdbcAggregationRepository", true);
+                shutdownExecutorService = true;
+            }
+            flushFuture = executorService.scheduleWithFixedDelay(new Runnable() {
+                public void run() {
+                    try {
+                        flush(false);
+                    } catch (Throwable e) {
+                        LOG.warn("Error flushing write behind buffer to repository " + getRepositoryName() + ". This exception is ignored.", e);
+                    }
+                }
+            }, writeBehindInterval, writeBehindInterval, TimeUnit.MILLISECONDS);
+        }
+
         // log number of existing exchanges
         int current = getKeys().size();
         int completed = scan(null).size();
@@ -369,11 +978,33 @@ public class JdbcAggregationRepository extends ServiceSupport implements Recover
         } else {
             LOG.info("On startup there are no completed exchanges to be recovered in repository: " + getRepositoryNameCompleted());
         }
+
+        // register in JMX to expose the write behind and flush statistics
+        if (camelContext != null) {
+            managedObject = new ManagedService(camelContext, this);
+            managedObject.init(camelContext.getManagementStrategy());
+            camelContext.getManagementStrategy().manageObject(managedObject);
+        }
     }
 
     @Override
     protected void doStop() throws Exception {
-        // noop
+        if (managedObject != null) {
+            camelContext.getManagementStrategy().unmanageObject(managedObject);
+            managedObject = null;
+        }
+        if (flushFuture != null) {
+            flushFuture.cancel(false);
+            flushFuture = null;
+        }
+        if (shutdownExecutorService && executorService != null) {
+            executorService.shutdownNow();
+            executorService = null;
+            shutdownExecutorService = false;
+        }
+
+        // flush what is left in the buffer
+        flush(false);
     }
 
 }
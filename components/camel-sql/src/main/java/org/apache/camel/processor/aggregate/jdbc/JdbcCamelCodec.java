@@ -19,6 +19,7 @@ package org.apache.camel.processor.aggregate.jdbc;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 
@@ -27,12 +28,41 @@ import org.apache.camel.Endpoint;
 import org.apache.camel.Exchange;
 import org.apache.camel.impl.DefaultExchange;
 import org.apache.camel.impl.DefaultExchangeHolder;
+import org.apache.camel.impl.SerializationExchangeCodec;
+import org.apache.camel.spi.ExchangeCodec;
+import org.apache.camel.spi.ObjectInputStreamFactory;
 
 /**
  * Adapted from HawtDBCamelCodec
  */
 public final class JdbcCamelCodec {
 
+    private final ExchangeCodec exchangeCodec;
+
+    public JdbcCamelCodec() {
+        this(null);
+    }
+
+    /**
+     * Creates a codec which uses the given {@link ExchangeCodec} to encode the exchanges.
+     *
+     * @param exchangeCodec the codec to use, or <tt>null</tt> to use Java serialization
+     */
+    public JdbcCamelCodec(ExchangeCodec exchangeCodec) {
+        this.exchangeCodec = exchangeCodec;
+        if (exchangeCodec instanceof SerializationExchangeCodec) {
+            SerializationExchangeCodec codec = (SerializationExchangeCodec) exchangeCodec;
+            if (codec.getObjectInputStreamFactory() == null) {
+                // resolve the classes of the serialized objects the same way as when no codec is used
+                codec.setObjectInputStreamFactory(new ObjectInputStreamFactory() {
+                    public ObjectInputStream createObjectInputStream(InputStream stream) throws IOException {
+                        return new ClassLoadingAwareObjectInputStream(stream);
+                    }
+                });
+            }
+        }
+    }
+
     public byte[] marshallExchange(CamelContext camelContext, Exchange exchange) throws IOException {
         // use DefaultExchangeHolder to marshal to a serialized object
         DefaultExchangeHolder pe = DefaultExchangeHolder.marshal(exchange, false);
@@ -64,8 +94,12 @@ public final class JdbcCamelCodec {
         return answer;
     }
 
-    private byte[] encode(Object object) throws IOException {
+    private byte[] encode(DefaultExchangeHolder object) throws IOException {
         ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
+        if (exchangeCodec != null) {
+            exchangeCodec.encode(object, bytesOut);
+            return bytesOut.toByteArray();
+        }
         ObjectOutputStream objectOut = new ObjectOutputStream(bytesOut);
         objectOut.writeObject(object);
         objectOut.close();
@@ -75,6 +109,9 @@ public final class JdbcCamelCodec {
 
     private DefaultExchangeHolder decode(byte[] dataIn) throws IOException, ClassNotFoundException {
         ByteArrayInputStream bytesIn = new ByteArrayInputStream(dataIn);
+        if (exchangeCodec != null) {
+            return exchangeCodec.decode(bytesIn);
+        }
         ObjectInputStream objectIn = new ClassLoadingAwareObjectInputStream(bytesIn);
         Object obj = objectIn.readObject();
         return (DefaultExchangeHolder) obj;
@@ -0,0 +1,301 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.aggregate.jdbc;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.sql.DataSource;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.test.junit4.CamelTestSupport;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class JdbcAggregationRepositoryWriteBehindTest extends CamelTestSupport {
+
+    private ClassPathXmlApplicationContext applicationContext;
+    private JdbcAggregationRepository repo;
+    private JdbcTemplate jdbcTemplate;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        applicationContext = new ClassPathXmlApplicationContext("org/apache/camel/processor/aggregate/jdbc/JdbcSpringDataSource.xml");
+        repo = applicationContext.getBean("repo3", JdbcAggregationRepository.class);
+        jdbcTemplate = new JdbcTemplate(applicationContext.getBean("dataSource1", DataSource.class));
+        super.setUp();
+        repo.start();
+    }
+
+    @Override
+    protected boolean useJmx() {
+        return true;
+    }
+
+    @After
+    @Override
+    public void tearDown() throws Exception {
+        repo.stop();
+        super.tearDown();
+        applicationContext.close();
+    }
+
+    @Test
+    public void testWriteBehind() throws Exception {
+        Exchange exchange1 = new DefaultExchange(context);
+        exchange1.getIn().setBody("counter:1");
+        repo.add(context, "foo", exchange1);
+
+        // should only be buffered
+        assertEquals(1, repo.getWriteBehindBufferSize());
+        assertEquals(0, countRows("aggregationRepo3"));
+        assertEquals("counter:1", repo.get(context, "foo").getIn().getBody());
+
+        repo.flush();
+        assertEquals(0, repo.getWriteBehindBufferSize());
+        assertEquals(1, countRows("aggregationRepo3"));
+        assertEquals(1, jdbcTemplate.queryForLong("SELECT version FROM aggregationRepo3 WHERE id = ?", "foo"));
+        assertEquals(1, repo.getFlushCount());
+        assertEquals(1, repo.getFlushedExchangesCount());
+
+        Exchange exchange2 = new DefaultExchange(context);
+        exchange2.getIn().setBody("counter:2");
+        repo.add(context, "foo", exchange2);
+        repo.flush();
+        assertEquals(2, jdbcTemplate.queryForLong("SELECT version FROM aggregationRepo3 WHERE id = ?", "foo"));
+        assertEquals("counter:2", repo.get(context, "foo").getIn().getBody());
+
+        // remove is written immediately so the completed exchange can be recovered
+        Exchange exchange3 = new DefaultExchange(context);
+        exchange3.getIn().setBody("counter:3");
+        repo.add(context, "foo", exchange3);
+        repo.remove(context, "foo", exchange3);
+        assertEquals(0, repo.getWriteBehindBufferSize());
+        assertEquals(0, countRows("aggregationRepo3"));
+        assertEquals(1, countRows("aggregationRepo3_completed"));
+        assertNull(repo.get(context, "foo"));
+        assertEquals("counter:3", repo.recover(context, exchange3.getExchangeId()).getIn().getBody());
+
+        repo.confirm(context, exchange3.getExchangeId());
+        assertEquals(0, countRows("aggregationRepo3_completed"));
+    }
+
+    @Test
+    public void testFlushOnBatchSize() throws Exception {
+        for (int i = 0; i < 9; i++) {
+            Exchange exchange = new DefaultExchange(context);
+            exchange.getIn().setBody("Message " + i);
+            repo.add(context, "key" + i, exchange);
+        }
+        assertEquals(0, countRows("aggregationRepo3"));
+
+        // the 10th exchange should trigger a flush
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setBody("Message 9");
+        repo.add(context, "key9", exchange);
+        assertEquals(10, countRows("aggregationRepo3"));
+        assertEquals(0, repo.getWriteBehindBufferSize());
+
+        assertEquals(10, repo.getKeys().size());
+    }
+
+    @Test
+    public void testOptimisticLockFailure() throws Exception {
+        Exchange exchange1 = new DefaultExchange(context);
+        exchange1.getIn().setBody("counter:1");
+        repo.add(context, "foo", exchange1);
+        repo.add(context, "bar", exchange1);
+        repo.flush();
+
+        // simulate a concurrent writer
+        jdbcTemplate.update("UPDATE aggregationRepo3 SET version = version + 1 WHERE id = ?", "foo");
+
+        Exchange exchange2 = new DefaultExchange(context);
+        exchange2.getIn().setBody("counter:2");
+        repo.add(context, "foo", exchange2);
+        repo.add(context, "bar", exchange2);
+        try {
+            repo.flush();
+            fail("Should have thrown an exception");
+        } catch (OptimisticLockingFailureException e) {
+            // expected
+        }
+        assertEquals(1, repo.getOptimisticLockFailures());
+
+        // the conflicting exchange is discarded and the other is flushed on the next flush
+        assertEquals(1, repo.getWriteBehindBufferSize());
+        try {
+            repo.get(context, "foo");
+            fail("Should have thrown an exception");
+        } catch (OptimisticLockingFailureException e) {
+            // expected as the buffered exchange was discarded
+        }
+        // which is only reported once and then the exchange of the other writer is loaded
+        assertEquals("counter:1", repo.get(context, "foo").getIn().getBody());
+        repo.flush();
+        assertEquals("counter:2", repo.get(context, "bar").getIn().getBody());
+        assertEquals(2, jdbcTemplate.queryForLong("SELECT version FROM aggregationRepo3 WHERE id = ?", "bar"));
+    }
+
+    @Test
+    public void testConflictNotThrownToOtherKeyTriggeringFlush() throws Exception {
+        Exchange exchange1 = new DefaultExchange(context);
+        exchange1.getIn().setBody("counter:1");
+        repo.add(context, "A", exchange1);
+        repo.flush();
+
+        // two writers update A, where the other writer is first
+        jdbcTemplate.update("UPDATE aggregationRepo3 SET version = version + 1 WHERE id = ?", "A");
+        Exchange exchange2 = new DefaultExchange(context);
+        exchange2.getIn().setBody("counter:2");
+        repo.add(context, "A", exchange2);
+
+        for (int i = 0; i < 8; i++) {
+            Exchange exchange = new DefaultExchange(context);
+            exchange.getIn().setBody("Message " + i);
+            repo.add(context, "key" + i, exchange);
+        }
+
+        // a third thread adds B which fills the buffer and triggers the flush
+        final Exchange exchangeB = new DefaultExchange(context);
+        exchangeB.getIn().setBody("B");
+        final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    repo.add(context, "B", exchangeB);
+                } catch (Throwable e) {
+                    error.set(e);
+                }
+            }
+        });
+        thread.start();
+        thread.join(10000);
+        assertNull("The conflict on A should not fail the add of B", error.get());
+        assertEquals(1, repo.getOptimisticLockFailures());
+
+        // the owner of A is told on its next get
+        try {
+            repo.get(context, "A");
+            fail("Should have thrown an exception");
+        } catch (OptimisticLockingFailureException e) {
+            // expected
+        }
+
+        // and the other exchanges is kept and flushed
+        assertEquals(9, repo.getWriteBehindBufferSize());
+        repo.flush();
+        assertEquals("B", repo.get(context, "B").getIn().getBody());
+        assertEquals(10, countRows("aggregationRepo3"));
+    }
+
+    @Test
+    public void testConflictFailsNextAdd() throws Exception {
+        Exchange exchange1 = new DefaultExchange(context);
+        exchange1.getIn().setBody("counter:1");
+        repo.add(context, "foo", exchange1);
+        repo.flush();
+
+        jdbcTemplate.update("UPDATE aggregationRepo3 SET version = version + 1 WHERE id = ?", "foo");
+        Exchange exchange2 = new DefaultExchange(context);
+        exchange2.getIn().setBody("counter:2");
+        repo.add(context, "foo", exchange2);
+        try {
+            repo.flush();
+            fail("Should have thrown an exception");
+        } catch (OptimisticLockingFailureException e) {
+            // expected
+        }
+
+        // the next add of the key is aggregated from the discarded exchange so it fails
+        Exchange exchange3 = new DefaultExchange(context);
+        exchange3.getIn().setBody("counter:3");
+        try {
+            repo.add(context, "foo", exchange3);
+            fail("Should have thrown an exception");
+        } catch (OptimisticLockingFailureException e) {
+            // expected
+        }
+        assertEquals(0, repo.getWriteBehindBufferSize());
+        assertEquals("counter:1", repo.get(context, "foo").getIn().getBody());
+    }
+
+    @Test
+    public void testConcurrentInsertIsOptimisticLockFailure() throws Exception {
+        // simulate a concurrent writer which inserts the exchange first
+        jdbcTemplate.update("INSERT INTO aggregationRepo3 (exchange, id, version) VALUES (?, ?, ?)", new byte[0], "foo", 1);
+
+        Exchange exchange1 = new DefaultExchange(context);
+        exchange1.getIn().setBody("counter:1");
+        repo.add(context, "foo", exchange1);
+        repo.add(context, "bar", exchange1);
+        try {
+            repo.flush();
+            fail("Should have thrown an exception");
+        } catch (OptimisticLockingFailureException e) {
+            // expected
+        }
+        assertEquals(1, repo.getOptimisticLockFailures());
+
+        // only the inserted exchange is discarded, the other is flushed on the next flush
+        assertEquals(1, repo.getWriteBehindBufferSize());
+        repo.flush();
+        assertEquals(2, countRows("aggregationRepo3"));
+        assertEquals("counter:1", repo.get(context, "bar").getIn().getBody());
+        assertEquals(1, jdbcTemplate.queryForLong("SELECT version FROM aggregationRepo3 WHERE id = ?", "bar"));
+
+        repo.resetStatistics();
+        assertEquals(0, repo.getOptimisticLockFailures());
+        assertEquals(0, repo.getFlushCount());
+    }
+
+    @Test
+    public void testManagedInJmx() throws Exception {
+        // the aggregator sets the CamelContext, which registers the repository in JMX when started
+        repo.stop();
+        repo.setCamelContext(context);
+        repo.start();
+
+        MBeanServer mbeanServer = context.getManagementStrategy().getManagementAgent().getMBeanServer();
+        ObjectName query = new ObjectName("*:type=services,name=JdbcAggregationRepository*");
+        Set<ObjectName> names = mbeanServer.queryNames(query, null);
+        assertEquals(1, names.size());
+
+        Exchange exchange1 = new DefaultExchange(context);
+        exchange1.getIn().setBody("counter:1");
+        repo.add(context, "foo", exchange1);
+        mbeanServer.invoke(names.iterator().next(), "flush", null, null);
+        assertEquals(1L, mbeanServer.getAttribute(names.iterator().next(), "FlushCount"));
+
+        // and unregistered when stopped
+        repo.stop();
+        assertEquals(0, mbeanServer.queryNames(query, null).size());
+        repo.start();
+    }
+
+    private int countRows(String table) {
+        return jdbcTemplate.queryForInt("SELECT COUNT(*) FROM " + table);
+    }
+}
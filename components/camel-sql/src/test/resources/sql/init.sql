@@ -1,5 +1,7 @@
 DROP TABLE aggregationRepo1 IF EXISTS;
 DROP TABLE aggregationRepo1_completed IF EXISTS;
+DROP TABLE aggregationRepo3 IF EXISTS;
+DROP TABLE aggregationRepo3_completed IF EXISTS;
 CREATE TABLE aggregationRepo1 (
     id varchar(255) NOT NULL,
     exchange blob NOT NULL,
@@ -9,4 +11,15 @@ CREATE TABLE aggregationRepo1_completed (
     id varchar(255) NOT NULL,
     exchange blob NOT NULL,
     constraint aggregationRepo1_completed_pk PRIMARY KEY (id)
+);
+CREATE TABLE aggregationRepo3 (
+    id varchar(255) NOT NULL,
+    exchange blob NOT NULL,
+    version bigint NOT NULL,
+    constraint aggregationRepo3_pk PRIMARY KEY (id)
+);
+CREATE TABLE aggregationRepo3_completed (
+    id varchar(255) NOT NULL,
+    exchange blob NOT NULL,
+    constraint aggregationRepo3_completed_pk PRIMARY KEY (id)
 );
\ No newline at end of file
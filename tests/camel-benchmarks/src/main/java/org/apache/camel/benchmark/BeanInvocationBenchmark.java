@@ -0,0 +1,138 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.Header;
+import org.apache.camel.component.bean.BeanInfo;
+import org.apache.camel.component.bean.BeanProcessor;
+import org.apache.camel.component.bean.MethodInvocation;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures invoking a bean method through {@link BeanInfo}, both directly via a
+ * {@link MethodInvocation} and through the {@link BeanProcessor} as used by the bean component.
+ *
+ * @version 
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BeanInvocationBenchmark {
+
+    private static final AsyncCallback NOOP_CALLBACK = new AsyncCallback() {
+        public void done(boolean doneSync) {
+            // noop
+        }
+    };
+
+    private CamelContext context;
+    private MyBean bean;
+    private BeanInfo beanInfo;
+    private BeanProcessor processor;
+    private BeanProcessor explicitProcessor;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        context = new DefaultCamelContext();
+        context.disableJMX();
+        context.start();
+
+        bean = new MyBean();
+        beanInfo = new BeanInfo(context, MyBean.class);
+
+        processor = new BeanProcessor(bean, beanInfo);
+        processor.start();
+
+        explicitProcessor = new BeanProcessor(bean, beanInfo);
+        explicitProcessor.setMethod("greet");
+        explicitProcessor.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        explicitProcessor.stop();
+        processor.stop();
+        context.stop();
+    }
+
+    @Benchmark
+    public Object methodInvocation() throws Exception {
+        Exchange exchange = createExchange();
+        MethodInvocation invocation = beanInfo.createInvocation(bean, exchange);
+        invocation.proceed(NOOP_CALLBACK, new AtomicBoolean());
+        return exchange;
+    }
+
+    @Benchmark
+    public Object beanProcessor() throws Exception {
+        Exchange exchange = createExchange();
+        processor.process(exchange);
+        return exchange.getOut().getBody();
+    }
+
+    @Benchmark
+    public Object beanProcessorExplicitMethod() throws Exception {
+        Exchange exchange = createExchange();
+        explicitProcessor.process(exchange);
+        return exchange.getOut().getBody();
+    }
+
+    private Exchange createExchange() {
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setBody("World");
+        exchange.getIn().setHeader("greeting", "Hello");
+        return exchange;
+    }
+
+    public static class MyBean {
+
+        public String hello(String name) {
+            return "Hello " + name;
+        }
+
+        public String greet(String name, @Header("greeting") String greeting) {
+            return greeting + " " + name;
+        }
+
+        public int count(Integer number) {
+            return number;
+        }
+    }
+
+}
@@ -0,0 +1,123 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.util.CaseInsensitiveHeaderMap;
+import org.apache.camel.util.CaseInsensitiveMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the {@link CaseInsensitiveHeaderMap} used for message headers with the
+ * {@link CaseInsensitiveMap} which was used before.
+ *
+ * @version 
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HeaderMapBenchmark {
+
+    private static final String[] KEYS = {"CamelFileName", "CamelFileLength", "CamelBatchIndex", "JMSCorrelationID",
+        "Content-Type", "Content-Length", "breadcrumbId", "orderId", "customerId", "priority"};
+
+    @Param({"header", "legacy"})
+    private String type;
+
+    private Map<String, Object> headers;
+
+    @Setup
+    public void setup() {
+        headers = newMap();
+        for (int i = 0; i < KEYS.length; i++) {
+            headers.put(KEYS[i], "value" + i);
+        }
+    }
+
+    @Benchmark
+    public void get(Blackhole bh) {
+        for (String key : KEYS) {
+            bh.consume(headers.get(key));
+        }
+    }
+
+    @Benchmark
+    public Object getOtherCase() {
+        return headers.get("content-type");
+    }
+
+    @Benchmark
+    public Map<String, Object> populate() {
+        Map<String, Object> map = newMap();
+        for (String key : KEYS) {
+            map.put(key, key);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public Map<String, Object> copy() {
+        return copyOf(headers);
+    }
+
+    @Benchmark
+    public Map<String, Object> copyAndSetHeader() {
+        // a copy where one header is changed such as in a splitter or multicast
+        Map<String, Object> copy = copyOf(headers);
+        copy.put("CamelSplitIndex", 1);
+        return copy;
+    }
+
+    @Benchmark
+    public void iterate(Blackhole bh) {
+        for (Map.Entry<String, Object> entry : headers.entrySet()) {
+            bh.consume(entry.getKey());
+            bh.consume(entry.getValue());
+        }
+    }
+
+    private Map<String, Object> newMap() {
+        if ("legacy".equals(type)) {
+            return new CaseInsensitiveMap();
+        }
+        return new CaseInsensitiveHeaderMap();
+    }
+
+    private Map<String, Object> copyOf(Map<String, Object> map) {
+        if ("legacy".equals(type)) {
+            return new CaseInsensitiveMap(map);
+        }
+        return new CaseInsensitiveHeaderMap((CaseInsensitiveHeaderMap) map);
+    }
+
+}
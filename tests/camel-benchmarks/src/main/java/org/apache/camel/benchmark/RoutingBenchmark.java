@@ -0,0 +1,148 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.ProducerTemplate;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the overhead of routing an exchange through the core EIPs: a plain pipeline
+ * over <tt>direct:</tt> and <tt>seda:</tt>, the multicast, the splitter and the recipient list.
+ * <p/>
+ * The processors in the routes do next to nothing so the numbers reflect the cost of
+ * the routing engine itself.
+ *
+ * @version 
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RoutingBenchmark {
+
+    private static final Processor NOOP = new Processor() {
+        public void process(Exchange exchange) throws Exception {
+            // noop
+        }
+    };
+
+    private CamelContext context;
+    private ProducerTemplate template;
+    private List<String> lines;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        context = new DefaultCamelContext();
+        context.disableJMX();
+        context.addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:pipeline").process(NOOP).process(NOOP).process(NOOP);
+
+                from("direct:directs").to("direct:a").to("direct:b").to("direct:c");
+                from("direct:a").process(NOOP);
+                from("direct:b").process(NOOP);
+                from("direct:c").process(NOOP);
+
+                from("direct:seda").to("seda:a");
+                from("seda:a").process(NOOP).to("seda:b");
+                from("seda:b").process(NOOP);
+
+                from("direct:multicast").multicast().to("direct:a", "direct:b", "direct:c");
+
+                from("direct:multicastParallel").multicast().parallelProcessing().to("direct:a", "direct:b", "direct:c");
+
+                from("direct:split").split(body()).to("direct:a");
+
+                from("direct:recipientList").recipientList(header("recipients"));
+            }
+        });
+        context.start();
+
+        template = context.createProducerTemplate();
+
+        lines = new ArrayList<String>();
+        for (int i = 0; i < 10; i++) {
+            lines.add("line" + i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        template.stop();
+        context.stop();
+    }
+
+    @Benchmark
+    public Object pipeline() {
+        return template.requestBody("direct:pipeline", "Hello World");
+    }
+
+    @Benchmark
+    public Object directPipeline() {
+        return template.requestBody("direct:directs", "Hello World");
+    }
+
+    @Benchmark
+    public Object sedaPipeline() {
+        // request/reply so the caller waits for the seda consumers to complete
+        return template.requestBody("direct:seda", "Hello World");
+    }
+
+    @Benchmark
+    public Object multicast() {
+        return template.requestBody("direct:multicast", "Hello World");
+    }
+
+    @Benchmark
+    public Object multicastParallel() {
+        return template.requestBody("direct:multicastParallel", "Hello World");
+    }
+
+    @Benchmark
+    public Object split() {
+        return template.requestBody("direct:split", lines);
+    }
+
+    @Benchmark
+    public Object recipientList() {
+        return template.requestBodyAndHeader("direct:recipientList", "Hello World", "recipients", "direct:a,direct:b,direct:c");
+    }
+
+}
@@ -0,0 +1,161 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.Expression;
+import org.apache.camel.Predicate;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.language.simple.SimpleLanguage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures evaluation of {@link SimpleLanguage} predicates and expressions, both when
+ * the predicate is created once up front and when it is parsed again for every
+ * evaluation as happens when an expression is resolved at runtime.
+ * <p/>
+ * The parse benchmarks use a {@link SimpleLanguage} without the cache of compiled expressions
+ * and predicates so they measure the parser, while the cached benchmarks show the speedup of the cache.
+ *
+ * @version 
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SimpleLanguageBenchmark {
+
+    private static final String SIMPLE_PREDICATE = "${header.foo} == 'bar'";
+    private static final String COMPOUND_PREDICATE = "${header.foo} == 'bar' and ${header.amount} > 100";
+    private static final String OGNL_PREDICATE = "${in.body.name} contains 'Camel'";
+    private static final String EXPRESSION = "Hello ${header.foo} the amount is ${header.amount} in ${body.name}";
+
+    private CamelContext context;
+    private SimpleLanguage simple;
+    private SimpleLanguage cachedSimple;
+    private Exchange exchange;
+    private Predicate simplePredicate;
+    private Predicate compoundPredicate;
+    private Predicate ognlPredicate;
+    private Expression expression;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        context = new DefaultCamelContext();
+        context.disableJMX();
+        context.start();
+
+        simple = new SimpleLanguage();
+        // no cache so the parse benchmarks parse every time
+        simple.setCacheSize(0);
+        cachedSimple = new SimpleLanguage();
+        simplePredicate = simple.createPredicate(SIMPLE_PREDICATE);
+        compoundPredicate = simple.createPredicate(COMPOUND_PREDICATE);
+        ognlPredicate = simple.createPredicate(OGNL_PREDICATE);
+        expression = simple.createExpression(EXPRESSION);
+
+        exchange = new DefaultExchange(context);
+        exchange.getIn().setBody(new Animal("Camel"));
+        exchange.getIn().setHeader("foo", "bar");
+        exchange.getIn().setHeader("amount", 123);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        context.stop();
+    }
+
+    @Benchmark
+    public boolean predicate() {
+        return simplePredicate.matches(exchange);
+    }
+
+    @Benchmark
+    public boolean compoundPredicate() {
+        return compoundPredicate.matches(exchange);
+    }
+
+    @Benchmark
+    public boolean ognlPredicate() {
+        return ognlPredicate.matches(exchange);
+    }
+
+    @Benchmark
+    public String expression() {
+        return expression.evaluate(exchange, String.class);
+    }
+
+    @Benchmark
+    public boolean parseAndMatchPredicate() {
+        return simple.createPredicate(SIMPLE_PREDICATE).matches(exchange);
+    }
+
+    @Benchmark
+    public boolean parseAndMatchCompoundPredicate() {
+        return simple.createPredicate(COMPOUND_PREDICATE).matches(exchange);
+    }
+
+    @Benchmark
+    public String parseAndEvaluateExpression() {
+        return simple.createExpression(EXPRESSION).evaluate(exchange, String.class);
+    }
+
+    @Benchmark
+    public boolean cachedParseAndMatchPredicate() {
+        return cachedSimple.createPredicate(SIMPLE_PREDICATE).matches(exchange);
+    }
+
+    @Benchmark
+    public boolean cachedParseAndMatchCompoundPredicate() {
+        return cachedSimple.createPredicate(COMPOUND_PREDICATE).matches(exchange);
+    }
+
+    @Benchmark
+    public String cachedParseAndEvaluateExpression() {
+        return cachedSimple.createExpression(EXPRESSION).evaluate(exchange, String.class);
+    }
+
+    public static final class Animal {
+        private final String name;
+
+        public Animal(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+}
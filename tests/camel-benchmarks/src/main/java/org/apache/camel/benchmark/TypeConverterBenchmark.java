@@ -0,0 +1,113 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.benchmark;
+
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.TypeConverter;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures conversions through the {@link TypeConverter} of the {@link CamelContext},
+ * covering direct converters, the fallback converters and conversions which are not possible.
+ *
+ * @version 
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TypeConverterBenchmark {
+
+    private CamelContext context;
+    private TypeConverter converter;
+    private Exchange exchange;
+    private byte[] bytes;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        context = new DefaultCamelContext();
+        context.disableJMX();
+        context.start();
+
+        converter = context.getTypeConverter();
+        exchange = new DefaultExchange(context);
+        bytes = "Hello World".getBytes("UTF-8");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        context.stop();
+    }
+
+    @Benchmark
+    public Integer stringToInteger() {
+        return converter.convertTo(Integer.class, "12345");
+    }
+
+    @Benchmark
+    public String integerToString() {
+        return converter.convertTo(String.class, 12345);
+    }
+
+    @Benchmark
+    public String bytesToString() {
+        return converter.convertTo(String.class, exchange, bytes);
+    }
+
+    @Benchmark
+    public InputStream stringToInputStream() {
+        return converter.convertTo(InputStream.class, exchange, "Hello World");
+    }
+
+    @Benchmark
+    public String beanToString() {
+        // no dedicated converter so this goes through the fallback converters
+        return converter.convertTo(String.class, new MyBean());
+    }
+
+    @Benchmark
+    public Object notConvertable() {
+        return converter.convertTo(MyBean.class, "Hello World");
+    }
+
+    public static final class MyBean {
+        @Override
+        public String toString() {
+            return "MyBean";
+        }
+    }
+
+}
@@ -0,0 +1,225 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.maven.converter;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.StringTokenizer;
+import java.util.TreeSet;
+
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Generates the <tt>META-INF/services/org/apache/camel/TypeConverterIndex</tt> file which lists the
+ * <tt>@Converter</tt> classes in the packages from the <tt>META-INF/services/org/apache/camel/TypeConverter</tt> file.
+ * <p/>
+ * Camel loads the converter classes from the index on startup instead of scanning the packages on the classpath.
+ * The index is only generated if all the packages can be found in the build output of this project, as otherwise
+ * converter classes from other JARs would be missed, and Camel must scan the packages.
+ *
+ * @version 
+ * @goal generate
+ * @requiresDependencyResolution compile
+ * @phase process-classes
+ */
+public class ConverterIndexMojo extends AbstractMojo {
+
+    public static final String META_INF_SERVICES = "META-INF/services/org/apache/camel/TypeConverter";
+    public static final String META_INF_SERVICES_INDEX = "META-INF/services/org/apache/camel/TypeConverterIndex";
+    private static final String CONVERTER_ANNOTATION = "org.apache.camel.Converter";
+
+    /**
+     * Reference to Maven 2 Project.
+     *
+     * @parameter expression="${project}"
+     * @required
+     * @readonly
+     */
+    private MavenProject project;
+
+    /**
+     * The directory with the compiled classes.
+     *
+     * @parameter expression="${project.build.outputDirectory}"
+     * @required
+     */
+    private File outputDirectory;
+
+    /**
+     * Whether to skip generating the index.
+     *
+     * @parameter expression="${camel.converter.index.skip}" default-value="false"
+     */
+    private boolean skip;
+
+    public void execute() throws MojoExecutionException {
+        if (skip) {
+            getLog().info("Skipping generating converter index");
+            return;
+        }
+
+        File file = new File(outputDirectory, META_INF_SERVICES);
+        if (!file.exists()) {
+            getLog().debug("No " + META_INF_SERVICES + " file so no converter index to generate");
+            return;
+        }
+
+        File index = new File(outputDirectory, META_INF_SERVICES_INDEX);
+        try {
+            Set<String> packages = readPackages(file);
+            if (packages.isEmpty()) {
+                return;
+            }
+
+            ClassLoader classLoader = createClassLoader();
+            Class<? extends Annotation> converter = loadConverterAnnotation(classLoader);
+            if (converter == null) {
+                getLog().warn("Cannot load " + CONVERTER_ANNOTATION + " so no converter index is generated");
+                return;
+            }
+
+            Set<String> classes = new TreeSet<String>();
+            for (String name : packages) {
+                File dir = new File(outputDirectory, name.replace('.', File.separatorChar));
+                if (!dir.isDirectory()) {
+                    getLog().info("Package " + name + " is not part of this project so no converter index is generated");
+                    index.delete();
+                    return;
+                }
+                findConverterClasses(dir, name, classLoader, converter, classes);
+            }
+
+            writeIndex(index, classes);
+            getLog().info("Generated converter index with " + classes.size() + " @Converter classes from " + packages.size() + " packages");
+        } catch (IOException e) {
+            throw new MojoExecutionException("Error generating converter index " + index, e);
+        } catch (DependencyResolutionRequiredException e) {
+            throw new MojoExecutionException("Error generating converter index " + index, e);
+        }
+    }
+
+    protected Set<String> readPackages(File file) throws IOException {
+        Set<String> packages = new TreeSet<String>();
+        BufferedReader reader = new BufferedReader(new FileReader(file));
+        try {
+            while (true) {
+                String line = reader.readLine();
+                if (line == null) {
+                    break;
+                }
+                line = line.trim();
+                if (line.startsWith("#") || line.length() == 0) {
+                    continue;
+                }
+                StringTokenizer iter = new StringTokenizer(line, ",");
+                while (iter.hasMoreTokens()) {
+                    String name = iter.nextToken().trim();
+                    if (name.length() > 0) {
+                        packages.add(name);
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return packages;
+    }
+
+    protected ClassLoader createClassLoader() throws DependencyResolutionRequiredException, MalformedURLException {
+        List<URL> urls = new ArrayList<URL>();
+        urls.add(outputDirectory.toURI().toURL());
+        for (Object element : project.getCompileClasspathElements()) {
+            urls.add(new File(element.toString()).toURI().toURL());
+        }
+        // do not use the plugin class loader as parent, as the classes must be loaded from the project
+        return new URLClassLoader(urls.toArray(new URL[urls.size()]), null);
+    }
+
+    @SuppressWarnings("unchecked")
+    protected Class<? extends Annotation> loadConverterAnnotation(ClassLoader classLoader) {
+        try {
+            return (Class<? extends Annotation>) classLoader.loadClass(CONVERTER_ANNOTATION);
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    protected void findConverterClasses(File dir, String packageName, ClassLoader classLoader,
+                                        Class<? extends Annotation> converter, Set<String> classes) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            String name = file.getName();
+            if (file.isDirectory()) {
+                // sub packages is scanned as well
+                findConverterClasses(file, packageName + "." + name, classLoader, converter, classes);
+            } else if (name.endsWith(".class")) {
+                String className = packageName + "." + name.substring(0, name.length() - ".class".length());
+                try {
+                    Class<?> type = Class.forName(className, false, classLoader);
+                    if (isConverter(type, converter)) {
+                        classes.add(className);
+                    }
+                } catch (Throwable e) {
+                    // ignore classes which cannot be loaded, the same as when scanning at runtime
+                    getLog().debug("Cannot load class " + className + " due " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    protected boolean isConverter(Class<?> type, Class<? extends Annotation> converter) {
+        if (type.isAnnotationPresent(converter)) {
+            return true;
+        }
+        // also check for meta annotations, the same as the package scanner does
+        for (Annotation annotation : type.getAnnotations()) {
+            if (annotation.annotationType().isAnnotationPresent(converter)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    protected void writeIndex(File index, Set<String> classes) throws IOException {
+        FileWriter writer = new FileWriter(index);
+        try {
+            writer.write("# Generated by converter-index-maven-plugin, do not edit\n");
+            for (String name : classes) {
+                writer.write(name);
+                writer.write("\n");
+            }
+        } finally {
+            writer.close();
+        }
+    }
+}